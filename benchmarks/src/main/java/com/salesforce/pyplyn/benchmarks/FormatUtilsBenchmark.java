@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.benchmarks;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.salesforce.pyplyn.util.FormatUtils;
+
+/**
+ * Compares the fast paths of {@link FormatUtils} against the JDK parsers and formatters they replaced
+ * <p/>
+ * <p/>Each invocation processes {@link #SAMPLES} random values, so the reported times are per batch.
+ * <p/>
+ * <p/>Run with: mvn -Pbenchmarks package -pl benchmarks -am -DskipTests &amp;&amp; java -jar benchmarks/target/benchmarks.jar FormatUtils
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatUtilsBenchmark {
+    static final int SAMPLES = 1_000;
+
+    private String[] numbers;
+    private String[] timestamps;
+    private String[] dates;
+    private Number[] values;
+    private NumberFormat numberFormat;
+    private DecimalFormat decimalFormat;
+
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        numbers = new String[SAMPLES];
+        timestamps = new String[SAMPLES];
+        dates = new String[SAMPLES];
+        values = new Number[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = random.nextDouble() * 1000;
+            long time = 1_500_000_000_000L + random.nextInt(Integer.MAX_VALUE);
+            numbers[i] = Double.toString(value);
+            values[i] = value;
+            timestamps[i] = Long.toString(time);
+            dates[i] = Instant.ofEpochMilli(time).toString();
+        }
+
+        numberFormat = NumberFormat.getInstance(Locale.ROOT);
+        decimalFormat = new DecimalFormat("0.00##", DecimalFormatSymbols.getInstance(Locale.ROOT));
+    }
+
+    @Benchmark
+    public void parseNumber(Blackhole blackhole) throws ParseException {
+        for (String value : numbers) {
+            blackhole.consume(FormatUtils.parseNumber(value));
+        }
+    }
+
+    @Benchmark
+    public void parseNumberWithNumberFormat(Blackhole blackhole) throws ParseException {
+        for (String value : numbers) {
+            blackhole.consume(numberFormat.parse(value));
+        }
+    }
+
+    @Benchmark
+    public void parseUTCTimeFromMillis(Blackhole blackhole) {
+        for (String value : timestamps) {
+            blackhole.consume(FormatUtils.parseUTCTime(value));
+        }
+    }
+
+    @Benchmark
+    public void parseUTCTimeFromMillisWithLongParseLong(Blackhole blackhole) {
+        for (String value : timestamps) {
+            blackhole.consume(legacyParseUTCTime(value));
+        }
+    }
+
+    @Benchmark
+    public void parseUTCTimeFromISO(Blackhole blackhole) {
+        for (String value : dates) {
+            blackhole.consume(FormatUtils.parseUTCTime(value));
+        }
+    }
+
+    @Benchmark
+    public void parseUTCTimeFromISOWithLongParseLong(Blackhole blackhole) {
+        for (String value : dates) {
+            blackhole.consume(legacyParseUTCTime(value));
+        }
+    }
+
+    @Benchmark
+    public void formatNumber(Blackhole blackhole) {
+        for (Number value : values) {
+            blackhole.consume(FormatUtils.formatNumber(value));
+        }
+    }
+
+    @Benchmark
+    public void formatNumberWithDecimalFormat(Blackhole blackhole) {
+        for (Number value : values) {
+            blackhole.consume(decimalFormat.format(value));
+        }
+    }
+
+    /**
+     * The implementation of {@link FormatUtils#parseUTCTime(String)} before its fast path was added
+     */
+    private static ZonedDateTime legacyParseUTCTime(String value) {
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(value)).atZone(ZoneOffset.UTC);
+
+        } catch (NumberFormatException e) {
+            return ZonedDateTime.parse(value).withZoneSameInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.salesforce.pyplyn.client.HttpTransport;
+import com.salesforce.pyplyn.duct.app.IoThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Compares the platform and virtual thread modes of {@link IoThreads}, when running many blocking HTTP calls
+ * <p/>
+ * <p/>Each invocation submits <b>tasks</b> tasks, which each execute a blocking OkHttp call (the same path taken
+ *   by endpoint clients, through a shared {@link HttpTransport}) and waits for all of them to complete;
+ *   the platform mode uses a pool of <b>poolSize</b> threads.
+ * <p/>
+ * <p/>Calls are sent to a local server, which responds after <b>ioMillis</b>, simulating a slow endpoint;
+ *   the server schedules its responses on <b>serverThreads</b> threads, instead of blocking a thread for each call.
+ *   The JDK's server accepts and parses requests on a single thread, which limits it to a few thousand calls
+ *   per second; <b>ioMillis</b> should therefore be large enough, relative to <b>tasks</b>, for the simulated
+ *   latency to dominate the results.
+ * <p/>
+ * <p/>Virtual threads require JDK 21+; on older JVMs, {@link IoThreads} falls back to the platform pool
+ *   and both modes report the same times.
+ * <p/>
+ * <p/>Run with: mvn -Pbenchmarks package -pl benchmarks -am -DskipTests &amp;&amp; java -jar benchmarks/target/benchmarks.jar IoThreads
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true") // otherwise, Nagle's algorithm delays each response by ~40ms
+@State(Scope.Benchmark)
+public class IoThreadsBenchmark {
+    private static final byte[] RESPONSE = "1".getBytes(UTF_8);
+
+    @Param({"false", "true"})
+    public boolean useVirtualThreads;
+
+    @Param({"50"})
+    public int poolSize;
+
+    @Param({"400"})
+    public int tasks;
+
+    @Param({"50"})
+    public long ioMillis;
+
+    @Param({"8"})
+    public int serverThreads;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService responder;
+    private OkHttpClient client;
+    private Request request;
+    private ExecutorService executor;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        // respond to each call after ioMillis, without blocking the server's threads
+        serverExecutor = Executors.newFixedThreadPool(serverThreads);
+        responder = Executors.newScheduledThreadPool(serverThreads);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), tasks);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> responder.schedule(() -> respond(exchange), ioMillis, TimeUnit.MILLISECONDS));
+        server.start();
+
+        // keep enough idle connections for all tasks, so that connections are reused between invocations
+        HttpTransport transport = new HttpTransport(tasks, HttpTransport.DEFAULT_KEEP_ALIVE_MILLIS,
+                HttpTransport.DEFAULT_MAX_REQUESTS, HttpTransport.DEFAULT_MAX_REQUESTS_PER_HOST);
+        client = transport.newBuilder().build();
+        request = new Request.Builder()
+                .url("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/")
+                .build();
+
+        executor = IoThreads.newExecutor("Benchmark-IO-", Thread.NORM_PRIORITY, poolSize, useVirtualThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        responder.shutdownNow();
+        client.connectionPool().evictAll();
+    }
+
+    @Benchmark
+    public int runBlockingCalls() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                try (Response response = client.newCall(request).execute()) {
+                    return response.body().bytes().length;
+                }
+            }));
+        }
+
+        int checksum = 0;
+        for (Future<Integer> future : futures) {
+            checksum += future.get();
+        }
+        return checksum;
+    }
+
+    /**
+     * Sends the response for a call
+     */
+    private static void respond(HttpExchange exchange) {
+        try {
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+}
@@ -14,11 +14,14 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
 import com.salesforce.argus.model.*;
 import com.salesforce.pyplyn.client.AbstractRemoteClient;
+import com.salesforce.pyplyn.client.HttpTransport;
 import com.salesforce.pyplyn.client.UnauthorizedException;
 import com.salesforce.pyplyn.configuration.EndpointConnector;
 
@@ -46,6 +49,17 @@ public class ArgusClient extends AbstractRemoteClient<ArgusService> {
         super(connector, ArgusService.class);
     }
 
+    /**
+     * Constructs a client that shares the specified transport's connections
+     *
+     * @param connector The Argus endpoint to use in all the calls made by this collector
+     * @param transport The transport whose connection pool and dispatcher will be used
+     * @since 10.1.0
+     */
+    public ArgusClient(EndpointConnector connector, HttpTransport transport) {
+        super(connector, ArgusService.class, transport);
+    }
+
     /**
      * Returns true if an authentication token is known
      */
@@ -86,7 +100,7 @@ public class ArgusClient extends AbstractRemoteClient<ArgusService> {
         // retrieve password
         byte[] password = connector().password();
         try {
-            AuthToken token = executeNoRetry(svc().login(ImmutableAuthRequest.of(connector().username(), password)), null);
+            AuthToken token = executeAuthentication(svc().login(ImmutableAuthRequest.of(connector().username(), password)), null);
 
             // failed to retrieve a token, stop here
             if (isNull(token)) {
@@ -115,6 +129,19 @@ public class ArgusClient extends AbstractRemoteClient<ArgusService> {
         this.accessToken = null;
     }
 
+    /**
+     * Obtains a new access token, using the known refresh token (or by logging in, if one is not known)
+     * <p/>
+     * <p/>The current access token is replaced only after a new one was retrieved, and will continue to be used
+     *   if the operation fails.
+     *
+     * @throws UnauthorizedException if the token could not be refreshed
+     */
+    @Override
+    protected boolean refreshAuth() throws UnauthorizedException {
+        return auth();
+    }
+
 
     /**
      * Retrieves new access and refresh tokens from an Argus endpoint
@@ -122,7 +149,7 @@ public class ArgusClient extends AbstractRemoteClient<ArgusService> {
      * @throws UnauthorizedException if it cannot successfully update the tokens
      */
     private AuthToken refresh(byte[] refreshToken) throws UnauthorizedException {
-        return executeNoRetry(svc().refresh(ImmutableAuthToken.of(new byte[0], refreshToken)), null);
+        return executeAuthentication(svc().refresh(ImmutableAuthToken.of(new byte[0], refreshToken)), null);
     }
 
     /**
@@ -144,6 +171,38 @@ public class ArgusClient extends AbstractRemoteClient<ArgusService> {
         return executeAndRetrieveBody(svc().getMetrics(authorizationHeader(), expressions), null);
     }
 
+    /**
+     * Retrieve metrics for a list of expressions, without blocking the calling thread
+     *
+     * @param expressions the list of expressions to retrieve
+     * @throws IllegalArgumentException if null expressions were passed
+     * @return a future completed with the list of metric responses or null if an error during the API call occurred
+     * @since 10.1.0
+     */
+    public CompletableFuture<List<MetricResponse>> getMetricsAsync(List<String> expressions) {
+        Preconditions.checkNotNull(expressions, "Expressions should not be null");
+        return executeAndRetrieveBodyAsync(svc().getMetrics(authorizationHeader(), expressions), null);
+    }
+
+    /**
+     * Retrieve metrics for a list of expressions, without blocking the calling thread;
+     *   if the endpoint does not respond within <b>hedgeAfterNanos</b>, a duplicate request is sent
+     *   and the first response is used (see {@link EndpointConnector#hedgingBudgetPercent()})
+     *
+     * @param expressions the list of expressions to retrieve
+     * @param hedgeAfterNanos how long to wait for a response, before hedging the request; 0 disables hedging
+     * @param primaryLatencyNanos called with the latency of the original (not hedged) request, once it completes
+     * @throws IllegalArgumentException if null expressions were passed
+     * @return a future completed with the list of metric responses or null if an error during the API call occurred
+     * @since 10.1.0
+     */
+    public CompletableFuture<List<MetricResponse>> getMetricsAsync(List<String> expressions, long hedgeAfterNanos,
+                                                                   LongConsumer primaryLatencyNanos) {
+        Preconditions.checkNotNull(expressions, "Expressions should not be null");
+        return executeAndRetrieveBodyHedgedAsync(svc().getMetrics(authorizationHeader(), expressions), null,
+                hedgeAfterNanos, primaryLatencyNanos);
+    }
+
     /**
      * Create a new alert
      *
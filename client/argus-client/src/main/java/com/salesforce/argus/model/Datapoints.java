@@ -0,0 +1,481 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.argus.model;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ForwardingSortedMap;
+
+/**
+ * Datapoints returned by Argus, stored as parallel arrays of timestamps (millis since epoch) and values,
+ *   sorted by timestamp
+ * <p/>
+ * <p/>Argus returns datapoints as a JSON object of "timestamp": "value" strings; they are deserialized
+ *   directly into primitive arrays, without creating intermediary objects for each datapoint.
+ *   Datapoints whose timestamp or value cannot be parsed are skipped and counted as {@link #invalidCount()}.
+ * <p/>
+ * <p/>The text of each value (and of each timestamp not written in millis since epoch) is also kept, as returned
+ *   by Argus, so that {@link #toSortedMap()} and serialization reproduce the original datapoints, including
+ *   the invalid ones.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+@JsonSerialize(using = Datapoints.Serializer.class)
+@JsonDeserialize(using = Datapoints.Deserializer.class)
+public final class Datapoints {
+    public static final Datapoints EMPTY = new Datapoints(new long[0], new double[0], new String[0], null, 0, null, null, 0);
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long[] timestamps;
+    private final double[] values;
+    private final int size;
+
+    /**
+     * Original text of each value, and of the timestamps which are not rendered by {@link Long#toString(long)};
+     *   the latter is null if all timestamps are, and otherwise contains nulls for those timestamps
+     */
+    private final String[] valueText;
+    private final String[] timestampText;
+
+    /**
+     * Original text of the datapoints which could not be parsed; null if there are none
+     */
+    private final String[] invalidTimestampText;
+    private final String[] invalidValueText;
+    private final int invalidCount;
+
+    /**
+     * Lazily built map view, for compatibility with {@link MetricResponse#datapoints()}
+     */
+    private volatile SortedMap<String, String> sortedMap;
+
+
+    /**
+     * Class constructor; the arrays should be sorted by timestamp, and should not be modified after this object
+     *   is created
+     */
+    private Datapoints(long[] timestamps, double[] values, String[] valueText, String[] timestampText, int size,
+                       String[] invalidTimestampText, String[] invalidValueText, int invalidCount) {
+        this.timestamps = timestamps;
+        this.values = values;
+        this.valueText = valueText;
+        this.timestampText = timestampText;
+        this.size = size;
+        this.invalidTimestampText = invalidTimestampText;
+        this.invalidValueText = invalidValueText;
+        this.invalidCount = invalidCount;
+    }
+
+    /**
+     * Creates datapoints from the specified "timestamp": "value" map
+     */
+    public static Datapoints of(Map<String, String> datapoints) {
+        if (isNull(datapoints) || datapoints.isEmpty()) {
+            return EMPTY;
+        }
+
+        Accumulator accumulator = new Accumulator(datapoints.size());
+        datapoints.forEach((time, value) -> accumulator.add(time, parseTimestamp(time), value, parseValue(value)));
+        return accumulator.build();
+    }
+
+    /**
+     * @return number of (valid) datapoints
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no (valid) datapoints
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return number of datapoints that were skipped, since their timestamp or value could not be parsed
+     */
+    public int invalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * @return the timestamp of the datapoint at the specified index, in millis since epoch
+     */
+    public long timestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    /**
+     * @return the value of the datapoint at the specified index
+     */
+    public double value(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * @return a copy of all timestamps, in millis since epoch
+     */
+    public long[] timestamps() {
+        return Arrays.copyOf(timestamps, size);
+    }
+
+    /**
+     * @return a copy of all values
+     */
+    public double[] values() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return a "timestamp": "value" map of all datapoints (including invalid ones), as returned by Argus;
+     *         built the first time it is requested
+     */
+    public SortedMap<String, String> toSortedMap() {
+        SortedMap<String, String> result = sortedMap;
+        if (isNull(result)) {
+            SortedMap<String, String> map = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(timestampText(i), valueText[i]);
+            }
+            for (int i = 0; i < invalidCount; i++) {
+                map.put(invalidTimestampText[i], invalidValueText[i]);
+            }
+            result = sortedMap = Collections.unmodifiableSortedMap(map);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return a view of {@link #toSortedMap()}, which is only built once the view is used
+     */
+    public SortedMap<String, String> asSortedMap() {
+        return new ForwardingSortedMap<String, String>() {
+            @Override
+            protected SortedMap<String, String> delegate() {
+                return toSortedMap();
+            }
+        };
+    }
+
+    /**
+     * @return the original text of the timestamp at the specified index
+     */
+    private String timestampText(int index) {
+        if (nonNull(timestampText) && nonNull(timestampText[index])) {
+            return timestampText[index];
+        }
+
+        return Long.toString(timestamps[index]);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Parses a timestamp, specified either in millis since epoch, or as a date string
+     *
+     * @return null if the timestamp is invalid
+     */
+    private static Long parseTimestamp(String value) {
+        if (isNull(value)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(value);
+
+        } catch (NumberFormatException e) {
+            try {
+                return ZonedDateTime.parse(value).toInstant().toEpochMilli();
+
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return true if the timestamp is written the same as by {@link Long#toString(long)}, in which case its text
+     *         does not need to be kept
+     */
+    private static boolean isCanonicalTimestamp(String value) {
+        int start = (value.charAt(0) == '-') ? 1 : 0;
+        if (value.length() == start || (value.charAt(start) == '0' && value.length() > 1)) {
+            return false;
+        }
+
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the parsed value, or NaN if the value is invalid
+     */
+    private static double parseValue(String value) {
+        if (isNull(value)) {
+            return Double.NaN;
+        }
+
+        try {
+            return Double.parseDouble(value);
+
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Datapoints)) {
+            return false;
+        }
+
+        Datapoints that = (Datapoints) o;
+        return size == that.size
+                && invalidCount == that.invalidCount
+                && Arrays.equals(Arrays.copyOf(timestamps, size), Arrays.copyOf(that.timestamps, that.size))
+                && Arrays.equals(Arrays.copyOf(values, size), Arrays.copyOf(that.values, that.size));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(timestamps[i]);
+            result = 31 * result + Double.hashCode(values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toSortedMap().toString();
+    }
+
+
+    /**
+     * Collects datapoints into growing arrays, sorting them by timestamp only if they were not added in order;
+     *   if the same timestamp is added more than once, the last value is kept
+     */
+    private static class Accumulator {
+        private long[] timestamps;
+        private double[] values;
+        private String[] valueText;
+        private String[] timestampText;
+        private int size;
+        private String[] invalidTimestampText;
+        private String[] invalidValueText;
+        private int invalidCount;
+        private boolean sorted = true;
+
+        Accumulator(int capacity) {
+            timestamps = new long[capacity];
+            values = new double[capacity];
+            valueText = new String[capacity];
+        }
+
+        void add(String time, Long timestamp, String text, double value) {
+            if (isNull(timestamp) || Double.isNaN(value)) {
+                addInvalid(time, text);
+                return;
+            }
+
+            // replace the previous value, for duplicate timestamps
+            if (size > 0 && timestamps[size - 1] == timestamp) {
+                values[size - 1] = value;
+                valueText[size - 1] = text;
+                setTimestampText(size - 1, time);
+                return;
+            }
+
+            if (size == timestamps.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                values = Arrays.copyOf(values, capacity);
+                valueText = Arrays.copyOf(valueText, capacity);
+                if (nonNull(timestampText)) {
+                    timestampText = Arrays.copyOf(timestampText, capacity);
+                }
+            }
+
+            sorted &= size == 0 || timestamps[size - 1] < timestamp;
+            timestamps[size] = timestamp;
+            values[size] = value;
+            valueText[size] = text;
+            setTimestampText(size, time);
+            size++;
+        }
+
+        /**
+         * Keeps the text of timestamps which would not be rendered the same by {@link Long#toString(long)}
+         */
+        private void setTimestampText(int index, String time) {
+            boolean canonical = isCanonicalTimestamp(time);
+            if (canonical && isNull(timestampText)) {
+                return;
+            }
+
+            if (isNull(timestampText)) {
+                timestampText = new String[timestamps.length];
+            }
+            timestampText[index] = canonical ? null : time;
+        }
+
+        private void addInvalid(String time, String text) {
+            if (isNull(invalidTimestampText)) {
+                invalidTimestampText = new String[1];
+                invalidValueText = new String[1];
+
+            } else if (invalidCount == invalidTimestampText.length) {
+                invalidTimestampText = Arrays.copyOf(invalidTimestampText, invalidCount * 2);
+                invalidValueText = Arrays.copyOf(invalidValueText, invalidCount * 2);
+            }
+
+            invalidTimestampText[invalidCount] = time;
+            invalidValueText[invalidCount] = text;
+            invalidCount++;
+        }
+
+        Datapoints build() {
+            if (size == 0 && invalidCount == 0) {
+                return EMPTY;
+            }
+
+            if (sorted) {
+                return new Datapoints(timestamps, values, valueText, timestampText, size,
+                        invalidTimestampText, invalidValueText, invalidCount);
+            }
+
+            // rarely needed, since Argus returns datapoints in order; maps each timestamp to its last index
+            SortedMap<Long, Integer> ordered = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                ordered.put(timestamps[i], i);
+            }
+
+            int orderedSize = ordered.size();
+            long[] orderedTimestamps = new long[orderedSize];
+            double[] orderedValues = new double[orderedSize];
+            String[] orderedValueText = new String[orderedSize];
+            String[] orderedTimestampText = nonNull(timestampText) ? new String[orderedSize] : null;
+            int i = 0;
+            for (int index : ordered.values()) {
+                orderedTimestamps[i] = timestamps[index];
+                orderedValues[i] = values[index];
+                orderedValueText[i] = valueText[index];
+                if (nonNull(orderedTimestampText)) {
+                    orderedTimestampText[i] = timestampText[index];
+                }
+                i++;
+            }
+
+            return new Datapoints(orderedTimestamps, orderedValues, orderedValueText, orderedTimestampText, orderedSize,
+                    invalidTimestampText, invalidValueText, invalidCount);
+        }
+    }
+
+    /**
+     * Streams a "timestamp": "value" JSON object into primitive arrays
+     */
+    public static class Deserializer extends JsonDeserializer<Datapoints> {
+        @Override
+        public Datapoints deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.getCurrentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+
+            Accumulator accumulator = new Accumulator(INITIAL_CAPACITY);
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String time = p.getCurrentName();
+
+                // read the value, which can be specified either as string or as number
+                token = p.nextToken();
+                String text;
+                double value;
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    text = p.getText();
+                    value = p.getDoubleValue();
+                } else if (token == JsonToken.VALUE_STRING) {
+                    text = p.getText();
+                    value = parseValue(text);
+                } else {
+                    text = null;
+                    p.skipChildren();
+                    value = Double.NaN;
+                }
+
+                accumulator.add(time, parseTimestamp(time), text, value);
+            }
+
+            if (token != JsonToken.END_OBJECT) {
+                return (Datapoints) ctxt.handleUnexpectedToken(Datapoints.class, p);
+            }
+
+            return accumulator.build();
+        }
+
+        @Override
+        public Datapoints getNullValue(DeserializationContext ctxt) {
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Writes datapoints as a "timestamp": "value" JSON object, with the original text of each datapoint
+     */
+    public static class Serializer extends JsonSerializer<Datapoints> {
+        @Override
+        public void serialize(Datapoints datapoints, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            for (Map.Entry<String, String> datapoint : datapoints.toSortedMap().entrySet()) {
+                gen.writeStringField(datapoint.getKey(), datapoint.getValue());
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Datapoints value) {
+            return isNull(value) || (value.isEmpty() && value.invalidCount() == 0);
+        }
+    }
+}
@@ -10,18 +10,21 @@ package com.salesforce.argus.model;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import javax.annotation.Nullable;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.google.common.collect.Iterables;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
 import com.salesforce.pyplyn.cache.Cacheable;
 
@@ -54,8 +57,45 @@ public abstract class MetricResponse implements Cacheable {
     @Nullable
     public abstract String units();
 
-    @Value.NaturalOrder
-    public abstract SortedMap<String, String> datapoints();
+    /**
+     * Datapoints, deserialized directly into primitive arrays
+     *
+     * @since 10.1.0
+     */
+    @JsonProperty("datapoints")
+    @Value.Default
+    public Datapoints series() {
+        return Datapoints.EMPTY;
+    }
+
+    /**
+     * "timestamp": "value" map of all datapoints, as returned by Argus; when deserialized, this is a view
+     *   of {@link #series()}, which is only built if used
+     * <p/>
+     * <p/>Datapoints specified through the builder are parsed into {@link #series()}.
+     */
+    @JsonIgnore
+    @Value.Default
+    @Value.Auxiliary
+    public SortedMap<String, String> datapoints() {
+        return series().asSortedMap();
+    }
+
+    /**
+     * Parses datapoints specified as a map, if the series was not also specified
+     */
+    @Value.Check
+    protected MetricResponse parseDatapoints() {
+        if (!series().isEmpty() || series().invalidCount() > 0 || datapoints().isEmpty()) {
+            return this;
+        }
+
+        SortedMap<String, String> datapoints = Collections.unmodifiableSortedMap(new TreeMap<>(datapoints()));
+        return ImmutableMetricResponse.builder().from(this)
+                .datapoints(datapoints)
+                .series(Datapoints.of(datapoints))
+                .build();
+    }
 
     @Override
     @Value.Derived
@@ -64,6 +104,14 @@ public abstract class MetricResponse implements Cacheable {
         return metric();
     }
 
+    /**
+     * Responses are weighted by their number of datapoints, when cached
+     */
+    @Override
+    public long cacheWeight() {
+        return Math.max(1, series().size());
+    }
+
     /**
      * Generates a "name"=value string; the total number of retrieved datapoints will be printed
      * <p/>  if a datapoint map is defined, and it is not empty, the last value will also be printed
@@ -73,12 +121,12 @@ public abstract class MetricResponse implements Cacheable {
         StringBuilder sb = new StringBuilder().append('"').append(metric()).append('"');
 
         // print information about the datapoints (if data is available)
-        if (!datapoints().isEmpty()) {
-            String lastValue = Iterables.getLast(datapoints().values());
-            sb.append('=').append(lastValue);
+        Datapoints series = series();
+        if (!series.isEmpty()) {
+            sb.append('=').append(series.value(series.size() - 1));
         }
 
-        sb.append(" (").append(datapoints().size()).append(" data points)");
+        sb.append(" (").append(series.size()).append(" data points)");
 
         return sb.toString();
     }
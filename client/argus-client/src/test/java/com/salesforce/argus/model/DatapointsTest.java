@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.argus.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class DatapointsTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testDatapointsAreDeserializedIntoArrays() throws Exception {
+        // ARRANGE
+        String json = "[{\"metric\":\"metric\",\"datapoints\":{\"1000\":\"1.5\",\"2000\":2,\"3000\":\"-3.25\"}}]";
+
+        // ACT
+        List<MetricResponse> responses = mapper.readValue(json, new TypeReference<List<MetricResponse>>() {});
+
+        // ASSERT
+        Datapoints series = responses.get(0).series();
+        assertThat(series.size(), equalTo(3));
+        assertThat(series.timestamp(0), equalTo(1000L));
+        assertThat(series.value(0), equalTo(1.5));
+        assertThat(series.timestamp(1), equalTo(2000L));
+        assertThat(series.value(1), equalTo(2.0));
+        assertThat(series.timestamp(2), equalTo(3000L));
+        assertThat(series.value(2), equalTo(-3.25));
+        assertThat(series.invalidCount(), equalTo(0));
+    }
+
+    @Test
+    public void testInvalidDatapointsAreSkipped() throws Exception {
+        // ARRANGE
+        String json = "{\"metric\":\"metric\",\"datapoints\":{\"1000\":\"1\",\"invalid\":\"2\",\"3000\":\"NotANumber\",\"4000\":null,\"5000\":\"5\"}}";
+
+        // ACT
+        MetricResponse response = mapper.readValue(json, MetricResponse.class);
+
+        // ASSERT
+        assertThat(response.series().size(), equalTo(2));
+        assertThat(response.series().invalidCount(), equalTo(3));
+        assertThat("Invalid datapoints should be kept in the map view",
+                response.datapoints().keySet(), contains("1000", "3000", "4000", "5000", "invalid"));
+    }
+
+    @Test
+    public void testMapViewReturnsTheOriginalText() throws Exception {
+        // ARRANGE
+        String json = "{\"metric\":\"metric\",\"datapoints\":{\"1000\":\"5\",\"2017-07-13T00:00:00Z\":7,\"3000\":\"2.50\"}}";
+
+        // ACT
+        MetricResponse response = mapper.readValue(json, MetricResponse.class);
+        String serialized = mapper.writeValueAsString(response);
+
+        // ASSERT
+        assertThat(response.datapoints(), hasEntry("1000", "5"));
+        assertThat(response.datapoints(), hasEntry("2017-07-13T00:00:00Z", "7"));
+        assertThat(response.datapoints(), hasEntry("3000", "2.50"));
+        assertThat(serialized, containsString("\"datapoints\":{\"1000\":\"5\",\"2017-07-13T00:00:00Z\":\"7\",\"3000\":\"2.50\"}"));
+    }
+
+    @Test
+    public void testDatapointsSpecifiedThroughTheBuilderAreParsed() throws Exception {
+        // ARRANGE
+        TreeMap<String, String> map = new TreeMap<>();
+        map.put("1000", "5");
+        map.put("2000", "invalid");
+
+        // ACT
+        MetricResponse response = ImmutableMetricResponse.builder()
+                .metric("metric")
+                .datapoints(map)
+                .build();
+
+        // ASSERT
+        assertThat(response.datapoints(), equalTo(map));
+        assertThat(response.series().size(), equalTo(1));
+        assertThat(response.series().value(0), equalTo(5.0));
+        assertThat(response.series().invalidCount(), equalTo(1));
+    }
+
+    @Test
+    public void testUnorderedDatapointsAreSorted() throws Exception {
+        // ARRANGE
+        String json = "{\"metric\":\"metric\",\"datapoints\":{\"3000\":\"3\",\"1000\":\"1\",\"2000\":\"2\",\"1000\":\"4\"}}";
+
+        // ACT
+        MetricResponse response = mapper.readValue(json, MetricResponse.class);
+
+        // ASSERT
+        Datapoints series = response.series();
+        assertThat(series.size(), equalTo(3));
+        assertThat(series.timestamp(0), equalTo(1000L));
+        assertThat("The last value of a duplicate timestamp should be kept", series.value(0), equalTo(4.0));
+        assertThat(series.timestamp(2), equalTo(3000L));
+    }
+
+    @Test
+    public void testMissingDatapointsAreEmpty() throws Exception {
+        // ACT
+        MetricResponse response = mapper.readValue("{\"metric\":\"metric\",\"datapoints\":null}", MetricResponse.class);
+
+        // ASSERT
+        assertThat(response.series().isEmpty(), is(true));
+        assertThat(response.datapoints().entrySet(), empty());
+    }
+
+    @Test
+    public void testSortedMapViewIsBuiltOnce() throws Exception {
+        // ARRANGE
+        TreeMap<String, String> map = new TreeMap<>();
+        map.put("1000", "1.5");
+        map.put("2000", "2.5");
+        Datapoints series = Datapoints.of(map);
+
+        // ACT
+        SortedMap<String, String> view = series.toSortedMap();
+
+        // ASSERT
+        assertThat(view, equalTo(map));
+        assertThat(series.toSortedMap(), sameInstance(view));
+    }
+
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        // ARRANGE
+        MetricResponse response = ImmutableMetricResponse.builder()
+                .metric("metric")
+                .series(Datapoints.of(Collections.singletonMap("1000", "1.5")))
+                .build();
+
+        // ACT
+        String json = mapper.writeValueAsString(response);
+        MetricResponse deserialized = mapper.readValue(json, MetricResponse.class);
+
+        // ASSERT
+        assertThat(json, containsString("\"datapoints\":{\"1000\":\"1.5\"}"));
+        assertThat(deserialized, equalTo(response));
+    }
+}
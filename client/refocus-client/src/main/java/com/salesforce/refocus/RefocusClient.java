@@ -14,10 +14,13 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.common.base.Preconditions;
 import com.salesforce.pyplyn.client.AbstractRemoteClient;
+import com.salesforce.pyplyn.client.HttpTransport;
 import com.salesforce.pyplyn.client.UnauthorizedException;
 import com.salesforce.pyplyn.configuration.EndpointConnector;
 import com.salesforce.refocus.model.*;
@@ -43,6 +46,17 @@ public class RefocusClient extends AbstractRemoteClient<RefocusService> {
         super(connector, RefocusService.class);
     }
 
+    /**
+     * Constructs a client that shares the specified transport's connections
+     *
+     * @param connector The Refocus API endpoint to use in calls
+     * @param transport The transport whose connection pool and dispatcher will be used
+     * @since 10.1.0
+     */
+    public RefocusClient(EndpointConnector connector, HttpTransport transport) {
+        super(connector, RefocusService.class, transport);
+    }
+
     /**
      * @return true if the current client is authenticated against its endpoint
      */
@@ -73,10 +87,33 @@ public class RefocusClient extends AbstractRemoteClient<RefocusService> {
             return true;
         }
 
+        return login();
+    }
+
+    /**
+     * Logs in again, replacing the current token once a new one was retrieved
+     * <p/>
+     * <p/>Tokens specified in the connector's <b>password</b> field cannot be refreshed and will continue to be used.
+     *
+     * @throws UnauthorizedException if the passed credentials are invalid
+     */
+    @Override
+    protected boolean refreshAuth() throws UnauthorizedException {
+        if (isNull(connector().username())) {
+            return auth();
+        }
+
+        return login();
+    }
+
+    /**
+     * Logs in with the connector's username and password and memoizes the retrieved token
+     */
+    private boolean login() throws UnauthorizedException {
         // retrieve password
         byte[] password = connector().password();
         try {
-            AuthResponse response = executeNoRetry(svc().authenticate(ImmutableAuthRequest.of(connector().username(), password)), null);
+            AuthResponse response = executeAuthentication(svc().authenticate(ImmutableAuthRequest.of(connector().username(), password)), null);
 
             // failed to retrieve a token, stop here
             if (isNull(response)) {
@@ -135,6 +172,19 @@ public class RefocusClient extends AbstractRemoteClient<RefocusService> {
         return executeAndRetrieveBody(svc().getSample(authorizationHeader(), name), emptyList());
     }
 
+    /**
+     * Retrieves a sample by name from the remote endpoint, without blocking the calling thread
+     *
+     * @param name Name of sample; can include wildcards, i.e.: Subject.Path.*|ASPECT_NAME
+     * @throws IllegalArgumentException if a null name was passed
+     * @return a future completed with the found samples, or an empty list if not found
+     * @since 10.1.0
+     */
+    public CompletableFuture<List<Sample>> getSamplesAsync(String name) {
+        Preconditions.checkNotNull(name, "Name should not be null");
+        return executeAndRetrieveBodyAsync(svc().getSample(authorizationHeader(), name), emptyList());
+    }
+
 
     /**
      * Upsert a list of samples
@@ -147,6 +197,19 @@ public class RefocusClient extends AbstractRemoteClient<RefocusService> {
         return nonNull(executeAndRetrieveBody(svc().upsertSamplesBulk(authorizationHeader(), samples), null));
     }
 
+    /**
+     * Upsert a list of samples, without blocking the calling thread
+     *
+     * @throws IllegalArgumentException if null samples were passed
+     * @return a future completed with true if the operation succeeded
+     * @since 10.1.0
+     */
+    public CompletableFuture<Boolean> upsertSamplesBulkAsync(List<Sample> samples) {
+        Preconditions.checkNotNull(samples, "Samples should not be null");
+        return executeAndRetrieveBodyAsync(svc().upsertSamplesBulk(authorizationHeader(), samples), null)
+                .thenApply(Objects::nonNull);
+    }
+
 
     /**
      * Delete sample from endpoint
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.app;
+
+import static java.util.Objects.nonNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates the executors used for blocking I/O
+ * <p/>
+ * <p/>When virtual threads are requested and the JVM supports them (JDK 21+), each task runs on its own virtual thread
+ *   and the executor does not bound concurrency; callers are expected to limit the load they put on each endpoint
+ *   (see {@link com.salesforce.pyplyn.duct.connector.EndpointExecutor}).
+ * <p/>Otherwise, a fixed pool of daemon platform threads is used.
+ * <p/>
+ * <p/>Virtual threads are created reflectively, since the project targets Java 8.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public final class IoThreads {
+    private static final Logger logger = LoggerFactory.getLogger(IoThreads.class);
+
+    private static final VirtualThreads VIRTUAL_THREADS = VirtualThreads.lookup();
+
+    /**
+     * Utility class
+     */
+    private IoThreads() { }
+
+    /**
+     * @return true if the running JVM can create virtual threads
+     */
+    public static boolean virtualThreadsSupported() {
+        return nonNull(VIRTUAL_THREADS);
+    }
+
+    /**
+     * Creates an executor for blocking I/O tasks
+     *
+     * @param namePrefix prefix of the names of the created threads
+     * @param priority priority of the created threads (ignored by virtual threads)
+     * @param threads number of threads in the pool (ignored when using virtual threads)
+     * @param useVirtualThreads if true, tasks will run on virtual threads, if supported by the JVM
+     */
+    public static ExecutorService newExecutor(String namePrefix, int priority, int threads, boolean useVirtualThreads) {
+        if (useVirtualThreads) {
+            if (virtualThreadsSupported()) {
+                return VIRTUAL_THREADS.newExecutor(namePrefix);
+            }
+
+            logger.warn("Virtual threads are not supported by this JVM ({}); using a pool of {} threads for {}",
+                    System.getProperty("java.version"), threads, namePrefix);
+        }
+
+        ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat(namePrefix + "%s").setDaemon(true).setPriority(priority).build();
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+
+    /**
+     * Reflective access to the JDK 21 virtual thread APIs
+     */
+    private static final class VirtualThreads {
+        private final Method ofVirtual;
+        private final Method name;
+        private final Method factory;
+        private final Method newThreadPerTaskExecutor;
+
+        private VirtualThreads(Method ofVirtual, Method name, Method factory, Method newThreadPerTaskExecutor) {
+            this.ofVirtual = ofVirtual;
+            this.name = name;
+            this.factory = factory;
+            this.newThreadPerTaskExecutor = newThreadPerTaskExecutor;
+        }
+
+        /**
+         * @return null if virtual threads are not available
+         */
+        static VirtualThreads lookup() {
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                return new VirtualThreads(
+                        Thread.class.getMethod("ofVirtual"),
+                        builderClass.getMethod("name", String.class, long.class),
+                        builderClass.getMethod("factory"),
+                        Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class));
+
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Creates an executor which starts a new virtual thread for each task
+         */
+        ExecutorService newExecutor(String namePrefix) {
+            try {
+                Object builder = name.invoke(ofVirtual.invoke(null), namePrefix, 0L);
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory.invoke(builder));
+
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create virtual thread executor for " + namePrefix, e);
+            }
+        }
+    }
+}
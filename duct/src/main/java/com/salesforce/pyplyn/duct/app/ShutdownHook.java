@@ -8,8 +8,8 @@
 
 package com.salesforce.pyplyn.duct.app;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -40,14 +40,15 @@ public class ShutdownHook extends Thread {
     private final AtomicBoolean isShutdown = new AtomicBoolean(false);
 
     /**
-     * Registered executors that should be sent the shutdown signal
+     * Registered executors that should be sent the shutdown signal; concurrent, since components
+     *   may be registered from any thread, while the app is shutting down
      */
-    private final Set<ExecutorService> executors = new HashSet<>();
+    private final Set<ExecutorService> executors = ConcurrentHashMap.newKeySet();
 
     /**
      * Registered threads that should be run on shutdown
      */
-    private final Set<Runnable> operations = new HashSet<>();
+    private final Set<Runnable> operations = ConcurrentHashMap.newKeySet();
 
     /**
      * Calls the shutdown method and logs the event
@@ -59,27 +60,36 @@ public class ShutdownHook extends Thread {
     }
 
     /**
-     * Executes all shutdown operations and shuts down all executors
+     * Sets the shutdown flag, shuts down all executors and executes all shutdown operations
+     * <p/>
+     * <p/>The flag is set first, so that no new work is started while the shutdown operations
+     *   drain any pending work.
      */
     public void shutdown() {
+        // set the shutdown flag to stop new work from being undertaken
+        isShutdown.set(true);
+
         // shutdown all executors
         executors.forEach(ExecutorService::shutdown);
 
         // run shutdown ops
         operations.forEach(Runnable::run);
 
-        // set the shutdown flag and latch to allow processes to stop gracefully
-        isShutdown.set(true);
+        // release the latch to allow processes to stop gracefully
         SHUTDOWN_LATCH.countDown();
     }
 
     /**
-     * Registers an executor, which will be shutdown when this thread runs
+     * Registers an executor, which will be shutdown when this thread runs;
+     *   executors registered after the app started shutting down are shut down immediately
      *
      * @param executor
      */
     public void registerExecutor(ExecutorService executor) {
         executors.add(executor);
+        if (isShutdown()) {
+            executor.shutdown();
+        }
     }
 
     /**
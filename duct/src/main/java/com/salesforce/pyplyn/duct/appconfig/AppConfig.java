@@ -19,6 +19,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
+import com.salesforce.pyplyn.cache.CacheFactory;
+import com.salesforce.pyplyn.client.HttpTransport;
 
 
 /**
@@ -49,6 +51,21 @@ public abstract class AppConfig {
     @Nullable
     public abstract Hazelcast hazelcast();
 
+    @Nullable
+    public abstract WriteBehind writeBehind();
+
+    @Nullable
+    public abstract DeltaLoad deltaLoad();
+
+    @Nullable
+    public abstract ArgusBatching argusBatching();
+
+    @Nullable
+    public abstract ArgusIncremental argusIncremental();
+
+    @Nullable
+    public abstract Http http();
+
 
     @Value.Immutable
     @PyplynImmutableStyle
@@ -66,6 +83,73 @@ public abstract class AppConfig {
             return 100;
         }
 
+        /**
+         * Number of threads used to perform blocking I/O against endpoints, in parallel (see EndpointExecutor)
+         */
+        @Value.Default
+        public int endpointIoThreadSize() {
+            return 32;
+        }
+
+        /**
+         * If true, blocking I/O runs on virtual threads (requires JDK 21+), instead of fixed thread pools;
+         *   concurrency is then only bounded by each connector's <b>maxConcurrentRequests</b>
+         */
+        @Value.Default
+        public boolean useVirtualThreads() {
+            return false;
+        }
+
+        /**
+         * Resolution of the task scheduler; configurations are dispatched at most this many millis after they are due
+         */
+        @Value.Default
+        public long schedulerTickMillis() {
+            return 100L;
+        }
+
+        /**
+         * Number of buckets in each level of the task scheduler's timer wheel
+         */
+        @Value.Default
+        public int schedulerWheelSize() {
+            return 512;
+        }
+
+        /**
+         * If true, each configuration is assigned a deterministic phase within its repeat interval,
+         *   instead of all configurations running at the same time
+         */
+        @Value.Default
+        public boolean schedulerPhaseSpread() {
+            return false;
+        }
+
+        /**
+         * Upper bound of the random delay added to each scheduled run (only used with phase spreading); 0 disables jitter
+         */
+        @Value.Default
+        public long schedulerMaxJitterMillis() {
+            return 0L;
+        }
+
+        /**
+         * Maximum weight of each endpoint's cache; cached Argus responses weigh as much as their number of datapoints,
+         *   while Refocus samples weigh 1
+         */
+        @Value.Default
+        public long cacheMaximumWeight() {
+            return CacheFactory.DEFAULT_MAXIMUM_WEIGHT;
+        }
+
+        /**
+         * How often expired entries are removed from the endpoint caches
+         */
+        @Value.Default
+        public long cacheExpiryIntervalMillis() {
+            return CacheFactory.DEFAULT_EXPIRY_INTERVAL_MILLIS;
+        }
+
         /**
          * This parameter will be removed in future versions
          *
@@ -117,4 +201,184 @@ public abstract class AppConfig {
 
         public abstract Map<String, Double> thresholds();
     }
+
+    /**
+     * Buffers the samples loaded into Refocus by all configurations, posting them in bulk, per endpoint
+     */
+    @Value.Immutable
+    @PyplynImmutableStyle
+    @JsonDeserialize(as = ImmutableAppConfig.WriteBehind.class)
+    @JsonSerialize(as = ImmutableAppConfig.WriteBehind.class)
+    public static abstract class WriteBehind {
+        @Value.Default
+        @JsonProperty("enabled")
+        public boolean isEnabled() {
+            return false;
+        }
+
+        /**
+         * Number of pending samples that trigger a flush
+         */
+        @Value.Default
+        public int maxBufferSize() {
+            return 1000;
+        }
+
+        /**
+         * How often pending samples are flushed, regardless of the buffer's size
+         */
+        @Value.Default
+        public long flushIntervalMillis() {
+            return 1000L;
+        }
+
+        /**
+         * Max number of samples posted in a single bulk request
+         */
+        @Value.Default
+        public int maxBatchSize() {
+            return 500;
+        }
+    }
+
+    /**
+     * Skips loading Refocus samples that have not changed since they were last sent
+     */
+    @Value.Immutable
+    @PyplynImmutableStyle
+    @JsonDeserialize(as = ImmutableAppConfig.DeltaLoad.class)
+    @JsonSerialize(as = ImmutableAppConfig.DeltaLoad.class)
+    public static abstract class DeltaLoad {
+        @Value.Default
+        @JsonProperty("enabled")
+        public boolean isEnabled() {
+            return false;
+        }
+
+        /**
+         * How often unchanged samples are sent regardless, to renew their timeouts
+         */
+        @Value.Default
+        public long forcedRefreshIntervalMillis() {
+            return 300_000L;
+        }
+
+        /**
+         * Max number of samples whose last sent values are remembered
+         */
+        @Value.Default
+        public long maxTrackedSamples() {
+            return 100_000L;
+        }
+    }
+
+    /**
+     * Splits the expressions loaded from each Argus endpoint into multiple, concurrent requests
+     */
+    @Value.Immutable
+    @PyplynImmutableStyle
+    @JsonDeserialize(as = ImmutableAppConfig.ArgusBatching.class)
+    @JsonSerialize(as = ImmutableAppConfig.ArgusBatching.class)
+    public static abstract class ArgusBatching {
+        /**
+         * Max number of expressions loaded in a single request
+         */
+        @Value.Default
+        public int maxExpressionsPerRequest() {
+            return 50;
+        }
+
+        /**
+         * Max length of a request's URL-encoded expressions; a single expression that exceeds it is sent on its own
+         */
+        @Value.Default
+        public int maxQueryLength() {
+            return 6000;
+        }
+    }
+
+    /**
+     * Buffers the datapoints of {@link com.salesforce.pyplyn.duct.etl.extract.argus.Argus} expressions marked as
+     *   <i>incremental</i>, which allows only loading the datapoints that are new since the previous run
+     */
+    @Value.Immutable
+    @PyplynImmutableStyle
+    @JsonDeserialize(as = ImmutableAppConfig.ArgusIncremental.class)
+    @JsonSerialize(as = ImmutableAppConfig.ArgusIncremental.class)
+    public static abstract class ArgusIncremental {
+        /**
+         * How far before the last buffered datapoint each increment starts; should be longer than
+         *   the expressions' downsampling intervals
+         */
+        @Value.Default
+        public long overlapMillis() {
+            return 300_000L;
+        }
+
+        /**
+         * Max number of datapoints buffered for each expression (a day's worth of one-minute datapoints);
+         *   buffers only grow to this size if the expression returns as many datapoints
+         */
+        @Value.Default
+        public int maxDatapointsPerSeries() {
+            return 1_440;
+        }
+
+        /**
+         * Max number of buffered expressions
+         */
+        @Value.Default
+        public long maxTrackedSeries() {
+            return 1_000L;
+        }
+
+        /**
+         * How long an expression's datapoints are buffered, after it was last loaded
+         */
+        @Value.Default
+        public long expireAfterMillis() {
+            return 3_600_000L;
+        }
+    }
+
+    /**
+     * Configures the HTTP transport shared by all endpoint clients
+     */
+    @Value.Immutable
+    @PyplynImmutableStyle
+    @JsonDeserialize(as = ImmutableAppConfig.Http.class)
+    @JsonSerialize(as = ImmutableAppConfig.Http.class)
+    public static abstract class Http {
+        /**
+         * Number of idle connections kept alive, for all endpoints
+         */
+        @Value.Default
+        public int maxIdleConnections() {
+            return HttpTransport.DEFAULT_MAX_IDLE_CONNECTIONS;
+        }
+
+        /**
+         * How long idle connections are kept alive
+         */
+        @Value.Default
+        public long keepAliveMillis() {
+            return HttpTransport.DEFAULT_KEEP_ALIVE_MILLIS;
+        }
+
+        /**
+         * Max number of asynchronous requests executed concurrently, for all endpoints
+         */
+        @Value.Default
+        public int maxRequests() {
+            return HttpTransport.DEFAULT_MAX_REQUESTS;
+        }
+
+        /**
+         * Max number of asynchronous requests executed concurrently against the same host
+         */
+        @Value.Default
+        public int maxRequestsPerHost() {
+            return HttpTransport.DEFAULT_MAX_REQUESTS_PER_HOST;
+        }
+    }
 }
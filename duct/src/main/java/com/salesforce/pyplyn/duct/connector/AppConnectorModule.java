@@ -8,13 +8,20 @@
 
 package com.salesforce.pyplyn.duct.connector;
 
+import java.util.Optional;
+
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.salesforce.pyplyn.cache.CacheFactory;
+import com.salesforce.pyplyn.client.HttpTransport;
 import com.salesforce.pyplyn.duct.appconfig.AppConfig;
+import com.salesforce.pyplyn.duct.appconfig.ImmutableAppConfig;
 import com.salesforce.pyplyn.util.MultibinderFactory;
 
 /**
- * Defines the {@link AppConnectors} binding and the default file-based connector configuration provider
+ * Defines the {@link AppConnectors} and {@link EndpointExecutor} bindings, and the default file-based connector configuration provider
  *
  * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
  * @since 3.0
@@ -27,9 +34,29 @@ public class AppConnectorModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(AppConnectors.class).asEagerSingleton();
+        bind(EndpointExecutor.class).asEagerSingleton();
 
         // multibinder for all connector configuration types
         //   this allows extenders of this library to define other connectors using Guice modules
         MultibinderFactory.appConnectors(binder()).addBinding().toProvider(SimpleConnectorProvider.class);
     }
+
+    /**
+     * Constructs the factory used to create the cache of each endpoint
+     */
+    @Provides
+    @Singleton
+    CacheFactory cacheFactory(AppConfig appConfig) {
+        return new CacheFactory(appConfig.global().cacheMaximumWeight(), appConfig.global().cacheExpiryIntervalMillis());
+    }
+
+    /**
+     * Constructs the HTTP transport shared by all endpoint clients
+     */
+    @Provides
+    @Singleton
+    HttpTransport httpTransport(AppConfig appConfig) {
+        AppConfig.Http http = Optional.ofNullable(appConfig.http()).orElseGet(() -> ImmutableAppConfig.Http.builder().build());
+        return new HttpTransport(http.maxIdleConnections(), http.keepAliveMillis(), http.maxRequests(), http.maxRequestsPerHost());
+    }
 }
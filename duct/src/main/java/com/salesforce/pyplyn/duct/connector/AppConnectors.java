@@ -20,13 +20,19 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.salesforce.pyplyn.cache.Cache;
 import com.salesforce.pyplyn.cache.CacheFactory;
 import com.salesforce.pyplyn.cache.Cacheable;
-import com.salesforce.pyplyn.cache.ConcurrentCacheMap;
+import com.salesforce.pyplyn.client.AbstractRemoteClient;
+import com.salesforce.pyplyn.client.CircuitBreaker;
+import com.salesforce.pyplyn.client.ConcurrencyLimiter;
+import com.salesforce.pyplyn.client.HedgeBudget;
+import com.salesforce.pyplyn.client.HttpTransport;
 import com.salesforce.pyplyn.client.RemoteClient;
 import com.salesforce.pyplyn.configuration.Connector;
 import com.salesforce.pyplyn.configuration.EndpointConnector;
 import com.salesforce.pyplyn.duct.app.BootstrapException;
+import com.salesforce.pyplyn.status.SystemStatus;
 
 /**
  * Allows multiple {@link com.google.inject.Guice} modules to specify their own {@link Connector}s and collects
@@ -41,9 +47,15 @@ import com.salesforce.pyplyn.duct.app.BootstrapException;
 @Singleton
 public class AppConnectors {
     public static final String DUPLICATE_CONNECTOR_ERROR = "Duplicate connector object (%s) not allowed, with id=\"%s\"!";
+    private static final String CACHE_METRICS = "Cache";
+    private static final String HTTP_METRICS = "Http";
+    private static final String AUTH_METRICS = "Auth";
+    private static final String ENDPOINT_METRICS = "Endpoint";
     private final Map<String, EndpointConnector> connectors;
     private final Map<String, ClientAndCache<? extends RemoteClient, ? extends Cacheable>> registeredClients;
     private final CacheFactory cacheFactory;
+    private final SystemStatus systemStatus;
+    private final HttpTransport httpTransport;
 
 
     /**
@@ -52,8 +64,11 @@ public class AppConnectors {
      * @throws BootstrapException if the same connectorId is specified in more than one connector list
      */
     @Inject
-    public AppConnectors(Set<List<EndpointConnector>> allConnectors, CacheFactory cacheFactory) {
+    public AppConnectors(Set<List<EndpointConnector>> allConnectors, CacheFactory cacheFactory, SystemStatus systemStatus,
+                         HttpTransport httpTransport) {
         this.cacheFactory = cacheFactory;
+        this.systemStatus = systemStatus;
+        this.httpTransport = httpTransport;
         this.connectors = new HashMap<>();
 
         // iterate through all passed connectors and add them to our list of known connectors
@@ -68,6 +83,7 @@ public class AppConnectors {
         }
 
         registeredClients = new ConcurrentHashMap<>();
+        registerHttpGauges();
     }
 
     /**
@@ -91,11 +107,13 @@ public class AppConnectors {
         ClientAndCache<CLIENT, CACHE> clientAndCache = (ClientAndCache<CLIENT, CACHE>) registeredClients.computeIfAbsent(connectorId, key -> {
             try {
                 // init client
-                Constructor<CLIENT> constructor = clientClass.getConstructor(EndpointConnector.class);
-                CLIENT client = constructor.newInstance(findConnector(key));
+                CLIENT client = newClient(clientClass, findConnector(key));
+                registerAuthGauges(key, client);
+                registerHealthGauges(key, client);
 
                 // init cache
-                ConcurrentCacheMap<CACHE> cache = cacheFactory.newCache();
+                Cache<CACHE> cache = cacheFactory.newCache();
+                registerCacheGauges(key, cache);
 
                 // return
                 return new ClientAndCache<>(client, cache);
@@ -112,14 +130,88 @@ public class AppConnectors {
         return clientAndCache;
     }
 
+    /**
+     * Constructs a client which shares the {@link HttpTransport}'s connections, if it defines a
+     *   (Connector, HttpTransport) constructor, or a standalone client otherwise
+     */
+    private <CLIENT extends RemoteClient> CLIENT newClient(Class<CLIENT> clientClass, EndpointConnector connector)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        try {
+            Constructor<CLIENT> constructor = clientClass.getConstructor(EndpointConnector.class, HttpTransport.class);
+            return constructor.newInstance(connector, httpTransport);
+
+        } catch (NoSuchMethodException e) {
+            Constructor<CLIENT> constructor = clientClass.getConstructor(EndpointConnector.class);
+            return constructor.newInstance(connector);
+        }
+    }
+
+    /**
+     * Reports how many connections the shared {@link HttpTransport} opens and reuses
+     */
+    private void registerHttpGauges() {
+        systemStatus.gauge(HTTP_METRICS, "requests", httpTransport::requestCount);
+        systemStatus.gauge(HTTP_METRICS, "new-connections", httpTransport::newConnectionCount);
+        systemStatus.gauge(HTTP_METRICS, "connection-reuse-rate", httpTransport::connectionReuseRate);
+        systemStatus.gauge(HTTP_METRICS, "connections", httpTransport::connectionCount);
+        systemStatus.gauge(HTTP_METRICS, "idle-connections", httpTransport::idleConnectionCount);
+    }
+
+    /**
+     * Reports how long the specified endpoint's client takes to authenticate and how often its token is refreshed
+     */
+    private void registerAuthGauges(String connectorId, RemoteClient client) {
+        systemStatus.gauge(AUTH_METRICS, connectorId + ".authentications", () -> client.authStats().authenticationCount());
+        systemStatus.gauge(AUTH_METRICS, connectorId + ".refreshes", () -> client.authStats().refreshCount());
+        systemStatus.gauge(AUTH_METRICS, connectorId + ".failures", () -> client.authStats().failureCount());
+        systemStatus.gauge(AUTH_METRICS, connectorId + ".latency-millis", () -> client.authStats().meanLatencyMillis());
+        systemStatus.gauge(AUTH_METRICS, connectorId + ".last-latency-millis", () -> client.authStats().lastLatencyMillis());
+    }
+
+    /**
+     * Reports the state of the specified endpoint's circuit breaker, its current concurrency limit,
+     *   and the number of hedged requests
+     */
+    private void registerHealthGauges(String connectorId, RemoteClient client) {
+        if (!(client instanceof AbstractRemoteClient)) {
+            return;
+        }
+
+        CircuitBreaker breaker = ((AbstractRemoteClient<?>) client).circuitBreaker();
+        ConcurrencyLimiter limiter = ((AbstractRemoteClient<?>) client).concurrencyLimiter();
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".circuit-state", () -> breaker.state().name());
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".circuit-opened", breaker::openCount);
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".concurrency-limit", limiter::limit);
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".in-flight", limiter::inFlight);
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".rejected", () -> breaker.rejectedCount() + limiter.rejectedCount());
+
+        HedgeBudget hedgeBudget = ((AbstractRemoteClient<?>) client).hedgeBudget();
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".hedges", hedgeBudget::hedgeCount);
+        systemStatus.gauge(ENDPOINT_METRICS, connectorId + ".hedge-wins", hedgeBudget::hedgeWinCount);
+    }
+
+    /**
+     * Reports the statistics of the specified endpoint's cache, allowing cache durations to be tuned
+     */
+    private void registerCacheGauges(String connectorId, Cache<? extends Cacheable> cache) {
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".hits", () -> cache.stats().hitCount());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".misses", () -> cache.stats().missCount());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".hit-rate", () -> cache.stats().hitRate());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".loads", () -> cache.stats().loadCount());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".expirations", () -> cache.stats().expirationCount());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".evictions", () -> cache.stats().evictionCount());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".size", () -> cache.stats().size());
+        systemStatus.gauge(CACHE_METRICS, connectorId + ".weighted-size", () -> cache.stats().weightedSize());
+    }
+
     /**
      * Used to store a client and its corresponding cache object
      */
     public static class ClientAndCache<CLIENT, CACHE extends Cacheable> {
         final CLIENT client;
-        final ConcurrentCacheMap<CACHE> cache;
+        final Cache<CACHE> cache;
 
-        public ClientAndCache(CLIENT client, ConcurrentCacheMap<CACHE> cache) {
+        public ClientAndCache(CLIENT client, Cache<CACHE> cache) {
             this.client = client;
             this.cache = cache;
         }
@@ -128,7 +220,7 @@ public class AppConnectors {
             return client;
         }
 
-        public ConcurrentCacheMap<CACHE> cache() {
+        public Cache<CACHE> cache() {
             return cache;
         }
     }
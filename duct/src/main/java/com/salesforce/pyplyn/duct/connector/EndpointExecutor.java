@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.connector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.salesforce.pyplyn.duct.app.IoThreads;
+import com.salesforce.pyplyn.duct.app.ShutdownHook;
+import com.salesforce.pyplyn.duct.appconfig.AppConfig;
+import com.salesforce.pyplyn.status.SystemStatus;
+
+/**
+ * Runs the blocking I/O performed against each endpoint on a dedicated executor
+ * <p/>
+ * <p/>Processors use this class to fan out their work per endpoint, instead of relying on parallel streams,
+ *   which run on the JVM-wide {@link ForkJoinPool#commonPool()} (sized to the number of CPUs).
+ * <p/>
+ * <p/>The number of requests sent to each endpoint is limited by its client (see
+ *   {@link com.salesforce.pyplyn.client.ConcurrencyLimiter}), which is the only limit when running on virtual threads
+ *   (see {@link IoThreads}).
+ * <p/>
+ * <p/>The number of tasks waiting for a thread and the number of running tasks are reported as gauges.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+@Singleton
+public class EndpointExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(EndpointExecutor.class);
+    static final String METER_NAME = "EndpointIO";
+
+    private final ExecutorService executor;
+    private final AtomicInteger active = new AtomicInteger();
+
+
+    /**
+     * Class constructor
+     */
+    @Inject
+    public EndpointExecutor(AppConfig appConfig, SystemStatus systemStatus, ShutdownHook shutdownHook) {
+        AppConfig.Global global = appConfig.global();
+        this.executor = IoThreads.newExecutor("EndpointIO-", Thread.NORM_PRIORITY, global.endpointIoThreadSize(), global.useVirtualThreads());
+        shutdownHook.registerExecutor(executor);
+
+        systemStatus.gauge(METER_NAME, "queue-depth", this::queueDepth);
+        systemStatus.gauge(METER_NAME, "active-threads", active::get);
+    }
+
+    /**
+     * Applies <b>task</b> to each (endpointId, work) pair, in parallel, and waits for all of them to complete
+     * <p/>
+     * <p/>A single endpoint's work is processed on the calling thread, as there is nothing to parallelize.
+     * <p/>If the calling thread is interrupted, outstanding tasks are cancelled and their results are returned as nulls.
+     *
+     * @return the results, in the iteration order of <b>perEndpoint</b>
+     * @throws RuntimeException rethrows any unchecked exception thrown by one of the tasks
+     */
+    public <V, R> List<R> invokeAll(Collection<? extends Map.Entry<String, V>> perEndpoint,
+                                    Function<? super Map.Entry<String, V>, R> task) {
+        List<R> results = new ArrayList<>(perEndpoint.size());
+
+        // nothing to parallelize
+        if (perEndpoint.size() <= 1) {
+            perEndpoint.forEach(entry -> results.add(run(entry, task)));
+            return results;
+        }
+
+        List<Future<R>> futures = new ArrayList<>(perEndpoint.size());
+        perEndpoint.forEach(entry -> futures.add(executor.submit(() -> run(entry, task))));
+
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted while waiting for endpoint tasks to complete");
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                results.add(null);
+
+            } catch (CancellationException e) {
+                results.add(null);
+
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs the task, counting it as active
+     */
+    private <V, R> R run(Map.Entry<String, V> entry, Function<? super Map.Entry<String, V>, R> task) {
+        active.incrementAndGet();
+        try {
+            return task.apply(entry);
+
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    private int queueDepth() {
+        return (executor instanceof ThreadPoolExecutor) ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+}
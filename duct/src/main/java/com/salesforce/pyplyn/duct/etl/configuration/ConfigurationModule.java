@@ -10,6 +10,7 @@ package com.salesforce.pyplyn.duct.etl.configuration;
 
 import java.util.Set;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -17,6 +18,7 @@ import com.google.inject.TypeLiteral;
 import com.salesforce.pyplyn.configuration.Configuration;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
 import com.salesforce.pyplyn.duct.cluster.Cluster;
+import com.salesforce.pyplyn.status.SystemStatus;
 
 /**
  * Binds the {@link ConfigurationLoader}, returning the set of {@link Configuration}s that should be processed
@@ -35,8 +37,9 @@ public class ConfigurationModule extends AbstractModule {
 
     @Provides
     @Singleton
-    ConfigurationUpdateManager configurationManager(ConfigurationLoader loader, TaskManager<Configuration> taskRegistry, Cluster cluster, ShutdownHook shutdownHook) {
-        ConfigurationUpdateManager manager = new ConfigurationUpdateManager(loader, taskRegistry, cluster, shutdownHook);
+    ConfigurationUpdateManager configurationManager(ConfigurationLoader loader, TaskManager<Configuration> taskRegistry, Cluster cluster, ShutdownHook shutdownHook,
+                                                    ObjectMapper mapper, SystemStatus systemStatus) {
+        ConfigurationUpdateManager manager = new ConfigurationUpdateManager(loader, taskRegistry, cluster, shutdownHook, mapper, systemStatus);
         manager.initialize();
         return manager;
     }
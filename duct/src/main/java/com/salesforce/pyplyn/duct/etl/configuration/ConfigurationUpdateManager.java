@@ -2,6 +2,7 @@ package com.salesforce.pyplyn.duct.etl.configuration;
 
 import static com.salesforce.pyplyn.util.CollectionUtils.immutableOrEmptySet;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -16,8 +18,12 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
@@ -30,6 +36,7 @@ import com.hazelcast.util.Preconditions;
 import com.salesforce.pyplyn.configuration.Configuration;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
 import com.salesforce.pyplyn.duct.cluster.Cluster;
+import com.salesforce.pyplyn.status.SystemStatus;
 
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
@@ -38,6 +45,11 @@ import io.reactivex.subjects.Subject;
 /**
  * Updates the current configurations, creating, updating, and removing tasks for each one
  * <p/>
+ * <p/> Configurations are reconciled incrementally: each one is fingerprinted (including its
+ *   {@link org.immutables.value.Value.Auxiliary} fields, such as <i>repeatIntervalMillis</i>, which are not considered
+ *   by {@link Configuration#equals(Object)}) and only new or changed configurations are upserted; a fingerprint
+ *   is only stored once its configuration was upserted, so that failed upserts are retried on the next run.
+ * <p/> The number of added, changed, unchanged, and deleted configurations is reported as {@link SystemStatus} gauges.
  * <p/> If exceptions occur while processing configurations, the errors are logged and no task is updated.
  * <p/> If any configuration exceptions occur during the program's bootstrap, execution is stopped altogether.
  *
@@ -50,21 +62,37 @@ import io.reactivex.subjects.Subject;
 public class ConfigurationUpdateManager implements Runnable, Provider<Set<Configuration>> {
     protected static final Logger logger = LoggerFactory.getLogger(ConfigurationUpdateManager.class);
     private static final String CONFIGURATION_MAP_KEY = "configurations";
+    static final String METER_NAME = "ConfigurationUpdateManager";
 
     private final ConfigurationLoader loader;
     private final TaskManager<Configuration> taskManager;
     private final Cluster cluster;
     private final ShutdownHook shutdownHook;
+    private final ObjectMapper mapper;
 
     private Map<String, Configuration> configurations;
+    private final Map<String, HashCode> fingerprints = new HashMap<>();
     private final CountDownLatch IS_CONFIGURED_LATCH = new CountDownLatch(1);
 
+    // number of configurations added, changed, unchanged, and deleted by the last successful update
+    private final AtomicInteger lastAdded = new AtomicInteger();
+    private final AtomicInteger lastChanged = new AtomicInteger();
+    private final AtomicInteger lastUnchanged = new AtomicInteger();
+    private final AtomicInteger lastDeleted = new AtomicInteger();
+
     @Inject
-    public ConfigurationUpdateManager(ConfigurationLoader loader, TaskManager<Configuration> taskManager, Cluster cluster, ShutdownHook shutdownHook) {
+    public ConfigurationUpdateManager(ConfigurationLoader loader, TaskManager<Configuration> taskManager, Cluster cluster, ShutdownHook shutdownHook,
+                                      ObjectMapper mapper, SystemStatus systemStatus) {
         this.loader = loader;
         this.taskManager = taskManager;
         this.cluster = cluster;
         this.shutdownHook = shutdownHook;
+        this.mapper = mapper;
+
+        systemStatus.gauge(METER_NAME, "added", lastAdded::get);
+        systemStatus.gauge(METER_NAME, "changed", lastChanged::get);
+        systemStatus.gauge(METER_NAME, "unchanged", lastUnchanged::get);
+        systemStatus.gauge(METER_NAME, "deleted", lastDeleted::get);
     }
 
     /**
@@ -111,9 +139,34 @@ public class ConfigurationUpdateManager implements Runnable, Provider<Set<Config
             ImmutableSet<Configuration> deleted = ImmutableSet.copyOf(Sets.difference(configurations(), latestConfigurationSet));
             deleted.forEach(new DeleteTaskConsumer().andThen(new DeleteConfigurationConsumer()));
 
-            // insert or update new configurations
-            latestConfigurationSet.forEach(new UpsertTaskConsumer().andThen(new UpsertConfigurationConsumer()));
-            logger.info("Updated configuration set; {} configs upserted, {} configs deleted", latestConfigurationSet.size(), deleted.size());
+            // insert new configurations and update the ones that changed since the last run
+            int added = 0;
+            int changed = 0;
+            for (Configuration configuration : latestConfigurationSet) {
+                String key = configuration.toString();
+                HashCode fingerprint = fingerprint(configuration);
+                boolean isNew = !fingerprints.containsKey(key) || !configurations.containsKey(key);
+                if (!isNew && nonNull(fingerprint) && fingerprint.equals(fingerprints.get(key))) {
+                    continue;
+                }
+
+                new UpsertTaskConsumer().andThen(new UpsertConfigurationConsumer()).accept(configuration);
+
+                // only store the fingerprint after the upsert succeeded, so that failed upserts are retried on the next run
+                fingerprints.put(key, fingerprint);
+                if (isNew) {
+                    added++;
+                } else {
+                    changed++;
+                }
+            }
+
+            int unchanged = latestConfigurationSet.size() - added - changed;
+            logger.info("Updated configuration set; {} configs added, {} changed, {} unchanged, {} deleted", added, changed, unchanged, deleted.size());
+            lastAdded.set(added);
+            lastChanged.set(changed);
+            lastUnchanged.set(unchanged);
+            lastDeleted.set(deleted.size());
 
             // if running in runOnce mode, stop immediately if there are no configurations to process
             if (latestConfigurationSet.isEmpty()) {
@@ -165,6 +218,22 @@ public class ConfigurationUpdateManager implements Runnable, Provider<Set<Config
 
 
 
+    /**
+     * Fingerprints the specified configuration, based on its serialized form
+     *
+     * @return the configuration's fingerprint, or null if it could not be serialized (in which case it will always be
+     *   considered as changed)
+     */
+    private HashCode fingerprint(Configuration configuration) {
+        try {
+            return Hashing.murmur3_128().hashBytes(mapper.writeValueAsBytes(configuration));
+
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not fingerprint {}; it will be updated on every run", configuration, e);
+            return null;
+        }
+    }
+
     /**
      * Ensures only tasks that should be running are running
      */
@@ -212,6 +281,7 @@ public class ConfigurationUpdateManager implements Runnable, Provider<Set<Config
         @Override
         public void accept(Configuration configuration) {
             configurations.remove(configuration.toString());
+            fingerprints.remove(configuration.toString());
         }
     }
 
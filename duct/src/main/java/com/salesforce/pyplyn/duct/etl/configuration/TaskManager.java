@@ -1,33 +1,37 @@
 package com.salesforce.pyplyn.duct.etl.configuration;
 
 import static com.salesforce.pyplyn.util.CollectionUtils.immutableOrEmptySet;
+import static java.util.Objects.nonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
-import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforce.pyplyn.configuration.Configuration;
+import com.salesforce.pyplyn.duct.app.IoThreads;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
 import com.salesforce.pyplyn.duct.appconfig.AppConfig;
 import com.salesforce.pyplyn.model.*;
 import com.salesforce.pyplyn.processor.ExtractProcessor;
 import com.salesforce.pyplyn.processor.LoadProcessor;
+import com.salesforce.pyplyn.status.SystemStatus;
 
 import io.reactivex.Flowable;
 import io.reactivex.Scheduler;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.SerialDisposable;
 import io.reactivex.parallel.ParallelFailureHandling;
 import io.reactivex.plugins.RxJavaPlugins;
 import io.reactivex.schedulers.Schedulers;
@@ -41,6 +45,7 @@ import io.reactivex.schedulers.Schedulers;
 @Singleton
 public class TaskManager<T extends Configuration> {
     private static final Logger logger = LoggerFactory.getLogger(TaskManager.class);
+    private static final String METER_NAME = "TaskManager";
 
     private final Set<ExtractProcessor<? extends Extract>> extractProcessors;
     private final Set<LoadProcessor<? extends Load>> loadProcessors;
@@ -51,9 +56,10 @@ public class TaskManager<T extends Configuration> {
     private final Scheduler transformScheduler;
     private final Scheduler loadScheduler;
 
-    private final ConcurrentHashMap<T, Subscription> ACTIVE_SUBSCRIPTIONS = new ConcurrentHashMap<>();
+    // schedules all tasks on a single timer wheel
+    private final TaskScheduler<T> scheduler;
+
     private final ConcurrentHashMap<T, Disposable> ACTIVE_PUBLISHERS = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<T, Instant> LAST_EXECUTED = new ConcurrentHashMap<>();
 
     private final CountDownLatch HAS_STARTED_PROCESSING = new CountDownLatch(1);
     private final CountDownLatch HAS_COMPLETED_PROCESSING = new CountDownLatch(1);
@@ -71,6 +77,7 @@ public class TaskManager<T extends Configuration> {
     public TaskManager(AppConfig config,
                        Set<ExtractProcessor<? extends Extract>> extractProcessors,
                        Set<LoadProcessor<? extends Load>> loadProcessors,
+                       SystemStatus systemStatus,
                        ShutdownHook shutdownHook) {
         this.extractProcessors = extractProcessors;
         this.loadProcessors = loadProcessors;
@@ -79,9 +86,16 @@ public class TaskManager<T extends Configuration> {
 
         // prioritize tasks based on their place in the pipeline
         Integer ioPoolSize = config.global().ioPoolsThreadSize();
-        extractScheduler = initExtractScheduler(ioPoolSize);
-        transformScheduler = initTransformScheduler(ioPoolSize);
-        loadScheduler = initLoadScheduler(ioPoolSize);
+        boolean useVirtualThreads = config.global().useVirtualThreads();
+        extractScheduler = initExtractScheduler(ioPoolSize, useVirtualThreads);
+        transformScheduler = initTransformScheduler(ioPoolSize, useVirtualThreads);
+        loadScheduler = initLoadScheduler(ioPoolSize, useVirtualThreads);
+
+        // start dispatching tasks
+        long tickMillis = config.global().schedulerTickMillis();
+        scheduler = new TaskScheduler<>(tickMillis, config.global().schedulerWheelSize(), initPhasing(config.global()), this::dispatch,
+                systemStatus.timer(METER_NAME, "schedule-lag"), systemStatus.histogram(METER_NAME, "dispatch-batch-size"));
+        initTicker(tickMillis);
 
         // handle irrecoverable errors: allow graceful shutdown
         RxJavaPlugins.setErrorHandler(throwable -> {
@@ -97,10 +111,10 @@ public class TaskManager<T extends Configuration> {
      * <p/>
      * <p/> Threads executed on this scheduler have {@link Thread#NORM_PRIORITY}
      * @param ioPoolSize Size of thread pool for this scheduler
+     * @param useVirtualThreads If true, tasks are run on virtual threads (when supported), instead of a fixed pool
      */
-    private Scheduler initExtractScheduler(Integer ioPoolSize) {
-        ThreadFactory factory = newThreadFactory("TaskManager-Extract-%s", Thread.NORM_PRIORITY);
-        ExecutorService executor = Executors.newFixedThreadPool(ioPoolSize, factory);
+    private Scheduler initExtractScheduler(Integer ioPoolSize, boolean useVirtualThreads) {
+        ExecutorService executor = IoThreads.newExecutor("TaskManager-Extract-", Thread.NORM_PRIORITY, ioPoolSize, useVirtualThreads);
         shutdownHook.registerExecutor(executor);
         return Schedulers.from(executor);
     }
@@ -110,10 +124,10 @@ public class TaskManager<T extends Configuration> {
      * <p/>
      * <p/> Threads executed on this scheduler have {@link Thread#NORM_PRIORITY+1}
      * @param ioPoolSize Size of thread pool for this scheduler
+     * @param useVirtualThreads If true, tasks are run on virtual threads (when supported), instead of a fixed pool
      */
-    private Scheduler initTransformScheduler(Integer ioPoolSize) {
-        ThreadFactory factory = newThreadFactory("TaskManager-Transform-%s", Thread.NORM_PRIORITY + 1);
-        ExecutorService executor = Executors.newFixedThreadPool(ioPoolSize, factory);
+    private Scheduler initTransformScheduler(Integer ioPoolSize, boolean useVirtualThreads) {
+        ExecutorService executor = IoThreads.newExecutor("TaskManager-Transform-", Thread.NORM_PRIORITY + 1, ioPoolSize, useVirtualThreads);
         shutdownHook.registerExecutor(executor);
         return Schedulers.from(executor);
     }
@@ -123,14 +137,54 @@ public class TaskManager<T extends Configuration> {
      * <p/>
      * <p/> Threads executed on this scheduler have {@link Thread#NORM_PRIORITY}+2
      * @param ioPoolSize Size of thread pool for this scheduler
+     * @param useVirtualThreads If true, tasks are run on virtual threads (when supported), instead of a fixed pool
      */
-    private Scheduler initLoadScheduler(Integer ioPoolSize) {
-        ThreadFactory factory = newThreadFactory("TaskManager-Load-%s", Thread.NORM_PRIORITY + 2);
-        ExecutorService executor = Executors.newFixedThreadPool(ioPoolSize, factory);
+    private Scheduler initLoadScheduler(Integer ioPoolSize, boolean useVirtualThreads) {
+        ExecutorService executor = IoThreads.newExecutor("TaskManager-Load-", Thread.NORM_PRIORITY + 2, ioPoolSize, useVirtualThreads);
         shutdownHook.registerExecutor(executor);
         return Schedulers.from(executor);
     }
 
+    /**
+     * Spreads configurations across their interval, if requested, to avoid hitting all endpoints at the same time
+     * <p/>
+     * <p/> The phase is determined by hashing each configuration's string representation, which is stable across restarts
+     *   and is also used by {@link ConfigurationUpdateManager} to identify configurations
+     */
+    private TaskScheduler.Phasing<T> initPhasing(AppConfig.Global global) {
+        if (!global.schedulerPhaseSpread()) {
+            return TaskScheduler.Phasing.immediate();
+        }
+
+        return TaskScheduler.Phasing.spread(task -> Hashing.murmur3_32().hashUnencodedChars(task.toString()).asInt(),
+                global.schedulerMaxJitterMillis());
+    }
+
+    /**
+     * Initializes a single thread that advances the {@link TaskScheduler} every <b>tickMillis</b>
+     * <p/>
+     * <p/> This thread has {@link Thread#MAX_PRIORITY}, since any delay directly translates into schedule lag
+     * @param tickMillis How often to advance the scheduler
+     */
+    private void initTicker(long tickMillis) {
+        ThreadFactory factory = newThreadFactory("TaskManager-Scheduler-%s", Thread.MAX_PRIORITY);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(factory);
+        shutdownHook.registerExecutor(executor);
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, MILLISECONDS);
+    }
+
+    /**
+     * Advances the scheduler; errors are logged, since they would otherwise stop all future ticks
+     */
+    private void tick() {
+        try {
+            scheduler.tick();
+
+        } catch (Exception e) {
+            onError(e);
+        }
+    }
+
     /**
      * Creates a new {@link ThreadFactory}
      *
@@ -149,113 +203,109 @@ public class TaskManager<T extends Configuration> {
     /**
      * Inserts or updates a task
      * <p/>
-     * <p/> The implementation will take care to:
-     * <p/> - add the task to the {@link #ACTIVE_SUBSCRIPTIONS} container when an observer subscribes
-     * <p/> - and to remove the task once it's been disposed
+     * <p/>New tasks are dispatched on the next scheduler tick; known tasks are updated in place, without affecting
+     *   any currently running ETL cycle.
      */
     public void upsert(T task) {
-        Disposable disposable = createTask(task)
-
-                // ETL cycle
-                .flatMap((T configuration) -> {
-                    // EXTRACT
-
-                    // merge all Extract results
-                    Flowable<List<List<Transmutation>>> transformed = Flowable.fromIterable(extractProcessors)
-                            .parallel()
-                            .runOn(extractScheduler)
-                            .map(processor -> processor.executeAsync(configuration.extract()), ParallelFailureHandling.ERROR)
-                            .flatMap(s -> s)
-                            .reduce((list, items) -> Stream.concat(list.stream(), items.stream()).collect(toList()));
-
-
-                    // TRANSFORM
-                    for (Transform transform : configuration.transform()) {
-                        // PollingTransforms are executed on a dedicated scheduler
-                        if (transform instanceof PollingTransform) {
-                            transformed = transformed.flatMap(tr -> transform.applyAsync(tr, transformScheduler));
-
-                        // standard transforms are observed on the computation scheduler
-                        } else {
-                            transformed = transformed.flatMap(tr -> transform.applyAsync(tr, Schedulers.computation()));
-                        }
-                    }
-
-                    // LOAD
-                    return transformed
-                            // process each row individually
-                            .flatMap(Flowable::fromIterable)
-
-                            // for each row an loadProcessor combination, apply
-                            .flatMap(resultRow -> Flowable.fromIterable(loadProcessors)
-                                            .parallel()
-                                            .runOn(loadScheduler)
-                                            .map(loadProcessor -> loadProcessor.executeAsync(resultRow, configuration.load()), ParallelFailureHandling.RETRY)
-                                            .flatMap(s -> s)
-                                            .reduce((all, r) -> Stream.concat(all.stream(), r.stream()).collect(toList()))
-                            );
-                })
-
-                // lifecycle management
-                .doFinally(this::hookAfterTaskProcessed)
-                .doFinally(CURRENTLY_PROCESSING_COUNTER::decrementAndGet)
-                .doOnSubscribe(subscription -> CURRENTLY_PROCESSING_COUNTER.incrementAndGet())
-
-                // handle results and errors
-                .doOnNext(results -> logger.info("Got results {} (counter={})", results, TASK_COUNTER.incrementAndGet()))
-                .doOnError(this::onError)
-
-                // Process tasks
-                .subscribeOn(Schedulers.computation())
-                .subscribe();
-
-        // register publisher and dispose previous one (if exists)
-        Optional.ofNullable(ACTIVE_PUBLISHERS.put(task, disposable)).ifPresent(Disposable::dispose);
+        scheduler.schedule(task, task.repeatIntervalMillis(), runOnce);
     }
 
-    public Flowable<T> createTask(T task) {
-        return Flowable.interval(0, task.repeatIntervalMillis(), MILLISECONDS)
-
-                // prevent configurations from running too often
-                .onBackpressureDrop()
-
-                .map(i -> task)
-                // stop if shutting down
-                .takeWhile(t -> !shutdownHook.isShutdown())
-
-                // stop after the first task if only running once
-                .takeUntil(ignored -> runOnce)
-
-                // remove subscriptions that are disposed or completed
-                .doFinally(() -> ACTIVE_SUBSCRIPTIONS.remove(task))
-
-                // lifecycle management
-                .doOnSubscribe(subscription -> Optional.ofNullable(ACTIVE_SUBSCRIPTIONS.put(task, subscription)).ifPresent(Subscription::cancel))
-                .doOnNext(disposableTask -> HAS_STARTED_PROCESSING.countDown())
+    /**
+     * Starts an ETL cycle for each of the specified tasks
+     * <p/>
+     * <p/> The implementation will take care to:
+     * <p/> - skip tasks whose previous cycle has not yet completed (prevent configurations from running too often)
+     * <p/> - add each running cycle to the {@link #ACTIVE_PUBLISHERS} container and remove it once it's been disposed
+     */
+    private void dispatch(List<T> tasks) {
+        for (T task : tasks) {
+            // stop if shutting down
+            if (shutdownHook.isShutdown()) {
+                return;
+            }
+
+            HAS_STARTED_PROCESSING.countDown();
+
+            // register the cycle, or skip it if the previous one is still running
+            SerialDisposable cycle = new SerialDisposable();
+            if (nonNull(ACTIVE_PUBLISHERS.putIfAbsent(task, cycle))) {
+                logger.debug("Skipping {}, previous cycle has not completed", task);
+                continue;
+            }
+
+            cycle.set(Flowable.just(task)
+                    .flatMap(this::process)
+
+                    // lifecycle management
+                    .doFinally(this::hookAfterTaskProcessed)
+                    .doFinally(() -> {
+                        ACTIVE_PUBLISHERS.remove(task, cycle);
+
+                        // stop tracking tasks that only run once
+                        if (runOnce) {
+                            scheduler.cancel(task);
+                        }
 
-                .delay((item) -> {
-                    // get last execution time
-                    Instant lastRun = LAST_EXECUTED.computeIfAbsent(task,
-                            // or trigger a run by creating an Instant at the point in time where the configuration should have run last
-                            t -> Instant.now().minusMillis(task.repeatIntervalMillis()));
+                        CURRENTLY_PROCESSING_COUNTER.decrementAndGet();
+                    })
+                    .doOnSubscribe(subscription -> CURRENTLY_PROCESSING_COUNTER.incrementAndGet())
 
-                    // compute duration between lastRun and now; D=lastRun-lastRun
-                    Duration duration = Duration.between(Instant.now(), lastRun)
-                            // substract the repeat interval; D=repeatInterval-(lastRun-now)
-                            .plusMillis(task.repeatIntervalMillis());
+                    // handle results and errors
+                    .doOnNext(results -> logger.info("Got results {} (counter={})", results, TASK_COUNTER.incrementAndGet()))
+                    .doOnError(this::onError)
 
-                    // D<=0; need to run now
-                    if (duration.isNegative() || duration.isZero()) {
-                        return Flowable.just(0L);
+                    // Process tasks
+                    .subscribeOn(Schedulers.computation())
+                    .subscribe());
+        }
+    }
 
-                        // D>0; need to run in D
-                    } else {
-                        return Flowable.timer(duration.toMillis(), TimeUnit.MILLISECONDS);
-                    }
-                })
+    /**
+     * Defines the ETL cycle for the specified configuration
+     */
+    private Flowable<List<Boolean>> process(T configuration) {
+        // EXTRACT
+
+        // only attach source objects to the results if any transforms need them
+        final boolean retainSource = configuration.transform().stream().anyMatch(Transform::requiresSource);
+
+        // merge all Extract results, as series which are only converted to Transmutations when needed
+        Flowable<List<TimeSeries>> transformed = Flowable.fromIterable(extractProcessors)
+                .parallel()
+                .runOn(extractScheduler)
+                .map(processor -> processor.executeBatchAsync(configuration.extract(), retainSource), ParallelFailureHandling.ERROR)
+                .flatMap(s -> s)
+                .reduce((list, items) -> Stream.concat(list.stream(), items.stream()).collect(toList()));
+
+
+        // TRANSFORM
+        //   consecutive standard transforms are fused into a single stage
+        for (TransformStage stage : TransformStage.plan(configuration.transform())) {
+            // PollingTransforms are executed on a dedicated scheduler
+            if (stage.isPolling()) {
+                transformed = transformed.flatMap(tr -> stage.applyAsync(tr, transformScheduler));
+
+            // standard transforms are observed on the computation scheduler
+            } else {
+                transformed = transformed.flatMap(tr -> stage.applyAsync(tr, Schedulers.computation()));
+            }
+        }
 
-                // mark the time at which we ran last
-                .doOnNext(results -> LAST_EXECUTED.put(task, Instant.now()));
+        // LOAD
+        return transformed
+                .map(TimeSeries::toMatrix)
+
+                // skip cycles that have not produced any rows
+                .filter(rows -> !rows.isEmpty())
+
+                // pass all rows to each loadProcessor, in a single batch
+                .flatMap(rows -> Flowable.fromIterable(loadProcessors)
+                                .parallel()
+                                .runOn(loadScheduler)
+                                .map(loadProcessor -> loadProcessor.executeBatchAsync(rows, configuration.load()), ParallelFailureHandling.RETRY)
+                                .flatMap(s -> s)
+                                .reduce((all, r) -> Stream.concat(all.stream(), r.stream()).collect(toList()))
+                );
     }
 
 
@@ -263,28 +313,18 @@ public class TaskManager<T extends Configuration> {
      * De-register tasks
      */
     public void remove(T task) {
-        // if a publisher is present, cancel it and remove it from the map
-        ACTIVE_PUBLISHERS.computeIfPresent(task, (key, publisher) -> {
-            publisher.dispose();
-            return null;
-        });
-
-        // if a subscription is present, cancel it and remove it from the map
-        ACTIVE_SUBSCRIPTIONS.computeIfPresent(task, (key, subscription) -> {
-            subscription.cancel();
-            return null;
-        });
+        scheduler.cancel(task);
 
-        // finally remove the last execution time, for memory management
-        LAST_EXECUTED.remove(task);
+        // if a cycle is running, remove it from the map and cancel it; disposing the cycle runs its doFinally
+        //   callbacks, which also update the map, so this cannot be done from a remapping function
+        Optional.ofNullable(ACTIVE_PUBLISHERS.remove(task)).ifPresent(Disposable::dispose);
     }
 
     /**
      * @return all known tasks
      */
     public Set<T> allTasks() {
-        ArrayList<T> taskList = Collections.list(ACTIVE_PUBLISHERS.keys());
-        return immutableOrEmptySet(new HashSet<>(taskList));
+        return immutableOrEmptySet(scheduler.tasks());
     }
 
 
@@ -329,8 +369,8 @@ public class TaskManager<T extends Configuration> {
      * <p/> determines if all work has completed (runOnce mode)
      */
     protected void hookAfterTaskProcessed() {
-        // if processing has started, all tasks have completed and the subscriptions cancelled
-        if (HAS_STARTED_PROCESSING.getCount() == 0 && ACTIVE_SUBSCRIPTIONS.size() == 0 && CURRENTLY_PROCESSING_COUNTER.get() == 0) {
+        // if processing has started, all tasks have completed and were de-registered
+        if (HAS_STARTED_PROCESSING.getCount() == 0 && scheduler.size() == 0 && CURRENTLY_PROCESSING_COUNTER.get() == 0) {
             HAS_COMPLETED_PROCESSING.countDown();
         }
     }
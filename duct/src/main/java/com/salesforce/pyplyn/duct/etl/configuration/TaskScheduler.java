@@ -0,0 +1,303 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.configuration;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+
+/**
+ * Scheduling engine for recurring tasks
+ * <p/>
+ * <p/>Owns the next-fire time of every registered task in a single {@link TimerWheel}; each call to {@link #tick()}
+ *   advances the wheel and hands all tasks that have become due to the dispatcher, as one batch.
+ *   Recurring tasks are rescheduled at a fixed rate (based on their previous deadline, not on their dispatch time),
+ *   while tasks that should only run once are kept registered until {@link #cancel(Object)} is called.
+ * <p/>
+ * <p/>By default, new tasks are due immediately; when a {@link Phasing#spread(ToIntFunction, long)} strategy is specified,
+ *   each task is assigned a deterministic phase within its interval, so that tasks with equal intervals do not
+ *   all fire at the same time.
+ * <p/>
+ * <p/>The delay between each task's deadline and its dispatch time is recorded in the specified schedule lag {@link Timer},
+ *   while the number of tasks dispatched on each tick is recorded in the dispatch batch size {@link Histogram};
+ *   a max/p95 close to the mean indicates that tasks are evenly spread.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class TaskScheduler<T> {
+    private static final Logger logger = LoggerFactory.getLogger(TaskScheduler.class);
+
+    private final TimerWheel<ScheduledTask<T>> wheel;
+    private final Map<T, ScheduledTask<T>> tasks = new HashMap<>();
+    private final Phasing<T> phasing;
+    private final Consumer<List<T>> dispatcher;
+    private final Timer scheduleLag;
+    private final Histogram dispatchBatchSize;
+    private final LongSupplier clock;
+
+
+    /**
+     * Class constructor
+     *
+     * @param tickMillis resolution of the scheduler
+     * @param wheelSize number of buckets in each level of the timer wheel
+     * @param phasing determines when tasks first become due
+     * @param dispatcher receives batches of tasks that are due
+     * @param scheduleLag records the delay between each task's deadline and its dispatch time
+     * @param dispatchBatchSize records the number of tasks dispatched on each tick
+     */
+    public TaskScheduler(long tickMillis, int wheelSize, Phasing<T> phasing, Consumer<List<T>> dispatcher,
+                         Timer scheduleLag, Histogram dispatchBatchSize) {
+        this(tickMillis, wheelSize, phasing, dispatcher, scheduleLag, dispatchBatchSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Allows specifying a custom clock (used in tests)
+     */
+    TaskScheduler(long tickMillis, int wheelSize, Phasing<T> phasing, Consumer<List<T>> dispatcher,
+                  Timer scheduleLag, Histogram dispatchBatchSize, LongSupplier clock) {
+        this.phasing = phasing;
+        this.dispatcher = dispatcher;
+        this.scheduleLag = scheduleLag;
+        this.dispatchBatchSize = dispatchBatchSize;
+        this.clock = clock;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, clock.getAsLong());
+    }
+
+    /**
+     * Registers a task, or updates an existing one
+     * <p/>
+     * <p/>New tasks are due at their first phase (immediately, unless phasing is used, or if the task should run once);
+     *   known tasks are updated in place (the latest task object will be dispatched) and, if their interval changed,
+     *   are rescheduled to their next phase, at least one (new) interval after they were last dispatched.
+     *
+     * @param task the task to schedule
+     * @param intervalMillis how often the task should be dispatched
+     * @param once if true, the task will only be dispatched once
+     */
+    public synchronized void schedule(T task, long intervalMillis, boolean once) {
+        ScheduledTask<T> scheduled = tasks.get(task);
+
+        // new task, run at its first phase
+        if (isNull(scheduled)) {
+            scheduled = new ScheduledTask<>(task, intervalMillis, once);
+            tasks.put(task, scheduled);
+            scheduleAtPhase(scheduled, clock.getAsLong());
+            return;
+        }
+
+        // update the task and its settings
+        long previousInterval = scheduled.intervalMillis;
+        scheduled.task = task;
+        scheduled.intervalMillis = intervalMillis;
+        scheduled.once = once;
+
+        // reschedule pending tasks whose interval changed
+        if (previousInterval != intervalMillis && nonNull(scheduled.timeout) && wheel.cancel(scheduled.timeout)) {
+            scheduleAtPhase(scheduled, Math.max(clock.getAsLong(), scheduled.lastDispatchMillis + intervalMillis));
+        }
+    }
+
+    /**
+     * Schedules the task at its first phase, after the specified time
+     */
+    private void scheduleAtPhase(ScheduledTask<T> scheduled, long notBefore) {
+        // tasks that only run once are not delayed
+        if (scheduled.once) {
+            scheduled.baseDeadline = notBefore;
+            scheduled.timeout = wheel.schedule(scheduled, notBefore);
+            return;
+        }
+
+        long interval = Math.max(1, scheduled.intervalMillis);
+        long phase = phasing.phase(scheduled.task, interval);
+        scheduled.baseDeadline = phase < 0 ? notBefore : notBefore + Math.floorMod(phase - notBefore, interval);
+        scheduled.timeout = wheel.schedule(scheduled, scheduled.baseDeadline + phasing.jitter(interval));
+    }
+
+    /**
+     * De-registers a task
+     *
+     * @return true if the task was known
+     */
+    public synchronized boolean cancel(T task) {
+        ScheduledTask<T> scheduled = tasks.remove(task);
+        if (isNull(scheduled)) {
+            return false;
+        }
+
+        if (nonNull(scheduled.timeout)) {
+            wheel.cancel(scheduled.timeout);
+        }
+        return true;
+    }
+
+    /**
+     * Advances the timer wheel and dispatches all tasks that are due
+     * <p/>The dispatcher is called outside of this object's lock, allowing it to (un)schedule tasks
+     */
+    public void tick() {
+        List<T> due = advance();
+        dispatchBatchSize.update(due.size());
+        if (!due.isEmpty()) {
+            dispatcher.accept(due);
+        }
+    }
+
+    /**
+     * @return all known tasks
+     */
+    public synchronized Set<T> tasks() {
+        Set<T> result = new HashSet<>();
+        tasks.values().forEach(scheduled -> result.add(scheduled.task));
+        return result;
+    }
+
+    /**
+     * @return number of known tasks (including tasks that should run once, have been dispatched, but not yet cancelled)
+     */
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Collects all due tasks and reschedules the recurring ones
+     */
+    private synchronized List<T> advance() {
+        long now = clock.getAsLong();
+        List<TimerWheel.Timeout<ScheduledTask<T>>> expired = wheel.advance(now);
+
+        List<T> due = new ArrayList<>(expired.size());
+        for (TimerWheel.Timeout<ScheduledTask<T>> timeout : expired) {
+            ScheduledTask<T> scheduled = timeout.payload();
+            due.add(scheduled.task);
+
+            // record how late the task is being dispatched
+            scheduleLag.update(Math.max(0, now - timeout.deadline()), MILLISECONDS);
+            scheduled.lastDispatchMillis = now;
+
+            // tasks that run only once are not rescheduled
+            if (scheduled.once) {
+                scheduled.timeout = null;
+                continue;
+            }
+
+            // keep the task's phase; jitter is not accumulated
+            scheduled.baseDeadline = nextDeadline(scheduled.baseDeadline, scheduled.intervalMillis, now);
+            scheduled.timeout = wheel.schedule(scheduled, scheduled.baseDeadline + phasing.jitter(scheduled.intervalMillis));
+        }
+
+        if (!due.isEmpty()) {
+            logger.debug("Dispatching {} tasks", due.size());
+        }
+        return due;
+    }
+
+    /**
+     * Computes the next deadline at a fixed rate, skipping any intervals that were missed
+     */
+    static long nextDeadline(long previousDeadline, long intervalMillis, long now) {
+        long interval = Math.max(1, intervalMillis);
+        long next = previousDeadline + interval;
+        if (next <= now) {
+            next += ((now - next) / interval + 1) * interval;
+        }
+        return next;
+    }
+
+
+    /**
+     * Scheduling state of a single task
+     */
+    private static final class ScheduledTask<T> {
+        private T task;
+        private long intervalMillis;
+        private boolean once;
+        private long lastDispatchMillis;
+        private long baseDeadline;
+        private TimerWheel.Timeout<ScheduledTask<T>> timeout;
+
+        private ScheduledTask(T task, long intervalMillis, boolean once) {
+            this.task = task;
+            this.intervalMillis = intervalMillis;
+            this.once = once;
+        }
+    }
+
+    /**
+     * Determines the phase at which tasks run, relative to their interval
+     */
+    public interface Phasing<T> {
+        /**
+         * @return the task's offset inside its interval (relative to the epoch),
+         *   or a negative value if the task should be due immediately
+         */
+        long phase(T task, long intervalMillis);
+
+        /**
+         * @return a random delay, added to each of the task's deadlines
+         */
+        long jitter(long intervalMillis);
+
+        /**
+         * New tasks are due immediately
+         */
+        static <T> Phasing<T> immediate() {
+            return new Phasing<T>() {
+                @Override
+                public long phase(T task, long intervalMillis) {
+                    return -1;
+                }
+
+                @Override
+                public long jitter(long intervalMillis) {
+                    return 0;
+                }
+            };
+        }
+
+        /**
+         * Spreads tasks across their interval, based on the specified identity hash
+         *
+         * @param identityHash should return the same value for the same task, across restarts and hosts
+         * @param maxJitterMillis upper bound of the random delay added to each deadline (also capped at half the interval);
+         *                        0 disables jitter
+         */
+        static <T> Phasing<T> spread(ToIntFunction<T> identityHash, long maxJitterMillis) {
+            return new Phasing<T>() {
+                @Override
+                public long phase(T task, long intervalMillis) {
+                    return Math.floorMod((long) identityHash.applyAsInt(task), intervalMillis);
+                }
+
+                @Override
+                public long jitter(long intervalMillis) {
+                    long bound = Math.min(maxJitterMillis, intervalMillis / 2);
+                    if (bound <= 0) {
+                        return 0;
+                    }
+                    return ThreadLocalRandom.current().nextLong(bound + 1);
+                }
+            };
+        }
+    }
+}
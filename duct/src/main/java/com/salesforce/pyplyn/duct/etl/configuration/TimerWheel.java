@@ -0,0 +1,269 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.configuration;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel
+ * <p/>
+ * <p/>The first level is made of <b>wheelSize</b> buckets, each covering <b>tickMillis</b>; every subsequent
+ *   (overflow) level is created on demand and has buckets as wide as the whole span of the level below it.
+ *   Scheduling and cancelling are O(1) operations; advancing the wheel costs one bucket flush per level per tick,
+ *   with timeouts cascading into lower levels as their deadlines approach.
+ * <p/>
+ * <p/>This class is not thread-safe and is meant to be guarded by its owner (see {@link TaskScheduler}).
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class TimerWheel<E> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final Level root;
+
+    /**
+     * Timeouts that were already due when scheduled, or that were flushed out of the wheel
+     *   and not yet returned by {@link #advance(long)}
+     */
+    private final List<Timeout<E>> expired = new ArrayList<>();
+
+    private long currentTime;
+    private int size;
+
+
+    /**
+     * Class constructor
+     *
+     * @param tickMillis resolution of the wheel; timeouts are returned on the first tick at or after their deadline
+     * @param wheelSize number of buckets on each level
+     * @param startMillis the time at which this wheel starts ticking
+     */
+    TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("Invalid timer wheel definition tick=" + tickMillis + ", size=" + wheelSize);
+        }
+
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.root = new Level(tickMillis, currentTime);
+    }
+
+    /**
+     * Schedules the specified payload to expire at the specified deadline
+     *
+     * @return a handle that can be used to cancel the timeout
+     */
+    Timeout<E> schedule(E payload, long deadlineMillis) {
+        Timeout<E> timeout = new Timeout<>(payload, deadlineMillis);
+        add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Removes the specified timeout from the wheel
+     *
+     * @return true if the timeout was pending
+     */
+    boolean cancel(Timeout<E> timeout) {
+        if (timeout.cancelled || timeout.expired) {
+            return false;
+        }
+
+        timeout.cancelled = true;
+        if (nonNull(timeout.bucket)) {
+            timeout.bucket.remove(timeout);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel up to the specified time and returns all timeouts that have become due
+     */
+    List<Timeout<E>> advance(long nowMillis) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+
+            // align all levels to the new time and collect the ones that need to flush a bucket, top-down
+            List<Level> flushing = new ArrayList<>();
+            for (Level level = root; nonNull(level); level = level.overflow) {
+                level.currentTime = currentTime - (currentTime % level.tickMillis);
+                if (level.currentTime == currentTime) {
+                    flushing.add(0, level);
+                }
+            }
+
+            // cascade timeouts from higher levels first, so that they can be flushed again by lower levels in the same tick
+            for (Level level : flushing) {
+                Bucket<E> bucket = level.bucketFor(currentTime);
+                for (Timeout<E> timeout = bucket.drain(); nonNull(timeout); ) {
+                    Timeout<E> next = timeout.next;
+                    timeout.next = null;
+                    add(timeout);
+                    timeout = next;
+                }
+            }
+        }
+
+        // return all expired timeouts which were not cancelled in the meantime
+        List<Timeout<E>> result = new ArrayList<>(expired.size());
+        for (Timeout<E> timeout : expired) {
+            if (!timeout.cancelled) {
+                timeout.expired = true;
+                result.add(timeout);
+            }
+        }
+        expired.clear();
+
+        size -= result.size();
+        return result;
+    }
+
+    /**
+     * @return number of pending timeouts
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Places the timeout in the lowest level that can hold it, or marks it as expired if it is already due
+     */
+    private void add(Timeout<E> timeout) {
+        // round the deadline up to the next tick, to never expire timeouts early
+        long due = timeout.deadline + Math.floorMod(-timeout.deadline, tickMillis);
+        if (due <= currentTime) {
+            timeout.bucket = null;
+            expired.add(timeout);
+            return;
+        }
+
+        Level level = root;
+        while (due >= level.currentTime + level.spanMillis()) {
+            level = level.overflow();
+        }
+        level.bucketFor(due).add(timeout);
+    }
+
+
+    /**
+     * Handle for a scheduled payload
+     */
+    static final class Timeout<E> {
+        private final E payload;
+        private final long deadline;
+        private Bucket<E> bucket;
+        private Timeout<E> prev;
+        private Timeout<E> next;
+        private boolean cancelled;
+        private boolean expired;
+
+        private Timeout(E payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        E payload() {
+            return payload;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * One level of the hierarchical wheel
+     */
+    private final class Level {
+        private final long tickMillis;
+        private final Bucket<E>[] buckets;
+        private long currentTime;
+        private Level overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.currentTime = startMillis - (startMillis % tickMillis);
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>();
+            }
+        }
+
+        private long spanMillis() {
+            return tickMillis * wheelSize;
+        }
+
+        private Bucket<E> bucketFor(long timeMillis) {
+            return buckets[(int) ((timeMillis / tickMillis) % wheelSize)];
+        }
+
+        /**
+         * Lazily creates the next level, whenever a deadline does not fit in the current one
+         */
+        private Level overflow() {
+            if (isNull(overflow)) {
+                overflow = new Level(spanMillis(), currentTime);
+            }
+            return overflow;
+        }
+    }
+
+    /**
+     * Doubly-linked list of timeouts, allowing O(1) removals
+     */
+    private static final class Bucket<E> {
+        private Timeout<E> head;
+
+        private void add(Timeout<E> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (nonNull(head)) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<E> timeout) {
+            if (nonNull(timeout.prev)) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (nonNull(timeout.next)) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Empties the bucket and returns the head of the removed list
+         */
+        private Timeout<E> drain() {
+            Timeout<E> result = head;
+            head = null;
+            for (Timeout<E> timeout = result; nonNull(timeout); timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.prev = null;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.configuration;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.salesforce.pyplyn.model.*;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+
+/**
+ * A stage of the transform pipeline, planned from a {@link com.salesforce.pyplyn.configuration.Configuration}'s transforms
+ * <p/>
+ * <p/>Consecutive transforms that use the default async behavior are fused into a single stage, which applies
+ *   them one after another, on a single thread; this avoids a thread hop per transform and converting
+ *   between {@link TimeSeries} batches and {@link Transmutation} matrices between transforms of the same kind.
+ * <p/>
+ * <p/>{@link PollingTransform}s, and any transforms that override {@link Transform#applyAsync(List, Scheduler)}
+ *   or {@link Transform#applyBatchAsync(List, Scheduler)}, remain stage boundaries.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+final class TransformStage {
+    /**
+     * Caches whether each transform type can be fused, since this is determined via reflection
+     */
+    private static final ConcurrentMap<Class<?>, Boolean> FUSIBLE_TYPES = new ConcurrentHashMap<>();
+
+    private final List<Transform> transforms;
+    private final boolean fused;
+
+
+    private TransformStage(List<Transform> transforms, boolean fused) {
+        this.transforms = transforms;
+        this.fused = fused;
+    }
+
+    /**
+     * Plans the stages required to apply the specified transforms, in order
+     */
+    static List<TransformStage> plan(List<Transform> transforms) {
+        List<TransformStage> stages = new ArrayList<>();
+        List<Transform> fusible = new ArrayList<>();
+
+        for (Transform transform : transforms) {
+            if (isFusible(transform)) {
+                fusible.add(transform);
+                continue;
+            }
+
+            // a boundary ends the current fused stage
+            if (!fusible.isEmpty()) {
+                stages.add(new TransformStage(fusible, true));
+                fusible = new ArrayList<>();
+            }
+            stages.add(new TransformStage(Collections.singletonList(transform), false));
+        }
+
+        if (!fusible.isEmpty()) {
+            stages.add(new TransformStage(fusible, true));
+        }
+
+        return stages;
+    }
+
+    /**
+     * @return true if this stage contains a {@link PollingTransform}, which should run on a dedicated scheduler
+     */
+    boolean isPolling() {
+        return !fused && transforms.get(0) instanceof PollingTransform;
+    }
+
+    /**
+     * @return the transforms applied by this stage
+     */
+    List<Transform> transforms() {
+        return transforms;
+    }
+
+    /**
+     * Applies this stage's transforms, observed on the specified {@link Scheduler}
+     */
+    Flowable<List<TimeSeries>> applyAsync(List<TimeSeries> input, Scheduler scheduler) {
+        if (!fused) {
+            return transforms.get(0).applyBatchAsync(input, scheduler);
+        }
+
+        return Flowable.just(input)
+                .observeOn(scheduler)
+                .map(this::applyInline);
+    }
+
+    /**
+     * Applies all fused transforms on the calling thread, only converting the data when a transform
+     *   expects a different form than the previous one
+     */
+    List<TimeSeries> applyInline(List<TimeSeries> input) {
+        List<TimeSeries> batch = input;
+        List<List<Transmutation>> matrix = null;
+
+        for (Transform transform : transforms) {
+            if (transform instanceof BatchTransform) {
+                if (nonNull(matrix)) {
+                    batch = TimeSeries.fromMatrix(matrix);
+                    matrix = null;
+                }
+                batch = ((BatchTransform) transform).applyBatch(batch);
+
+            } else {
+                if (isNull(matrix)) {
+                    matrix = TimeSeries.toMatrix(batch);
+                }
+                if (!transform.skipTransform(matrix)) {
+                    matrix = transform.apply(matrix);
+                }
+            }
+        }
+
+        return isNull(matrix) ? batch : TimeSeries.fromMatrix(matrix);
+    }
+
+    /**
+     * @return true if the transform does not override the default async behavior, and can be applied inline
+     */
+    private static boolean isFusible(Transform transform) {
+        return !(transform instanceof PollingTransform)
+                && FUSIBLE_TYPES.computeIfAbsent(transform.getClass(), TransformStage::usesDefaultAsync);
+    }
+
+    private static boolean usesDefaultAsync(Class<?> type) {
+        try {
+            Class<?> applyAsync = type.getMethod("applyAsync", List.class, Scheduler.class).getDeclaringClass();
+            Class<?> applyBatchAsync = type.getMethod("applyBatchAsync", List.class, Scheduler.class).getDeclaringClass();
+            return applyAsync == Transform.class
+                    && (applyBatchAsync == Transform.class || applyBatchAsync == BatchTransform.class);
+
+        } catch (NoSuchMethodException e) {
+            // cannot happen, since all transforms inherit these methods
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TransformStage{transforms=" + transforms + ", fused=" + fused + "}";
+    }
+}
@@ -65,6 +65,24 @@ public abstract class Argus implements Extract {
     @Value.Auxiliary
     public abstract Double defaultValue();
 
+    /**
+     * If true, only the datapoints that are new since the previous run are loaded and merged with the ones
+     *   previously loaded; this only applies to expressions that start with a relative time (e.g. -6h:...)
+     *   and is configured by {@link com.salesforce.pyplyn.duct.appconfig.AppConfig.ArgusIncremental}
+     * <p/>
+     * <p/>Results of incremental expressions are not cached, regardless of {@link #cacheMillis()},
+     *   since their datapoints are already buffered. Expressions that return more than one series
+     *   (e.g. wildcards) cannot be buffered, and are loaded in full.
+     *
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Value.Auxiliary
+    public boolean incremental() {
+        return false;
+    }
+
     /**
      * @return the cache key for this object
      */
@@ -8,14 +8,19 @@
 package com.salesforce.pyplyn.duct.etl.extract.argus;
 
 import static com.salesforce.pyplyn.util.FormatUtils.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,15 +32,26 @@ import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforce.argus.ArgusClient;
+import com.salesforce.argus.model.Datapoints;
+import com.salesforce.argus.model.ImmutableMetricResponse;
 import com.salesforce.argus.model.MetricResponse;
 import com.salesforce.pyplyn.cache.Cache;
 import com.salesforce.pyplyn.client.UnauthorizedException;
+import com.salesforce.pyplyn.configuration.EndpointConnector;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
+import com.salesforce.pyplyn.duct.appconfig.AppConfig;
+import com.salesforce.pyplyn.duct.appconfig.ImmutableAppConfig;
 import com.salesforce.pyplyn.duct.connector.AppConnectors;
+import com.salesforce.pyplyn.duct.connector.EndpointExecutor;
+import com.salesforce.pyplyn.model.Extract;
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.Message;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 import com.salesforce.pyplyn.processor.AbstractMeteredExtractProcessor;
 
+import io.reactivex.Flowable;
+
 /**
  * Extracts data from Argus endpoints
  * <p/>Annotated as Singleton as there should only be one instance of this class in operation.
@@ -46,14 +62,32 @@ import com.salesforce.pyplyn.processor.AbstractMeteredExtractProcessor;
 @Singleton
 public class ArgusExtractProcessor extends AbstractMeteredExtractProcessor<Argus> {
     private static final Logger logger = LoggerFactory.getLogger(ArgusExtractProcessor.class);
+    private static final String EXPRESSION_PARAMETER = "expression=";
+
+    /**
+     * Min number of recorded requests, before the endpoint's latency percentiles are used to hedge requests
+     */
+    private static final int MIN_HEDGING_SAMPLES = 20;
 
     private final AppConnectors appConnectors;
+    private final EndpointExecutor endpointExecutor;
     private final ShutdownHook shutdownHook;
+    private final AppConfig.ArgusBatching batching;
+    private final ArgusSeriesBuffers seriesBuffers;
+    private final SingleFlight<List<MetricResponse>> inFlightRequests = new SingleFlight<>();
 
     @Inject
-    public ArgusExtractProcessor(AppConnectors appConnectors, ShutdownHook shutdownHook) {
+    public ArgusExtractProcessor(AppConnectors appConnectors, EndpointExecutor endpointExecutor, ShutdownHook shutdownHook, AppConfig appConfig) {
         this.appConnectors = appConnectors;
+        this.endpointExecutor = endpointExecutor;
         this.shutdownHook = shutdownHook;
+        this.batching = Optional.ofNullable(appConfig.argusBatching())
+                .orElseGet(() -> ImmutableAppConfig.ArgusBatching.builder().build());
+
+        AppConfig.ArgusIncremental incremental = Optional.ofNullable(appConfig.argusIncremental())
+                .orElseGet(() -> ImmutableAppConfig.ArgusIncremental.builder().build());
+        this.seriesBuffers = new ArgusSeriesBuffers(incremental.overlapMillis(), incremental.maxDatapointsPerSeries(),
+                incremental.maxTrackedSeries(), incremental.expireAfterMillis());
     }
 
     /**
@@ -61,170 +95,260 @@ public class ArgusExtractProcessor extends AbstractMeteredExtractProcessor<Argus
      */
     @Override
     public List<List<Transmutation>> process(List<Argus> data) {
-        // prepare a map of the datapoints that can be cached
-        final Map<String, Integer> cacheSettings = data.stream().filter(argus -> argus.cacheMillis() > 0).collect(Collectors.toMap(Argus::cacheKey, Argus::cacheMillis));
+        return TimeSeries.toMatrix(processBatch(data));
+    }
+
+    /**
+     * Processes the Argus expressions directly into series, only referencing the originating {@link MetricResponse}s
+     *   if required
+     */
+    @Override
+    public Flowable<List<TimeSeries>> executeBatchAsync(List<Extract> data, boolean retainSource) {
+        List<Argus> filtered = filter(data);
+        if (!filtered.isEmpty()) {
+            return Flowable.fromCallable(() -> processBatch(filtered, retainSource));
+        }
+
+        return Flowable.empty();
+    }
+
+    /**
+     * @return a series for each metric returned by executing the passed Argus expressions,
+     *   tagged with the originating {@link MetricResponse}s
+     */
+    @Override
+    public List<TimeSeries> processBatch(List<Argus> data) {
+        return processBatch(data, true);
+    }
+
+    /**
+     * @param retainSource if true, each series' metadata will reference its originating {@link MetricResponse}
+     * @return a series for each metric returned by executing the passed Argus expressions
+     */
+    public List<TimeSeries> processBatch(List<Argus> data, boolean retainSource) {
+        // incremental expressions are rewritten to only load the datapoints that are new since the previous run
+        final long nowMillis = System.currentTimeMillis();
+        final Map<String, Argus> incrementalExpressions = data.stream().filter(Argus::incremental)
+                .collect(Collectors.toMap(Argus::name, Function.identity(), (first, second) -> first));
+        final Set<String> loadedIncrementally = new HashSet<>();
+        final List<Argus> requests = data.stream().map(argus -> {
+            if (!argus.incremental()) {
+                return argus;
+            }
+
+            Argus rewritten = seriesBuffers.rewrite(argus, nowMillis);
+            if (rewritten != argus) {
+                loadedIncrementally.add(argus.name());
+            }
+            return rewritten;
+        }).collect(Collectors.toList());
+
+        // prepare a map of the datapoints that can be cached; incremental expressions are already buffered
+        final Map<String, Integer> cacheSettings = data.stream().filter(argus -> argus.cacheMillis() > 0 && !argus.incremental()).collect(Collectors.toMap(Argus::cacheKey, Argus::cacheMillis));
 
         // prepare a map of default values, in case no data is found for some of the expressions
         final Map<String, Double> defaultValueMap = data.stream().filter(argus -> nonNull(argus.defaultValue())).collect(Collectors.toMap(Argus::name, Argus::defaultValue));
 
-        // stream of metrics to be loaded from the endpoints or from cache
-        return data.stream()
-                // separate each metric by endpoint
-                .collect(Collectors.groupingBy(Argus::endpoint))
+        // separate each metric by endpoint
+        final Map<String, List<Argus>> expressionsByEndpoint = requests.stream().collect(Collectors.groupingBy(Argus::endpoint));
+
+        // then process expressions for each endpoint in parallel
+        return endpointExecutor.invokeAll(expressionsByEndpoint.entrySet(), endpointExpressions -> {
+            final String endpointId = endpointExpressions.getKey();
+
+            // retrieve Argus client and cache for the specified endpoint
+            AppConnectors.ClientAndCache<ArgusClient, MetricResponse> cc = appConnectors.retrieveOrBuildClient(endpointId, ArgusClient.class, MetricResponse.class);
+            final ArgusClient client = cc.client();
+            final Cache<MetricResponse> endpointCache = cc.cache();
+
+            // TODO: move this someplace better
+            try {
+                client.authenticate();
+
+            } catch (UnauthorizedException e) {
+                // log auth failure if this exception type was thrown
+                authenticationFailure();
+                failed();
+
+                // stop here if we cannot authenticate
+                logger.warn("", e);
+                return null;
+            }
+
+            // look up each expression in the cache exactly once (incremental expressions are never cached);
+            //   only load expressions that aren't cached, and that are not already being loaded from the same endpoint;
+            //   the latter will wait for the in-flight request's results, while the calls owned by this request
+            //   are removed from <b>owned</b> once completed
+            final List<MetricResponse> cachedResponses = new ArrayList<>();
+            final Map<Argus, SingleFlight.Call<List<MetricResponse>>> owned = new LinkedHashMap<>();
+            final List<Map.Entry<Argus, CompletableFuture<List<MetricResponse>>>> coalesced = new ArrayList<>();
+            for (Argus argus : endpointExpressions.getValue()) {
+                MetricResponse cached = argus.incremental() ? null : endpointCache.isCached(argus.cacheKey());
+                if (nonNull(cached)) {
+                    cachedResponses.add(cached);
+                    continue;
+                }
+
+                SingleFlight.Call<List<MetricResponse>> call = inFlightRequests.join(inFlightKey(endpointId, argus));
+                if (call.isOwner()) {
+                    owned.put(argus, call);
+                } else {
+                    coalesced.add(new AbstractMap.SimpleImmutableEntry<>(argus, call.future()));
+                }
+            }
+            final List<Argus> toLoad = new ArrayList<>(owned.keySet());
+
+            try {
+                // short circuit if app was shutdown
+                if (shutdownHook.isShutdown()) {
+                    return null;
+                }
 
-                // then process each endpoint in parallel
-                .entrySet().parallelStream()
+                // retrieve metrics from Argus endpoint, only if we have expressions to retrieve;
+                //   expressions are split in chunks, to keep request URLs within the endpoint's limits
+                List<List<Argus>> chunks = chunkExpressions(toLoad, batching.maxExpressionsPerRequest(), batching.maxQueryLength());
+                List<List<MetricResponse>> chunkResponses = getMetricsInChunks(endpointId, client, chunks);
 
-                // process expressions for each endpoint
-                .map(endpointExpressions -> {
-                    final String endpointId = endpointExpressions.getKey();
+                List<MetricResponse> metricResponses = new ArrayList<>();
+                int failedChunks = 0;
+                for (int i = 0; i < chunks.size(); i++) {
+                    List<MetricResponse> responses = chunkResponses.get(i);
 
-                    // retrieve Argus client and cache for the specified endpoint
-                    AppConnectors.ClientAndCache<ArgusClient, MetricResponse> cc = appConnectors.retrieveOrBuildClient(endpointId, ArgusClient.class, MetricResponse.class);
-                    final ArgusClient client = cc.client();
-                    final Cache<MetricResponse> endpointCache = cc.cache();
+                    // failures are isolated to their chunk; any waiters for its expressions are failed below
+                    if (isNull(responses)) {
+                        failed();
+                        failedChunks++;
+                        continue;
+                    }
 
-                    // TODO: move this someplace better
-                    try {
-                        client.authenticate();
+                    // cache expressions that should be cached, based on their cacheMillis() settings mapped in canCache
+                    responses.stream()
+                            // we are not caching results with no data
+                            .filter(ArgusExtractProcessor::responseHasDatapoints)
+                            .forEach(result -> tryCache(endpointCache, result, cacheSettings));
 
-                    } catch (UnauthorizedException e) {
-                        // log auth failure if this exception type was thrown
-                        authenticationFailure();
-                        failed();
+                    // share the responses with any requests for the same expressions
+                    completeInFlightRequests(endpointId, chunks.get(i), responses, owned);
+                    metricResponses.addAll(responses);
+                }
 
-                        // stop here if we cannot authenticate
-                        logger.warn("", e);
-                        return null;
-                    }
+                // stop here if all requests failed
+                if (failedChunks > 0 && failedChunks == chunks.size()) {
+                    return null;
+                }
+
+                // wait for the results of identical requests that were already in progress
+                List<MetricResponse> coalescedResponses = awaitInFlightRequests(endpointId, coalesced);
+                if (!coalesced.isEmpty()) {
+                    coalesced(coalesced.size());
+
+                    // cache coalesced responses for this request's cacheMillis() settings
+                    coalescedResponses.stream()
+                            .filter(ArgusExtractProcessor::responseHasDatapoints)
+                            .forEach(result -> tryCache(endpointCache, result, cacheSettings));
+                }
+
+                // mark successful operation and continue processing
+                succeeded();
+
+                // log cache debugging data
+                logger.info("{} metrics loaded from cache, {} from endpoint {}, {} from in-flight requests",
+                        cachedResponses.size(), metricResponses.size(), endpointId, coalescedResponses.size());
+
+                final List<MetricResponse> allResponses = Stream.of(cachedResponses, metricResponses, coalescedResponses)
+                        .flatMap(Collection::stream).collect(Collectors.toList());
+
+                // incremental expressions that return more than one series cannot be buffered
+                final Set<String> multiSeries = refuseMultiSeriesExpressions(allResponses, incrementalExpressions, endpointId);
+
+                // check all metrics with noData and populate with defaults, if required
+                return allResponses.stream()
+
+                        // if there is missing data, add default datapoints
+                        .map(result -> {
+                            // nothing to do if the response already has datapoints
+                            if (responseHasDatapoints(result)) {
+                                logger.info("Loaded data for {}, endpoint {}", result.metric(), endpointId);
+                                return mergeIncremental(mapDatapointsAsSeries(result, endpointId, retainSource),
+                                        incrementalExpressions, loadedIncrementally, multiSeries, nowMillis);
+                            }
 
-                    // first load the cached responses
-                    final List<MetricResponse> cachedResponses = endpointExpressions.getValue().stream()
-                            .map(s -> endpointCache.isCached(s.cacheKey()))
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
+                            // incremental expressions may not have loaded new datapoints, in which case the buffered ones are returned
+                            if (incrementalExpressions.containsKey(result.metric()) && !multiSeries.contains(result.metric())) {
+                                TimeSeries buffered = mergeIncremental(mapDatapointsAsSeries(result, endpointId, retainSource),
+                                        incrementalExpressions, loadedIncrementally, multiSeries, nowMillis);
+                                if (!buffered.isEmpty()) {
+                                    logger.info("Loaded buffered data for {}, endpoint {}", result.metric(), endpointId);
+                                    return buffered;
+                                }
+                            }
 
+                            // if the response does not have any datapoints and a default value was not specified
+                            Double defaultValue = defaultValueMap.get(result.metric());
+                            if (isNull(defaultValue)) {
+                                // log no-data events
+                                logger.warn("No data for {}, endpoint {}", result.metric(), endpointId);
+                                noData();
 
-                    // prepare Argus expressions as strings
-                    List<String> expressions = endpointExpressions.getValue().stream()
+                                // stop here, cannot create a Transmutation from no points
+                                return null;
+                            }
 
-                            // only processes expressions that aren't already cached
-                            .filter(s -> isNull(endpointCache.isCached(s.cacheKey())))
+                            // creates a default datapoint, based on the specified defaultValueMap
+                            final Map.Entry<String, String> defaultMetricEntry = createDefaultDatapoint(defaultValue);
 
-                            // always alias the expression with the expected name,
-                            //   in order to be able to identify it in the response
-                            .map(ArgusExtractProcessor::aliasExpression)
-                            .collect(Collectors.toList());
+                            // tags the result with a message, to denote that this is a default value and not extracted from the endpoint
+                            final String defaultValueMessage =
+                                    generateDefaultValueMessage(result.metric(), defaultValue);
 
-                    try {
-                        // short circuit if app was shutdown
-                        if (shutdownHook.isShutdown()) {
-                            return null;
-                        }
+                            // return the default value, tagged with
+                            return Optional.ofNullable(
+                                    // attempt to create a result
+                                    createResult(defaultMetricEntry.getKey(),
+                                            defaultMetricEntry.getValue(),
+                                            result.metric(),
+                                            endpointId))
 
-                        // retrieve metrics from Argus endpoint, only if we have expressions to retrieve
-                        List<MetricResponse> metricResponses;
-                        if (!expressions.isEmpty()) {
-                            try (Timer.Context context = systemStatus.timer(meterName(), "get-metrics." + endpointId).time()) {
-                                metricResponses = client.getMetrics(expressions);
-                            }
+                                    // add a default message and, if required, tag the datapoint with the originating MetricResponse object
+                                    .map(transResult -> {
+                                        logger.info("Default data provided for {}={}, endpoint {}", result.metric(), transResult.value(), endpointId);
+                                        return ImmutableTransmutation.builder().from(transResult)
+                                                .metadata(ImmutableTransmutation.Metadata.builder()
+                                                        .from(transResult.metadata())
+                                                        .addMessageTemplates(Message.of(defaultValueMessage))
+                                                        .source(retainSource ? result : null)
+                                                        .build())
+                                                .build();
 
-                            // determine if the retrieval failed; stop here if that's the case
-                            if (isNull(metricResponses)) {
-                                failed();
-                                return null;
-                            }
+                                    })
 
-                            // cache expressions that should be cached, based on their cacheMillis() settings mapped in canCache
-                            metricResponses.stream()
-                                    // we are not caching results with no data
-                                    .filter(ArgusExtractProcessor::responseHasDatapoints)
-                                    .forEach(result -> tryCache(endpointCache, result, cacheSettings));
-                        } else {
-                            metricResponses = Collections.emptyList();
-                        }
-
-                        // mark successful operation and continue processing
-                        succeeded();
-
-                        // log cache debugging data
-                        logger.info("{} metrics loaded from cache, {} from endpoint {}",
-                                cachedResponses.size(), metricResponses.size(), endpointId);
-
-                        // check all metrics with noData and populate with defaults, if required
-                        return Stream.concat(cachedResponses.stream(), metricResponses.stream())
-
-                                // if there is missing data, add default datapoints
-                                .map(result -> {
-                                    // nothing to do if the response already has datapoints
-                                    if (responseHasDatapoints(result)) {
-                                        logger.info("Loaded data for {}, endpoint {}", result.metric(), endpointId);
-                                        return mapDatapointsAsResults(result, endpointId);
-                                    }
-
-                                    // if the response does not have any datapoints and a default value was not specified
-                                    Double defaultValue = defaultValueMap.get(result.metric());
-                                    if (isNull(defaultValue)) {
-                                        // log no-data events
-                                        logger.warn("No data for {}, endpoint {}", result.metric(), endpointId);
-                                        noData();
-
-                                        // stop here, cannot create a Transmutation from no points
-                                        return null;
-                                    }
-
-                                    // creates a default datapoint, based on the specified defaultValueMap
-                                    final Map.Entry<String, String> defaultMetricEntry = createDefaultDatapoint(defaultValue);
-
-                                    // tags the result with a message, to denote that this is a default value and not extracted from the endpoint
-                                    final String defaultValueMessage =
-                                            generateDefaultValueMessage(result.metric(), defaultValue);
-
-                                    // return the default value, tagged with
-                                    return Optional.ofNullable(
-                                            // attempt to create a result
-                                            createResult(defaultMetricEntry.getKey(),
-                                                    defaultMetricEntry.getValue(),
-                                                    result.metric(),
-                                                    endpointId))
-
-                                            // tag each datapoint with the originating MetricResponse object
-                                            .map(transmutation -> addOriginalDatapoint(transmutation, result))
-
-                                            // add a default message
-                                            .map(transResult -> {
-                                                logger.info("Default data provided for {}={}, endpoint {}", result.metric(), transResult.value(), endpointId);
-                                                return ImmutableTransmutation.builder().from(transResult)
-                                                        .metadata(ImmutableTransmutation.Metadata.builder()
-                                                                .from(transResult.metadata())
-                                                                .addMessages(defaultValueMessage)
-                                                                .build())
-                                                        .build();
-
-                                            })
-
-                                            // and map to a list, which is the expected return type
-                                            .map(Collections::singletonList)
-
-                                            // or return an empty collection, for any failures
-                                            .orElse(null);
-
-                                })
-
-                                // filter out any errors due to no-data or when creating the default response
-                                .filter(Objects::nonNull)
-
-                                .collect(Collectors.toList());
-
-                        // catch any endpoint failures
-                    } catch (UnauthorizedException e) {
-                        logger.error("Could not complete request for {}; failed expressions={}; due to {}", endpointId, expressions, e.getMessage());
-                        failed();
-                    }
+                                    // and map to a series, which is the expected return type
+                                    .map(transResult -> TimeSeries.fromTransmutations(Collections.singletonList(transResult)))
 
-                    // if we end up here, it means something failed
-                    return null;
-                })
+                                    // or return an empty collection, for any failures
+                                    .orElse(null);
+
+                        })
+
+                        // filter out any errors due to no-data or when creating the default response
+                        .filter(Objects::nonNull)
+
+                        .collect(Collectors.toList());
+
+                // catch any endpoint failures
+            } catch (CompletionException e) {
+                logger.error("Could not complete request for {}; due to {}", endpointId, e.getMessage());
+                failed();
+
+            } finally {
+                // release the owned in-flight requests that could not be completed, causing their waiters to fail
+                owned.forEach((argus, call) -> inFlightRequests.fail(inFlightKey(endpointId, argus), call,
+                        new IllegalStateException("Could not load " + argus.name() + " from " + endpointId)));
+            }
+
+            // if we end up here, it means something failed
+            return null;
+        }).stream()
 
                 // filter failures and return as List<MetricResponse>
                 .filter(Objects::nonNull)
@@ -233,40 +357,271 @@ public class ArgusExtractProcessor extends AbstractMeteredExtractProcessor<Argus
     }
 
     /**
-     * Maps datapoints returned by Argus as a {@link Transmutation} matrix
+     * Loads all chunks of expressions, concurrently, while respecting the endpoint's concurrency limit
+     *   (see {@link EndpointConnector#maxConcurrentRequests()})
+     *
+     * @return the responses of each chunk, in the same order, or null for the chunks that failed
      */
-    private List<Transmutation> mapDatapointsAsResults(MetricResponse metricResponse, String endpointId) {
-        // store metric name, as it's the same for all data points
-        final String metricName = metricResponse.metric();
+    private List<List<MetricResponse>> getMetricsInChunks(String endpointId, ArgusClient client, List<List<Argus>> chunks) {
+        // a single chunk is loaded on the calling thread, unless it could be hedged
+        if (chunks.size() <= 1 && hedgingPercentile(endpointId) <= 0) {
+            return chunks.stream().map(chunk -> getMetrics(endpointId, client, chunk)).collect(Collectors.toList());
+        }
 
-        // map each datapoint to a Transmutation object
-        return metricResponse.datapoints().entrySet().stream()
-                // create TransformResultStage object
-                .map(metricEntry -> createResult(metricEntry.getKey(), metricEntry.getValue(), metricName, endpointId))
+        // otherwise, the calling thread only waits for permits to send each request, and then for all responses
+        List<CompletableFuture<List<MetricResponse>>> requests = chunks.stream()
+                .map(chunk -> getMetricsAsync(endpointId, client, chunk))
+                .collect(Collectors.toList());
 
-                // filter any failures and collect
-                .filter(Objects::nonNull)
+        return requests.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
 
-                // tag each datapoint with the originating MetricResponse object
-                .map(result -> addOriginalDatapoint(result, metricResponse))
+    /**
+     * Loads the specified expressions in a single request
+     *
+     * @return the endpoint's responses, or null if the request failed
+     */
+    private List<MetricResponse> getMetrics(String endpointId, ArgusClient client, List<Argus> chunk) {
+        List<String> expressions = aliasExpressions(chunk);
 
-                .collect(Collectors.toList());
+        try (Timer.Context context = systemStatus.timer(meterName(), "get-metrics." + endpointId).time()) {
+            return client.getMetrics(expressions);
+
+        } catch (UnauthorizedException e) {
+            logger.error("Could not complete request for {}; failed expressions={}; due to {}", endpointId, expressions, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads the specified expressions in a single request, without waiting for the response
+     *
+     * @return a future completed with the endpoint's responses, or with null if the request failed
+     */
+    private CompletableFuture<List<MetricResponse>> getMetricsAsync(String endpointId, ArgusClient client, List<Argus> chunk) {
+        List<String> expressions = aliasExpressions(chunk);
+
+        Timer timer = systemStatus.timer(meterName(), "get-metrics." + endpointId);
+        long hedgeAfterNanos = hedgeAfterNanos(endpointId, timer);
+        long startNanos = System.nanoTime();
+
+        // slow requests are hedged, if enabled for the endpoint; only the original request's latency is recorded,
+        //   since the hedging delay is derived from the timer and recording the winner's latency would lower it
+        CompletableFuture<List<MetricResponse>> request = hedgeAfterNanos > 0
+                ? client.getMetricsAsync(expressions, hedgeAfterNanos, latency -> timer.update(latency, TimeUnit.NANOSECONDS))
+                : client.getMetricsAsync(expressions);
+
+        return request.handle((responses, error) -> {
+            if (hedgeAfterNanos <= 0) {
+                timer.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+
+            if (nonNull(error)) {
+                Throwable cause = (error instanceof CompletionException && nonNull(error.getCause())) ? error.getCause() : error;
+                logger.error("Could not complete request for {}; failed expressions={}; due to {}", endpointId, expressions, cause.getMessage());
+                return null;
+            }
+
+            return responses;
+        });
+    }
+
+    /**
+     * @return the endpoint's latency at the connector's hedging percentile, or 0 if requests should not be hedged
+     */
+    private long hedgeAfterNanos(String endpointId, Timer timer) {
+        double percentile = hedgingPercentile(endpointId);
+        if (percentile <= 0 || timer.getCount() < MIN_HEDGING_SAMPLES) {
+            return 0;
+        }
+
+        return (long) timer.getSnapshot().getValue(percentile);
+    }
+
+    /**
+     * @return the latency percentile after which requests to the specified endpoint are hedged, or 0 if disabled
+     */
+    private double hedgingPercentile(String endpointId) {
+        return Optional.ofNullable(appConnectors.findConnector(endpointId))
+                .map(EndpointConnector::hedgingPercentile)
+                .orElse(0.0);
+    }
+
+    /**
+     * Always alias the expression with the expected name, in order to be able to identify it in the response
+     */
+    private static List<String> aliasExpressions(List<Argus> chunk) {
+        return chunk.stream().map(ArgusExtractProcessor::aliasExpression).collect(Collectors.toList());
     }
 
     /**
-     * Adds a reference to the original datapoint in the {@link Transmutation}'s metadata
+     * Splits the specified expressions into chunks that contain at most <b>maxExpressions</b> expressions,
+     *   and whose encoded query string (of aliased expressions) is at most <b>maxQueryLength</b> characters long
+     * <p/>Expressions that exceed <b>maxQueryLength</b> on their own are sent in a separate chunk.
      */
-    private Transmutation addOriginalDatapoint(Transmutation input, Object source) {
-        return ImmutableTransmutation.builder().from(input)
-                .metadata(ImmutableTransmutation.Metadata.builder()
-                        .from(input.metadata())
-                        // TODO: do this for Refocus too, and/or define global flag for skipping this step
-                        //       alternatively, either specify this flag per configuration (+1) or detect if it will be required (based on some annotation
-                        //       implemented by Transforms - i.e.: @RequiresSourceObject
-                        .source(source)
-                        .build())
-                .build();
+    static List<List<Argus>> chunkExpressions(List<Argus> expressions, int maxExpressions, int maxQueryLength) {
+        List<List<Argus>> chunks = new ArrayList<>();
+        List<Argus> chunk = new ArrayList<>();
+        int queryLength = 0;
+
+        for (Argus argus : expressions) {
+            int length = encodedQueryParameterLength(aliasExpression(argus));
+
+            // start a new chunk if this expression does not fit in the current one
+            if (!chunk.isEmpty() && (chunk.size() >= maxExpressions || queryLength + length > maxQueryLength)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                queryLength = 0;
+            }
+
+            chunk.add(argus);
+            queryLength += length;
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * @return the length of the expression, as a URL-encoded query parameter (including its separator)
+     */
+    private static int encodedQueryParameterLength(String expression) {
+        try {
+            return EXPRESSION_PARAMETER.length() + URLEncoder.encode(expression, UTF_8.name()).length() + 1;
+
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Publishes the loaded responses to any requests waiting for the same expressions, removing the completed calls
+     *   from <b>owned</b>
+     * <p/>All series returned for an expression are published (e.g. wildcard expressions return multiple series,
+     *   aliased to the same name); expressions missing from the endpoint's response are published as an empty list (no data).
+     */
+    private void completeInFlightRequests(String endpointId, List<Argus> loaded, List<MetricResponse> responses,
+                                          Map<Argus, SingleFlight.Call<List<MetricResponse>>> owned) {
+        Map<String, List<MetricResponse>> responsesByName = responses.stream()
+                .collect(Collectors.groupingBy(MetricResponse::metric));
+
+        loaded.forEach(argus -> inFlightRequests.complete(inFlightKey(endpointId, argus), owned.remove(argus),
+                responsesByName.getOrDefault(argus.name(), Collections.emptyList())));
+    }
+
+    /**
+     * Waits for the results of identical requests that were in progress, renaming each response to the name
+     *   expected by the waiting {@link Argus} object
+     * <p/>Failures are isolated to the expressions whose in-flight requests failed.
+     */
+    private List<MetricResponse> awaitInFlightRequests(String endpointId, List<Map.Entry<Argus, CompletableFuture<List<MetricResponse>>>> inFlight) {
+        List<MetricResponse> responses = new ArrayList<>(inFlight.size());
+        for (Map.Entry<Argus, CompletableFuture<List<MetricResponse>>> request : inFlight) {
+            List<MetricResponse> series;
+            try {
+                series = request.getValue().join();
+
+            } catch (CompletionException e) {
+                logger.error("Could not complete request for {}, endpoint {}; due to {}", request.getKey().name(), endpointId, e.getMessage());
+                failed();
+                continue;
+            }
+
+            // the expression may have returned no results, or multiple series
+            String name = request.getKey().name();
+            for (MetricResponse response : series) {
+                if (Objects.equals(response.metric(), name)) {
+                    responses.add(response);
+                } else {
+                    responses.add(ImmutableMetricResponse.builder().from(response).metric(name).build());
+                }
+            }
+        }
+
+        return responses;
+    }
+
+    /**
+     * Identifies requests for the same expression, on the same endpoint
+     */
+    private static String inFlightKey(String endpointId, Argus argus) {
+        return endpointId + "/" + argus.expression();
+    }
+
+    /**
+     * Stops buffering incremental expressions which returned more than one series (e.g. expressions with wildcards);
+     *   since all of their series are aliased to the same name, they cannot be told apart and would be merged
+     *   into a single buffer
+     * <p/>
+     * <p/>These expressions are loaded in full, until they no longer return multiple series
+     *   (see {@link ArgusSeriesBuffers#refuse(Argus)}).
+     *
+     * @return the names of the refused expressions
+     */
+    private Set<String> refuseMultiSeriesExpressions(List<MetricResponse> responses, Map<String, Argus> incrementalExpressions, String endpointId) {
+        if (incrementalExpressions.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Map<String, Long> seriesCount = responses.stream()
+                .map(MetricResponse::metric)
+                .filter(incrementalExpressions::containsKey)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        final Set<String> refused = new HashSet<>();
+        seriesCount.forEach((name, count) -> {
+            if (count < 2) {
+                return;
+            }
+
+            refused.add(name);
+            if (seriesBuffers.refuse(incrementalExpressions.get(name))) {
+                logger.warn("Expression {} returned {} series, endpoint {}; it will be loaded in full instead of incrementally",
+                        name, count, endpointId);
+            }
+        });
+        return refused;
+    }
+
+    /**
+     * Merges the datapoints loaded for incremental expressions with their buffered datapoints
+     *
+     * @return the merged series, or the loaded series if it was not loaded for an incremental expression
+     *   or if its expression returned multiple series
+     */
+    private TimeSeries mergeIncremental(TimeSeries loaded, Map<String, Argus> incrementalExpressions, Set<String> loadedIncrementally,
+                                        Set<String> multiSeries, long nowMillis) {
+        Argus argus = incrementalExpressions.get(loaded.name());
+        if (isNull(argus) || multiSeries.contains(loaded.name())) {
+            return loaded;
+        }
+
+        return seriesBuffers.merge(argus, loadedIncrementally.contains(argus.name()), loaded, nowMillis);
+    }
+
+    /**
+     * Maps datapoints returned by Argus as a {@link TimeSeries}, optionally tagged with the originating MetricResponse object
+     */
+    private TimeSeries mapDatapointsAsSeries(MetricResponse metricResponse, String endpointId, boolean retainSource) {
+        final String metricName = metricResponse.metric();
+        final Datapoints series = metricResponse.series();
+
+        // datapoints that could not be parsed were skipped during deserialization
+        if (series.invalidCount() > 0) {
+            logger.warn("No data for {} datapoints of {}, endpoint {}; invalid time or value", series.invalidCount(), metricName, endpointId);
+            for (int i = 0; i < series.invalidCount(); i++) {
+                noData();
+            }
+        }
 
+        return TimeSeries.of(metricName,
+                ImmutableTransmutation.Metadata.builder().source(retainSource ? metricResponse : null).build(),
+                series.timestamps(),
+                series.values());
     }
 
 
@@ -302,7 +657,7 @@ public class ArgusExtractProcessor extends AbstractMeteredExtractProcessor<Argus
      * <p/>This method is used to determine if the result should be cached.
      */
     static boolean responseHasDatapoints(MetricResponse response) {
-        return !response.datapoints().isEmpty();
+        return !response.series().isEmpty();
     }
 
     /**
@@ -0,0 +1,402 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.extract.argus;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforce.pyplyn.model.TimeSeries;
+
+/**
+ * Buffers the recent datapoints of incremental {@link Argus} expressions, allowing them to be loaded
+ *   in small increments instead of loading their full time window on every run
+ * <p/>
+ * <p/>Only expressions that start with a relative time (e.g. <i>-6h:scope:metric:avg</i>) can be loaded incrementally;
+ *   once datapoints were buffered for such an expression, its start time is rewritten to the last buffered timestamp,
+ *   minus <b>overlapMillis</b>. The loaded datapoints are then merged with the buffered ones: loaded datapoints replace
+ *   buffered datapoints with the same or later timestamps, which refreshes recent (possibly incomplete) values,
+ *   and buffered datapoints that fall outside the expression's time window are dropped.
+ * <p/>
+ * <p/>The first loaded datapoint is discarded if its timestamp is already buffered, since it may aggregate
+ *   a partial interval (when the expression downsamples datapoints); for this reason, <b>overlapMillis</b>
+ *   should be longer than the expressions' downsampling intervals.
+ * <p/>
+ * <p/>Each series retains at most <b>maxDatapointsPerSeries</b>, and at most <b>maxTrackedSeries</b> series
+ *   are buffered; series that are evicted or not loaded for <b>expireAfterMillis</b> are simply loaded in full again.
+ *   Expressions whose window holds more datapoints than a series can retain are {@link #refuse(Argus) refused}
+ *   and loaded in full, since buffering them would drop the window's oldest datapoints.
+ * <p/>
+ * <p/>Buffers are identified by expression, so expressions that return more than one series (e.g. wildcards,
+ *   whose series are all aliased to the same name) cannot be buffered either; these are also refused
+ *   and loaded in full.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class ArgusSeriesBuffers {
+    private static final Logger logger = LoggerFactory.getLogger(ArgusSeriesBuffers.class);
+
+    /**
+     * Matches the relative start time of an expression (e.g. -6h), if followed by the rest of the expression
+     */
+    private static final Pattern RELATIVE_START_TIME = Pattern.compile("^-(\\d+)([smhd])(?=:)");
+
+    private final Cache<String, SeriesBuffer> buffers;
+    private final Cache<String, Boolean> refused;
+    private final long overlapMillis;
+    private final int maxDatapointsPerSeries;
+
+
+    /**
+     * Class constructor
+     *
+     * @param overlapMillis how far before the last buffered datapoint the next increment starts
+     * @param maxDatapointsPerSeries max number of datapoints buffered for each series
+     * @param maxTrackedSeries max number of buffered series
+     * @param expireAfterMillis how long a series is buffered, after it was last loaded
+     */
+    ArgusSeriesBuffers(long overlapMillis, int maxDatapointsPerSeries, long maxTrackedSeries, long expireAfterMillis) {
+        this(overlapMillis, maxDatapointsPerSeries, maxTrackedSeries, expireAfterMillis, Ticker.systemTicker());
+    }
+
+    /**
+     * Allows specifying a custom ticker (used in tests)
+     */
+    ArgusSeriesBuffers(long overlapMillis, int maxDatapointsPerSeries, long maxTrackedSeries, long expireAfterMillis, Ticker ticker) {
+        this.overlapMillis = overlapMillis;
+        this.maxDatapointsPerSeries = maxDatapointsPerSeries;
+        this.buffers = CacheBuilder.newBuilder()
+                .expireAfterAccess(expireAfterMillis, MILLISECONDS)
+                .maximumSize(maxTrackedSeries)
+                .ticker(ticker)
+                .build();
+        this.refused = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireAfterMillis, MILLISECONDS)
+                .maximumSize(maxTrackedSeries)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Rewrites the expression's start time, to only load datapoints since the last buffered datapoint (minus the overlap)
+     *
+     * @return the rewritten {@link Argus} object, or the passed object if its expression should be loaded in full
+     */
+    Argus rewrite(Argus argus, long nowMillis) {
+        Matcher matcher = RELATIVE_START_TIME.matcher(argus.expression());
+        SeriesBuffer buffer = buffers.getIfPresent(key(argus));
+        if (!matcher.find() || isNull(buffer) || isRefused(argus)) {
+            return argus;
+        }
+
+        long from;
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                return argus;
+            }
+
+            // do not load datapoints outside the expression's window, if the buffer is older than that
+            from = Math.max(buffer.lastTime() - overlapMillis, nowMillis - windowMillis(matcher));
+        }
+
+        return ImmutableArgus.builder().from(argus)
+                .expression(from + argus.expression().substring(matcher.end()))
+                .build();
+    }
+
+    /**
+     * Merges the loaded datapoints with the buffered ones
+     *
+     * @param argus the (not rewritten) expression the datapoints were loaded for
+     * @param incremental true if the datapoints were loaded with a rewritten expression, false if the full window was loaded
+     * @param loaded the loaded datapoints
+     * @return all datapoints in the expression's window, or the loaded datapoints if the expression cannot
+     *   be loaded incrementally (including when its window holds more than <b>maxDatapointsPerSeries</b>)
+     */
+    TimeSeries merge(Argus argus, boolean incremental, TimeSeries loaded, long nowMillis) {
+        Matcher matcher = RELATIVE_START_TIME.matcher(argus.expression());
+        if (!matcher.find() || isRefused(argus)) {
+            return loaded;
+        }
+
+        // if the buffer was evicted after the increment was requested, return what was loaded;
+        //   the full window will be loaded on the next run
+        SeriesBuffer buffer = incremental ? buffers.getIfPresent(key(argus)) : getOrCreate(key(argus));
+        if (isNull(buffer)) {
+            return loaded;
+        }
+
+        synchronized (buffer) {
+            // loading the full window replaces all buffered datapoints
+            if (!incremental) {
+                buffer.clear();
+            }
+
+            // skip the first loaded datapoint if it is already buffered, as it may aggregate a partial interval
+            int start = 0;
+            if (!loaded.isEmpty() && buffer.contains(loaded.timeMillis(0))) {
+                start = 1;
+            }
+
+            // replace all buffered datapoints that were loaded again
+            if (start < loaded.size()) {
+                buffer.truncateFrom(loaded.timeMillis(start));
+            }
+
+            // drop the ones that are no longer in the expression's window, before making room for the loaded ones
+            long windowStart = nowMillis - windowMillis(matcher);
+            buffer.evictBefore(windowStart);
+
+            for (int i = start; i < loaded.size(); i++) {
+                long time = loaded.timeMillis(i);
+                if (time < windowStart) {
+                    continue;
+                }
+
+                // the window does not fit in the buffer; appending would overwrite datapoints that are still in the window
+                if (buffer.isFull()) {
+                    if (refuse(argus)) {
+                        logger.warn("Expression {} returned more than {} datapoints, endpoint {}; it will be loaded in full instead of incrementally",
+                                argus.name(), maxDatapointsPerSeries, argus.endpoint());
+                    }
+                    return loaded;
+                }
+                buffer.append(time, loaded.value(i));
+            }
+
+            return TimeSeries.of(loaded.name(), loaded.metadata(), buffer.times(), buffer.values());
+        }
+    }
+
+    /**
+     * Stops buffering the specified expression, because it returned more than one series, or more datapoints
+     *   than a series can retain; the expression is loaded in full until <b>expireAfterMillis</b> have passed since it was last refused
+     *
+     * @return true if the expression was not already refused
+     */
+    boolean refuse(Argus argus) {
+        String key = key(argus);
+        buffers.invalidate(key);
+        return isNull(refused.asMap().put(key, Boolean.TRUE));
+    }
+
+    private boolean isRefused(Argus argus) {
+        return nonNull(refused.getIfPresent(key(argus)));
+    }
+
+    private SeriesBuffer getOrCreate(String key) {
+        SeriesBuffer buffer = buffers.getIfPresent(key);
+        if (isNull(buffer)) {
+            buffer = buffers.asMap().computeIfAbsent(key, k -> new SeriesBuffer(maxDatapointsPerSeries));
+        }
+        return buffer;
+    }
+
+    /**
+     * Identifies each series by endpoint, name and the original expression, so that changed expressions are loaded in full
+     */
+    private static String key(Argus argus) {
+        return argus.endpoint() + "/" + argus.name() + "/" + argus.expression();
+    }
+
+    /**
+     * @return the length of the time window denoted by the matched relative start time
+     */
+    private static long windowMillis(Matcher relativeStartTime) {
+        long amount = Long.parseLong(relativeStartTime.group(1));
+        switch (relativeStartTime.group(2)) {
+            case "s":
+                return TimeUnit.SECONDS.toMillis(amount);
+            case "m":
+                return TimeUnit.MINUTES.toMillis(amount);
+            case "h":
+                return TimeUnit.HOURS.toMillis(amount);
+            default:
+                return TimeUnit.DAYS.toMillis(amount);
+        }
+    }
+
+
+    /**
+     * Bounded ring buffer of datapoints, sorted by time; appending to a full buffer overwrites the oldest datapoint
+     * <p/>
+     * <p/>The backing arrays start small and are doubled on demand, up to the buffer's max capacity, since most
+     *   expressions return far fewer datapoints than the configured maximum.
+     * <p/>
+     * <p/>This class is not thread-safe.
+     */
+    static class SeriesBuffer {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int maxCapacity;
+        private long[] times;
+        private double[] values;
+        private int head;
+        private int size;
+
+
+        SeriesBuffer(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+            int capacity = Math.min(INITIAL_CAPACITY, maxCapacity);
+            this.times = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        /**
+         * @return the length of the backing arrays
+         */
+        int capacity() {
+            return times.length;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return true if the buffer holds its max capacity, in which case appending overwrites the oldest datapoint
+         */
+        boolean isFull() {
+            return size == maxCapacity;
+        }
+
+        /**
+         * @return the time of the most recent datapoint; only valid if the buffer is not empty
+         */
+        long lastTime() {
+            return times[index(size - 1)];
+        }
+
+        /**
+         * @return true if a datapoint with the specified time is buffered
+         */
+        boolean contains(long time) {
+            // searching from the end, since recent datapoints are usually requested
+            for (int i = size - 1; i >= 0; i--) {
+                long current = times[index(i)];
+                if (current == time) {
+                    return true;
+                } else if (current < time) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Appends a datapoint; its time should be later than {@link #lastTime()}
+         */
+        void append(long time, double value) {
+            if (size == times.length && times.length < maxCapacity) {
+                grow();
+            }
+
+            int index;
+            if (size < times.length) {
+                index = index(size);
+                size++;
+            } else {
+                // overwrite the oldest datapoint
+                index = head;
+                head = index(1);
+            }
+
+            times[index] = time;
+            values[index] = value;
+        }
+
+        /**
+         * Removes all datapoints
+         */
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        /**
+         * Removes all datapoints at or after the specified time
+         */
+        void truncateFrom(long time) {
+            while (size > 0 && lastTime() >= time) {
+                size--;
+            }
+        }
+
+        /**
+         * Removes all datapoints before the specified time
+         */
+        void evictBefore(long time) {
+            while (size > 0 && times[head] < time) {
+                head = index(1);
+                size--;
+            }
+        }
+
+        /**
+         * @return a copy of the buffered times, in order
+         */
+        long[] times() {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = times[index(i)];
+            }
+            return result;
+        }
+
+        /**
+         * @return a copy of the buffered values, in order
+         */
+        double[] values() {
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[index(i)];
+            }
+            return result;
+        }
+
+        /**
+         * Doubles the backing arrays (up to the max capacity), moving the oldest datapoint to the start
+         */
+        private void grow() {
+            int capacity = (int) Math.min((long) maxCapacity, 2L * times.length);
+            long[] grownTimes = new long[capacity];
+            double[] grownValues = new double[capacity];
+            for (int i = 0; i < size; i++) {
+                grownTimes[i] = times[index(i)];
+                grownValues[i] = values[index(i)];
+            }
+
+            times = grownTimes;
+            values = grownValues;
+            head = 0;
+        }
+
+        /**
+         * Maps a position relative to the oldest datapoint, to an array index
+         */
+        private int index(int position) {
+            return (head + position) % times.length;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.extract.argus;
+
+import static java.util.Objects.isNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces concurrent requests for the same key into a single call
+ * <p/>
+ * <p/>The first caller to {@link #join(String)} a key becomes the call's owner, responsible for performing the call and then
+ *   {@link #complete(String, Call, Object)}-ing or {@link #fail(String, Call, Throwable)}-ing it; any callers that join
+ *   the same key before that happens receive the in-flight call's result instead of performing their own.
+ * <p/>
+ * <p/>Calls are completed by identity: completing or failing a call that is no longer in flight does not affect
+ *   any newer call made for the same key.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class SingleFlight<V> {
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+
+    /**
+     * @return a call which should be performed by the caller, if {@link Call#isOwner()}, or the call already in flight
+     */
+    Call<V> join(String key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        return isNull(existing) ? new Call<>(created, true) : new Call<>(existing, false);
+    }
+
+    /**
+     * Publishes the result of a call to all waiters and allows new calls to be made for the same key
+     *
+     * @return false if the call was already completed
+     */
+    boolean complete(String key, Call<V> call, V value) {
+        inFlight.remove(key, call.future());
+        return call.future().complete(value);
+    }
+
+    /**
+     * Signals all waiters that the call failed and allows new calls to be made for the same key
+     *
+     * @return false if the call was already completed
+     */
+    boolean fail(String key, Call<V> call, Throwable cause) {
+        inFlight.remove(key, call.future());
+        return call.future().completeExceptionally(cause);
+    }
+
+
+    /**
+     * A call joined for a key
+     */
+    static final class Call<V> {
+        private final CompletableFuture<V> future;
+        private final boolean owner;
+
+        private Call(CompletableFuture<V> future, boolean owner) {
+            this.future = future;
+            this.owner = owner;
+        }
+
+        /**
+         * @return true if the caller that joined this call should perform it
+         */
+        boolean isOwner() {
+            return owner;
+        }
+
+        /**
+         * @return the call's result
+         */
+        CompletableFuture<V> future() {
+            return future;
+        }
+    }
+}
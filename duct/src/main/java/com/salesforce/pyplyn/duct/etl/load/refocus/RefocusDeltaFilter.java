@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.load.refocus;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.salesforce.refocus.model.Link;
+import com.salesforce.refocus.model.Sample;
+
+/**
+ * Suppresses Refocus samples that have not changed since they were last sent
+ * <p/>
+ * <p/>Remembers a fingerprint of each sample's value, message code, message body, and related links, by endpoint and
+ *   sample name. Fingerprints expire <b>forcedRefreshIntervalMillis</b> after being recorded, which causes unchanged
+ *   samples to be resent periodically, renewing their Refocus timeouts.
+ * <p/>
+ * <p/>At most <b>maxTrackedSamples</b> fingerprints are kept; evicted samples are simply sent again.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class RefocusDeltaFilter {
+    private final Cache<String, HashCode> lastSent;
+
+
+    /**
+     * Class constructor
+     *
+     * @param forcedRefreshIntervalMillis how often unchanged samples are sent
+     * @param maxTrackedSamples max number of remembered fingerprints
+     */
+    RefocusDeltaFilter(long forcedRefreshIntervalMillis, long maxTrackedSamples) {
+        this(forcedRefreshIntervalMillis, maxTrackedSamples, Ticker.systemTicker());
+    }
+
+    /**
+     * Allows specifying a custom ticker (used in tests)
+     */
+    RefocusDeltaFilter(long forcedRefreshIntervalMillis, long maxTrackedSamples, Ticker ticker) {
+        this.lastSent = CacheBuilder.newBuilder()
+                .expireAfterWrite(forcedRefreshIntervalMillis, MILLISECONDS)
+                .maximumSize(maxTrackedSamples)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Returns the samples that have changed (or that need to be refreshed), recording them as sent
+     */
+    List<Sample> changed(String endpointId, List<Sample> samples) {
+        List<Sample> result = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            String key = key(endpointId, sample);
+            HashCode fingerprint = fingerprint(sample);
+
+            // suppress unchanged samples; their fingerprint is not rewritten, to allow it to expire
+            if (fingerprint.equals(lastSent.getIfPresent(key))) {
+                continue;
+            }
+
+            lastSent.put(key, fingerprint);
+            result.add(sample);
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets the specified samples, causing them to be sent on the next cycle (called when they could not be posted)
+     */
+    void forget(String endpointId, List<Sample> samples) {
+        samples.forEach(sample -> lastSent.invalidate(key(endpointId, sample)));
+    }
+
+    private static String key(String endpointId, Sample sample) {
+        return endpointId + "/" + sample.name();
+    }
+
+    /**
+     * Hashes all the fields that are displayed by Refocus
+     */
+    private static HashCode fingerprint(Sample sample) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        putNullable(hasher, sample.value());
+        putNullable(hasher, sample.messageCode());
+        putNullable(hasher, sample.messageBody());
+        for (Link link : sample.relatedLinks()) {
+            putNullable(hasher, link.name());
+            putNullable(hasher, link.url());
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Writes the value's length before its contents, so that adjacent fields cannot be confused
+     */
+    private static void putNullable(Hasher hasher, String value) {
+        if (isNull(value)) {
+            hasher.putInt(-1);
+            return;
+        }
+
+        hasher.putInt(value.length()).putString(value, UTF_8);
+    }
+}
@@ -1,23 +1,36 @@
 package com.salesforce.pyplyn.duct.etl.load.refocus;
 
 import static com.salesforce.pyplyn.util.FormatUtils.formatNumber;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforce.pyplyn.client.UnauthorizedException;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
+import com.salesforce.pyplyn.duct.appconfig.AppConfig;
 import com.salesforce.pyplyn.duct.connector.AppConnectors;
+import com.salesforce.pyplyn.duct.connector.EndpointExecutor;
+import com.salesforce.pyplyn.model.Message;
 import com.salesforce.pyplyn.model.Transmutation;
 import com.salesforce.pyplyn.processor.AbstractMeteredLoadProcessor;
+import com.salesforce.pyplyn.status.SystemStatus;
 import com.salesforce.refocus.RefocusClient;
 import com.salesforce.refocus.model.ImmutableSample;
 import com.salesforce.refocus.model.Link;
@@ -35,12 +48,48 @@ public class RefocusLoadProcessor extends AbstractMeteredLoadProcessor<Refocus>
     private static final Logger logger = LoggerFactory.getLogger(RefocusLoadProcessor.class);
 
     private final AppConnectors appConnectors;
+    private final EndpointExecutor endpointExecutor;
     private final ShutdownHook shutdownHook;
+    private final AppConfig.WriteBehind writeBehindConfig;
+    private final ScheduledExecutorService writeBehindExecutor;
+    private final AtomicReference<RefocusWriteBehind> writeBehind = new AtomicReference<>();
+    private final RefocusDeltaFilter deltaFilter;
 
     @Inject
-    public RefocusLoadProcessor(AppConnectors appConnectors, ShutdownHook shutdownHook) {
+    public RefocusLoadProcessor(AppConnectors appConnectors, EndpointExecutor endpointExecutor, ShutdownHook shutdownHook, AppConfig appConfig) {
         this.appConnectors = appConnectors;
+        this.endpointExecutor = endpointExecutor;
         this.shutdownHook = shutdownHook;
+        this.writeBehindConfig = appConfig.writeBehind();
+        this.deltaFilter = initDeltaFilter(appConfig.deltaLoad());
+        this.writeBehindExecutor = initWriteBehindExecutor();
+    }
+
+    /**
+     * Initializes the delta filter, if delta loading is enabled
+     *
+     * @return null if samples should always be sent
+     */
+    private static RefocusDeltaFilter initDeltaFilter(AppConfig.DeltaLoad deltaLoad) {
+        if (isNull(deltaLoad) || !deltaLoad.isEnabled()) {
+            return null;
+        }
+
+        return new RefocusDeltaFilter(deltaLoad.forcedRefreshIntervalMillis(), deltaLoad.maxTrackedSamples());
+    }
+
+    /**
+     * Posts all rows of an ETL cycle as Refocus samples, sending a single bulk upsert per endpoint
+     *
+     * @return Empty list if nothing was processed
+     */
+    @Override
+    public List<Boolean> processBatch(List<List<Transmutation>> rows, List<Refocus> destinations) {
+        List<Transmutation> data = rows.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+
+        return process(data, destinations);
     }
 
     /**
@@ -55,93 +104,220 @@ public class RefocusLoadProcessor extends AbstractMeteredLoadProcessor<Refocus>
             return Collections.emptyList();
         }
 
-        boolean allUpserted = destinations.stream()
-                // group by endpoint
-                .collect(Collectors.groupingBy(Refocus::endpoint))
-
-                // process each endpoint individually
-                .entrySet().parallelStream()
-
-                .map(destinationEntry -> {
-                    // retrieve client endpoint
-                    String endpointId = destinationEntry.getKey();
-                    final List<Refocus> loadDestinations = destinationEntry.getValue();
-
-                    // retrieve Refocus client and cache for the specified endpoint
-                    AppConnectors.ClientAndCache<RefocusClient, Sample> cc = appConnectors.retrieveOrBuildClient(endpointId, RefocusClient.class, Sample.class);
-                    final RefocusClient client = cc.client();
-
-                    // TODO: move this someplace better
-                    try {
-                        client.authenticate();
-
-                    } catch (UnauthorizedException e) {
-                        // log auth failure if this exception type was thrown
-                        authenticationFailure();
-
-                        // stop here if we could not authenticate
-                        logger.warn("", e);
-                        return Boolean.FALSE;
-                    }
-
-                    // for all expressions belonging to this client
-                    List<Sample> allSamplesForEndpoint = loadDestinations.stream()
-                            .map(loadDestination -> {
-                                final String sampleName = loadDestination.name();
-                                final List<Link> relatedLinks = loadDestination.relatedLinks();
-                                String defaultMessageCode = loadDestination.defaultMessageCode();
-                                String defaultMessageBody = loadDestination.defaultMessageBody();
-
-                                return data.stream().map(result -> {
-                                    // create message code and body, based on previously defined values
-                                    Transmutation.Metadata metadata = result.metadata();
-                                    String messageCodeString = Optional.ofNullable(metadata.messageCode()).orElse(defaultMessageCode);
-                                    String messageBodyString = Optional.ofNullable(convertMessagesToString(metadata.messages())).orElse(defaultMessageBody);
-
-                                    return ImmutableSample.builder()
-                                            .name(sampleName)
-                                            .value(formatNumber(result.value()))
-                                            .relatedLinks(relatedLinks)
-                                            .messageCode(messageCodeString)
-                                            .messageBody(messageBodyString)
-                                            .build();
-                                });
-                            })
-
-                            // flatten stream and collect to list of samples that need to be processed by this endpoint
-                            .flatMap(s -> s)
-                            .collect(Collectors.toList());
-
-                    // if shutting down, do not post to the Refocus endpoint
-                    if (shutdownHook.isShutdown()) {
-                        return Boolean.FALSE;
-                    }
-
-                    // send expressions to Refocus endpoint
-                    try (Timer.Context context = systemStatus.timer(meterName(), "upsert-samples-bulk." + endpointId).time()) {
-                        return client.upsertSamplesBulk(allSamplesForEndpoint);
-
-                        // return failure
-                    } catch (UnauthorizedException e) {
-                        logger.error("Could not complete request for {}; failed samples={}", endpointId, allSamplesForEndpoint);
-                        return Boolean.FALSE;
-                    }
-                })
+        // group by endpoint
+        final Map<String, List<Refocus>> destinationsByEndpoint = destinations.stream().collect(Collectors.groupingBy(Refocus::endpoint));
+
+        // process each endpoint individually, in parallel
+        boolean allUpserted = endpointExecutor.invokeAll(destinationsByEndpoint.entrySet(), destinationEntry -> {
+            String endpointId = destinationEntry.getKey();
+            List<Sample> allSamplesForEndpoint = createSamples(data, destinationEntry.getValue());
+
+            // if shutting down, do not post to the Refocus endpoint
+            if (shutdownHook.isShutdown()) {
+                return Boolean.FALSE;
+            }
+
+            // skip samples that have not changed since they were last sent
+            if (nonNull(deltaFilter)) {
+                List<Sample> changed = deltaFilter.changed(endpointId, allSamplesForEndpoint);
+                suppressed(allSamplesForEndpoint.size() - changed.size());
+                if (changed.isEmpty()) {
+                    return Boolean.TRUE;
+                }
+                allSamplesForEndpoint = changed;
+            }
+
+            // buffer the samples, if write-behind is enabled; they will be posted (and metered) when flushed
+            if (isWriteBehindEnabled()) {
+                if (writeBehind.get().write(endpointId, allSamplesForEndpoint)) {
+                    return Boolean.TRUE;
+                }
+
+                // the buffer was closed while shutting down, post the samples directly
+                Boolean upserted = upsertSamples(endpointId, allSamplesForEndpoint);
+                markResult(upserted);
+                return upserted;
+            }
+
+            return upsertSamples(endpointId, allSamplesForEndpoint);
+        }).stream()
 
                 // return true if all Samples are successfully upserted into all endpoints
-                .allMatch(s -> s.equals(Boolean.TRUE));
+                .allMatch(Boolean.TRUE::equals);
 
         // log result of operation
-        //   Note: the upsertSamplesBulk Refocus API call, will always return OK, so failures will be marked
-        //         only if the endpoint does not respond at all, or we cannot authorize against it
+        if (!isWriteBehindEnabled()) {
+            markResult(allUpserted);
+        }
+
+        // return final result
+        return Collections.singletonList(allUpserted);
+    }
+
+    /**
+     * Creates one sample for each data point and load destination
+     */
+    private List<Sample> createSamples(List<Transmutation> data, List<Refocus> loadDestinations) {
+        return loadDestinations.stream()
+                .map(loadDestination -> {
+                    final String sampleName = loadDestination.name();
+                    final List<Link> relatedLinks = loadDestination.relatedLinks();
+                    String defaultMessageCode = loadDestination.defaultMessageCode();
+                    String defaultMessageBody = loadDestination.defaultMessageBody();
+
+                    return data.stream().map(result -> {
+                        // create message code and body, based on previously defined values
+                        Transmutation.Metadata metadata = result.metadata();
+                        String messageCodeString = Optional.ofNullable(metadata.messageCode()).orElse(defaultMessageCode);
+                        String messageBodyString = Optional.ofNullable(convertMessagesToString(metadata.messageTemplates())).orElse(defaultMessageBody);
+
+                        return (Sample) ImmutableSample.builder()
+                                .name(sampleName)
+                                .value(formatNumber(result.value()))
+                                .relatedLinks(relatedLinks)
+                                .messageCode(messageCodeString)
+                                .messageBody(messageBodyString)
+                                .build();
+                    });
+                })
+
+                // flatten stream and collect to list of samples that need to be processed by this endpoint
+                .flatMap(s -> s)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Posts the samples and records the number of samples sent
+     *
+     * @return true if the samples were accepted by the endpoint
+     */
+    private Boolean upsertSamples(String endpointId, List<Sample> samples) {
+        Boolean upserted = postSamples(endpointId, samples);
+        if (upserted) {
+            sent(samples.size());
+
+        // allow failed samples to be resent on the next cycle, even if they did not change
+        } else if (nonNull(deltaFilter)) {
+            deltaFilter.forget(endpointId, samples);
+        }
+
+        return upserted;
+    }
+
+    /**
+     * Authenticates against the specified endpoint and posts the samples in a single bulk request
+     *
+     * @return true if the samples were accepted by the endpoint
+     */
+    private Boolean postSamples(String endpointId, List<Sample> samples) {
+        // retrieve Refocus client and cache for the specified endpoint
+        AppConnectors.ClientAndCache<RefocusClient, Sample> cc = appConnectors.retrieveOrBuildClient(endpointId, RefocusClient.class, Sample.class);
+        final RefocusClient client = cc.client();
+
+        // TODO: move this someplace better
+        try {
+            client.authenticate();
+
+        } catch (UnauthorizedException e) {
+            // log auth failure if this exception type was thrown
+            authenticationFailure();
+
+            // stop here if we could not authenticate
+            logger.warn("", e);
+            return Boolean.FALSE;
+        }
+
+        // send expressions to Refocus endpoint
+        try (Timer.Context context = systemStatus.timer(meterName(), "upsert-samples-bulk." + endpointId).time()) {
+            return client.upsertSamplesBulk(samples);
+
+            // return failure
+        } catch (UnauthorizedException e) {
+            logger.error("Could not complete request for {}; failed samples={}", endpointId, samples);
+            return Boolean.FALSE;
+        }
+    }
+
+    /**
+     * Marks the result of posting samples
+     * <p/>
+     * <p/>Note: the upsertSamplesBulk Refocus API call, will always return OK, so failures will be marked
+     *   only if the endpoint does not respond at all, or we cannot authorize against it
+     */
+    private void markResult(boolean allUpserted) {
         if (allUpserted) {
             succeeded();
         } else {
             failed();
         }
+    }
 
-        // return final result
-        return Collections.singletonList(allUpserted);
+
+    //
+    // WRITE-BEHIND
+    //
+
+    private boolean isWriteBehindEnabled() {
+        return nonNull(writeBehindConfig) && writeBehindConfig.isEnabled();
+    }
+
+    /**
+     * Creates and registers the executor that periodically flushes the write-behind buffer, when the processor
+     *   is built, to ensure it is registered before the app can shut down
+     * <p/>
+     * <p/>When the app shuts down, the buffer is closed and drained, after the shutdown flag was set;
+     *   any samples written afterwards are posted directly.
+     *
+     * @return null if write-behind is not enabled
+     */
+    private ScheduledExecutorService initWriteBehindExecutor() {
+        if (!isWriteBehindEnabled()) {
+            return null;
+        }
+
+        ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("Refocus-WriteBehind-%s").setDaemon(true).build();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(factory);
+        shutdownHook.registerExecutor(executor);
+        // only capture the buffer's reference, which is initialized when the SystemStatus is injected
+        final AtomicReference<RefocusWriteBehind> buffer = writeBehind;
+        shutdownHook.registerOperation(() -> closeWriteBehind(buffer.get()));
+        return executor;
+    }
+
+    /**
+     * Initializes the write-behind buffer, once the {@link SystemStatus} used to meter it is injected
+     */
+    @Inject
+    @Override
+    public synchronized void setSystemStatus(SystemStatus systemStatus) {
+        super.setSystemStatus(systemStatus);
+        if (!isWriteBehindEnabled() || nonNull(writeBehind.get())) {
+            return;
+        }
+
+        RefocusWriteBehind buffer = new RefocusWriteBehind(writeBehindConfig.maxBufferSize(), writeBehindConfig.maxBatchSize(),
+                (endpointId, samples) -> {
+                    Boolean upserted = upsertSamples(endpointId, samples);
+                    markResult(upserted);
+                    return upserted;
+                },
+                systemStatus.histogram(meterName(), "write-behind-buffer-depth"),
+                systemStatus.histogram(meterName(), "write-behind-flush-size"),
+                systemStatus.timer(meterName(), "write-behind-flush"),
+                writeBehindExecutor);
+
+        long flushIntervalMillis = writeBehindConfig.flushIntervalMillis();
+        writeBehindExecutor.scheduleWithFixedDelay(buffer::flush, flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
+        writeBehind.set(buffer);
+    }
+
+    /**
+     * Rejects further writes and posts all pending samples
+     */
+    private static void closeWriteBehind(RefocusWriteBehind buffer) {
+        if (nonNull(buffer)) {
+            buffer.close();
+        }
     }
 
 
@@ -150,13 +326,13 @@ public class RefocusLoadProcessor extends AbstractMeteredLoadProcessor<Refocus>
      *
      * @return null if there are no messages
      */
-    private static String convertMessagesToString(final List<String> messages) {
+    private static String convertMessagesToString(final List<Message> messages) {
         // if there are no messages, stop here
         if (messages.isEmpty()) {
             return null;
         }
 
-        return messages.stream().collect(Collectors.joining("\n"));
+        return messages.stream().map(Message::render).collect(Collectors.joining("\n"));
     }
 
     @Override
@@ -0,0 +1,185 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.load.refocus;
+
+import static java.util.Objects.isNull;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Lists;
+import com.salesforce.refocus.model.Sample;
+
+/**
+ * Write-behind buffer for Refocus samples
+ * <p/>
+ * <p/>Collects the samples produced by all configurations, grouped by endpoint, and posts them in bulk when
+ *   <b>maxBufferSize</b> samples are pending, or when {@link #flush()} is called (periodically, and on shutdown).
+ *   Samples with the same name (<i>subject|aspect</i>) are deduplicated, keeping the last value written.
+ * <p/>
+ * <p/>Each endpoint's samples are posted in chunks of at most <b>maxBatchSize</b>.
+ * <p/>
+ * <p/>Once {@link #close()} was called, all pending samples are drained and further writes are rejected,
+ *   allowing callers to post them directly.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class RefocusWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(RefocusWriteBehind.class);
+
+    private final int maxBufferSize;
+    private final int maxBatchSize;
+    private final BiFunction<String, List<Sample>, Boolean> upsert;
+    private final Histogram bufferDepth;
+    private final Histogram flushSize;
+    private final Timer flushLatency;
+    private final Executor flushExecutor;
+
+    /**
+     * Pending samples, by endpoint and sample name; guarded by this object's lock
+     */
+    private Map<String, Map<String, Sample>> buffers = new HashMap<>();
+    private int depth;
+    private boolean closed;
+
+    /**
+     * Ensures flushes do not run concurrently, which would allow an older value to overwrite a newer one
+     */
+    private final Object flushLock = new Object();
+
+
+    /**
+     * Class constructor
+     *
+     * @param maxBufferSize number of pending samples that trigger a flush
+     * @param maxBatchSize max number of samples posted in a single bulk request
+     * @param upsert posts the specified samples to the specified endpoint
+     * @param bufferDepth records the number of pending samples, after each write
+     * @param flushSize records the number of samples flushed to each endpoint
+     * @param flushLatency records the duration of each flush
+     * @param flushExecutor executes flushes triggered by the buffer reaching its max size
+     */
+    RefocusWriteBehind(int maxBufferSize, int maxBatchSize, BiFunction<String, List<Sample>, Boolean> upsert,
+                       Histogram bufferDepth, Histogram flushSize, Timer flushLatency, Executor flushExecutor) {
+        this.maxBufferSize = maxBufferSize;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.upsert = upsert;
+        this.bufferDepth = bufferDepth;
+        this.flushSize = flushSize;
+        this.flushLatency = flushLatency;
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * Buffers the specified samples, replacing any pending samples with the same name
+     *
+     * @return false if the buffer was closed, in which case the samples were not buffered
+     */
+    boolean write(String endpointId, List<Sample> samples) {
+        boolean full;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+
+            Map<String, Sample> buffer = buffers.computeIfAbsent(endpointId, key -> new LinkedHashMap<>());
+            for (Sample sample : samples) {
+                if (isNull(buffer.put(sample.name(), sample))) {
+                    depth++;
+                }
+            }
+
+            bufferDepth.update(depth);
+            full = depth >= maxBufferSize;
+        }
+
+        if (full) {
+            try {
+                flushExecutor.execute(this::flush);
+
+            } catch (RejectedExecutionException e) {
+                // the executor was shut down; the samples are drained when the buffer is closed
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rejects all further writes and posts all pending samples
+     *
+     * @return true if all samples were successfully posted
+     */
+    boolean close() {
+        synchronized (this) {
+            closed = true;
+        }
+        return flush();
+    }
+
+    /**
+     * Posts all pending samples
+     *
+     * @return true if all samples were successfully posted
+     */
+    boolean flush() {
+        synchronized (flushLock) {
+            Map<String, Map<String, Sample>> pending;
+            synchronized (this) {
+                if (depth == 0) {
+                    return true;
+                }
+
+                pending = buffers;
+                buffers = new HashMap<>();
+                depth = 0;
+            }
+
+            try (Timer.Context context = flushLatency.time()) {
+                boolean allUpserted = true;
+                for (Map.Entry<String, Map<String, Sample>> entry : pending.entrySet()) {
+                    List<Sample> samples = new ArrayList<>(entry.getValue().values());
+                    flushSize.update(samples.size());
+
+                    for (List<Sample> chunk : Lists.partition(samples, maxBatchSize)) {
+                        allUpserted &= upsert(entry.getKey(), chunk);
+                    }
+                }
+                return allUpserted;
+            }
+        }
+    }
+
+    /**
+     * Posts a chunk of samples, logging any errors, since they would otherwise stop future flushes
+     */
+    private boolean upsert(String endpointId, List<Sample> chunk) {
+        try {
+            return Boolean.TRUE.equals(upsert.apply(endpointId, chunk));
+
+        } catch (RuntimeException e) {
+            logger.warn("Could not flush {} samples to {}", chunk.size(), endpointId, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return number of pending samples
+     */
+    synchronized int depth() {
+        return depth;
+    }
+}
@@ -9,6 +9,8 @@
 package com.salesforce.pyplyn.duct.etl.transform.standard;
 
 import static com.salesforce.pyplyn.util.FormatUtils.formatNumberFiveCharLimit;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -22,8 +24,10 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
+import com.salesforce.pyplyn.model.BatchTransform;
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
-import com.salesforce.pyplyn.model.Transform;
+import com.salesforce.pyplyn.model.Message;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 
 /**
@@ -31,6 +35,9 @@ import com.salesforce.pyplyn.model.Transmutation;
  * <p/>
  * <p/>This transformation is generally used in combination with the {@link Threshold}
  *   plugin which buckets values according to their severity (most severe have a higher value).
+ * <p/>
+ * <p/>Values are compared as doubles; values which are equal as doubles are compared exactly (e.g. longs larger
+ *   than 2^53). NaN values cannot be ordered and are ignored.
  *
  * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
  * @since 3.0
@@ -40,7 +47,7 @@ import com.salesforce.pyplyn.model.Transmutation;
 @JsonDeserialize(as = ImmutableHighestValue.class)
 @JsonSerialize(as = ImmutableHighestValue.class)
 @JsonTypeName("HighestValue")
-public abstract class HighestValue implements Transform {
+public abstract class HighestValue implements BatchTransform {
     private static final long serialVersionUID = 5858149783326921054L;
     private static final String ORIGINAL_TIME_TEMPLATE = "Original time: %s";
 
@@ -55,18 +62,60 @@ public abstract class HighestValue implements Transform {
     public abstract Display tagMessageBody();
 
     /**
-     * Applies this transformation and returns a new {@link com.salesforce.pyplyn.model.Transmutation} matrix
+     * Applies this transformation and returns a batch containing a single series, with the highest value found
      */
     @Override
-    public List<List<Transmutation>> apply(List<List<Transmutation>> stageInput) {
+    public List<TimeSeries> applyBatch(List<TimeSeries> input) {
         final List<Transmutation> stageResult = new ArrayList<>();
 
-        // find highest value and if present, return, also setting the message code according to specified rules
-        stageInput.stream().flatMap(Collection::stream)
-                .max(Comparator.comparing(result -> new BigDecimal(result.value().toString())))
-                .ifPresent(transformResultStage -> stageResult.add(processMetadata(transformResultStage)));
+        // find highest value (the first one, if there are more) and if present, return,
+        //   also setting the message code according to specified rules
+        TimeSeries highestSeries = null;
+        int highestIndex = -1;
+        double highestValue = Double.NaN;
+        for (TimeSeries series : input) {
+            for (int i = 0; i < series.size(); i++) {
+                double value = series.value(i);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+
+                if (isNull(highestSeries) || compare(series, i, value, highestSeries, highestIndex, highestValue) > 0) {
+                    highestSeries = series;
+                    highestIndex = i;
+                    highestValue = value;
+                }
+            }
+        }
+
+        if (nonNull(highestSeries)) {
+            stageResult.add(processMetadata(highestSeries.transmutation(highestIndex)));
+        }
+
+        return Collections.singletonList(TimeSeries.fromTransmutations(stageResult));
+    }
+
+    /**
+     * Compares two values as doubles, or exactly, if they are equal as doubles
+     */
+    private static int compare(TimeSeries series, int index, double value,
+                               TimeSeries otherSeries, int otherIndex, double otherValue) {
+        int comparison = Double.compare(value, otherValue);
+        if (comparison != 0 || Double.isInfinite(value)) {
+            return comparison;
+        }
+
+        Number number = series.numberValue(index);
+        Number otherNumber = otherSeries.numberValue(otherIndex);
+        if (number instanceof Long && otherNumber instanceof Long) {
+            return Long.compare(number.longValue(), otherNumber.longValue());
+        }
+
+        if (number instanceof Double && otherNumber instanceof Double) {
+            return 0;
+        }
 
-        return Collections.singletonList(stageResult);
+        return new BigDecimal(number.toString()).compareTo(new BigDecimal(otherNumber.toString()));
     }
 
     /**
@@ -84,7 +133,7 @@ public abstract class HighestValue implements Transform {
 
         // Tags the result with the original metric's timestamp
         if (tagMessageBody() == Display.ORIGINAL_TIMESTAMP) {
-            metadata.addMessages(String.format(ORIGINAL_TIME_TEMPLATE, result.time().toString()));
+            metadata.addMessageTemplates(Message.format(ORIGINAL_TIME_TEMPLATE, result.time()));
         }
 
         return response.metadata(metadata.build()).build();
@@ -49,7 +49,7 @@ public abstract class InfoStatus implements Transform {
                 .map(rows -> rows.stream()
                         .map(point -> {
                             // if the value indicates a status of OK, remap to a status of 1 (INFO)
-                            if (point.value().intValue() == 0) {
+                            if ((int) point.doubleValue() == 0) {
                                 return ImmutableTransmutation.builder().from(point).value(1).build();
                             }
 
@@ -8,11 +8,7 @@
 
 package com.salesforce.pyplyn.duct.etl.transform.standard;
 
-import static java.util.Objects.nonNull;
-
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.immutables.value.Value;
@@ -20,10 +16,9 @@ import org.immutables.value.Value;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.google.common.collect.Iterables;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
-import com.salesforce.pyplyn.model.Transform;
-import com.salesforce.pyplyn.model.Transmutation;
+import com.salesforce.pyplyn.model.BatchTransform;
+import com.salesforce.pyplyn.model.TimeSeries;
 
 /**
  * Filters out all but the last data point
@@ -40,26 +35,18 @@ import com.salesforce.pyplyn.model.Transmutation;
 @JsonDeserialize(as = ImmutableLastDatapoint.class)
 @JsonSerialize(as = ImmutableLastDatapoint.class)
 @JsonTypeName("LastDatapoint")
-public abstract class LastDatapoint implements Transform {
+public abstract class LastDatapoint implements BatchTransform {
     private static final long serialVersionUID = -2187464148729449576L;
 
     /**
-     * Applies this transformation and returns a new {@link Transmutation} matrix
+     * Applies this transformation and returns a new batch, containing the last datapoint of each series
+     *   (empty series are dropped)
      */
     @Override
-    public List<List<Transmutation>> apply(List<List<Transmutation>> input) {
+    public List<TimeSeries> applyBatch(List<TimeSeries> input) {
         return input.stream()
-                .map(points -> {
-                    // load last result point and return a list containing a single element
-                    Transmutation result = Iterables.getLast(points, null);
-                    if (nonNull(result)) {
-                        return Collections.singletonList(result);
-                    }
-
-                    // or return null if no result was found
-                    return null;
-                })
-                .filter(Objects::nonNull)
+                .filter(series -> !series.isEmpty())
+                .map(series -> series.slice(series.size() - 1, series.size()))
                 .collect(Collectors.toList());
     }
 }
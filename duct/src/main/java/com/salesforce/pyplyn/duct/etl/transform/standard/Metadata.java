@@ -10,8 +10,9 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
+import com.salesforce.pyplyn.model.BatchTransform;
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
-import com.salesforce.pyplyn.model.Transform;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 
 /**
@@ -27,29 +28,22 @@ import com.salesforce.pyplyn.model.Transmutation;
 @JsonDeserialize(as = ImmutableMetadata.class)
 @JsonSerialize(as = ImmutableMetadata.class)
 @JsonTypeName("Metadata")
-public abstract class Metadata implements Transform {
+public abstract class Metadata implements BatchTransform {
     private static final long serialVersionUID = 2563927446245611395L;
 
     public abstract Map<String, String> tags();
 
     /**
-     * Processes all input {@link Transmutation} objects and appends the {@link #tags()} to each one
+     * Processes all input series and appends the {@link #tags()} to their metadata
      */
     @Override
-    public List<List<Transmutation>> apply(List<List<Transmutation>> input) {
+    public List<TimeSeries> applyBatch(List<TimeSeries> input) {
         return input.stream()
-            // for all result rows
-            .map(datapoints -> datapoints.stream()
-                    // for all result columns (datapoints)
-                    .map(datapoint -> ImmutableTransmutation.builder()
-                            .from(datapoint)
-                            .metadata(ImmutableTransmutation.Metadata.builder()
-                                    .from(datapoint.metadata())
-                                    // append all metadata tags
-                                    .putAllTags(tags())
-                                    .build())
-                            .build())
-                    .collect(Collectors.toList())
-            ).collect(Collectors.toList());
+                .map(series -> series.mapMetadata(metadata -> ImmutableTransmutation.Metadata.builder()
+                        .from(metadata)
+                        // append all metadata tags
+                        .putAllTags(tags())
+                        .build()))
+                .collect(Collectors.toList());
     }
 }
@@ -8,7 +8,6 @@
 
 package com.salesforce.pyplyn.duct.etl.transform.standard;
 
-import static com.salesforce.pyplyn.util.FormatUtils.formatNumber;
 
 import java.util.List;
 import java.util.Objects;
@@ -22,8 +21,10 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.Iterables;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.Message;
 import com.salesforce.pyplyn.model.Transform;
 import com.salesforce.pyplyn.model.Transmutation;
+import com.salesforce.pyplyn.util.FormatUtils;
 
 /**
  * Tags the result stage with each input's name and value
@@ -49,10 +50,11 @@ public abstract class SaveMetricMetadata implements Transform {
     @Override
     public List<List<Transmutation>> apply(List<List<Transmutation>> input) {
         // store all name, value pairs in a map
-        final List<String> nameValuePairMessages = input.stream()
+        //   the messages are shared by all results and only rendered once, if any of the results are loaded
+        final List<Message> nameValuePairMessages = input.stream()
                 .map((iterable) -> Iterables.getOnlyElement(iterable, null))
                 .filter(Objects::nonNull)
-                .map(result -> result.name() + "=" + formatNumber(result.value()))
+                .map(result -> Message.format("%s=%s", result.name(), Message.lazy(FormatUtils::formatNumber, result.value())))
                 .collect(Collectors.toList());
 
 
@@ -63,7 +65,7 @@ public abstract class SaveMetricMetadata implements Transform {
                         .map(stage -> ImmutableTransmutation.builder().from(stage)
                                 .metadata(ImmutableTransmutation.Metadata.builder()
                                         .from(stage.metadata())
-                                        .addAllMessages(nameValuePairMessages)
+                                        .addAllMessageTemplates(nameValuePairMessages)
                                         .build())
                                 .build())
 
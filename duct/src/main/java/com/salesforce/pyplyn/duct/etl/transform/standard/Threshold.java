@@ -9,7 +9,6 @@
 package com.salesforce.pyplyn.duct.etl.transform.standard;
 
 import static com.salesforce.pyplyn.model.StatusCode.*;
-import static com.salesforce.pyplyn.util.FormatUtils.formatNumber;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -25,6 +24,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
 import com.salesforce.pyplyn.model.*;
+import com.salesforce.pyplyn.util.FormatUtils;
 
 /**
  * Applies the specified thresholds on the {@link Transmutation}'s value, and returns
@@ -120,15 +120,15 @@ public abstract class Threshold implements Transform {
         // otherwise compare value to all thresholds and determine it's status
         //   if any threshold is not specified (null), it will be ignored
         //   if all thresholds are not specified, the result will be transformed to OK
-        Number value = result.value();
+        double value = result.doubleValue();
         if (type().matches(value, criticalThreshold())) {
-            return appendMessage(changeValue(result, CRIT.value()), CRIT.code(), criticalThreshold());
+            return changeStatus(result, CRIT, criticalThreshold());
 
         } else if (type().matches(value, warningThreshold())) {
-            return appendMessage(changeValue(result, WARN.value()), WARN.code(), warningThreshold());
+            return changeStatus(result, WARN, warningThreshold());
 
         } else if (type().matches(value, infoThreshold())) {
-            return appendMessage(changeValue(result, INFO.value()), INFO.code(), infoThreshold());
+            return changeStatus(result, INFO, infoThreshold());
 
         } else {
             return changeValue(result, OK.value());
@@ -144,20 +144,24 @@ public abstract class Threshold implements Transform {
     }
 
     /**
-     * Appends a message with the explanation of what threshold was hit
+     * Changes the result's value to the specified status and appends a message with the explanation
+     *   of what threshold was hit, copying the result only once
      */
-    Transmutation appendMessage(Transmutation result, String code, Double threshold) {
-        String thresholdHitAlert = String.format(MESSAGE_TEMPLATE,
-                code,
+    Transmutation changeStatus(Transmutation result, StatusCode status, Double threshold) {
+        // the message is only rendered if this result is loaded
+        Number originalValue = result.originalValue();
+        Message thresholdHitAlert = Message.format(MESSAGE_TEMPLATE,
+                status.code(),
                 result.name(),
-                formatNumber(result.originalValue()),
+                Message.lazy(FormatUtils::formatNumber, originalValue),
                 type().name(),
                 threshold);
 
         return ImmutableTransmutation.builder().from(result)
+                .value(status.value())
                 .metadata(ImmutableTransmutation.Metadata.builder()
                         .from(result.metadata())
-                        .addMessages(thresholdHitAlert)
+                        .addMessageTemplates(thresholdHitAlert)
                         .build())
                 .build();
     }
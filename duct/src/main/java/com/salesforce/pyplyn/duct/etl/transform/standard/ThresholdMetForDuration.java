@@ -10,10 +10,7 @@ package com.salesforce.pyplyn.duct.etl.transform.standard;
 
 import static com.salesforce.pyplyn.duct.etl.transform.standard.Threshold.changeValue;
 import static com.salesforce.pyplyn.model.StatusCode.*;
-import static com.salesforce.pyplyn.util.FormatUtils.formatNumber;
 
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
@@ -29,9 +26,11 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.Iterables;
 import com.salesforce.pyplyn.annotations.PyplynImmutableStyle;
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.Message;
 import com.salesforce.pyplyn.model.ThresholdType;
 import com.salesforce.pyplyn.model.Transform;
 import com.salesforce.pyplyn.model.Transmutation;
+import com.salesforce.pyplyn.util.FormatUtils;
 
 /**
  * Determines if the input time series data has matched the threshold
@@ -93,13 +92,12 @@ public abstract class ThresholdMetForDuration implements Transform {
         }
 
         Transmutation lastPoint = Iterables.getLast(points);
-        ZonedDateTime lastPointTS = lastPoint.time();
+        long lastPointTS = lastPoint.timeMillis();
 
         // get the timestamp for the critical, warning, info durations
-        //   if the millisecond unit is not supported, it will throw UnsupportedTemporalTypeException
-        ZonedDateTime infoDurationTS = lastPointTS.minus(infoDurationMillis(), ChronoUnit.MILLIS);
-        ZonedDateTime warnDurationTS = lastPointTS.minus(warnDurationMillis(), ChronoUnit.MILLIS);
-        ZonedDateTime criticalDurationTS = lastPointTS.minus(criticalDurationMillis(), ChronoUnit.MILLIS);
+        long infoDurationTS = lastPointTS - infoDurationMillis();
+        long warnDurationTS = lastPointTS - warnDurationMillis();
+        long criticalDurationTS = lastPointTS - criticalDurationMillis();
 
         ListIterator<Transmutation> iter = points.listIterator(points.size());
         boolean matchThreshold = true;
@@ -108,27 +106,26 @@ public abstract class ThresholdMetForDuration implements Transform {
 
         while (iter.hasPrevious() && matchThreshold) {
             Transmutation result = iter.previous();
-            ZonedDateTime pointTS = result.time();
+            long pointTS = result.timeMillis();
 
-            Number value = result.value();
-            matchThreshold = type().matches(value, threshold());
+            matchThreshold = type().matches(result.doubleValue(), threshold());
 
             if (matchThreshold) {
-                if (pointTS.compareTo(criticalDurationTS) <= 0) {
+                if (pointTS <= criticalDurationTS) {
                     return Collections.singletonList(appendMessage(changeValue(result, CRIT.value()), CRIT.code(), threshold(), criticalDurationMillis()));
 
-                } else if (pointTS.compareTo(warnDurationTS) <= 0) {
+                } else if (pointTS <= warnDurationTS) {
                     atWarningLevel = true;
 
-                } else if (pointTS.compareTo(infoDurationTS) <= 0) {
+                } else if (pointTS <= infoDurationTS) {
                     atInfoLevel = true;
                 }
 
             } else {
-                if (pointTS.compareTo(warnDurationTS) <= 0) {
+                if (pointTS <= warnDurationTS) {
                     return Collections.singletonList(appendMessage(changeValue(result, WARN.value()), WARN.code(), threshold(), warnDurationMillis()));
 
-                } else if (pointTS.compareTo(infoDurationTS) <= 0) {
+                } else if (pointTS <= infoDurationTS) {
                     return Collections.singletonList(appendMessage(changeValue(result, INFO.value()), INFO.code(), threshold(), warnDurationMillis()));
 
                 } else {
@@ -149,12 +146,15 @@ public abstract class ThresholdMetForDuration implements Transform {
      * Appends a message with the explanation of what threshold was hit
      */
     Transmutation appendMessage(Transmutation result, String code, Double threshold, long durationMillis) {
-        String thresholdHitAlert = String.format(MESSAGE_TEMPLATE, code, result.name(),
-                formatNumber(result.originalValue()), type().name(), threshold, convertToTimeDuration(durationMillis));
+        // the message is only rendered if this result is loaded
+        Number originalValue = result.originalValue();
+        Message thresholdHitAlert = Message.format(MESSAGE_TEMPLATE, code, result.name(),
+                Message.lazy(FormatUtils::formatNumber, originalValue), type().name(), threshold,
+                Message.lazy(ThresholdMetForDuration::convertToTimeDuration, durationMillis));
 
         return ImmutableTransmutation.builder().from(result)
                 .metadata(ImmutableTransmutation.Metadata.builder()
-                        .addMessages(thresholdHitAlert)
+                        .addMessageTemplates(thresholdHitAlert)
                         .build())
                 .build();
     }
@@ -166,7 +166,7 @@ public abstract class ThresholdMetForDuration implements Transform {
      * @return if less than 1 day, xxh:xxm:xxs
      *         <p/>if more than 1 day, xx days xxh:xxm:xxs
      */
-    private String convertToTimeDuration(long milliseconds) {
+    private static String convertToTimeDuration(long milliseconds) {
         long days = TimeUnit.MILLISECONDS.toDays(milliseconds);
         String hms = String.format("%02dh:%02dm:%02ds",
                 TimeUnit.MILLISECONDS.toHours(milliseconds) % TimeUnit.DAYS.toHours(1),
@@ -18,8 +18,11 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -45,6 +48,8 @@ public class SystemStatusRunnable implements SystemStatus {
     private static final String SYSTEM_STATUS = "System status";
     private static final String METER_TEMPLATE = "%s %s=%s/interval";
     private static final String TIMER_TEMPLATE = "p95(%s)=%s";
+    private static final String HISTOGRAM_TEMPLATE = "%s mean=%.2f, p95=%.2f, max=%d";
+    private static final String GAUGE_TEMPLATE = "%s=%s";
 
     private final Map<String, Double> thresholds;
     private final MetricRegistry registry = new MetricRegistry();
@@ -86,6 +91,31 @@ public class SystemStatusRunnable implements SystemStatus {
         return registry.timer(name(name, method));
     }
 
+    /**
+     * @param name the name of the histogram
+     * @param method the method whose values are being tracked
+     * @return an initialized {@link Histogram}
+     */
+    @Override
+    public Histogram histogram(String name, String method) {
+        return registry.histogram(name(name, method));
+    }
+
+    /**
+     * Registers the specified gauge, replacing any gauge previously registered with the same name
+     *
+     * @param name the name of the gauge
+     * @param method the value being tracked
+     * @param gauge the gauge to register
+     * @return the registered {@link Gauge}
+     */
+    @Override
+    public synchronized <T> Gauge<T> gauge(String name, String method, Gauge<T> gauge) {
+        String gaugeName = name(name, method);
+        registry.remove(gaugeName);
+        return registry.register(gaugeName, gauge);
+    }
+
     /**
      * Registers a consumer for later processing
      * @param statusConsumers list of consumers of status messages
@@ -111,6 +141,12 @@ public class SystemStatusRunnable implements SystemStatus {
             // removes the current meter, so that it is re-initialized
             registry.remove(meterName);
 
+            // informational meters are only logged, since they do not reflect the system's health
+            if (getMeterType(meterName).map(MeterType::isInformational).orElse(false)) {
+                logStatusMessage(createMeterStatusMessage(SYSTEM_STATUS + " " + meterName, StatusCode.OK, meterValue));
+                continue;
+            }
+
             // define optionals for checking CRIT/WARN
             Optional<StatusMessage> errMessage = checkRateOfMeter(meterName, StatusCode.CRIT, meterValue);
             Optional<StatusMessage> warnMessage = checkRateOfMeter(meterName, StatusCode.WARN, meterValue);
@@ -137,6 +173,18 @@ public class SystemStatusRunnable implements SystemStatus {
             logStatusMessage(createTimerStatusMessage(SYSTEM_STATUS + " " + timerName, percentileMillis));
         }
 
+        // iterate through all registered histograms
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            // log each histogram's distribution
+            logStatusMessage(createHistogramStatusMessage(SYSTEM_STATUS + " " + entry.getKey(), entry.getValue().getSnapshot()));
+        }
+
+        // iterate through all registered gauges
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            // log each gauge's current value
+            logStatusMessage(createGaugeStatusMessage(SYSTEM_STATUS + " " + entry.getKey(), entry.getValue().getValue()));
+        }
+
         // send status to all consumers
         consumers.parallelStream().forEach(consumer -> consumer.accept(messages));
     }
@@ -209,6 +257,20 @@ public class SystemStatusRunnable implements SystemStatus {
         return new StatusMessage(StatusCode.OK, String.format(TIMER_TEMPLATE, timerName, FormatUtils.formatMillisOrSeconds(percentileMillis)));
     }
 
+    /**
+     * @return a {@link StatusMessage} that reports {@link Histogram} values
+     */
+    private static StatusMessage createHistogramStatusMessage(String histogramName, Snapshot snapshot) {
+        return new StatusMessage(StatusCode.OK, String.format(HISTOGRAM_TEMPLATE, histogramName, snapshot.getMean(), snapshot.get95thPercentile(), snapshot.getMax()));
+    }
+
+    /**
+     * @return a {@link StatusMessage} that reports {@link Gauge} values
+     */
+    private static StatusMessage createGaugeStatusMessage(String gaugeName, Object value) {
+        return new StatusMessage(StatusCode.OK, String.format(GAUGE_TEMPLATE, gaugeName, value));
+    }
+
     /**
      * Find the type of the specified meter
      */
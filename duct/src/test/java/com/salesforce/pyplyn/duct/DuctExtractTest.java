@@ -61,7 +61,7 @@ public class DuctExtractTest {
     public void processArgus() throws Exception {
         //ARRANGE
         @SuppressWarnings("unchecked")
-        ArgusExtractProcessor argusExtractprocessor = spy(new ArgusExtractProcessor(fixtures.appConnectors(), shutdownHook));
+        ArgusExtractProcessor argusExtractprocessor = spy(new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), shutdownHook, fixtures.appConfigMocks().get()));
         Argus argus = ImmutableArgus.of("endpoint", "expression", "name", 1, 2d);
 
         //ACT
@@ -78,7 +78,7 @@ public class DuctExtractTest {
     public void processRefocus() throws Exception {
         //ARRANGE
         @SuppressWarnings("unchecked")
-        RefocusExtractProcessor refocusExtractProcessor = spy(new RefocusExtractProcessor(fixtures.appConnectors(), shutdownHook));
+        RefocusExtractProcessor refocusExtractProcessor = spy(new RefocusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), shutdownHook));
         Refocus refocus = ImmutableRefocus.of("endpoint", "subject", null, "aspect", 1, 2d);
 
         //ACT
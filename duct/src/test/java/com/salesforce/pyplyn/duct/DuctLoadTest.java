@@ -57,7 +57,7 @@ public class DuctLoadTest {
     public void processRefocus() throws Exception {
         //ARRANGE
         @SuppressWarnings("unchecked")
-        RefocusLoadProcessor refocusLoadProcessor = spy(new RefocusLoadProcessor(fixtures.appConnectors(), shutdownHook));
+        RefocusLoadProcessor refocusLoadProcessor = spy(new RefocusLoadProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), shutdownHook, fixtures.appConfigMocks().get()));
         Refocus refocus = ImmutableRefocus.of("endpoint", "subject", "aspect",
                 "defaultMessageCode", "defaultMessageBody", Collections.emptyList());
         Boolean boolVal = Boolean.TRUE;
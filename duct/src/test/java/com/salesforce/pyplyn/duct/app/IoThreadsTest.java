@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.app;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class IoThreadsTest {
+    @Test
+    public void testPlatformThreadsAreNamedAndBounded() throws Exception {
+        // ARRANGE
+        ExecutorService executor = IoThreads.newExecutor("Test-IO-", Thread.NORM_PRIORITY, 2, false);
+
+        try {
+            // ACT
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+
+            // ASSERT
+            assertThat(threadName, startsWith("Test-IO-"));
+            assertThat(executor, instanceOf(ThreadPoolExecutor.class));
+            assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize(), equalTo(2));
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsAreUsedWhenSupported() throws Exception {
+        // ARRANGE
+        ExecutorService executor = IoThreads.newExecutor("Test-IO-", Thread.NORM_PRIORITY, 2, true);
+
+        try {
+            // ACT
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+
+            // ASSERT
+            assertThat(threadName, startsWith("Test-IO-"));
+            assertThat("A fixed pool should only be used if virtual threads are not supported",
+                    executor instanceof ThreadPoolExecutor, not(IoThreads.virtualThreadsSupported()));
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
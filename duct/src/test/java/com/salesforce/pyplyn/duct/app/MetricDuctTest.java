@@ -90,10 +90,11 @@ public class MetricDuctTest {
 
         // ASSERT
         @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<Transmutation>> dataCaptor = ArgumentCaptor.forClass(List.class);
-        verify(fixtures.refocusLoadProcessor()).executeAsync(dataCaptor.capture(), any());
+        ArgumentCaptor<List<List<Transmutation>>> dataCaptor = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.refocusLoadProcessor()).executeBatchAsync(dataCaptor.capture(), any());
 
-        List<Transmutation> data = dataCaptor.getValue();
+        assertThat(dataCaptor.getValue(), hasSize(1));
+        List<Transmutation> data = dataCaptor.getValue().get(0);
         assertThat(data, hasSize(1));
 
         Transmutation result = data.get(0);
@@ -187,7 +188,7 @@ public class MetricDuctTest {
 
 
         // nothing to load, since the timeout should cause an empty response
-        verify(fixtures.refocusLoadProcessor(), times(0)).execute(any(), any());
+        verify(fixtures.refocusLoadProcessor(), times(0)).executeBatchAsync(any(), any());
     }
 
     @Test(timeOut = 5000L)
@@ -225,7 +226,7 @@ public class MetricDuctTest {
         verify(testedPollingTransform, times(0)).retrieveResult(any());
 
         // nothing to load, since the timeout should cause an empty response
-        verify(fixtures.refocusLoadProcessor(), times(0)).execute(any(), any());
+        verify(fixtures.refocusLoadProcessor(), times(0)).executeBatchAsync(any(), any());
     }
 
 
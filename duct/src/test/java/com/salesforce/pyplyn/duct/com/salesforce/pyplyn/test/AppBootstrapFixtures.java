@@ -10,12 +10,15 @@ package com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test;
 
 import static java.util.Collections.emptyList;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 import java.nio.charset.Charset;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -23,14 +26,17 @@ import java.util.stream.Stream;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
+import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.*;
 import com.hazelcast.core.IMap;
 import com.salesforce.argus.ArgusClient;
 import com.salesforce.argus.model.MetricResponse;
+import com.salesforce.pyplyn.cache.Cache;
 import com.salesforce.pyplyn.cache.CacheFactory;
-import com.salesforce.pyplyn.cache.ConcurrentCacheMap;
 import com.salesforce.pyplyn.client.UnauthorizedException;
 import com.salesforce.pyplyn.configuration.Configuration;
 import com.salesforce.pyplyn.configuration.Connector;
@@ -41,8 +47,10 @@ import com.salesforce.pyplyn.duct.app.BootstrapException;
 import com.salesforce.pyplyn.duct.app.DuctMain;
 import com.salesforce.pyplyn.duct.app.ShutdownHook;
 import com.salesforce.pyplyn.duct.appconfig.AppConfig;
+import com.salesforce.pyplyn.duct.appconfig.ImmutableAppConfig;
 import com.salesforce.pyplyn.duct.cluster.Cluster;
 import com.salesforce.pyplyn.duct.connector.AppConnectors;
+import com.salesforce.pyplyn.duct.connector.EndpointExecutor;
 import com.salesforce.pyplyn.duct.etl.configuration.ConfigurationLoader;
 import com.salesforce.pyplyn.duct.etl.configuration.ConfigurationUpdateManager;
 import com.salesforce.pyplyn.duct.etl.configuration.TaskManager;
@@ -83,6 +91,8 @@ public class AppBootstrapFixtures {
     @Mock
     private AppConnectors appConnectors;
 
+    private EndpointExecutor endpointExecutor;
+
     @Mock
     private SystemStatusRunnable systemStatus;
 
@@ -92,6 +102,9 @@ public class AppBootstrapFixtures {
     @Mock
     private Timer systemStatusTimer;
 
+    @Mock
+    private Histogram systemStatusHistogram;
+
     @Mock
     private ArgusClient argusClient;
 
@@ -111,10 +124,10 @@ public class AppBootstrapFixtures {
     private CacheFactory cacheFactory;
 
     @Mock
-    private ConcurrentCacheMap<MetricResponse> metricResponseCache;
+    private Cache<MetricResponse> metricResponseCache;
 
     @Mock
-    private ConcurrentCacheMap<Sample> sampleCache;
+    private Cache<Sample> sampleCache;
 
     @Mock
     private RefocusLoadProcessor refocusLoadProcessor;
@@ -161,6 +174,7 @@ public class AppBootstrapFixtures {
         // init other mocks and fixtures
         appConfigMocks = new AppConfigMocks();
         shutdownHook = spy(new ShutdownHook());
+        endpointExecutor = new EndpointExecutor(appConfigMocks.get(), systemStatus, shutdownHook);
 
         // App connector
         connectors.add(connector);
@@ -174,6 +188,7 @@ public class AppBootstrapFixtures {
         // System status delegates
         doReturn(systemStatusMeter).when(systemStatus).meter(any(), any());
         doReturn(systemStatusTimer).when(systemStatus).timer(any(), any());
+        doReturn(systemStatusHistogram).when(systemStatus).histogram(any(), any());
 
         // Transformation results
         transmutationMetadata = ImmutableTransmutation.Metadata.builder().build();
@@ -193,17 +208,23 @@ public class AppBootstrapFixtures {
         // Extract Processors
         doReturn(Flowable.empty()).when(argusExtractProcessor).processAsync(any());
         doReturn(Flowable.empty()).when(argusExtractProcessor).executeAsync(any());
+        doReturn(Flowable.empty()).when(argusExtractProcessor).executeBatchAsync(any());
+        doReturn(Flowable.empty()).when(argusExtractProcessor).executeBatchAsync(any(), anyBoolean());
         doCallRealMethod().when(argusExtractProcessor).filter(any());
         doReturn(Argus.class).when(argusExtractProcessor).filteredType();
 
         doReturn(Flowable.empty()).when(refocusExtractProcessor).processAsync(any());
         doReturn(Flowable.empty()).when(refocusExtractProcessor).executeAsync(any());
+        doReturn(Flowable.empty()).when(refocusExtractProcessor).executeBatchAsync(any());
+        doReturn(Flowable.empty()).when(refocusExtractProcessor).executeBatchAsync(any(), anyBoolean());
         doCallRealMethod().when(refocusExtractProcessor).filter(any());
         doReturn(Refocus.class).when(refocusExtractProcessor).filteredType();
 
         // Load Processors
         doReturn(Flowable.just(Collections.singletonList(true))).when(refocusLoadProcessor).processAsync(any(), any());
         doReturn(Flowable.just(Collections.singletonList(true))).when(refocusLoadProcessor).executeAsync(any(), any());
+        doReturn(Flowable.just(Collections.singletonList(true))).when(refocusLoadProcessor).processBatchAsync(any(), any());
+        doReturn(Flowable.just(Collections.singletonList(true))).when(refocusLoadProcessor).executeBatchAsync(any(), any());
         doCallRealMethod().when(refocusLoadProcessor).filter(any());
         doReturn(com.salesforce.pyplyn.duct.etl.load.refocus.Refocus.class).when(refocusLoadProcessor).filteredType();
 
@@ -272,7 +293,7 @@ public class AppBootstrapFixtures {
             } finally {
                 AppBootstrapLatches.holdOffUntilExtractProcessorFinishes().countDown();
             }
-        }).when(argusExtractProcessor).process(any());
+        }).when(argusExtractProcessor).processBatch(any(), anyBoolean());
 
 
         // Refocus extract processor
@@ -337,12 +358,12 @@ public class AppBootstrapFixtures {
      */
 
     private void initTaskManager() {
-        taskManager = spy(new TaskManagerWithLatches<>(appConfigMocks().appConfig, extractProcessors, loadProcessors, shutdownHook));
+        taskManager = spy(new TaskManagerWithLatches<>(appConfigMocks().appConfig, extractProcessors, loadProcessors, systemStatus, shutdownHook));
     }
 
     public AppBootstrapFixtures initConfigurationManager() {
         initTaskManager();
-        configurationManager = spy(new ConfigurationUpdateManager(configurationLoader, taskManager, cluster, shutdownHook));
+        configurationManager = spy(new ConfigurationUpdateManager(configurationLoader, taskManager, cluster, shutdownHook, injector.getInstance(ObjectMapper.class), systemStatus));
         configurationManager.initialize();
         return this;
     }
@@ -439,12 +460,17 @@ public class AppBootstrapFixtures {
         doCallRealMethod().when(argusExtractProcessor).execute(any());
         doCallRealMethod().when(argusExtractProcessor).processAsync(any());
         doCallRealMethod().when(argusExtractProcessor).executeAsync(any());
+        doReturn(TimeSeries.fromMatrix(Collections.singletonList(Collections.singletonList(transmutation)))).when(argusExtractProcessor).processBatch(any(), anyBoolean());
+        doCallRealMethod().when(argusExtractProcessor).executeBatchAsync(any());
+        doCallRealMethod().when(argusExtractProcessor).executeBatchAsync(any(), anyBoolean());
 
         doReturn(Collections.singletonList(Collections.singletonList(transmutation))).when(refocusExtractProcessor).process(any());
         doCallRealMethod().when(refocusExtractProcessor).filter(any());
         doCallRealMethod().when(refocusExtractProcessor).execute(any());
         doCallRealMethod().when(refocusExtractProcessor).processAsync(any());
         doCallRealMethod().when(refocusExtractProcessor).executeAsync(any());
+        doCallRealMethod().when(refocusExtractProcessor).executeBatchAsync(any());
+        doCallRealMethod().when(refocusExtractProcessor).executeBatchAsync(any(), anyBoolean());
 
         return this;
     }
@@ -455,19 +481,24 @@ public class AppBootstrapFixtures {
         doCallRealMethod().when(argusExtractProcessor).execute(any());
         doCallRealMethod().when(argusExtractProcessor).processAsync(any());
         doCallRealMethod().when(argusExtractProcessor).executeAsync(any());
+        doReturn(TimeSeries.fromMatrix(results)).when(argusExtractProcessor).processBatch(any(), anyBoolean());
+        doCallRealMethod().when(argusExtractProcessor).executeBatchAsync(any());
+        doCallRealMethod().when(argusExtractProcessor).executeBatchAsync(any(), anyBoolean());
 
         doReturn(results).when(refocusExtractProcessor).process(any());
         doCallRealMethod().when(refocusExtractProcessor).filter(any());
         doCallRealMethod().when(refocusExtractProcessor).execute(any());
         doCallRealMethod().when(refocusExtractProcessor).processAsync(any());
         doCallRealMethod().when(refocusExtractProcessor).executeAsync(any());
+        doCallRealMethod().when(refocusExtractProcessor).executeBatchAsync(any());
+        doCallRealMethod().when(refocusExtractProcessor).executeBatchAsync(any(), anyBoolean());
 
         return this;
     }
 
     public AppBootstrapFixtures callRealArgusExtractProcessor() {
         // we need to reinitialize the object to provide access to the real failed/succeeded (protected) methods
-        argusExtractProcessor = spy(new ArgusExtractProcessor(appConnectors, shutdownHook));
+        argusExtractProcessor = spy(new ArgusExtractProcessor(appConnectors, endpointExecutor, shutdownHook, appConfigMocks.get()));
         doCallRealMethod().when(argusExtractProcessor).filter(any());
         return this;
     }
@@ -480,6 +511,17 @@ public class AppBootstrapFixtures {
 
     public AppBootstrapFixtures argusClientReturns(List<MetricResponse> metrics) throws UnauthorizedException {
         doReturn(metrics).when(argusClient).getMetrics(any());
+        doReturn(CompletableFuture.completedFuture(metrics)).when(argusClient).getMetricsAsync(any());
+        doReturn(CompletableFuture.completedFuture(metrics)).when(argusClient).getMetricsAsync(any(), anyLong(), any());
+        return this;
+    }
+
+    public AppBootstrapFixtures argusRequestsAreHedged(double percentile, long latencyNanos) {
+        Snapshot snapshot = mock(Snapshot.class);
+        doReturn((double) latencyNanos).when(snapshot).getValue(percentile);
+        doReturn(snapshot).when(systemStatusTimer).getSnapshot();
+        doReturn(100L).when(systemStatusTimer).getCount();
+        doReturn(percentile).when(connector).hedgingPercentile();
         return this;
     }
 
@@ -490,7 +532,7 @@ public class AppBootstrapFixtures {
 
     public AppBootstrapFixtures callRealRefocusExtractProcessor() {
         // we need to reinitialize the object to provide access to the real failed/succeeded (protected) methods
-        refocusExtractProcessor = spy(new RefocusExtractProcessor(appConnectors, shutdownHook));
+        refocusExtractProcessor = spy(new RefocusExtractProcessor(appConnectors, endpointExecutor, shutdownHook));
         doCallRealMethod().when(refocusExtractProcessor).filter(any());
         return this;
     }
@@ -513,7 +555,7 @@ public class AppBootstrapFixtures {
 
     public AppBootstrapFixtures callRealRefocusLoadProcessor() {
         // we need to reinitialize the object to provide access to the real failed/succeeded (protected) methods
-        refocusLoadProcessor = spy(new RefocusLoadProcessor(appConnectors, shutdownHook));
+        refocusLoadProcessor = spy(new RefocusLoadProcessor(appConnectors, endpointExecutor, shutdownHook, appConfigMocks.get()));
         doCallRealMethod().when(refocusLoadProcessor).filter(any());
         return this;
     }
@@ -609,15 +651,27 @@ public class AppBootstrapFixtures {
         return appConnectors;
     }
 
+    public EndpointExecutor endpointExecutor() {
+        return endpointExecutor;
+    }
+
+    public ArgusClient argusClient() {
+        return argusClient;
+    }
+
+    public RefocusClient refocusClient() {
+        return refocusClient;
+    }
+
     public CacheFactory cacheFactory() {
         return cacheFactory;
     }
 
-    public ConcurrentCacheMap<MetricResponse> metricResponseCache() {
+    public Cache<MetricResponse> metricResponseCache() {
         return metricResponseCache;
     }
 
-    public ConcurrentCacheMap<Sample> sampleCache() {
+    public Cache<Sample> sampleCache() {
         return sampleCache;
     }
 
@@ -639,6 +693,7 @@ public class AppBootstrapFixtures {
             // app connectors
             bind(AppConnectors.class).toInstance(appConnectors);
             MultibinderFactory.appConnectors(binder()).addBinding().toInstance(connectors);
+            bind(EndpointExecutor.class).toInstance(endpointExecutor);
 
             // System Status
             bind(SystemStatus.class).toInstance(systemStatus);
@@ -687,6 +742,12 @@ public class AppBootstrapFixtures {
         @Mock
         AppConfig.Hazelcast hazelcast;
 
+        @Mock
+        AppConfig.WriteBehind writeBehind;
+
+        @Mock
+        AppConfig.DeltaLoad deltaLoad;
+
         Map<String, Double> thresholds = new HashMap<>();
 
         AppConfigMocks() {
@@ -699,6 +760,9 @@ public class AppBootstrapFixtures {
             doReturn(false).when(global).runOnce(); // run as a service by default
             doReturn(60000L).when(global).updateConfigurationIntervalMillis(); // update configurations every minute (avoid updating configs in most tests)
             doReturn(200).when(global).ioPoolsThreadSize();
+            doReturn(4).when(global).endpointIoThreadSize();
+            doReturn(10L).when(global).schedulerTickMillis(); // dispatch tasks quickly
+            doReturn(512).when(global).schedulerWheelSize();
 
             doReturn(Boolean.FALSE).when(hazelcast).isEnabled();
 
@@ -712,6 +776,31 @@ public class AppBootstrapFixtures {
             return this;
         }
 
+        public AppConfigMocks enableWriteBehind(int maxBufferSize, long flushIntervalMillis, int maxBatchSize) {
+            doReturn(writeBehind).when(appConfig).writeBehind();
+            doReturn(Boolean.TRUE).when(writeBehind).isEnabled();
+            doReturn(maxBufferSize).when(writeBehind).maxBufferSize();
+            doReturn(flushIntervalMillis).when(writeBehind).flushIntervalMillis();
+            doReturn(maxBatchSize).when(writeBehind).maxBatchSize();
+            return this;
+        }
+
+        public AppConfigMocks enableDeltaLoad(long forcedRefreshIntervalMillis) {
+            doReturn(deltaLoad).when(appConfig).deltaLoad();
+            doReturn(Boolean.TRUE).when(deltaLoad).isEnabled();
+            doReturn(forcedRefreshIntervalMillis).when(deltaLoad).forcedRefreshIntervalMillis();
+            doReturn(1000L).when(deltaLoad).maxTrackedSamples();
+            return this;
+        }
+
+        public AppConfigMocks argusBatching(int maxExpressionsPerRequest, int maxQueryLength) {
+            doReturn(ImmutableAppConfig.ArgusBatching.builder()
+                    .maxExpressionsPerRequest(maxExpressionsPerRequest)
+                    .maxQueryLength(maxQueryLength)
+                    .build()).when(appConfig).argusBatching();
+            return this;
+        }
+
         public AppConfigMocks runOnce() {
             // only run app once
             doReturn(true).when(global).runOnce();
@@ -811,8 +900,8 @@ public class AppBootstrapFixtures {
      * Attaches a latch to detect when all tasks have been processed
      */
     private static class TaskManagerWithLatches<T extends Configuration> extends TaskManager<T> {
-        public TaskManagerWithLatches(AppConfig config, Set<ExtractProcessor<? extends Extract>> extractProcessors, Set<LoadProcessor<? extends Load>> loadProcessors, ShutdownHook shutdownHook) {
-            super(config, extractProcessors, loadProcessors, shutdownHook);
+        public TaskManagerWithLatches(AppConfig config, Set<ExtractProcessor<? extends Extract>> extractProcessors, Set<LoadProcessor<? extends Load>> loadProcessors, SystemStatus systemStatus, ShutdownHook shutdownHook) {
+            super(config, extractProcessors, loadProcessors, systemStatus, shutdownHook);
         }
 
         /**
@@ -12,25 +12,32 @@ import static com.salesforce.pyplyn.duct.connector.AppConnectors.DUPLICATE_CONNE
 import static com.salesforce.pyplyn.util.SerializationHelper.loadResourceInsecure;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 import static org.testng.Assert.fail;
 
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.codahale.metrics.Gauge;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Injector;
 import com.salesforce.pyplyn.cache.CacheFactory;
+import com.salesforce.pyplyn.client.HttpTransport;
 import com.salesforce.pyplyn.configuration.Connector;
 import com.salesforce.pyplyn.configuration.EndpointConnector;
 import com.salesforce.pyplyn.configuration.ImmutableConnector;
 import com.salesforce.pyplyn.duct.app.BootstrapException;
 import com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.AppBootstrapFixtures;
+import com.salesforce.pyplyn.status.SystemStatus;
+import com.salesforce.refocus.RefocusClient;
+import com.salesforce.refocus.model.Sample;
 
 /**
  * Test class
@@ -80,7 +87,7 @@ public class ConnectorTest {
         Set<List<EndpointConnector>> connectorSet = createConnectorSet(connectors);
 
         try {
-            new AppConnectors(connectorSet, mock(CacheFactory.class));
+            new AppConnectors(connectorSet, mock(CacheFactory.class), mock(SystemStatus.class), new HttpTransport());
             fail("Expected this test to fail as we don't allow duplicate connector ids");
 
         } catch (BootstrapException e) {
@@ -103,13 +110,114 @@ public class ConnectorTest {
         Set<List<EndpointConnector>> connectorSet = createConnectorSet(connectors);
 
         // initialize the AppConnectors object
-        AppConnectors appConnectors = new AppConnectors(connectorSet, mock(CacheFactory.class));
+        AppConnectors appConnectors = new AppConnectors(connectorSet, mock(CacheFactory.class), mock(SystemStatus.class), new HttpTransport());
 
         assertConnectorsWereDeserialized(connectors);
         assertThat(appConnectors.findConnector("invalid-unknown-id"), nullValue());
         assertThat(appConnectors.findConnector(connectors[0].id()), notNullValue());
     }
 
+    @Test
+    public void testCacheStatsAreReportedPerEndpoint() throws Exception {
+        // ARRANGE
+        EndpointConnector[] connectors = {ImmutableConnector.builder()
+                .id("connector")
+                .endpoint("http://localhost/")
+                .password("password".getBytes(Charset.defaultCharset()))
+                .build()};
+        String connectorId = connectors[0].id();
+
+        SystemStatus systemStatus = mock(SystemStatus.class);
+        HttpTransport transport = new HttpTransport();
+        AppConnectors appConnectors = new AppConnectors(createConnectorSet(connectors), new CacheFactory(), systemStatus, transport);
+
+        // ACT
+        AppConnectors.ClientAndCache<RefocusClient, Sample> clientAndCache =
+                appConnectors.retrieveOrBuildClient(connectorId, RefocusClient.class, Sample.class);
+        clientAndCache.cache().isCached("missing");
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Gauge<Object>> misses = ArgumentCaptor.forClass(Gauge.class);
+        verify(systemStatus).gauge(eq("Cache"), eq(connectorId + ".misses"), misses.capture());
+        verify(systemStatus).gauge(eq("Cache"), eq(connectorId + ".evictions"), any());
+        assertThat(misses.getValue().getValue(), equalTo(1L));
+    }
+
+    @Test
+    public void testAuthStatsAreReportedPerEndpoint() throws Exception {
+        // ARRANGE
+        EndpointConnector[] connectors = {ImmutableConnector.builder()
+                .id("connector")
+                .endpoint("http://localhost/")
+                .password("token".getBytes(Charset.defaultCharset()))
+                .build()};
+        String connectorId = connectors[0].id();
+
+        SystemStatus systemStatus = mock(SystemStatus.class);
+        AppConnectors appConnectors = new AppConnectors(createConnectorSet(connectors), new CacheFactory(), systemStatus, new HttpTransport());
+
+        // ACT
+        AppConnectors.ClientAndCache<RefocusClient, Sample> clientAndCache =
+                appConnectors.retrieveOrBuildClient(connectorId, RefocusClient.class, Sample.class);
+        clientAndCache.client().authenticate();
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Gauge<Object>> authentications = ArgumentCaptor.forClass(Gauge.class);
+        verify(systemStatus).gauge(eq("Auth"), eq(connectorId + ".authentications"), authentications.capture());
+        verify(systemStatus).gauge(eq("Auth"), eq(connectorId + ".refreshes"), any());
+        verify(systemStatus).gauge(eq("Auth"), eq(connectorId + ".failures"), any());
+        verify(systemStatus).gauge(eq("Auth"), eq(connectorId + ".latency-millis"), any());
+        verify(systemStatus).gauge(eq("Auth"), eq(connectorId + ".last-latency-millis"), any());
+        assertThat(authentications.getValue().getValue(), equalTo(1L));
+    }
+
+    @Test
+    public void testEndpointHealthIsReportedPerEndpoint() throws Exception {
+        // ARRANGE
+        EndpointConnector[] connectors = {ImmutableConnector.builder()
+                .id("connector")
+                .endpoint("http://localhost/")
+                .password("token".getBytes(Charset.defaultCharset()))
+                .build()};
+        String connectorId = connectors[0].id();
+
+        SystemStatus systemStatus = mock(SystemStatus.class);
+        AppConnectors appConnectors = new AppConnectors(createConnectorSet(connectors), new CacheFactory(), systemStatus, new HttpTransport());
+
+        // ACT
+        appConnectors.retrieveOrBuildClient(connectorId, RefocusClient.class, Sample.class);
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Gauge<Object>> circuitState = ArgumentCaptor.forClass(Gauge.class);
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".circuit-state"), circuitState.capture());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".circuit-opened"), any());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".concurrency-limit"), any());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".in-flight"), any());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".rejected"), any());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".hedges"), any());
+        verify(systemStatus).gauge(eq("Endpoint"), eq(connectorId + ".hedge-wins"), any());
+        assertThat(circuitState.getValue().getValue(), equalTo("CLOSED"));
+    }
+
+    @Test
+    public void testHttpTransportUsageIsReported() throws Exception {
+        // ARRANGE
+        SystemStatus systemStatus = mock(SystemStatus.class);
+
+        // ACT
+        new AppConnectors(createConnectorSet(new EndpointConnector[0]), new CacheFactory(), systemStatus, new HttpTransport());
+
+        // ASSERT
+        verify(systemStatus).gauge(eq("Http"), eq("requests"), any());
+        verify(systemStatus).gauge(eq("Http"), eq("new-connections"), any());
+        verify(systemStatus).gauge(eq("Http"), eq("connection-reuse-rate"), any());
+        verify(systemStatus).gauge(eq("Http"), eq("connections"), any());
+        verify(systemStatus).gauge(eq("Http"), eq("idle-connections"), any());
+    }
+
 
     /**
      * Asserts that we can expect at least one valid connector in the array
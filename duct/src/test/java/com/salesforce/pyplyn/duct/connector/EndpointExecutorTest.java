@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.connector;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.salesforce.pyplyn.duct.app.ShutdownHook;
+import com.salesforce.pyplyn.duct.appconfig.AppConfig;
+import com.salesforce.pyplyn.status.SystemStatus;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class EndpointExecutorTest {
+    private SystemStatus systemStatus;
+    private EndpointExecutor executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        AppConfig appConfig = mock(AppConfig.class);
+        AppConfig.Global global = mock(AppConfig.Global.class);
+        doReturn(global).when(appConfig).global();
+        doReturn(3).when(global).endpointIoThreadSize();
+
+        systemStatus = mock(SystemStatus.class);
+        executor = new EndpointExecutor(appConfig, systemStatus, new ShutdownHook());
+    }
+
+    @Test
+    public void testEndpointsAreProcessedInParallel() throws Exception {
+        // ARRANGE
+        // each task waits for all the others to start, which can only happen if they run in parallel
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        // ACT
+        List<String> results = executor.invokeAll(work("one", "two", "three"), endpoint -> {
+            allStarted.countDown();
+            try {
+                return allStarted.await(5, TimeUnit.SECONDS) ? endpoint.getKey() : null;
+
+            } catch (InterruptedException e) {
+                return null;
+            }
+        });
+
+        // ASSERT
+        assertThat("Results should be returned in order", results, contains("one", "two", "three"));
+    }
+
+    @Test
+    public void testSingleEndpointIsProcessedOnTheCallingThread() throws Exception {
+        // ACT
+        List<Thread> results = executor.invokeAll(work("one"), endpoint -> Thread.currentThread());
+
+        // ASSERT
+        assertThat(results, contains(Thread.currentThread()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testExceptionsArePropagated() throws Exception {
+        // ACT
+        executor.invokeAll(work("one", "two"), endpoint -> {
+            throw new IllegalArgumentException(endpoint.getKey());
+        });
+    }
+
+    @Test
+    public void testPoolUsageIsReported() throws Exception {
+        // ASSERT
+        verify(systemStatus).gauge(eq(EndpointExecutor.METER_NAME), eq("queue-depth"), any());
+        verify(systemStatus).gauge(eq(EndpointExecutor.METER_NAME), eq("active-threads"), any());
+    }
+
+
+    /**
+     * Creates one unit of work for each of the specified endpoints
+     */
+    private static List<Map.Entry<String, String>> work(String... endpointIds) {
+        return Arrays.stream(endpointIds)
+                .<Map.Entry<String, String>>map(endpointId -> new AbstractMap.SimpleImmutableEntry<>(endpointId, endpointId))
+                .collect(Collectors.toList());
+    }
+}
@@ -12,12 +12,19 @@ import static com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.Configuratio
 import static com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.ConfigurationsTestHelper.createFullConfiguration;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.Set;
 
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.codahale.metrics.Gauge;
 import com.salesforce.pyplyn.configuration.Configuration;
 import com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.AppBootstrapFixtures;
 
@@ -91,4 +98,91 @@ public class LocalNodeConfigurationManagerTest {
         assertThat("Expecting the old configuration list to be preserved on any failures", secondSet, hasSize(1));
         //verify(configurationUpdateManager, times(1)).markFailure();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOnlyChangedConfigurationsAreUpserted() throws Exception {
+        // ARRANGE
+        Configuration configuration = createFullConfiguration(100L, false);
+        Configuration updatedInterval = createFullConfiguration(200L, false);
+
+        fixtures.configurationProviderReturns(configuration)
+                .initializeFixtures();
+
+        ConfigurationUpdateManager configurationUpdateManager = fixtures.configurationManager();
+
+        // ACT
+        configurationUpdateManager.run();
+        configurationUpdateManager.run();
+        verify(fixtures.taskManager(), times(1)).upsert(any());
+
+        // repeatIntervalMillis is auxiliary, so the configurations are equal, but have different fingerprints
+        fixtures.configurationProviderReturns(updatedInterval);
+        configurationUpdateManager.run();
+
+        // ASSERT
+        assertThat(updatedInterval, equalTo(configuration));
+        verify(fixtures.taskManager(), times(2)).upsert(any());
+        assertThat(configurationUpdateManager.get(), hasSize(1));
+    }
+
+    @Test
+    public void testFailedUpsertsAreRetriedOnTheNextRun() throws Exception {
+        // ARRANGE
+        Configuration configuration = createFullConfiguration(100L, false);
+        Configuration updatedInterval = createFullConfiguration(200L, false);
+
+        fixtures.configurationProviderReturns(configuration)
+                .initializeFixtures();
+
+        ConfigurationUpdateManager configurationUpdateManager = fixtures.configurationManager();
+        configurationUpdateManager.run();
+
+        // ACT
+        fixtures.configurationProviderReturns(updatedInterval);
+        doThrow(new IllegalStateException("upsert failed")).doCallRealMethod().when(fixtures.taskManager()).upsert(any());
+        configurationUpdateManager.run();
+        configurationUpdateManager.run();
+
+        // ASSERT
+        verify(fixtures.taskManager(), times(3)).upsert(any());
+    }
+
+    @Test
+    public void testUpdateCountsAreReported() throws Exception {
+        // ARRANGE
+        Configuration configuration1 = createFullConfiguration(100L, false);
+        Configuration configuration2 = createCustomConfiguration("argus", "refocus",
+                "expression", "name",
+                "subject", "aspect",
+                100L, false);
+        Configuration configuration3 = createCustomConfiguration("argus", "refocus",
+                "expression3", "name3",
+                "subject3", "aspect3",
+                100L, false);
+
+        fixtures.configurationProviderReturns(configuration1, configuration2)
+                .initializeFixtures();
+
+        ConfigurationUpdateManager configurationUpdateManager = fixtures.configurationManager();
+        configurationUpdateManager.run();
+
+        // ACT
+        fixtures.configurationProviderReturns(createFullConfiguration(200L, false), configuration3);
+        configurationUpdateManager.run();
+
+        // ASSERT
+        assertThat(gaugeValue("added"), equalTo(1));
+        assertThat(gaugeValue("changed"), equalTo(1));
+        assertThat(gaugeValue("unchanged"), equalTo(0));
+        assertThat(gaugeValue("deleted"), equalTo(1));
+    }
+
+    /**
+     * @return the current value of the specified {@link ConfigurationUpdateManager} gauge
+     */
+    private Object gaugeValue(String method) {
+        ArgumentCaptor<Gauge<?>> gauge = ArgumentCaptor.forClass(Gauge.class);
+        verify(fixtures.systemStatus()).gauge(eq(ConfigurationUpdateManager.METER_NAME), eq(method), gauge.capture());
+        return gauge.getValue().getValue();
+    }
+}
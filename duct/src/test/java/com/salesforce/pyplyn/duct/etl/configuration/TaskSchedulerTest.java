@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.configuration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class TaskSchedulerTest {
+    private AtomicLong clock;
+    private List<List<String>> batches;
+    private Timer scheduleLag;
+    private Histogram dispatchBatchSize;
+    private TaskScheduler<String> scheduler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        clock = new AtomicLong(1_000_000L);
+        batches = new ArrayList<>();
+        scheduleLag = mock(Timer.class);
+        dispatchBatchSize = mock(Histogram.class);
+        scheduler = new TaskScheduler<>(10L, 8, TaskScheduler.Phasing.immediate(), batches::add, scheduleLag, dispatchBatchSize, clock::get);
+    }
+
+    @Test
+    public void testNewTasksAreDispatchedInOneBatch() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task1", 1000L, false);
+        scheduler.schedule("task2", 1000L, false);
+
+        // ACT
+        scheduler.tick();
+
+        // ASSERT
+        assertThat(batches, hasSize(1));
+        assertThat(batches.get(0), containsInAnyOrder("task1", "task2"));
+        verify(scheduleLag, times(2)).update(0L, TimeUnit.MILLISECONDS);
+        verify(dispatchBatchSize).update(2);
+    }
+
+    @Test
+    public void testRecurringTasksAreDispatchedAtFixedRate() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task", 250L, false);
+        scheduler.tick();
+
+        // ACT
+        int dispatched = 0;
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(10L);
+            int before = batches.size();
+            scheduler.tick();
+            dispatched += batches.size() - before;
+        }
+
+        // ASSERT
+        assertThat("Expecting 1000ms/250ms dispatches", dispatched, equalTo(4));
+        assertThat(scheduler.size(), equalTo(1));
+    }
+
+    @Test
+    public void testLongIntervalsCascadeThroughOverflowLevels() throws Exception {
+        // ARRANGE
+        // 10ms * 8 buckets = 80ms first level span; 640ms second level span; 5120ms third
+        scheduler.schedule("task", 3000L, false);
+        scheduler.tick();
+        batches.clear();
+
+        // ACT
+        clock.addAndGet(2990L);
+        scheduler.tick();
+        boolean dispatchedEarly = !batches.isEmpty();
+
+        clock.addAndGet(10L);
+        scheduler.tick();
+
+        // ASSERT
+        assertThat("Should not dispatch before deadline", dispatchedEarly, is(false));
+        assertThat(batches, hasSize(1));
+        assertThat(batches.get(0), hasItem("task"));
+    }
+
+    @Test
+    public void testLateTicksRecordScheduleLag() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task", 100L, false);
+        scheduler.tick();
+
+        // ACT
+        clock.addAndGet(130L);
+        scheduler.tick();
+
+        // ASSERT
+        verify(scheduleLag).update(eq(30L), eq(TimeUnit.MILLISECONDS));
+        assertThat(batches, hasSize(2));
+    }
+
+    @Test
+    public void testTasksRunningOnceAreNotRescheduled() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task", 10L, true);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            scheduler.tick();
+            clock.addAndGet(10L);
+        }
+
+        // ASSERT
+        assertThat(batches, hasSize(1));
+        assertThat("Task is kept until cancelled", scheduler.tasks(), hasItem("task"));
+        assertThat(scheduler.cancel("task"), is(true));
+        assertThat(scheduler.size(), equalTo(0));
+    }
+
+    @Test
+    public void testCancelledTasksAreNotDispatched() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task", 100L, false);
+
+        // ACT
+        scheduler.cancel("task");
+        scheduler.tick();
+
+        // ASSERT
+        assertThat(batches, empty());
+        verify(scheduleLag, never()).update(anyLong(), any());
+    }
+
+    @Test
+    public void testUpsertingAKnownTaskUpdatesItsInterval() throws Exception {
+        // ARRANGE
+        scheduler.schedule("task", 1000L, false);
+        scheduler.tick();
+
+        // ACT
+        scheduler.schedule("task", 100L, false);
+        clock.addAndGet(100L);
+        scheduler.tick();
+
+        // ASSERT
+        assertThat("Task should have been rescheduled 100ms after its last run", batches, hasSize(2));
+        assertThat(scheduler.size(), equalTo(1));
+    }
+
+    @Test
+    public void testNextDeadlineSkipsMissedIntervals() throws Exception {
+        // ACT
+        long next = TaskScheduler.nextDeadline(1000L, 100L, 1350L);
+
+        // ASSERT
+        assertThat(next, equalTo(1400L));
+    }
+
+    @Test
+    public void testPhaseSpreadAssignsDeterministicPhases() throws Exception {
+        // ARRANGE
+        // phase = hash % interval; 1_000_000 is a multiple of 1000
+        scheduler = new TaskScheduler<>(10L, 8, TaskScheduler.Phasing.spread(String::length, 0),
+                batches::add, scheduleLag, dispatchBatchSize, clock::get);
+        scheduler.schedule("abc", 1000L, false);
+        scheduler.schedule("abcdefghijklmnopqrstuvwxyz", 1000L, false);
+
+        // ACT
+        List<Integer> dispatchedAt = new ArrayList<>();
+        for (int i = 0; i <= 101; i++) {
+            int before = batches.size();
+            scheduler.tick();
+            if (batches.size() > before) {
+                dispatchedAt.add(i);
+            }
+            clock.addAndGet(10L);
+        }
+
+        // ASSERT
+        // "abc" is due at +3ms (first tick after is +10ms) and "abc...z" at +26ms (+30ms), then after 1000ms
+        assertThat(dispatchedAt, contains(1, 3, 101));
+        assertThat(batches.get(0), hasItem("abc"));
+        assertThat(batches.get(1), hasItem("abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    @Test
+    public void testPhaseSpreadDoesNotDelayTasksRunningOnce() throws Exception {
+        // ARRANGE
+        scheduler = new TaskScheduler<>(10L, 8, TaskScheduler.Phasing.spread(String::length, 0),
+                batches::add, scheduleLag, dispatchBatchSize, clock::get);
+        scheduler.schedule("abcdefghijklmnopqrstuvwxyz", 1000L, true);
+
+        // ACT
+        scheduler.tick();
+
+        // ASSERT
+        assertThat(batches, hasSize(1));
+    }
+
+    @Test
+    public void testJitterIsBounded() throws Exception {
+        // ARRANGE
+        TaskScheduler.Phasing<String> phasing = TaskScheduler.Phasing.spread(String::length, 50);
+
+        // ACT/ASSERT
+        for (int i = 0; i < 1000; i++) {
+            assertThat(phasing.jitter(1000L), both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(50L)));
+            assertThat("Jitter should not exceed half the interval", phasing.jitter(40L), lessThanOrEqualTo(20L));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.configuration;
+
+import static com.salesforce.pyplyn.model.ThresholdType.GREATER_THAN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.salesforce.pyplyn.duct.etl.transform.standard.*;
+import com.salesforce.pyplyn.model.*;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class TransformStageTest {
+    private final List<Transform> standardTransforms = Arrays.asList(
+            ImmutableLastDatapoint.builder().build(),
+            ImmutableThreshold.of(null, 3d, 2d, 1d, GREATER_THAN),
+            ImmutableMetadata.of(Collections.singletonMap("key", "value")),
+            ImmutableInfoStatus.builder().build());
+
+    @Test
+    public void testConsecutiveStandardTransformsAreFused() throws Exception {
+        // ACT
+        List<TransformStage> stages = TransformStage.plan(standardTransforms);
+
+        // ASSERT
+        assertThat(stages, hasSize(1));
+        assertThat(stages.get(0).transforms(), equalTo(standardTransforms));
+        assertThat(stages.get(0).isPolling(), is(false));
+    }
+
+    @Test
+    public void testPollingAndCustomAsyncTransformsAreStageBoundaries() throws Exception {
+        // ARRANGE
+        PollingTransform<?> polling = mock(PollingTransform.class);
+        Transform customAsync = new CustomAsyncTransform();
+
+        // ACT
+        List<TransformStage> stages = TransformStage.plan(Arrays.asList(standardTransforms.get(0), polling,
+                standardTransforms.get(1), standardTransforms.get(2), customAsync, standardTransforms.get(3)));
+
+        // ASSERT
+        assertThat(stages, hasSize(5));
+        assertThat(stages.get(1).transforms(), contains(polling));
+        assertThat(stages.get(1).isPolling(), is(true));
+        assertThat(stages.get(2).transforms(), contains(standardTransforms.get(1), standardTransforms.get(2)));
+        assertThat(stages.get(3).transforms(), contains(customAsync));
+        assertThat(stages.get(3).isPolling(), is(false));
+    }
+
+    @Test
+    public void testFusedStageReturnsTheSameResultsAsApplyingEachTransform() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        List<TimeSeries> input = Arrays.asList(
+                TimeSeries.of("first", metadata, new long[]{1L, 2L}, new double[]{5d, 2.5d}),
+                TimeSeries.of("second", metadata, new long[]{1L, 2L}, new double[]{5d, 0d}));
+
+        List<List<Transmutation>> expected = TimeSeries.toMatrix(input);
+        for (Transform transform : standardTransforms) {
+            expected = transform.apply(expected);
+        }
+
+        // ACT
+        List<TimeSeries> result = TransformStage.plan(standardTransforms).get(0)
+                .applyAsync(input, Schedulers.trampoline())
+                .blockingFirst();
+
+        // ASSERT
+        assertThat(TimeSeries.toMatrix(result), equalTo(expected));
+        assertThat(result.get(0).metadata().tags(), hasEntry("key", "value"));
+        assertThat(result.get(1).value(0), equalTo(StatusCode.INFO.value()));
+    }
+
+
+    /**
+     * Transform which provides its own async implementation
+     */
+    private static class CustomAsyncTransform implements Transform {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public List<List<Transmutation>> apply(List<List<Transmutation>> input) {
+            return input;
+        }
+
+        @Override
+        public Flowable<List<List<Transmutation>>> applyAsync(List<List<Transmutation>> input, Scheduler scheduler) {
+            return Flowable.just(input);
+        }
+    }
+}
@@ -12,13 +12,19 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.net.URLEncoder;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
@@ -30,6 +36,7 @@ import com.salesforce.pyplyn.client.UnauthorizedException;
 import com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.AppBootstrapFixtures;
 import com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.AppBootstrapLatches;
 import com.salesforce.pyplyn.duct.etl.configuration.ConfigurationUpdateManager;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 import com.salesforce.pyplyn.status.MeterType;
 
@@ -104,10 +111,11 @@ public class ArgusExtractProcessorTest {
         verify(fixtures.systemStatus(), times(0)).meter("Argus", MeterType.ExtractNoDataReturned);
 
         @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<Transmutation>> dataCaptor = ArgumentCaptor.forClass(List.class);
-        verify(fixtures.refocusLoadProcessor()).executeAsync(dataCaptor.capture(), any());
+        ArgumentCaptor<List<List<Transmutation>>> dataCaptor = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.refocusLoadProcessor()).executeBatchAsync(dataCaptor.capture(), any());
 
-        List<Transmutation> data = dataCaptor.getValue();
+        assertThat(dataCaptor.getValue(), hasSize(1));
+        List<Transmutation> data = dataCaptor.getValue().get(0);
         assertThat(data, hasSize(1));
 
         Transmutation result = data.get(0);
@@ -149,7 +157,7 @@ public class ArgusExtractProcessorTest {
 
         // ASSERT
         verify(fixtures.systemStatus(), times(2)).meter("Argus", MeterType.ExtractSuccess);
-        verify(fixtures.metricResponseCache(), times(4)).isCached("argus-metric");
+        verify(fixtures.metricResponseCache(), times(2)).isCached("argus-metric");
         verify(fixtures.metricResponseCache(), times(1)).cache(any(), anyLong());
     }
 
@@ -189,7 +197,7 @@ public class ArgusExtractProcessorTest {
             // ASSERT
             verify(fixtures.systemStatus(), times(1)).meter("Argus", MeterType.ExtractSuccess);
             verify(fixtures.systemStatus(), times(1)).meter("Argus", MeterType.ExtractNoDataReturned);
-            verify(fixtures.metricResponseCache(), times(2)).isCached("argus-metric");
+            verify(fixtures.metricResponseCache(), times(1)).isCached("argus-metric");
             verify(fixtures.metricResponseCache(), times(0)).cache(any(), anyLong());
 
         } finally {
@@ -247,6 +255,298 @@ public class ArgusExtractProcessorTest {
     }
 
 
+    @Test
+    public void testIdenticalExpressionsAreCoalesced() throws Exception {
+        // ARRANGE
+        String now = Long.valueOf(Instant.now().toEpochMilli()).toString();
+        MetricResponse response = ImmutableMetricResponse.builder()
+                .metric("first")
+                .datapoints(new TreeMap<>(Collections.singletonMap(now, "1.2")))
+                .build();
+
+        fixtures.argusClientReturns(Collections.singletonList(response))
+                .initializeFixtures();
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        List<Argus> data = Arrays.asList(
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression", "first", 0, null),
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression", "second", 0, null));
+
+
+        // ACT
+        List<List<Transmutation>> results = processor.process(data);
+
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> expressions = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.argusClient()).getMetrics(expressions.capture());
+        assertThat("Only one request should be sent for identical expressions", expressions.getValue(), hasSize(1));
+
+        List<String> names = results.stream().map(r -> r.get(0).name()).collect(Collectors.toList());
+        assertThat(names, containsInAnyOrder("first", "second"));
+        verify(fixtures.systemStatus()).meter("Argus", MeterType.ExtractCoalesced);
+    }
+
+
+    @Test
+    public void testCoalescedExpressionsReceiveAllSeries() throws Exception {
+        // ARRANGE
+        String now = Long.valueOf(Instant.now().toEpochMilli()).toString();
+        List<MetricResponse> responses = Arrays.asList(
+                ImmutableMetricResponse.builder()
+                        .metric("first")
+                        .datapoints(new TreeMap<>(Collections.singletonMap(now, "1.2")))
+                        .build(),
+                ImmutableMetricResponse.builder()
+                        .metric("first")
+                        .datapoints(new TreeMap<>(Collections.singletonMap(now, "3.4")))
+                        .build());
+
+        fixtures.argusClientReturns(responses)
+                .initializeFixtures();
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        // a wildcard expression, which returns multiple series under the same alias
+        List<Argus> data = Arrays.asList(
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "-1m:scope:metric{host=*}:avg", "first", 0, null),
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "-1m:scope:metric{host=*}:avg", "second", 0, null));
+
+
+        // ACT
+        List<List<Transmutation>> results = processor.process(data);
+
+
+        // ASSERT
+        verify(fixtures.argusClient()).getMetrics(any());
+
+        List<String> names = results.stream().map(r -> r.get(0).name()).collect(Collectors.toList());
+        assertThat("Both the owner and the coalesced request should receive all series",
+                names, containsInAnyOrder("first", "first", "second", "second"));
+        verify(fixtures.systemStatus()).meter("Argus", MeterType.ExtractCoalesced);
+    }
+
+
+    @Test
+    public void testSourceIsOnlyRetainedWhenRequired() throws Exception {
+        // ARRANGE
+        String now = Long.valueOf(Instant.now().toEpochMilli()).toString();
+        MetricResponse response = ImmutableMetricResponse.builder()
+                .metric("metric")
+                .datapoints(new TreeMap<>(Collections.singletonMap(now, "1.2")))
+                .build();
+
+        fixtures.argusClientReturns(Collections.singletonList(response))
+                .initializeFixtures();
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        List<Argus> data = Collections.singletonList(ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression", "metric", 0, null));
+
+
+        // ACT
+        List<TimeSeries> withoutSource = processor.processBatch(data, false);
+        List<TimeSeries> withSource = processor.processBatch(data, true);
+
+
+        // ASSERT
+        assertThat(withoutSource, hasSize(1));
+        assertThat(withoutSource.get(0).metadata().source(), nullValue());
+        assertThat(withoutSource.get(0).value(0), equalTo(1.2d));
+        assertThat(withSource.get(0).metadata().source(), equalTo(response));
+    }
+
+
+    @Test
+    public void testIncrementalExpressionsOnlyLoadNewDatapoints() throws Exception {
+        // ARRANGE
+        long now = Instant.now().toEpochMilli();
+        MetricResponse response = ImmutableMetricResponse.builder()
+                .metric("metric")
+                .datapoints(new TreeMap<>(Collections.singletonMap(Long.toString(now), "1.2")))
+                .build();
+
+        fixtures.argusClientReturns(Collections.singletonList(response))
+                .initializeFixtures();
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        List<Argus> data = Collections.singletonList(ImmutableArgus.builder()
+                .endpoint(AppBootstrapFixtures.MOCK_CONNECTOR_NAME)
+                .expression("-1h:scope:metric:avg")
+                .name("metric")
+                .incremental(true)
+                .build());
+
+
+        // ACT
+        processor.processBatch(data);
+        List<TimeSeries> results = processor.processBatch(data);
+
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> expressions = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.argusClient(), times(2)).getMetrics(expressions.capture());
+        assertThat(expressions.getAllValues().get(0), contains(containsString("(-1h:scope:metric:avg,")));
+        assertThat("The second request should start before the last loaded datapoint",
+                expressions.getAllValues().get(1), contains(allOf(startsWith("ALIAS(" + (now - 300_000L)), not(containsString("-1h")))));
+
+        assertThat(results, hasSize(1));
+        assertThat(results.get(0).size(), equalTo(1));
+        assertThat(results.get(0).timeMillis(0), equalTo(now));
+        assertThat(results.get(0).value(0), equalTo(1.2d));
+    }
+
+
+    @Test
+    public void testIncrementalExpressionsThatReturnMultipleSeriesAreLoadedInFull() throws Exception {
+        // ARRANGE
+        long now = Instant.now().toEpochMilli();
+        List<MetricResponse> responses = Arrays.asList(
+                ImmutableMetricResponse.builder()
+                        .metric("metric")
+                        .putTags("host", "one")
+                        .datapoints(new TreeMap<>(Collections.singletonMap(Long.toString(now), "1.0")))
+                        .build(),
+                ImmutableMetricResponse.builder()
+                        .metric("metric")
+                        .putTags("host", "two")
+                        .datapoints(new TreeMap<>(Collections.singletonMap(Long.toString(now - 60_000L), "2.0")))
+                        .build());
+
+        fixtures.argusClientReturns(responses)
+                .initializeFixtures();
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        List<Argus> data = Collections.singletonList(ImmutableArgus.builder()
+                .endpoint(AppBootstrapFixtures.MOCK_CONNECTOR_NAME)
+                .expression("-1h:scope:*:avg")
+                .name("metric")
+                .incremental(true)
+                .build());
+
+
+        // ACT
+        processor.processBatch(data);
+        List<TimeSeries> results = processor.processBatch(data);
+
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> expressions = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.argusClient(), times(2)).getMetrics(expressions.capture());
+        for (List<String> requested : expressions.getAllValues()) {
+            assertThat("Both requests should load the full window", requested, contains(containsString("(-1h:scope:*:avg,")));
+        }
+
+        assertThat("The series should not be merged", results, hasSize(2));
+        assertThat(results.get(0).size(), equalTo(1));
+        assertThat(results.get(0).value(0), equalTo(1.0d));
+        assertThat(results.get(1).size(), equalTo(1));
+        assertThat(results.get(1).value(0), equalTo(2.0d));
+    }
+
+
+    @Test
+    public void testExpressionsAreSplitInChunks() throws Exception {
+        // ARRANGE
+        List<Argus> data = Arrays.asList(
+                ImmutableArgus.of("endpoint", "-1h:scope:metric{tag=value}:avg", "one", 0, null),
+                ImmutableArgus.of("endpoint", "-1h:scope:metric{tag=value}:avg", "two", 0, null),
+                ImmutableArgus.of("endpoint", "-1h:scope:metric{tag=value}:avg", "six", 0, null));
+        int length = "expression=".length() + URLEncoder.encode(ArgusExtractProcessor.aliasExpression(data.get(0)), "UTF-8").length() + 1;
+
+        // ACT
+        List<List<Argus>> byCount = ArgusExtractProcessor.chunkExpressions(data, 2, Integer.MAX_VALUE);
+        List<List<Argus>> byLength = ArgusExtractProcessor.chunkExpressions(data, 10, 2 * length);
+        List<List<Argus>> oversized = ArgusExtractProcessor.chunkExpressions(data, 10, 1);
+
+        // ASSERT
+        assertThat(byCount.stream().map(List::size).collect(Collectors.toList()), contains(2, 1));
+        assertThat(byLength.stream().map(List::size).collect(Collectors.toList()), contains(2, 1));
+        assertThat("Expressions longer than the limit should be sent on their own", oversized, hasSize(3));
+    }
+
+    @Test
+    public void testFailedChunksDoNotAffectOtherChunks() throws Exception {
+        // ARRANGE
+        String now = Long.valueOf(Instant.now().toEpochMilli()).toString();
+        fixtures.appConfigMocks()
+                .argusBatching(1, Integer.MAX_VALUE);
+
+        fixtures.initializeFixtures();
+
+        // only the request for "first" succeeds
+        doAnswer(invocation -> {
+            List<String> expressions = invocation.getArgument(0);
+            CompletableFuture<List<MetricResponse>> result = new CompletableFuture<>();
+            if (!expressions.get(0).contains("#first#")) {
+                result.completeExceptionally(new UnauthorizedException("failed"));
+                return result;
+            }
+
+            result.complete(Collections.singletonList(ImmutableMetricResponse.builder()
+                    .metric("first")
+                    .datapoints(new TreeMap<>(Collections.singletonMap(now, "1.2")))
+                    .build()));
+            return result;
+        }).when(fixtures.argusClient()).getMetricsAsync(any());
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        List<Argus> data = Arrays.asList(
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression1", "first", 0, null),
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression2", "second", 0, null),
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression3", "third", 0, null));
+
+
+        // ACT
+        List<List<Transmutation>> results = processor.process(data);
+
+
+        // ASSERT
+        verify(fixtures.argusClient(), times(3)).getMetricsAsync(any());
+        assertThat(results, hasSize(1));
+        assertThat(results.get(0).get(0).name(), equalTo("first"));
+        verify(fixtures.systemStatus(), times(2)).meter("Argus", MeterType.ExtractFailure);
+        verify(fixtures.systemStatus(), times(1)).meter("Argus", MeterType.ExtractSuccess);
+    }
+
+
+    @Test
+    public void testSlowRequestsAreHedgedAfterTheObservedPercentile() throws Exception {
+        // ARRANGE
+        String now = Long.valueOf(Instant.now().toEpochMilli()).toString();
+        fixtures.argusClientReturns(Collections.singletonList(ImmutableMetricResponse.builder()
+                        .metric("argus-metric")
+                        .datapoints(new TreeMap<>(Collections.singletonMap(now, "1.2")))
+                        .build()))
+                .argusRequestsAreHedged(0.95, 1_000_000L);
+
+        ArgusExtractProcessor processor = new ArgusExtractProcessor(fixtures.appConnectors(), fixtures.endpointExecutor(), fixtures.shutdownHook(), fixtures.appConfigMocks().get());
+        processor.setSystemStatus(fixtures.systemStatus());
+
+        // ACT
+        List<List<Transmutation>> results = processor.process(Collections.singletonList(
+                ImmutableArgus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "expression", "argus-metric", 0, null)));
+
+        // ASSERT
+        verify(fixtures.argusClient()).getMetricsAsync(any(), eq(1_000_000L), any());
+        assertThat(results, hasSize(1));
+        assertThat(results.get(0).get(0).value(), equalTo(1.2d));
+    }
+
+
     /**
      * Executes a test that assumes a failure when a bad sample is returned from the Endpoint
      */
@@ -0,0 +1,219 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.extract.argus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.TimeSeries;
+import com.salesforce.pyplyn.model.Transmutation;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class ArgusSeriesBuffersTest {
+    private static final Transmutation.Metadata METADATA = ImmutableTransmutation.Metadata.builder().build();
+    private static final Argus ARGUS = ImmutableArgus.builder()
+            .endpoint("endpoint")
+            .expression("-10m:scope:metric:avg")
+            .name("metric")
+            .incremental(true)
+            .build();
+
+    private AtomicLong nanos;
+    private ArgusSeriesBuffers buffers;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        nanos = new AtomicLong();
+        buffers = new ArgusSeriesBuffers(60_000L, 100, 100L, 1000L, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+
+        // load the full window
+        buffers.merge(ARGUS, false, series(new long[]{400_000L, 700_000L, 1_000_000L}, new double[]{1d, 2d, 3d}), 1_000_000L);
+    }
+
+    @Test
+    public void testExpressionsAreRewrittenToStartBeforeTheLastBufferedDatapoint() throws Exception {
+        // ACT
+        Argus rewritten = buffers.rewrite(ARGUS, 1_060_000L);
+        Argus afterLongPause = buffers.rewrite(ARGUS, 2_000_000L);
+
+        // ASSERT
+        assertThat(rewritten.expression(), equalTo("940000:scope:metric:avg"));
+        assertThat(rewritten.name(), equalTo(ARGUS.name()));
+        assertThat("Datapoints outside the window should not be loaded", afterLongPause.expression(), equalTo("1400000:scope:metric:avg"));
+    }
+
+    @Test
+    public void testIncrementsAreMergedAndDatapointsOutsideTheWindowAreDropped() throws Exception {
+        // ACT
+        TimeSeries result = buffers.merge(ARGUS, true, series(new long[]{1_000_000L, 1_060_000L}, new double[]{30d, 4d}), 1_060_000L);
+
+        // ASSERT
+        assertThat("The already buffered first datapoint should be kept", result,
+                equalTo(series(new long[]{700_000L, 1_000_000L, 1_060_000L}, new double[]{2d, 3d, 4d})));
+    }
+
+    @Test
+    public void testLoadedDatapointsReplaceBufferedOnes() throws Exception {
+        // ACT
+        TimeSeries result = buffers.merge(ARGUS, true, series(new long[]{960_000L, 1_000_000L, 1_060_000L}, new double[]{9d, 30d, 4d}), 1_060_000L);
+
+        // ASSERT
+        assertThat(result, equalTo(series(new long[]{700_000L, 960_000L, 1_000_000L, 1_060_000L}, new double[]{2d, 9d, 30d, 4d})));
+    }
+
+    @Test
+    public void testBufferedDatapointsAreReturnedWhenNothingNewWasLoaded() throws Exception {
+        // ACT
+        TimeSeries result = buffers.merge(ARGUS, true, series(new long[0], new double[0]), 1_060_000L);
+
+        // ASSERT
+        assertThat(result, equalTo(series(new long[]{700_000L, 1_000_000L}, new double[]{2d, 3d})));
+    }
+
+    @Test
+    public void testExpiredSeriesAreLoadedInFull() throws Exception {
+        // ARRANGE
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001L));
+        TimeSeries increment = series(new long[]{1_060_000L}, new double[]{4d});
+
+        // ACT
+        Argus rewritten = buffers.rewrite(ARGUS, 1_060_000L);
+        TimeSeries result = buffers.merge(ARGUS, true, increment, 1_060_000L);
+
+        // ASSERT
+        assertThat(rewritten, sameInstance(ARGUS));
+        assertThat("An increment cannot be merged into an expired buffer", result, sameInstance(increment));
+        assertThat(buffers.rewrite(ARGUS, 1_060_000L), sameInstance(ARGUS));
+    }
+
+    @Test
+    public void testExpressionsWithoutRelativeStartTimeAreNotBuffered() throws Exception {
+        // ARRANGE
+        Argus argus = ImmutableArgus.builder().from(ARGUS).expression("DOWNSAMPLE(-10m:scope:metric:avg, #1m-avg#)").build();
+        TimeSeries loaded = series(new long[]{1_000_000L}, new double[]{1d});
+
+        // ACT
+        TimeSeries result = buffers.merge(argus, false, loaded, 1_000_000L);
+
+        // ASSERT
+        assertThat(result, sameInstance(loaded));
+        assertThat(buffers.rewrite(argus, 1_060_000L), sameInstance(argus));
+    }
+
+    @Test
+    public void testRefusedExpressionsAreLoadedInFullUntilTheRefusalExpires() throws Exception {
+        // ARRANGE
+        TimeSeries loaded = series(new long[]{1_060_000L}, new double[]{4d});
+
+        // ACT
+        boolean first = buffers.refuse(ARGUS);
+        boolean second = buffers.refuse(ARGUS);
+        Argus rewritten = buffers.rewrite(ARGUS, 1_060_000L);
+        TimeSeries result = buffers.merge(ARGUS, false, loaded, 1_060_000L);
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001L));
+        buffers.merge(ARGUS, false, loaded, 1_060_000L);
+
+        // ASSERT
+        assertThat("Only the first refusal should be reported", first, is(true));
+        assertThat(second, is(false));
+        assertThat(rewritten, sameInstance(ARGUS));
+        assertThat(result, sameInstance(loaded));
+        assertThat("The expression should be buffered again, once the refusal expires",
+                buffers.rewrite(ARGUS, 1_060_000L).expression(), equalTo("1000000:scope:metric:avg"));
+    }
+
+    @Test
+    public void testWindowsLargerThanTheBufferAreRefusedAndLoadedInFull() throws Exception {
+        // ARRANGE
+        ArgusSeriesBuffers small = new ArgusSeriesBuffers(60_000L, 3, 100L, 1000L);
+        TimeSeries loaded = series(new long[]{500_000L, 600_000L, 700_000L, 800_000L}, new double[]{1d, 2d, 3d, 4d});
+
+        // ACT
+        TimeSeries result = small.merge(ARGUS, false, loaded, 800_000L);
+        Argus rewritten = small.rewrite(ARGUS, 860_000L);
+
+        // ASSERT
+        assertThat("All loaded datapoints should be returned", result, sameInstance(loaded));
+        assertThat("The expression should no longer be loaded incrementally", rewritten, sameInstance(ARGUS));
+        assertThat("Only the first refusal should be reported", small.refuse(ARGUS), is(false));
+    }
+
+    @Test
+    public void testRingBufferRetainsTheMostRecentDatapoints() throws Exception {
+        // ARRANGE
+        ArgusSeriesBuffers.SeriesBuffer buffer = new ArgusSeriesBuffers.SeriesBuffer(3);
+
+        // ACT
+        for (int i = 1; i <= 5; i++) {
+            buffer.append(i, i * 10d);
+        }
+        buffer.truncateFrom(5L);
+        buffer.append(6L, 60d);
+        buffer.evictBefore(4L);
+
+        // ASSERT
+        assertThat(buffer.size(), equalTo(2));
+        assertThat(buffer.times(), equalTo(new long[]{4L, 6L}));
+        assertThat(buffer.values(), equalTo(new double[]{40d, 60d}));
+        assertThat(buffer.contains(4L), is(true));
+        assertThat(buffer.contains(5L), is(false));
+        assertThat(buffer.lastTime(), equalTo(6L));
+    }
+
+    @Test
+    public void testRingBufferGrowsOnDemandUpToItsMaxCapacity() throws Exception {
+        // ARRANGE
+        ArgusSeriesBuffers.SeriesBuffer buffer = new ArgusSeriesBuffers.SeriesBuffer(40);
+        int initialCapacity = buffer.capacity();
+
+        // ACT
+        for (int i = 1; i <= 16; i++) {
+            buffer.append(i, i);
+        }
+        buffer.evictBefore(5L);
+
+        // wraps around the initial arrays, before growing them
+        for (int i = 17; i <= 50; i++) {
+            buffer.append(i, i);
+        }
+
+        // ASSERT
+        assertThat(initialCapacity, equalTo(16));
+        assertThat(buffer.capacity(), equalTo(40));
+        assertThat(buffer.size(), equalTo(40));
+        assertThat(buffer.times()[0], equalTo(11L));
+        assertThat(buffer.lastTime(), equalTo(50L));
+        assertThat(buffer.values()[39], equalTo(50d));
+    }
+
+
+    private static TimeSeries series(long[] times, double[] values) {
+        return TimeSeries.of("metric", METADATA, times, values);
+    }
+}
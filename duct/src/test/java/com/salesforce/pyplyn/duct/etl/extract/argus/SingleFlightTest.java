@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.extract.argus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class SingleFlightTest {
+    private SingleFlight<String> singleFlight;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        singleFlight = new SingleFlight<>();
+    }
+
+    @Test
+    public void testWaitersReceiveTheInFlightResult() throws Exception {
+        // ARRANGE
+        SingleFlight.Call<String> owner = singleFlight.join("key");
+        SingleFlight.Call<String> waiter = singleFlight.join("key");
+
+        // ACT
+        singleFlight.complete("key", owner, "value");
+
+        // ASSERT
+        assertThat("The first caller should perform the call", owner.isOwner(), is(true));
+        assertThat(waiter.isOwner(), is(false));
+        assertThat(waiter.future().join(), equalTo("value"));
+        assertThat("Completed calls should allow new calls to be made", singleFlight.join("key").isOwner(), is(true));
+    }
+
+    @Test
+    public void testWaitersAreNotifiedOfFailures() throws Exception {
+        // ARRANGE
+        SingleFlight.Call<String> owner = singleFlight.join("key");
+        SingleFlight.Call<String> waiter = singleFlight.join("key");
+
+        // ACT
+        singleFlight.fail("key", owner, new IllegalStateException("failed"));
+
+        // ASSERT
+        assertThat(waiter.future().isCompletedExceptionally(), is(true));
+        assertThat("Failed calls should allow new calls to be made", singleFlight.join("key").isOwner(), is(true));
+    }
+
+    @Test
+    public void testCompletedCallsDoNotAffectNewerCallsForTheSameKey() throws Exception {
+        // ARRANGE
+        SingleFlight.Call<String> first = singleFlight.join("key");
+        singleFlight.complete("key", first, "value");
+        SingleFlight.Call<String> second = singleFlight.join("key");
+        SingleFlight.Call<String> waiter = singleFlight.join("key");
+
+        // ACT
+        boolean failed = singleFlight.fail("key", first, new IllegalStateException("failed"));
+
+        // ASSERT
+        assertThat(failed, is(false));
+        assertThat(waiter.future(), sameInstance(second.future()));
+        assertThat("The newer call should still be in flight", waiter.future().isDone(), is(false));
+        assertThat(singleFlight.join("key").isOwner(), is(false));
+    }
+}
@@ -106,10 +106,11 @@ public class RefocusExtractProcessorTest {
         verify(fixtures.systemStatus(), times(0)).meter("Refocus", MeterType.ExtractNoDataReturned);
 
         @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<Transmutation>> dataCaptor = ArgumentCaptor.forClass(List.class);
-        verify(fixtures.refocusLoadProcessor()).executeAsync(dataCaptor.capture(), any());
+        ArgumentCaptor<List<List<Transmutation>>> dataCaptor = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.refocusLoadProcessor()).executeBatchAsync(dataCaptor.capture(), any());
 
-        List<Transmutation> data = dataCaptor.getValue();
+        assertThat(dataCaptor.getValue(), hasSize(1));
+        List<Transmutation> data = dataCaptor.getValue().get(0);
         assertThat(data, hasSize(1));
 
         Transmutation result = data.get(0);
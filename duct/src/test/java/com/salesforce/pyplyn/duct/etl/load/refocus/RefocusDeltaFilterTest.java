@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.load.refocus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.salesforce.refocus.model.ImmutableSample;
+import com.salesforce.refocus.model.Sample;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class RefocusDeltaFilterTest {
+    private AtomicLong nanos;
+    private RefocusDeltaFilter filter;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        nanos = new AtomicLong();
+        filter = new RefocusDeltaFilter(1000L, 100L, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+    }
+
+    @Test
+    public void testUnchangedSamplesAreSuppressed() throws Exception {
+        // ARRANGE
+        List<Sample> samples = Arrays.asList(sample("s|a1", "1", "body"), sample("s|a2", "2", "body"));
+        filter.changed("endpoint", samples);
+
+        // ACT
+        List<Sample> unchanged = filter.changed("endpoint", samples);
+        List<Sample> changed = filter.changed("endpoint", Arrays.asList(sample("s|a1", "1", "body"), sample("s|a2", "2", "new body")));
+        List<Sample> otherEndpoint = filter.changed("other", samples);
+
+        // ASSERT
+        assertThat(unchanged, empty());
+        assertThat(changed, contains(sample("s|a2", "2", "new body")));
+        assertThat("Samples are tracked per endpoint", otherEndpoint, hasSize(2));
+    }
+
+    @Test
+    public void testUnchangedSamplesAreRefreshed() throws Exception {
+        // ARRANGE
+        List<Sample> samples = Collections.singletonList(sample("s|a", "1", "body"));
+        filter.changed("endpoint", samples);
+
+        // ACT
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500L));
+        List<Sample> beforeRefresh = filter.changed("endpoint", samples);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500L));
+        List<Sample> afterRefresh = filter.changed("endpoint", samples);
+
+        // ASSERT
+        assertThat(beforeRefresh, empty());
+        assertThat("Suppressing a sample should not delay its refresh", afterRefresh, hasSize(1));
+    }
+
+    @Test
+    public void testForgottenSamplesAreResent() throws Exception {
+        // ARRANGE
+        List<Sample> samples = Collections.singletonList(sample("s|a", "1", "body"));
+        filter.changed("endpoint", samples);
+
+        // ACT
+        filter.forget("endpoint", samples);
+        List<Sample> result = filter.changed("endpoint", samples);
+
+        // ASSERT
+        assertThat(result, hasSize(1));
+    }
+
+    private static Sample sample(String name, String value, String messageBody) {
+        return ImmutableSample.builder().name(name).value(value).messageBody(messageBody).build();
+    }
+}
@@ -8,15 +8,26 @@
 
 package com.salesforce.pyplyn.duct.etl.load.refocus;
 
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.salesforce.pyplyn.duct.com.salesforce.pyplyn.test.AppBootstrapFixtures;
 import com.salesforce.pyplyn.duct.etl.configuration.ConfigurationUpdateManager;
+import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.Transmutation;
 import com.salesforce.pyplyn.status.MeterType;
+import com.salesforce.refocus.model.Sample;
 
 /**
  * Test class
@@ -60,4 +71,108 @@ public class RefocusLoadProcessorTest {
         // since we had no real client, expecting ArgusExtractProcessor to have logged a failure
         verify(fixtures.systemStatus(), times(1)).meter("Refocus", MeterType.LoadFailure);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAllRowsOfACycleAreUpsertedInOneBulkRequest() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        ZonedDateTime now = ZonedDateTime.now();
+        List<List<Transmutation>> rows = Arrays.asList(
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric1", 1d, 1d, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric2", 2d, 2d, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric3", 3d, 3d, metadata))
+        );
+
+        // bootstrap
+        fixtures.appConfigMocks()
+                .runOnce();
+
+        fixtures.oneArgusToRefocusConfiguration()
+                .returnTransformationResultFromAllExtractProcessors(rows)
+                .callRealRefocusLoadProcessor()
+                .initializeFixtures();
+
+        // init app
+        ConfigurationUpdateManager manager = fixtures.configurationManager();
+
+
+        // ACT
+        manager.run();
+        fixtures.awaitUntilAllTasksHaveBeenProcessed(true);
+
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Sample>> samplesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.refocusClient(), times(1)).upsertSamplesBulk(samplesCaptor.capture());
+        assertThat(samplesCaptor.getValue(), hasSize(3));
+    }
+
+    @Test
+    public void testWriteBehindCoalescesSamplesWithTheSameName() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        ZonedDateTime now = ZonedDateTime.now();
+        List<List<Transmutation>> rows = Arrays.asList(
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric1", 1d, 1d, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric2", 2d, 2d, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(now, "metric3", 3d, 3d, metadata))
+        );
+
+        // bootstrap
+        fixtures.appConfigMocks()
+                .enableWriteBehind(1000, 50L, 2)
+                .runOnce();
+
+        fixtures.oneArgusToRefocusConfiguration()
+                .returnTransformationResultFromAllExtractProcessors(rows)
+                .callRealRefocusLoadProcessor()
+                .initializeFixtures();
+
+        // init app
+        ConfigurationUpdateManager manager = fixtures.configurationManager();
+
+
+        // ACT
+        manager.run();
+        fixtures.awaitUntilAllTasksHaveBeenProcessed(true);
+
+
+        // ASSERT
+        // all samples have the same name, so only the last one is kept
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Sample>> samplesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(fixtures.refocusClient(), timeout(1000L).times(1)).upsertSamplesBulk(samplesCaptor.capture());
+        assertThat(samplesCaptor.getValue(), hasSize(1));
+        verify(fixtures.systemStatus(), timeout(1000L).times(1)).meter("Refocus", MeterType.LoadFailure);
+    }
+
+    @Test
+    public void testDeltaLoadSuppressesUnchangedSamples() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Transmutation> data = Collections.singletonList(ImmutableTransmutation.of(now, "metric", 1d, 1d, metadata));
+        List<Transmutation> changedData = Collections.singletonList(ImmutableTransmutation.of(now, "metric", 2d, 2d, metadata));
+        Refocus refocus = ImmutableRefocus.of(AppBootstrapFixtures.MOCK_CONNECTOR_NAME, "subject", "aspect", "code", "body", Collections.emptyList());
+
+        fixtures.appConfigMocks()
+                .enableDeltaLoad(60_000L);
+
+        fixtures.callRealRefocusLoadProcessor()
+                .initializeFixtures();
+        doReturn(true).when(fixtures.refocusClient()).upsertSamplesBulk(any());
+
+        // ACT
+        RefocusLoadProcessor processor = fixtures.refocusLoadProcessor();
+        processor.process(data, Collections.singletonList(refocus));
+        processor.process(data, Collections.singletonList(refocus));
+        processor.process(changedData, Collections.singletonList(refocus));
+
+        // ASSERT
+        verify(fixtures.refocusClient(), times(2)).upsertSamplesBulk(any());
+        verify(fixtures.systemStatus(), times(2)).meter("Refocus", MeterType.LoadSent);
+        verify(fixtures.systemStatus(), times(3)).meter("Refocus", MeterType.LoadSuppressed);
+        verify(fixtures.systemStatus(), times(3)).meter("Refocus", MeterType.LoadSuccess);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.duct.etl.load.refocus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.salesforce.refocus.model.ImmutableSample;
+import com.salesforce.refocus.model.Sample;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class RefocusWriteBehindTest {
+    private Map<String, List<List<Sample>>> upserted;
+    private Histogram bufferDepth;
+    private Histogram flushSize;
+    private RefocusWriteBehind writeBehind;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        upserted = new HashMap<>();
+        bufferDepth = mock(Histogram.class);
+        flushSize = mock(Histogram.class);
+        writeBehind = new RefocusWriteBehind(5, 2, (endpointId, samples) -> {
+            upserted.computeIfAbsent(endpointId, key -> new ArrayList<>()).add(samples);
+            return true;
+        }, bufferDepth, flushSize, new Timer(), Runnable::run);
+    }
+
+    @Test
+    public void testSamplesAreDeduplicatedUsingLastWriteWins() throws Exception {
+        // ARRANGE
+        writeBehind.write("endpoint", Arrays.asList(sample("subject|aspect1", "1"), sample("subject|aspect2", "2")));
+        writeBehind.write("endpoint", Collections.singletonList(sample("subject|aspect1", "3")));
+
+        // ACT
+        boolean flushed = writeBehind.flush();
+
+        // ASSERT
+        assertThat(flushed, is(true));
+        assertThat(upserted.get("endpoint"), hasSize(1));
+        assertThat(upserted.get("endpoint").get(0), contains(sample("subject|aspect1", "3"), sample("subject|aspect2", "2")));
+        verify(flushSize).update(2);
+        assertThat(writeBehind.depth(), equalTo(0));
+    }
+
+    @Test
+    public void testFlushesAreChunkedPerEndpoint() throws Exception {
+        // ARRANGE
+        writeBehind.write("endpoint1", Arrays.asList(sample("s|a1", "1"), sample("s|a2", "1"), sample("s|a3", "1")));
+        writeBehind.write("endpoint2", Collections.singletonList(sample("s|a1", "1")));
+
+        // ACT
+        writeBehind.flush();
+
+        // ASSERT
+        assertThat(upserted.get("endpoint1"), hasSize(2));
+        assertThat(upserted.get("endpoint1").get(0), hasSize(2));
+        assertThat(upserted.get("endpoint1").get(1), hasSize(1));
+        assertThat(upserted.get("endpoint2"), hasSize(1));
+    }
+
+    @Test
+    public void testReachingMaxBufferSizeTriggersFlush() throws Exception {
+        // ACT
+        writeBehind.write("endpoint", Arrays.asList(sample("s|a1", "1"), sample("s|a2", "1"), sample("s|a3", "1")));
+        boolean flushedEarly = upserted.containsKey("endpoint");
+        writeBehind.write("endpoint", Arrays.asList(sample("s|a4", "1"), sample("s|a5", "1")));
+
+        // ASSERT
+        assertThat("Should not flush before the buffer is full", flushedEarly, is(false));
+        assertThat(upserted.get("endpoint"), hasSize(3));
+        verify(bufferDepth).update(3);
+        verify(bufferDepth).update(5);
+        assertThat(writeBehind.depth(), equalTo(0));
+    }
+
+    @Test
+    public void testFailedUpsertsAreReported() throws Exception {
+        // ARRANGE
+        writeBehind = new RefocusWriteBehind(5, 2, (endpointId, samples) -> {
+            throw new IllegalStateException("failed");
+        }, bufferDepth, flushSize, new Timer(), Runnable::run);
+        writeBehind.write("endpoint", Collections.singletonList(sample("s|a1", "1")));
+
+        // ACT
+        boolean flushed = writeBehind.flush();
+
+        // ASSERT
+        assertThat(flushed, is(false));
+        assertThat("Failed samples are not retained", writeBehind.depth(), equalTo(0));
+    }
+
+    @Test
+    public void testClosingDrainsPendingSamplesAndRejectsFurtherWrites() throws Exception {
+        // ARRANGE
+        writeBehind.write("endpoint", Collections.singletonList(sample("s|a1", "1")));
+
+        // ACT
+        boolean drained = writeBehind.close();
+        boolean written = writeBehind.write("endpoint", Collections.singletonList(sample("s|a2", "1")));
+
+        // ASSERT
+        assertThat(drained, is(true));
+        assertThat(upserted.get("endpoint"), hasSize(1));
+        assertThat(upserted.get("endpoint").get(0), contains(sample("s|a1", "1")));
+        assertThat("Writes should be rejected after the buffer was closed", written, is(false));
+        assertThat(writeBehind.depth(), equalTo(0));
+    }
+
+    @Test
+    public void testWritesAreBufferedWhenTheFlushExecutorWasShutDown() throws Exception {
+        // ARRANGE
+        writeBehind = new RefocusWriteBehind(1, 2, (endpointId, samples) -> {
+            upserted.computeIfAbsent(endpointId, key -> new ArrayList<>()).add(samples);
+            return true;
+        }, bufferDepth, flushSize, new Timer(), command -> {
+            throw new RejectedExecutionException("shut down");
+        });
+
+        // ACT
+        boolean written = writeBehind.write("endpoint", Collections.singletonList(sample("s|a1", "1")));
+        writeBehind.close();
+
+        // ASSERT
+        assertThat(written, is(true));
+        assertThat("Samples should be drained when the buffer is closed", upserted.get("endpoint"), hasSize(1));
+    }
+
+    private static Sample sample(String name, String value) {
+        return ImmutableSample.builder().name(name).value(value).build();
+    }
+}
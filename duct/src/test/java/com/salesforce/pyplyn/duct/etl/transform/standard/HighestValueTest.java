@@ -13,6 +13,7 @@ import static org.hamcrest.Matchers.*;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -61,4 +62,41 @@ public class HighestValueTest {
         assertThat("The result should contain the original time",
                 result.metadata().messages(), hasItem(containsString(NOW.toString())));
     }
+
+    @Test
+    public void testLargeLongsAreComparedExactly() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        long large = (1L << 53) + 1;
+        List<List<Transmutation>> input = Arrays.asList(
+                Collections.singletonList(ImmutableTransmutation.of(NOW, "lower", large - 1, large - 1, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(NOW, "higher", large, large, metadata)));
+        HighestValue transform = ImmutableHighestValue.of(null, null);
+
+        // ACT
+        List<List<Transmutation>> results = transform.apply(input);
+
+        // ASSERT
+        assertThat("The values should not be distinguishable as doubles", (double) large, equalTo((double) (large - 1)));
+        assertThat(results.get(0), hasSize(1));
+        assertThat(results.get(0).get(0).name(), equalTo("higher"));
+    }
+
+    @Test
+    public void testNaNValuesAreIgnored() throws Exception {
+        // ARRANGE
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().build();
+        List<List<Transmutation>> input = Arrays.asList(
+                Collections.singletonList(ImmutableTransmutation.of(NOW, "nan", Double.NaN, Double.NaN, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(NOW, "highest", 1d, 1d, metadata)),
+                Collections.singletonList(ImmutableTransmutation.of(NOW, "lowest", -1d, -1d, metadata)));
+        HighestValue transform = ImmutableHighestValue.of(null, null);
+
+        // ACT
+        List<List<Transmutation>> results = transform.apply(input);
+
+        // ASSERT
+        assertThat(results.get(0), hasSize(1));
+        assertThat(results.get(0).get(0).name(), equalTo("highest"));
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.salesforce.pyplyn.model.ImmutableTransmutation;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 
 /**
@@ -84,4 +85,20 @@ public class MetadataTest {
         assertThat(result.get(0).get(0).metadata().tags().entrySet(), hasSize(1));
         assertThat(result.get(0).get(0).metadata().tags(), hasEntry("data", "overridden"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void metadataTagsAreAppendedToSeries() throws Exception {
+        // ARRANGE
+        Metadata test = ImmutableMetadata.builder().tags(Collections.singletonMap("key", "value")).build();
+        TimeSeries series = TimeSeries.of("test", data.metadata(), new long[]{1L, 2L}, new double[]{1.0d, 2.0d});
+
+        // ACT
+        List<TimeSeries> result = test.applyBatch(singletonList(series));
+
+        // ASSERT
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).size(), equalTo(2));
+        assertThat(result.get(0).metadata().tags(), allOf(hasEntry("key", "value"), hasEntry("data", "point")));
+        assertThat(result.get(0).transmutation(1).metadata().tags(), hasEntry("key", "value"));
+    }
+}
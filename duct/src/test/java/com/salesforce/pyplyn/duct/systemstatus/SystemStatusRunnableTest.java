@@ -108,9 +108,62 @@ public class SystemStatusRunnableTest {
 
             assertThat("AppBootstrapFixtures should report timing data for the Refocus Load processor",
                     timerMessages, hasItem(containsString("Refocus.upsert-samples-bulk." + AppBootstrapFixtures.MOCK_CONNECTOR_NAME)));
+            assertThat("The TaskManager should report how many tasks it dispatches on each tick",
+                    timerMessages, hasItem(containsString("TaskManager.dispatch-batch-size")));
 
         } finally {
             AppBootstrapLatches.release();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGaugesAreReported() throws Exception {
+        // ARRANGE
+        fixtures.realSystemStatus().initializeFixtures();
+        SystemStatusRunnable systemStatus = fixtures.systemStatus();
+
+        // registering a gauge with the same name replaces the previous one
+        systemStatus.gauge("Cache", "endpoint.hits", () -> 1L);
+        systemStatus.gauge("Cache", "endpoint.hits", () -> 2L);
+
+        // ACT
+        systemStatus.run();
+
+        // ASSERT
+        ArgumentCaptor<StatusMessage> messageCaptor = ArgumentCaptor.forClass(StatusMessage.class);
+        verify(systemStatus, atLeastOnce()).logStatusMessage(messageCaptor.capture());
+        List<String> messages = messageCaptor.getAllValues().stream().map(Object::toString).collect(Collectors.toList());
+
+        assertThat(messages, hasItem(containsString("Cache.endpoint.hits=2")));
+        assertThat(messages, not(hasItem(containsString("Cache.endpoint.hits=1"))));
+    }
+
+    @Test
+    public void testInformationalMetersDoNotAlert() throws Exception {
+        // ARRANGE
+        fixtures.appConfigMocks()
+                .enableAlerts()
+                .checkMeter("RefocusLoadSuppressedWARN", 1.0);
+        fixtures.realSystemStatus().initializeFixtures();
+        SystemStatusRunnable systemStatus = fixtures.systemStatus();
+        SystemStatusConsumer systemStatusConsumer = fixtures.statusConsumer();
+
+        systemStatus.meter("Refocus", MeterType.LoadSuppressed).mark(5);
+
+        // ACT
+        systemStatus.run();
+
+        // ASSERT
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StatusMessage>> statusCaptor = ArgumentCaptor.forClass(List.class);
+        verify(systemStatusConsumer).accept(statusCaptor.capture());
+        assertThat(statusCaptor.getValue(), hasSize(1));
+        assertThat("Suppressed loads should not alert, even if a threshold is configured",
+                statusCaptor.getValue().get(0).level(), is(StatusCode.OK));
+
+        ArgumentCaptor<StatusMessage> messageCaptor = ArgumentCaptor.forClass(StatusMessage.class);
+        verify(systemStatus, atLeastOnce()).logStatusMessage(messageCaptor.capture());
+        List<String> messages = messageCaptor.getAllValues().stream().map(Object::toString).collect(Collectors.toList());
+        assertThat(messages, hasItem(containsString("RefocusLoadSuppressed")));
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.cache;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache, using the W-TinyLFU eviction policy
+ * <p/>
+ * <p/>The total weight of all entries (see {@link Cacheable#cacheWeight()}) is kept under <b>maximumWeight</b>:
+ * <p/>- new entries are first added to a small LRU <i>window</i> (1% of the maximum weight)
+ * <p/>- entries evicted from the window are only admitted into the <i>main</i> space if they have been accessed more often
+ *   than the entry they would replace; access frequencies are estimated with a {@link FrequencySketch}
+ * <p/>- the main space is a segmented LRU: entries start in <i>probation</i> and are promoted to <i>protected</i>
+ *   (80% of the main space) when accessed again
+ * <p/>
+ * <p/>Expired entries are never returned and are removed whenever {@link #cleanUp()} is called
+ *   (periodically, when the cache is created by a {@link CacheFactory}), instead of waiting for them to be read.
+ * <p/>
+ * <p/>All operations are synchronized, since each cache is expected to be used by a single endpoint.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class BoundedCache<T extends Cacheable> implements Cache<T> {
+    private final Map<String, Node<T>> data = new HashMap<>();
+    private final LinkedHashSet<Node<T>> window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<T>> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<T>> protectedSpace = new LinkedHashSet<>();
+    private final FrequencySketch sketch;
+    private final LongSupplier clock;
+
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private long hitCount;
+    private long missCount;
+    private long loadCount;
+    private long evictionCount;
+    private long expirationCount;
+
+
+    /**
+     * Class constructor
+     *
+     * @param maximumWeight maximum sum of the weights of all cached entries
+     */
+    public BoundedCache(long maximumWeight) {
+        this(maximumWeight, System::currentTimeMillis);
+    }
+
+    /**
+     * Allows specifying a custom clock (used in tests)
+     */
+    BoundedCache(long maximumWeight, LongSupplier clock) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("The maximum weight should be positive: " + maximumWeight);
+        }
+
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.mainMaximum = Math.max(1, maximumWeight - windowMaximum);
+        this.protectedMaximum = mainMaximum * 80 / 100;
+        this.sketch = new FrequencySketch(maximumWeight);
+        this.clock = clock;
+    }
+
+    /**
+     * Caches an <b>object</b> for <b>millis</b> milliseconds
+     * <p/>
+     * <p/>Objects too heavy to fit in the cache's main space are not cached.
+     *
+     * @param object the value to cache
+     * @param millis the number of milliseconds to cache for
+     */
+    @Override
+    public synchronized void cache(T object, long millis) {
+        String key = object.cacheKey();
+        long weight = Math.max(1, object.cacheWeight());
+        long expiresAt = clock.getAsLong() + millis;
+
+        // do not allow a single entry to flush the whole cache
+        if (weight > mainMaximum) {
+            remove(data.get(key));
+            return;
+        }
+
+        sketch.increment(key);
+        loadCount++;
+
+        Node<T> node = data.get(key);
+        if (nonNull(node)) {
+            // replace the value in place
+            addWeight(node, weight - node.weight);
+            node.value = object;
+            node.weight = weight;
+            node.expiresAt = expiresAt;
+            onAccess(node);
+
+        } else {
+            node = new Node<>(key, object, weight, expiresAt);
+            data.put(key, node);
+            window.add(node);
+            windowWeight += weight;
+        }
+
+        evict();
+    }
+
+    /**
+     * @param key cache key to retrieve
+     * @return the cached value if found, or null if it does not exist or expired
+     */
+    @Override
+    public synchronized T isCached(final String key) {
+        sketch.increment(key);
+
+        Node<T> node = data.get(key);
+        if (isNull(node)) {
+            missCount++;
+            return null;
+        }
+
+        // expired entries are removed
+        if (node.expiresAt <= clock.getAsLong()) {
+            remove(node);
+            expirationCount++;
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Removes all expired entries
+     */
+    public synchronized void cleanUp() {
+        long now = clock.getAsLong();
+        List<Node<T>> expired = new ArrayList<>();
+        for (Node<T> node : data.values()) {
+            if (node.expiresAt <= now) {
+                expired.add(node);
+            }
+        }
+
+        expired.forEach(this::remove);
+        expirationCount += expired.size();
+    }
+
+    /**
+     * @return a snapshot of this cache's statistics
+     */
+    @Override
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, loadCount, evictionCount, expirationCount, data.size(),
+                windowWeight + probationWeight + protectedWeight);
+    }
+
+    /**
+     * Moves accessed entries towards the most recently used end of their region,
+     *   promoting entries from probation to the protected space
+     */
+    private void onAccess(Node<T> node) {
+        if (node.region == Region.WINDOW) {
+            moveToTail(window, node);
+
+        } else if (node.region == Region.PROTECTED) {
+            moveToTail(protectedSpace, node);
+
+        } else {
+            probation.remove(node);
+            probationWeight -= node.weight;
+            protectedSpace.add(node);
+            protectedWeight += node.weight;
+            node.region = Region.PROTECTED;
+
+            // demote the least recently used protected entries, if needed
+            while (protectedWeight > protectedMaximum && protectedSpace.size() > 1) {
+                Node<T> demoted = head(protectedSpace);
+                protectedSpace.remove(demoted);
+                protectedWeight -= demoted.weight;
+                probation.add(demoted);
+                probationWeight += demoted.weight;
+                demoted.region = Region.PROBATION;
+            }
+        }
+    }
+
+    /**
+     * Moves entries out of the window and into the main space, evicting whichever of the candidate and
+     *   the main space's victim is less frequently used
+     */
+    private void evict() {
+        while (windowWeight > windowMaximum) {
+            Node<T> candidate = head(window);
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            admit(candidate);
+        }
+
+        // entries replaced with heavier values can also cause the main space to overflow
+        while (probationWeight + protectedWeight > mainMaximum) {
+            remove(!probation.isEmpty() ? head(probation) : head(protectedSpace));
+            evictionCount++;
+        }
+    }
+
+    private void admit(Node<T> candidate) {
+        int candidateFrequency = sketch.frequency(candidate.key);
+
+        while (probationWeight + protectedWeight + candidate.weight > mainMaximum) {
+            Node<T> victim = !probation.isEmpty() ? head(probation) : head(protectedSpace);
+
+            // reject the candidate, if it is not accessed more often than the victim, or if it cannot fit at all
+            if (isNull(victim) || candidateFrequency <= sketch.frequency(victim.key)) {
+                data.remove(candidate.key);
+                evictionCount++;
+                return;
+            }
+
+            remove(victim);
+            evictionCount++;
+        }
+
+        probation.add(candidate);
+        probationWeight += candidate.weight;
+        candidate.region = Region.PROBATION;
+    }
+
+    /**
+     * Removes the specified node from the cache
+     */
+    private void remove(Node<T> node) {
+        if (isNull(node)) {
+            return;
+        }
+
+        data.remove(node.key);
+        regionOf(node).remove(node);
+        addWeight(node, -node.weight);
+    }
+
+    /**
+     * Updates the weight of the region holding the specified node
+     */
+    private void addWeight(Node<T> node, long delta) {
+        switch (node.region) {
+            case WINDOW:
+                windowWeight += delta;
+                break;
+
+            case PROBATION:
+                probationWeight += delta;
+                break;
+
+            default:
+                protectedWeight += delta;
+        }
+    }
+
+    private LinkedHashSet<Node<T>> regionOf(Node<T> node) {
+        switch (node.region) {
+            case WINDOW:
+                return window;
+
+            case PROBATION:
+                return probation;
+
+            default:
+                return protectedSpace;
+        }
+    }
+
+    private static <N> void moveToTail(LinkedHashSet<N> region, N node) {
+        region.remove(node);
+        region.add(node);
+    }
+
+    private static <N> N head(LinkedHashSet<N> region) {
+        Iterator<N> iterator = region.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+
+    /**
+     * Regions of the cache
+     */
+    private enum Region {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    /**
+     * Cached entry; uses identity equality, to allow being stored in {@link LinkedHashSet}s
+     */
+    private static final class Node<T> {
+        private final String key;
+        private T value;
+        private long weight;
+        private long expiresAt;
+        private Region region = Region.WINDOW;
+
+        private Node(String key, T value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
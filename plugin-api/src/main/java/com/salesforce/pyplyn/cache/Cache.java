@@ -13,6 +13,7 @@ package com.salesforce.pyplyn.cache;
  * <p/>
  * <p/>1. cache: will save a value in the cache for the number of specified millis
  * <p/>2. isCached: will return the cached value, if it exists
+ * <p/>3. stats: will return counters describing how effective the cache is
  *
  * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
  * @since 3.0
@@ -35,4 +36,16 @@ public interface Cache<T extends Cacheable> {
      * @return object of type <T> or null
      */
     T isCached(String key);
+
+    /**
+     * Override this method and return the cache's hit, miss, load, eviction, and expiration counts,
+     *   as well as the number of entries it holds
+     * <p/>The default implementation does not record any statistics, to preserve compatibility
+     *   with existing implementations
+     *
+     * @since 10.1.0
+     */
+    default CacheStats stats() {
+        return CacheStats.EMPTY;
+    }
 }
@@ -8,23 +8,92 @@
 
 package com.salesforce.pyplyn.cache;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Constructs new caches when required
  * <p/>
- * <p/>At this moment this class only return {@link ConcurrentCacheMap}s. It was written like this to support
- * adding more types in the future, but also to be able to globally control the cache implementation used
- * throughout the project
+ * <p/>Returns {@link BoundedCache}s, limited to <b>maximumWeight</b> each; the expired entries of all caches constructed
+ *   by a factory are removed in the background, every <b>expiryIntervalMillis</b>, by a single daemon thread.
+ *   This class allows globally controlling the cache implementation used throughout the project.
  *
  * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
  * @since 3.0
  */
 public class CacheFactory {
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 100_000L;
+    public static final long DEFAULT_EXPIRY_INTERVAL_MILLIS = 1_000L;
+
+    private final long maximumWeight;
+    private final long expiryIntervalMillis;
+    private ScheduledExecutorService expiryExecutor;
+
+
+    /**
+     * Constructs a factory using the default settings
+     */
+    public CacheFactory() {
+        this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_EXPIRY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param maximumWeight maximum weight of each constructed cache (see {@link Cacheable#cacheWeight()})
+     * @param expiryIntervalMillis how often expired entries are removed
+     * @since 10.1.0
+     */
+    public CacheFactory(long maximumWeight, long expiryIntervalMillis) {
+        this.maximumWeight = maximumWeight;
+        this.expiryIntervalMillis = expiryIntervalMillis;
+    }
+
     /**
      * Constructs a new Cache object
      *
      * @param <T> type of elements that the returned cache can hold
      */
-    public <T extends Cacheable> ConcurrentCacheMap<T> newCache() {
-        return new ConcurrentCacheMap<>();
+    public <T extends Cacheable> Cache<T> newCache() {
+        BoundedCache<T> cache = new BoundedCache<>(maximumWeight);
+        scheduleExpiry(cache);
+        return cache;
+    }
+
+    /**
+     * Periodically removes the cache's expired entries, for as long as the cache is referenced elsewhere
+     */
+    private synchronized void scheduleExpiry(BoundedCache<?> cache) {
+        if (isNull(expiryExecutor)) {
+            expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "CacheFactory-Expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        WeakReference<BoundedCache<?>> cacheRef = new WeakReference<>(cache);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        task.set(expiryExecutor.scheduleWithFixedDelay(() -> {
+            BoundedCache<?> target = cacheRef.get();
+
+            // stop when the cache was garbage collected
+            if (isNull(target)) {
+                ScheduledFuture<?> future = task.get();
+                if (nonNull(future)) {
+                    future.cancel(false);
+                }
+                return;
+            }
+
+            target.cleanUp();
+        }, expiryIntervalMillis, expiryIntervalMillis, MILLISECONDS));
     }
 }
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.cache;
+
+/**
+ * Point-in-time statistics of a {@link Cache}
+ * <p/>
+ * <p/>All counts are cumulative, since the cache was created.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public final class CacheStats {
+    /**
+     * Statistics of a cache that does not record any
+     */
+    public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long size;
+    private final long weightedSize;
+
+    /**
+     * Class constructor
+     */
+    public CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long expirationCount,
+                      long size, long weightedSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.size = size;
+        this.weightedSize = weightedSize;
+    }
+
+    /**
+     * @return number of lookups that returned a cached value
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that did not find a (valid) cached value
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * @return ratio of lookups that returned a cached value, or 0 if no lookups were performed
+     */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return number of values stored in the cache (after being loaded from their endpoint)
+     */
+    public long loadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return number of entries removed to keep the cache within its size limits
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of entries removed because they expired
+     */
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * @return number of entries currently held
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return sum of the weights of all entries currently held
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, loads=%d, evictions=%d, expirations=%d, size=%d, weightedSize=%d}",
+                hitCount, missCount, loadCount, evictionCount, expirationCount, size, weightedSize);
+    }
+}
@@ -20,4 +20,14 @@ public interface Cacheable {
      * @return unique cache identifier (key)
      */
     String cacheKey();
+
+    /**
+     * Override this method if instances vary considerably in size; used by {@link BoundedCache} to limit its size
+     *
+     * @return the relative size of this object, when cached
+     * @since 10.1.0
+     */
+    default long cacheWeight() {
+        return 1;
+    }
 }
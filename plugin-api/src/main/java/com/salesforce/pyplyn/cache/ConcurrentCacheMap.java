@@ -13,6 +13,7 @@ import static java.util.Objects.isNull;
 import java.lang.ref.SoftReference;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Cache implementation based on a ConcurrentMap
@@ -26,6 +27,12 @@ public class ConcurrentCacheMap<T extends Cacheable> implements Cache<T> {
      */
     private final Map<String, SoftReference<CacheEntry<T>>> cache = new ConcurrentHashMap<>();
 
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
     /**
      * Caches an <b>object</b> for <b>millis</b> milliseconds
      * <p/>
@@ -37,6 +44,7 @@ public class ConcurrentCacheMap<T extends Cacheable> implements Cache<T> {
     @Override
     public void cache(T object, long millis) {
         cache.put(object.cacheKey(), new SoftReference<>(new CacheEntry<>(object, millis)));
+        loadCount.increment();
     }
 
     /**
@@ -50,6 +58,7 @@ public class ConcurrentCacheMap<T extends Cacheable> implements Cache<T> {
 
         // stop here if cache entry does not exist
         if (isNull(entryRef)) {
+            missCount.increment();
             return null;
         }
 
@@ -57,10 +66,30 @@ public class ConcurrentCacheMap<T extends Cacheable> implements Cache<T> {
         CacheEntry<T> entry = entryRef.get();
         if (isNull(entry) || entry.expired()) {
             // remove from cache and return null
-            cache.remove(key, entryRef);
+            if (cache.remove(key, entryRef)) {
+                // values collected by the GC are counted as evictions
+                if (isNull(entry)) {
+                    evictionCount.increment();
+                } else {
+                    expirationCount.increment();
+                }
+            }
+
+            missCount.increment();
             return null;
         }
 
+        hitCount.increment();
         return entry.value();
     }
+
+    /**
+     * @return a snapshot of this cache's statistics; entries are only considered expired or evicted once they are read
+     */
+    @Override
+    public CacheStats stats() {
+        long size = cache.size();
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadCount.sum(), evictionCount.sum(), expirationCount.sum(),
+                size, size);
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.cache;
+
+/**
+ * Approximates how often keys were accessed, using a Count-Min sketch of 4-bit counters
+ * <p/>
+ * <p/>All counters are halved after <b>10 x width</b> increments, so that the frequencies reflect recent history
+ *   (old popularity decays over time).
+ * <p/>
+ * <p/>This class is not thread-safe and is meant to be guarded by its owner (see {@link BoundedCache}).
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xa3f1c2b5, 0x5c2e7f1d, 0x8b4d9e63};
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+
+    /**
+     * Class constructor
+     *
+     * @param expectedKeys approximate number of distinct keys that will be tracked
+     */
+    FrequencySketch(long expectedKeys) {
+        int width = Integer.highestOneBit((int) Math.max(16, Math.min(expectedKeys, 1 << 20)) - 1) << 1;
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Records an access of the specified key
+     */
+    void increment(String key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                table[i][index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * @return the estimated number of times the key was accessed (at most 15)
+     */
+    int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves all counters
+     */
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (byte) (row[i] >>> 1);
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Applies a supplemental hash, to protect against poor quality hash codes
+     */
+    private static int spread(int hash) {
+        int h = hash * 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+}
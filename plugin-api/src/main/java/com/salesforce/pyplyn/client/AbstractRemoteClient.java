@@ -9,6 +9,7 @@
 package com.salesforce.pyplyn.client;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 import java.io.*;
 import java.net.InetSocketAddress;
@@ -18,10 +19,17 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.security.*;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
 
 import javax.annotation.Nonnull;
 import javax.net.ssl.KeyManagerFactory;
@@ -33,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.salesforce.pyplyn.configuration.Connector;
 import com.salesforce.pyplyn.configuration.EndpointConnector;
 
@@ -40,6 +49,7 @@ import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
@@ -56,8 +66,29 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
     private static final Logger logger = LoggerFactory.getLogger(AbstractRemoteClient.class);
     private ReentrantLock authLock = new ReentrantLock();
 
+    /**
+     * Sends hedged requests and expires calls waiting for a concurrency permit, for all clients;
+     *   its tasks only enqueue calls and do not block
+     */
+    private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    /**
+     * Denotes calls that are not subject to the endpoint's concurrency limit (i.e.: authentication calls)
+     */
+    private static final long NOT_LIMITED = -1L;
+
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private volatile long authenticatedAtNanos;
+
+    private final LongAdder authenticationCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder authFailureCount = new LongAdder();
+    private final LongAdder authLatencyNanos = new LongAdder();
+    private volatile long lastAuthLatencyNanos;
+
     private static int UNAUTHORIZED = 401;
     private static int ERR_CODES = 400;
+    private static int SERVER_ERR_CODES = 500;
 
     /**
      * Reference to the connector used by the current instance
@@ -74,6 +105,37 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
      */
     private final S svc;
 
+    /**
+     * Stops sending requests to this client's endpoint, while it is failing
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Limits the number of concurrent requests sent to this client's endpoint
+     */
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Async calls waiting for a permit from the concurrency limiter, in arrival order
+     */
+    private final Queue<PendingPermit> pendingPermits = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Counts requests to drain {@link #pendingPermits}, ensuring that only one thread drains at a time
+     */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    /**
+     * Caps the number of hedged requests sent to this client's endpoint
+     */
+    private final HedgeBudget hedgeBudget;
+
+    /**
+     * Refreshes tokens in the background and re-authenticates this client, after its async calls were rejected;
+     *   each client uses its own thread, so that a slow endpoint does not delay authenticating against other endpoints
+     */
+    private final ExecutorService tokenRefresher;
+
     /**
      * @return true if this client has authenticated against its endpoint
      */
@@ -93,25 +155,131 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
      */
     protected abstract void resetAuth();
 
+    /**
+     * Obtains new authentication artifacts, before the current ones expire
+     *   (see {@link EndpointConnector#tokenRefreshIntervalMillis()})
+     * <p/>
+     * <p/>Implementations should only replace the current token after obtaining a new one, allowing other threads
+     *   to keep using it in the meantime; by default, the current token is reset and the client authenticates again.
+     *
+     * @return true if the token was refreshed
+     * @throws UnauthorizedException thrown if the endpoint rejected the operation
+     * @since 10.1.0
+     */
+    protected boolean refreshAuth() throws UnauthorizedException {
+        resetAuth();
+        return auth();
+    }
+
     /**
      * This method should be used to authenticate the client to its endpoint
      *   to prevent duplicate operations from multiple parallel threads
      * <p/>
-     * <p/> It uses a latch to ensure only one operation is performed
+     * <p/> It uses a latch to ensure only one operation is performed; callers do not wait on the latch
+     *   while the client is authenticated
+     * <p/> Tokens older than the connector's <b>tokenRefreshIntervalMillis</b> are refreshed in the background,
+     *   while the current token continues to be used
      * @return true if the operation has succeeded
      * @throws UnauthorizedException
      */
     public boolean authenticate() throws UnauthorizedException {
+        // do not block while a valid token exists
+        if (isAuthenticated()) {
+            refreshIfStale();
+            return true;
+        }
+
         authLock.lock();
         try {
             // if another thread has performed the authentication, do not repeat the operation
-            return isAuthenticated() || auth();
+            return isAuthenticated() || measureAuth(this::auth);
 
         } finally {
             authLock.unlock();
         }
     }
 
+    /**
+     * Schedules a background refresh, if the current token is older than the connector's refresh interval
+     */
+    private void refreshIfStale() {
+        long refreshIntervalMillis = connector.tokenRefreshIntervalMillis();
+        if (refreshIntervalMillis <= 0
+                || System.nanoTime() - authenticatedAtNanos < TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis)) {
+            return;
+        }
+
+        // only schedule one refresh at a time
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            tokenRefresher.execute(() -> {
+                try {
+                    refreshNow();
+
+                } finally {
+                    refreshInProgress.set(false);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            refreshInProgress.set(false);
+        }
+    }
+
+    /**
+     * Refreshes the token; failures are only logged, since the token will be renewed once the endpoint rejects it
+     */
+    private void refreshNow() {
+        authLock.lock();
+        try {
+            if (measureAuth(this::refreshAuth)) {
+                refreshCount.increment();
+            }
+
+        } catch (UnauthorizedException e) {
+            logger.warn("Could not refresh token for {}: {}", connector.id(), e.getMessage());
+
+        } finally {
+            authLock.unlock();
+        }
+    }
+
+    /**
+     * Performs the specified authentication operation, recording its latency and outcome
+     */
+    private boolean measureAuth(AuthOperation operation) throws UnauthorizedException {
+        boolean succeeded = false;
+        long start = System.nanoTime();
+        try {
+            succeeded = operation.perform();
+            return succeeded;
+
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            authenticationCount.increment();
+            authLatencyNanos.add(elapsed);
+            lastAuthLatencyNanos = elapsed;
+
+            if (succeeded) {
+                authenticatedAtNanos = System.nanoTime();
+            } else {
+                authFailureCount.increment();
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of this client's authentication statistics
+     */
+    @Override
+    public AuthStats authStats() {
+        return new AuthStats(authenticationCount.sum(), refreshCount.sum(), authFailureCount.sum(),
+                authLatencyNanos.sum(), lastAuthLatencyNanos);
+    }
+
     /**
      * Generates a header by combining a prefix with a byte[] token
      *
@@ -128,9 +296,20 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
 
     /**
      * Class constructor that allows setting timeout parameters
+     * <p/>The client shares the {@link HttpTransport#defaultTransport()}'s connections.
      */
     protected AbstractRemoteClient(EndpointConnector connector, Class<S> cls) {
+        this(connector, cls, HttpTransport.defaultTransport());
+    }
+
+    /**
+     * Class constructor that allows setting timeout parameters and the transport whose connections will be shared
+     *
+     * @since 10.1.0
+     */
+    protected AbstractRemoteClient(EndpointConnector connector, Class<S> cls, HttpTransport transport) {
         Preconditions.checkNotNull(connector, "Passed connector is null for " + this.getClass().getSimpleName());
+        Preconditions.checkNotNull(transport, "Passed transport is null for " + this.getClass().getSimpleName());
         this.connector = connector;
 
         // Extended timeouts are needed to deal with extremely slow response times for some Argus API endpoints.
@@ -138,9 +317,9 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
         
         // set HTTP proxy, if configured
         if (connector.isProxyEnabled()) {
-            client = httpClientBuilder(connector).proxy(createProxy(connector)).build();
+            client = httpClientBuilder(connector, transport).proxy(createProxy(connector)).build();
         } else {
-            client = httpClientBuilder(connector).build();
+            client = httpClientBuilder(connector, transport).build();
         }
 
         // build the retrofit service implementation, using a specified client and relying on Jackson serialization/deserialization
@@ -151,6 +330,12 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
                 .build();
 
         this.svc = retrofit.create(cls);
+
+        this.circuitBreaker = new CircuitBreaker(connector.circuitBreakerFailureThreshold(), connector.circuitBreakerOpenMillis());
+        this.concurrencyLimiter = new ConcurrencyLimiter(connector.maxConcurrentRequests());
+        this.concurrencyLimiter.setReleaseListener(this::drainPendingPermits);
+        this.hedgeBudget = new HedgeBudget(connector.hedgingBudgetPercent());
+        this.tokenRefresher = createTokenRefresher(connector.id());
     }
 
     /**
@@ -161,11 +346,11 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
     }
 
     /**
-     * Initializes an {@link OkHttpClient.Builder} object, with the specified timeouts
+     * Initializes an {@link OkHttpClient.Builder} object, with the specified timeouts, sharing the transport's connections
      */
-    private static OkHttpClient.Builder httpClientBuilder(EndpointConnector connector) {
+    private static OkHttpClient.Builder httpClientBuilder(EndpointConnector connector, HttpTransport transport) {
         // Set simple properties.
-        OkHttpClient.Builder builder = new OkHttpClient().newBuilder()
+        OkHttpClient.Builder builder = transport.newBuilder()
                     .connectTimeout(connector.connectTimeout(), TimeUnit.SECONDS)
                     .readTimeout(connector.readTimeout(), TimeUnit.SECONDS)
                     .writeTimeout(connector.writeTimeout(), TimeUnit.SECONDS);
@@ -245,7 +430,22 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
      * @throws UnauthorizedException if the endpoint could not be authenticated
      */
     protected <T> T executeNoRetry(Call<T> call, T defaultFailResponse) throws UnauthorizedException {
-        return Optional.ofNullable(executeCallInternal(call))
+        return Optional.ofNullable(executeCallInternal(call, connector.concurrencyLimitWaitMillis()))
+                .map(Response::body)
+                .orElse(defaultFailResponse);
+    }
+
+    /**
+     * Executes an authentication call, similar to {@link #executeNoRetry(Call, Object)}; authentication calls
+     *   are not subject to the endpoint's concurrency limit, since the requests holding its permits may be waiting
+     *   for the client to authenticate
+     *
+     * @return if successful, returns the result of calling {@link Response}.body() on the resulting response
+     * @throws UnauthorizedException if the endpoint could not be authenticated
+     * @since 10.1.0
+     */
+    protected <T> T executeAuthentication(Call<T> call, T defaultFailResponse) throws UnauthorizedException {
+        return Optional.ofNullable(executeCallInternal(call, NOT_LIMITED))
                 .map(Response::body)
                 .orElse(defaultFailResponse);
     }
@@ -265,13 +465,74 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
                 .orElse(defaultFailResponse);
     }
 
+    /**
+     * Asynchronously executes the remote call, without blocking the calling thread; the call is dispatched by
+     *   {@link OkHttpClient}'s dispatcher and its result is processed on one of the dispatcher's threads
+     * <p/>
+     * <p/>If the endpoint's concurrency limit was reached, the call is queued until a permit is released, for at most
+     *   the connector's <b>concurrencyLimitWaitMillis</b>; it is then sent on the thread that released the permit.
+     * <p/>
+     * <p/>Similar to {@link #executeAndRetrieveBody(Call, Object)}, the call is retried once if the operation fails
+     *   due to an {@link UnauthorizedException}.
+     *
+     * @return a future completed with the result of calling {@link Response}.body() on the resulting response,
+     *         or with <b>defaultFailResponse</b> if the operation fails; the future is completed exceptionally with
+     *         an {@link UnauthorizedException} if the endpoint could not be authenticated
+     * @since 10.1.0
+     */
+    protected <T> CompletableFuture<T> executeAndRetrieveBodyAsync(Call<T> call, T defaultFailResponse) {
+        return executeCallInternalRetryIfUnauthorizedAsync(call, connector.concurrencyLimitWaitMillis())
+                .thenApply(response -> Optional.ofNullable(response)
+                        .map(Response::body)
+                        .orElse(defaultFailResponse));
+    }
+
+    /**
+     * Asynchronously executes the remote call, similar to {@link #executeAndRetrieveBodyAsync(Call, Object)};
+     *   if a response is not received within <b>hedgeAfterNanos</b>, a duplicate (hedged) call is sent
+     *   and the first successful response is used, cancelling the other call
+     * <p/>
+     * <p/>Hedged calls are only sent within the connector's <b>hedgingBudgetPercent</b>.
+     * <p/>
+     * <p/>The latency of the original call is reported to <b>primaryLatencyNanos</b>, even if a hedged call won;
+     *   callers which derive <b>hedgeAfterNanos</b> from past latencies should record these, since the winning call's
+     *   latency is shorter than the endpoint's and would lower the hedging delay over time. If the original call
+     *   was cancelled, the time until it was cancelled is reported, which is longer than <b>hedgeAfterNanos</b>.
+     *
+     * @param hedgeAfterNanos how long to wait before sending a hedged call; 0 disables hedging
+     * @param primaryLatencyNanos called with the latency of the original call, once it completes
+     * @return a future completed with the result of calling {@link Response}.body() on the first successful response,
+     *         or with <b>defaultFailResponse</b> if all calls fail
+     * @since 10.1.0
+     */
+    protected <T> CompletableFuture<T> executeAndRetrieveBodyHedgedAsync(Call<T> call, T defaultFailResponse, long hedgeAfterNanos,
+                                                                         LongConsumer primaryLatencyNanos) {
+        if (hedgeAfterNanos <= 0) {
+            long startNanos = System.nanoTime();
+            return executeAndRetrieveBodyAsync(call, defaultFailResponse)
+                    .whenComplete((response, error) -> primaryLatencyNanos.accept(System.nanoTime() - startNanos));
+        }
+
+        hedgeBudget.onRequest();
+        HedgedCall<T> hedgedCall = new HedgedCall<>(call, primaryLatencyNanos);
+
+        // send a hedged call, if a response was not received in time
+        ScheduledFuture<?> hedge = SCHEDULER.schedule(hedgedCall::hedge, hedgeAfterNanos, TimeUnit.NANOSECONDS);
+
+        return hedgedCall.result
+                .whenComplete((response, error) -> hedge.cancel(false))
+                .thenApply(response -> Optional.ofNullable(response)
+                        .map(Response::body)
+                        .orElse(defaultFailResponse));
+    }
+
     /**
      * Executes the remote call and returns the HTTP response headers
      *
      * @throws UnauthorizedException if the endpoint could not be authenticated
      */
     protected <T> Headers executeAndRetrieveHeaders(Call<T> call) throws UnauthorizedException {
-        return Optional.ofNullable(executeCallInternal(call))
+        return Optional.ofNullable(executeCallInternal(call, connector.concurrencyLimitWaitMillis()))
                 .map(Response::headers)
                 .orElse(null);
     }
@@ -285,60 +546,420 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
      */
     private <T> Response<T> executeCallInternalRetryIfUnauthorized(Call<T> call) throws UnauthorizedException {
         try {
-            return executeCallInternal(call);
+            return executeCallInternal(call, connector.concurrencyLimitWaitMillis());
 
         } catch (UnauthorizedException e) {
             // resets any authentication tokens and attempts to re-authenticate
             resetAuth();
             authenticate();
-            return executeCallInternal(call.clone());
+            return executeCallInternal(call.clone(), connector.concurrencyLimitWaitMillis());
+        }
+    }
+
+    /**
+     * Asynchronously executes the {@link Retrofit} call
+     *   if the initial call fails with {@link UnauthorizedException}, the authentication operation is called one more
+     *   time and the call is then retried
+     * <p/>
+     * <p/>Authentication blocks, so it is performed on the token refresher's thread instead of the
+     *   {@link OkHttpClient} dispatcher's thread which received the failed response; the retried call is then
+     *   queued for a concurrency permit, for at most the connector's <b>concurrencyLimitWaitMillis</b>
+     *   (same as synchronous retries), unless the original call was not limited.
+     */
+    private <T> CompletableFuture<Response<T>> executeCallInternalRetryIfUnauthorizedAsync(Call<T> call, long permitWaitMillis) {
+        CompletableFuture<Response<T>> result = new CompletableFuture<>();
+
+        executeCallInternalAsync(call, permitWaitMillis).whenComplete((response, error) -> {
+            // success, or a failure that is not caused by authentication
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof UnauthorizedException)) {
+                complete(result, response, cause);
+                return;
+            }
+
+            final long retryPermitWaitMillis = (permitWaitMillis == NOT_LIMITED) ? NOT_LIMITED : connector.concurrencyLimitWaitMillis();
+            reauthenticateAsync()
+                    .thenCompose(authenticated -> executeCallInternalAsync(call.clone(), retryPermitWaitMillis))
+                    .whenComplete((retried, retryError) -> complete(result, retried, unwrap(retryError)));
+        });
+
+        return result;
+    }
+
+    /**
+     * Resets any authentication tokens and attempts to re-authenticate, on the token refresher's thread
+     *
+     * @return a future that is completed exceptionally with an {@link UnauthorizedException},
+     *         if the endpoint could not be authenticated
+     */
+    private CompletableFuture<Boolean> reauthenticateAsync() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        try {
+            tokenRefresher.execute(() -> {
+                try {
+                    resetAuth();
+                    result.complete(authenticate());
+
+                } catch (UnauthorizedException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the cause of a {@link CompletionException}, which wraps errors raised by dependent stages
+     */
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && nonNull(error.getCause())) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Completes the specified future, either normally or exceptionally
+     */
+    private static <T> void complete(CompletableFuture<T> future, T value, Throwable error) {
+        if (isNull(error)) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(error);
         }
     }
 
     /**
      * Executes the {@link Retrofit} call and handles error logging; fails immediately if unauthenticated
      *
+     * @param permitWaitMillis how long to wait for the concurrency limiter, or {@link #NOT_LIMITED}
      * @throws UnauthorizedException if the endpoint is not authenticated
      */
-    private <T> Response<T> executeCallInternal(Call<T> call) throws UnauthorizedException {
-        final HttpUrl requestUrl = call.request().url();
-        final String requestMethod = call.request().method();
+    private <T> Response<T> executeCallInternal(Call<T> call, long permitWaitMillis) throws UnauthorizedException {
+        // fail fast if the endpoint is unhealthy
+        final boolean limited = permitWaitMillis != NOT_LIMITED;
+        if (!acquirePermit(call, permitWaitMillis)) {
+            return null;
+        }
 
+        boolean healthy = false;
         try {
             Response<T> response = call.execute();
+            healthy = isHealthy(response);
+            return handleResponse(call, response);
+
+        } catch (IOException e) {
+            logCallFailure(call, e);
+
+        } finally {
+            releasePermit(healthy, limited);
+        }
+
+        return null;
+    }
 
-            // success
-            if(response.code() < ERR_CODES && response.isSuccessful()) {
-                logger.info("Successful remote call {}/{} {}; response={}",
-                    getClass().getSimpleName(), requestMethod, requestUrl, response);
-                return response;
+    /**
+     * Enqueues the {@link Retrofit} call and handles error logging, without blocking the calling thread
+     *
+     * @param permitWaitMillis how long the call can be queued for a concurrency permit, or {@link #NOT_LIMITED}
+     * @return a future that is completed exceptionally with an {@link UnauthorizedException},
+     *         if the endpoint is not authenticated
+     */
+    private <T> CompletableFuture<Response<T>> executeCallInternalAsync(Call<T> call, long permitWaitMillis) {
+        final boolean limited = permitWaitMillis != NOT_LIMITED;
+        return acquirePermitAsync(call, permitWaitMillis).thenCompose(acquired -> {
+            // fail fast if the endpoint is unhealthy
+            if (!acquired) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            // the call may have been cancelled while it was queued (i.e.: a hedged call won)
+            if (call.isCanceled()) {
+                releaseIgnoredPermit(limited);
+                return CompletableFuture.completedFuture(null);
             }
 
-            // check if we are not authorized
-            if (response.code() == UNAUTHORIZED) {
+            return enqueueCall(call, limited);
+        });
+    }
+
+    /**
+     * Enqueues a call for which a permit was acquired, releasing the permit once a response is received
+     */
+    private <T> CompletableFuture<Response<T>> enqueueCall(Call<T> call, boolean limited) {
+        CompletableFuture<Response<T>> result = new CompletableFuture<>();
+
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                releasePermit(isHealthy(response), limited);
                 try {
-                    throw new UnauthorizedException(generateExceptionDetails(response));
+                    result.complete(handleResponse(call, response));
 
-                } finally {
-                    call.cancel();
+                } catch (UnauthorizedException e) {
+                    result.completeExceptionally(e);
+
+                } catch (IOException e) {
+                    logCallFailure(call, e);
+                    result.complete(null);
+
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
             }
 
-            // log any failures
-            final String errorBody = response.errorBody().string();
-            logger.info("Unsuccessful remote call {}/{} {}; response={}",
-                getClass().getSimpleName(), requestMethod, requestUrl, errorBody);
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                // cancelled calls do not reflect the endpoint's health
+                if (call.isCanceled()) {
+                    releaseIgnoredPermit(limited);
+                    result.complete(null);
+                    return;
+                }
 
-        } catch (IOException e) {
-            logger.error("Error during remote call {}/{} {}: {}",
-                getClass().getSimpleName(), requestMethod, requestUrl, e.getMessage());
-            logger.debug("Error during remote call " + requestMethod + " " + requestUrl + " [stacktrace]: ", e);
-            call.cancel();
+                releasePermit(false, limited);
+
+                // I/O errors are treated as failed calls, same as for synchronous calls
+                if (t instanceof IOException) {
+                    logCallFailure(call, (IOException)t);
+                    result.complete(null);
+
+                } else {
+                    result.completeExceptionally(t);
+                }
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Acquires a permit to send the specified call, from both the circuit breaker and the concurrency limiter;
+     *   waits for at most <b>permitWaitMillis</b> if the concurrency limit is reached
+     *
+     * @param permitWaitMillis how long to wait for the concurrency limiter, or {@link #NOT_LIMITED}
+     * @return false if the call should not be sent, since the endpoint is unhealthy or overloaded
+     */
+    private boolean acquirePermit(Call<?> call, long permitWaitMillis) {
+        final boolean limited = permitWaitMillis != NOT_LIMITED;
+        if (limited && !acquireConcurrencyPermit(permitWaitMillis)) {
+            logRejectedCall(call, "concurrency limit reached (" + concurrencyLimiter.limit() + ")");
+            return false;
+        }
+
+        return acquireCircuitPermit(call, limited);
+    }
+
+    /**
+     * Acquires a permit to send the specified call, similar to {@link #acquirePermit(Call, long)}, but without blocking
+     *   the calling thread; if the concurrency limit is reached, the call is queued for at most <b>permitWaitMillis</b>
+     *   and the returned future is completed by the thread which releases a permit
+     *
+     * @param permitWaitMillis how long the call can be queued, or {@link #NOT_LIMITED}
+     * @return a future completed with false if the call should not be sent, since the endpoint is unhealthy or overloaded
+     */
+    private CompletableFuture<Boolean> acquirePermitAsync(Call<?> call, long permitWaitMillis) {
+        if (permitWaitMillis == NOT_LIMITED) {
+            return CompletableFuture.completedFuture(acquireCircuitPermit(call, false));
+        }
+
+        // do not overtake calls which are already queued
+        if (pendingPermits.isEmpty() && concurrencyLimiter.tryAcquireUncounted()) {
+            return CompletableFuture.completedFuture(acquireCircuitPermit(call, true));
         }
 
+        if (permitWaitMillis <= 0) {
+            return CompletableFuture.completedFuture(rejectConcurrencyPermit(call));
+        }
+
+        PendingPermit pending = new PendingPermit();
+        pending.expiry = SCHEDULER.schedule(pending::expire, permitWaitMillis, TimeUnit.MILLISECONDS);
+        pendingPermits.add(pending);
+
+        // a permit may have been released before the call was queued
+        drainPendingPermits();
+
+        return pending.granted.thenApply(granted -> granted ? acquireCircuitPermit(call, true) : rejectConcurrencyPermit(call));
+    }
+
+    /**
+     * Acquires a permit from the circuit breaker, returning the concurrency permit if the breaker rejects the call
+     *
+     * @param limited true if a concurrency permit was acquired for this call
+     * @return false if the call should not be sent, since the endpoint is unhealthy
+     */
+    private boolean acquireCircuitPermit(Call<?> call, boolean limited) {
+        if (!circuitBreaker.tryAcquire()) {
+            if (limited) {
+                concurrencyLimiter.onIgnored();
+            }
+            logRejectedCall(call, "circuit breaker is " + circuitBreaker.state());
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Records and logs a call that was not sent, since a concurrency permit could not be acquired in time
+     *
+     * @return false, denoting that the call should not be sent
+     */
+    private boolean rejectConcurrencyPermit(Call<?> call) {
+        concurrencyLimiter.recordRejection();
+        logRejectedCall(call, "concurrency limit reached (" + concurrencyLimiter.limit() + ")");
+        return false;
+    }
+
+    /**
+     * Grants released permits to queued calls, in arrival order; called after each permit is released
+     * <p/>
+     * <p/>Only one thread drains the queue at a time; requests made while the queue is drained (including by the
+     *   granted calls, on the same thread) are handled by the draining thread, before it returns.
+     */
+    private void drainPendingPermits() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            PendingPermit pending;
+            while (nonNull(pending = pendingPermits.peek())) {
+                // discard calls whose wait expired
+                if (pending.granted.isDone()) {
+                    pendingPermits.poll();
+                    continue;
+                }
+
+                if (!concurrencyLimiter.tryAcquireUncounted()) {
+                    break;
+                }
+
+                // return the permit, if the wait expired in the meantime
+                pendingPermits.poll();
+                if (!pending.grant()) {
+                    concurrencyLimiter.onIgnored();
+                }
+            }
+
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Waits for the concurrency limiter, for at most <b>permitWaitMillis</b>
+     *
+     * @return false if a permit was not acquired in time, or if the thread was interrupted
+     */
+    private boolean acquireConcurrencyPermit(long permitWaitMillis) {
+        try {
+            return concurrencyLimiter.tryAcquire(permitWaitMillis, TimeUnit.MILLISECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Releases a permit acquired by {@link #acquirePermit(Call, long)}, recording the endpoint's health
+     */
+    private void releasePermit(boolean healthy, boolean limited) {
+        if (healthy) {
+            circuitBreaker.onSuccess();
+            if (limited) {
+                concurrencyLimiter.onSuccess();
+            }
+
+        } else {
+            circuitBreaker.onFailure();
+            if (limited) {
+                concurrencyLimiter.onFailure();
+            }
+        }
+    }
+
+    /**
+     * Releases a permit acquired by {@link #acquirePermit(Call, long)}, for a call whose outcome does not reflect
+     *   the endpoint's health
+     */
+    private void releaseIgnoredPermit(boolean limited) {
+        circuitBreaker.onIgnored();
+        if (limited) {
+            concurrencyLimiter.onIgnored();
+        }
+    }
+
+    /**
+     * Server errors signal an unhealthy endpoint; any other response means the endpoint is healthy
+     */
+    private static boolean isHealthy(Response<?> response) {
+        return response.code() < SERVER_ERR_CODES;
+    }
+
+    /**
+     * Logs calls that were not sent, since their endpoint is unhealthy
+     */
+    private void logRejectedCall(Call<?> call, String reason) {
+        logger.warn("Rejected remote call {}/{} {}: {} for {}",
+            getClass().getSimpleName(), call.request().method(), call.request().url(), reason, connector.id());
+    }
+
+    /**
+     * Determines if the call succeeded and logs its result
+     *
+     * @return the response if successful, or null otherwise
+     * @throws UnauthorizedException if the endpoint is not authenticated
+     * @throws IOException if the error body cannot be read
+     */
+    private <T> Response<T> handleResponse(Call<T> call, Response<T> response) throws UnauthorizedException, IOException {
+        final HttpUrl requestUrl = call.request().url();
+        final String requestMethod = call.request().method();
+
+        // success
+        if(response.code() < ERR_CODES && response.isSuccessful()) {
+            logger.info("Successful remote call {}/{} {}; response={}",
+                getClass().getSimpleName(), requestMethod, requestUrl, response);
+            return response;
+        }
+
+        // check if we are not authorized
+        if (response.code() == UNAUTHORIZED) {
+            try {
+                throw new UnauthorizedException(generateExceptionDetails(response));
+
+            } finally {
+                call.cancel();
+            }
+        }
+
+        // log any failures
+        final String errorBody = response.errorBody().string();
+        logger.info("Unsuccessful remote call {}/{} {}; response={}",
+            getClass().getSimpleName(), requestMethod, requestUrl, errorBody);
+
         return null;
     }
 
+    /**
+     * Logs I/O errors and cancels the failed call
+     */
+    private void logCallFailure(Call<?> call, IOException e) {
+        final HttpUrl requestUrl = call.request().url();
+        final String requestMethod = call.request().method();
+
+        logger.error("Error during remote call {}/{} {}: {}",
+            getClass().getSimpleName(), requestMethod, requestUrl, e.getMessage());
+        logger.debug("Error during remote call " + requestMethod + " " + requestUrl + " [stacktrace]: ", e);
+        call.cancel();
+    }
+
 
     /**
      * Generates a standardized exception string from details passed in a {@link Response} object
@@ -362,6 +983,30 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
         return String.format("Remote call failed %s %s [%d/%s]: %s", method, url, code, message, errorBody);
     }
 
+    /**
+     * @return the circuit breaker guarding this client's endpoint
+     * @since 10.1.0
+     */
+    public final CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return the limiter of concurrent requests sent to this client's endpoint
+     * @since 10.1.0
+     */
+    public final ConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return the budget of hedged requests sent to this client's endpoint
+     * @since 10.1.0
+     */
+    public final HedgeBudget hedgeBudget() {
+        return hedgeBudget;
+    }
+
     /**
      * @return connector used by the current instance
      */
@@ -384,4 +1029,144 @@ public abstract class AbstractRemoteClient<S> implements RemoteClient {
     public String endpoint() {
         return connector.id();
     }
+
+
+    /**
+     * Tracks the original and the hedged attempts of a call; the result is completed with the first successful
+     *   response, or with the outcome of the last attempt, if all attempts fail
+     */
+    private class HedgedCall<T> {
+        private final CompletableFuture<Response<T>> result = new CompletableFuture<>();
+        private final List<Call<T>> attempts = new ArrayList<>(2);
+        private final LongConsumer primaryLatencyNanos;
+        private final long startNanos;
+        private int pending;
+        private boolean completed;
+
+        /**
+         * Sends the original call
+         */
+        private HedgedCall(Call<T> call, LongConsumer primaryLatencyNanos) {
+            this.primaryLatencyNanos = primaryLatencyNanos;
+            this.startNanos = System.nanoTime();
+            attempts.add(call);
+            pending = 1;
+            send(call, false);
+        }
+
+        /**
+         * Sends a hedged call, if a response was not yet received and the budget allows it
+         */
+        void hedge() {
+            Call<T> attempt;
+            synchronized (this) {
+                if (completed || attempts.size() > 1 || !hedgeBudget.tryAcquire()) {
+                    return;
+                }
+
+                attempt = attempts.get(0).clone();
+                attempts.add(attempt);
+                pending++;
+            }
+
+            send(attempt, true);
+        }
+
+        private void send(Call<T> attempt, boolean isHedge) {
+            // hedged calls do not wait for the concurrency limiter, since they are not useful on an overloaded endpoint
+            executeCallInternalRetryIfUnauthorizedAsync(attempt, isHedge ? 0L : connector.concurrencyLimitWaitMillis())
+                    .whenComplete((response, error) -> {
+                        if (!isHedge) {
+                            primaryLatencyNanos.accept(System.nanoTime() - startNanos);
+                        }
+                        onComplete(attempt, isHedge, response, error);
+                    });
+        }
+
+        /**
+         * Completes the result with the first successful response and cancels the other attempt
+         */
+        private void onComplete(Call<T> attempt, boolean isHedge, Response<T> response, Throwable error) {
+            boolean succeeded = isNull(error) && nonNull(response);
+            List<Call<T>> toCancel = new ArrayList<>();
+            synchronized (this) {
+                pending--;
+
+                // wait for the other attempt, if this one failed
+                if (completed || (!succeeded && pending > 0)) {
+                    return;
+                }
+
+                completed = true;
+                if (succeeded) {
+                    if (isHedge) {
+                        hedgeBudget.onHedgeWon();
+                    }
+                    attempts.stream().filter(call -> call != attempt).forEach(toCancel::add);
+                }
+            }
+
+            // cancel the other attempt before completing the result, releasing its resources
+            toCancel.forEach(Call::cancel);
+            complete(result, response, error);
+        }
+    }
+
+    /**
+     * An async call waiting for a concurrency permit; completed with true once a permit is granted,
+     *   or with false if the wait expired
+     */
+    private static class PendingPermit {
+        private final CompletableFuture<Boolean> granted = new CompletableFuture<>();
+        private ScheduledFuture<?> expiry;
+
+        /**
+         * @return false if the wait already expired, in which case the caller keeps the permit
+         */
+        boolean grant() {
+            if (!granted.complete(true)) {
+                return false;
+            }
+
+            expiry.cancel(false);
+            return true;
+        }
+
+        void expire() {
+            granted.complete(false);
+        }
+    }
+
+    /**
+     * Creates a single-thread executor which runs one authentication at a time, for the specified connector;
+     *   its thread is stopped while idle, since most clients rarely authenticate
+     */
+    private static ExecutorService createTokenRefresher(String connectorId) {
+        ThreadPoolExecutor refresher = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("RemoteClient-TokenRefresh-" + String.valueOf(connectorId).replace("%", "%%") + "-%d")
+                        .setDaemon(true)
+                        .build());
+        refresher.allowCoreThreadTimeOut(true);
+        return refresher;
+    }
+
+    /**
+     * Creates the scheduler shared by all clients; cancelled tasks are removed immediately, since most
+     *   hedges and permit expirations are cancelled before they run
+     */
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("RemoteClient-Scheduler-%d").setDaemon(true).build());
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Authentication operation, whose latency and outcome are recorded
+     */
+    @FunctionalInterface
+    private interface AuthOperation {
+        boolean perform() throws UnauthorizedException;
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time authentication statistics of a {@link RemoteClient}
+ * <p/>
+ * <p/>All counts are cumulative, since the client was created.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public final class AuthStats {
+    /**
+     * Statistics of a client that does not record any
+     */
+    public static final AuthStats EMPTY = new AuthStats(0, 0, 0, 0, 0);
+
+    private final long authenticationCount;
+    private final long refreshCount;
+    private final long failureCount;
+    private final long totalLatencyNanos;
+    private final long lastLatencyNanos;
+
+    /**
+     * Class constructor
+     */
+    public AuthStats(long authenticationCount, long refreshCount, long failureCount, long totalLatencyNanos, long lastLatencyNanos) {
+        this.authenticationCount = authenticationCount;
+        this.refreshCount = refreshCount;
+        this.failureCount = failureCount;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.lastLatencyNanos = lastLatencyNanos;
+    }
+
+    /**
+     * @return number of authentication operations performed (including refreshes)
+     */
+    public long authenticationCount() {
+        return authenticationCount;
+    }
+
+    /**
+     * @return number of tokens refreshed proactively, before they expired
+     */
+    public long refreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * @return number of authentication operations that failed
+     */
+    public long failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return average duration of an authentication operation, or 0 if none were performed
+     */
+    public double meanLatencyMillis() {
+        return authenticationCount == 0 ? 0 : (double) totalLatencyNanos / authenticationCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return duration of the last authentication operation
+     */
+    public double lastLatencyMillis() {
+        return (double) lastLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AuthStats{authentications=%d, refreshes=%d, failures=%d, meanLatencyMillis=%.2f, lastLatencyMillis=%.2f}",
+                authenticationCount, refreshCount, failureCount, meanLatencyMillis(), lastLatencyMillis());
+    }
+}
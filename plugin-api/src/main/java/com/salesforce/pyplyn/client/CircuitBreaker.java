@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to an endpoint that keeps failing
+ * <p/>
+ * <p/>The breaker opens after the specified number of consecutive failures; while open, requests are rejected
+ *   without reaching the endpoint. Once the open interval elapses, a single probe request is allowed through
+ *   (half-open): if it succeeds the breaker closes, otherwise it opens again.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class CircuitBreaker {
+    /**
+     * States of a circuit breaker
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    private final LongAdder openCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+
+    /**
+     * Class constructor
+     *
+     * @param failureThreshold number of consecutive failures that open the breaker; 0 disables the breaker
+     * @param openMillis how long to reject requests, before probing the endpoint
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    /**
+     * Class constructor that allows specifying the clock, for testing purposes
+     */
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Determines if a request can be sent to the endpoint; if true, the caller must report the request's outcome
+     *   via {@link #onSuccess()}, {@link #onFailure()}, or {@link #onIgnored()}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        // allow a single probe, while half-open
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+
+        rejectedCount.increment();
+        return false;
+    }
+
+    /**
+     * Records a successful request, closing the breaker
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed request, opening the breaker if the probe failed or too many consecutive requests failed
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (failureThreshold > 0 && (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold)) {
+            if (state != State.OPEN) {
+                openCount.increment();
+            }
+            state = State.OPEN;
+            openedAtNanos = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Releases a request whose outcome does not reflect the endpoint's health (i.e.: it was never sent)
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    /**
+     * @return the breaker's current state
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return number of times the breaker was opened
+     */
+    public long openCount() {
+        return openCount.sum();
+    }
+
+    /**
+     * @return number of requests that were rejected while the breaker was open
+     */
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+}
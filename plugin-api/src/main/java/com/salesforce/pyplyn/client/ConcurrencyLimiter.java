@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests sent to an endpoint, adapting the limit to the endpoint's health
+ *   (additive increase, multiplicative decrease)
+ * <p/>
+ * <p/>A failed request halves the limit (down to one request); each successful request increases it
+ *   by 1/limit, so that the limit grows by approximately one, after a full window of successful requests.
+ *   The limit is halved at most once per window: failures of requests that were already in flight when the limit
+ *   was last decreased do not decrease it again, since they reflect the same period of poor health.
+ *   Requests that exceed the limit wait for a permit to be released and are rejected if none is released in time.
+ * <p/>
+ * <p/>Waiting is done on a {@link ReentrantLock} rather than on this object's monitor, so that waiting virtual threads
+ *   do not pin their carrier threads.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class ConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final int MIN_LIMIT = 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Number of requests that were in flight when the limit was last decreased, and have not completed yet
+     */
+    private int inFlightSinceDecrease;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * Notified after a permit is released, allowing callers that wait without blocking to retry acquiring
+     */
+    private volatile Runnable releaseListener;
+
+
+    /**
+     * Class constructor
+     *
+     * @param maxLimit max number of concurrent requests; this is also the initial limit
+     */
+    public ConcurrencyLimiter(int maxLimit) {
+        this.maxLimit = Math.max(MIN_LIMIT, maxLimit);
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Determines if a request can be sent to the endpoint, without waiting; if true, the caller must report
+     *   the request's outcome via {@link #onSuccess()}, {@link #onFailure()}, or {@link #onIgnored()}
+     */
+    public boolean tryAcquire() {
+        if (!tryAcquireUncounted()) {
+            rejectedCount.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Similar to {@link #tryAcquire()}, but does not count the request as rejected, if it exceeds the limit;
+     *   used by callers which queue the request and retry acquiring once a permit is released
+     */
+    boolean tryAcquireUncounted() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+
+            inFlight++;
+            return true;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a request that was rejected after waiting for a permit, outside of this class
+     */
+    void recordRejection() {
+        rejectedCount.increment();
+    }
+
+    /**
+     * Sets the listener which is notified after each permit is released (on the releasing thread, without holding
+     *   the limiter's lock); replaces any previously set listener
+     */
+    void setReleaseListener(Runnable listener) {
+        this.releaseListener = listener;
+    }
+
+    /**
+     * Waits until a request can be sent to the endpoint, for at most the specified timeout; if true, the caller must
+     *   report the request's outcome via {@link #onSuccess()}, {@link #onFailure()}, or {@link #onIgnored()}
+     *
+     * @return false if the limit was still exceeded after waiting for <b>timeout</b>
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    rejectedCount.increment();
+                    return false;
+                }
+
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+
+            inFlight++;
+            return true;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a successful request and increases the limit
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            release();
+            limit = Math.min(maxLimit, limit + 1 / limit);
+
+        } finally {
+            lock.unlock();
+        }
+        notifyReleased();
+    }
+
+    /**
+     * Records a failed request and decreases the limit, unless it was already decreased
+     *   while this request was in flight
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            boolean sentBeforeLastDecrease = inFlightSinceDecrease > 0;
+            release();
+
+            if (!sentBeforeLastDecrease) {
+                limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+                inFlightSinceDecrease = inFlight;
+            }
+
+        } finally {
+            lock.unlock();
+        }
+        notifyReleased();
+    }
+
+    /**
+     * Releases a request whose outcome does not reflect the endpoint's health, without changing the limit
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            release();
+
+        } finally {
+            lock.unlock();
+        }
+        notifyReleased();
+    }
+
+    /**
+     * @return the current limit
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of requests currently sent to the endpoint
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of requests that were rejected for exceeding the limit (after waiting, if applicable)
+     */
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Notifies the release listener, if one is set
+     */
+    private void notifyReleased() {
+        Runnable listener = releaseListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Releases a permit and wakes up waiting requests; must be called while holding the lock
+     */
+    private void release() {
+        inFlight--;
+        if (inFlightSinceDecrease > 0) {
+            inFlightSinceDecrease--;
+        }
+        released.signalAll();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+/**
+ * Caps the number of hedged requests (duplicates of slow requests) at a percentage of all hedgeable requests
+ *   sent to an endpoint, so that hedging cannot significantly increase the endpoint's load
+ * <p/>
+ * <p/>Each request earns <b>budgetPercent</b>/100 of a hedge, and unused credit is capped at {@link #MAX_BURST} hedges;
+ *   this bounds the hedge volume regardless of the hedging delay, since credit earned while few requests were
+ *   hedged cannot be spent all at once, when the endpoint slows down.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class HedgeBudget {
+    /**
+     * Max number of hedged requests that can be sent in a row
+     */
+    static final int MAX_BURST = 10;
+
+    private final double budgetPercent;
+
+    /**
+     * Unused credit, in percent of a hedged request
+     */
+    private double credit;
+    private long requestCount;
+    private long hedgeCount;
+    private long hedgeWinCount;
+
+
+    /**
+     * Class constructor
+     *
+     * @param budgetPercent max percentage of requests that can be hedged
+     */
+    public HedgeBudget(double budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+
+    /**
+     * Records a request that could be hedged
+     */
+    public synchronized void onRequest() {
+        requestCount++;
+        credit = Math.min(credit + budgetPercent, MAX_BURST * 100d);
+    }
+
+    /**
+     * Determines if a request can be hedged, without exceeding the budget
+     *
+     * @return true if the hedged request can be sent
+     */
+    public synchronized boolean tryAcquire() {
+        if (credit < 100d) {
+            return false;
+        }
+
+        credit -= 100d;
+        hedgeCount++;
+        return true;
+    }
+
+    /**
+     * Records a hedged request whose response was received before the original request's
+     */
+    public synchronized void onHedgeWon() {
+        hedgeWinCount++;
+    }
+
+    /**
+     * @return number of requests that could have been hedged
+     */
+    public synchronized long requestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return number of hedged requests that were sent
+     */
+    public synchronized long hedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * @return number of hedged requests that completed before their original request
+     */
+    public synchronized long hedgeWinCount() {
+        return hedgeWinCount;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import okhttp3.*;
+
+/**
+ * HTTP transport shared by all {@link AbstractRemoteClient}s
+ * <p/>
+ * <p/>Holds a single root {@link OkHttpClient}; each client derives its own configuration (timeouts, proxy,
+ *   mutual authentication) from it, via {@link #newBuilder()}, while sharing the root's connection pool
+ *   and dispatcher. This allows kept-alive connections to be reused across clients that target the same hosts,
+ *   and avoids creating a set of dispatcher threads for each client.
+ * <p/>
+ * <p/>The number of requests and of newly opened connections is recorded, to measure how often connections are reused.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class HttpTransport {
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 20;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 300_000L;
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+
+    private static volatile HttpTransport defaultTransport;
+
+    private final OkHttpClient root;
+    private final ConnectionPool connectionPool;
+    private final Set<Connection> knownConnections = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder newConnections = new LongAdder();
+
+
+    /**
+     * Default constructor
+     */
+    public HttpTransport() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_MILLIS, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param maxIdleConnections number of idle connections kept alive in the shared pool
+     * @param keepAliveMillis how long idle connections are kept alive
+     * @param maxRequests max number of asynchronous requests executed concurrently, by all clients
+     * @param maxRequestsPerHost max number of asynchronous requests executed concurrently against the same host
+     */
+    public HttpTransport(int maxIdleConnections, long keepAliveMillis, int maxRequests, int maxRequestsPerHost) {
+        this.connectionPool = new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        this.root = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .addNetworkInterceptor(this::recordConnectionUse)
+                .build();
+    }
+
+    /**
+     * @return the transport used by clients that were not given one explicitly
+     */
+    public static HttpTransport defaultTransport() {
+        if (isNull(defaultTransport)) {
+            synchronized (HttpTransport.class) {
+                if (isNull(defaultTransport)) {
+                    defaultTransport = new HttpTransport();
+                }
+            }
+        }
+
+        return defaultTransport;
+    }
+
+    /**
+     * @return a builder, which creates clients that share this transport's connection pool and dispatcher
+     */
+    public OkHttpClient.Builder newBuilder() {
+        return root.newBuilder();
+    }
+
+    /**
+     * @return number of requests sent over the network
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return number of connections that were opened to send requests
+     */
+    public long newConnectionCount() {
+        return newConnections.sum();
+    }
+
+    /**
+     * @return ratio of requests that were sent over an already open connection, or 0 if no requests were sent
+     */
+    public double connectionReuseRate() {
+        long requestCount = requestCount();
+        return requestCount == 0 ? 0 : (double) (requestCount - Math.min(requestCount, newConnectionCount())) / requestCount;
+    }
+
+    /**
+     * @return number of open connections in the pool
+     */
+    public int connectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    /**
+     * @return number of idle connections in the pool
+     */
+    public int idleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * Counts the requests and the connections they are sent on; a connection is new, the first time it is seen
+     */
+    private Response recordConnectionUse(Interceptor.Chain chain) throws IOException {
+        requests.increment();
+
+        Connection connection = chain.connection();
+        if (nonNull(connection) && knownConnections.add(connection)) {
+            newConnections.increment();
+        }
+
+        return chain.proceed(chain.request());
+    }
+}
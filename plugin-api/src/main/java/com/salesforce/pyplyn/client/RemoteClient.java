@@ -19,4 +19,15 @@ public interface RemoteClient {
      * @return the endpoint to which the implementing client points to
      */
     String endpoint();
+
+    /**
+     * Override this method to report authentication statistics
+     * <p/>The default implementation does not record any statistics, to preserve compatibility
+     *   with existing implementations
+     *
+     * @since 10.1.0
+     */
+    default AuthStats authStats() {
+        return AuthStats.EMPTY;
+    }
 }
@@ -91,6 +91,91 @@ public abstract class EndpointConnector {
     public long writeTimeout() {
         return 10L;
     }
+
+    /**
+     * How long an authentication token can be used, before it is refreshed in the background
+     *   (while still being used until the refresh completes); this should be lower than the token's lifetime
+     *
+     * @return 0 if tokens are only renewed after the endpoint rejects them
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public long tokenRefreshIntervalMillis() {
+        return 0L;
+    }
+
+    /**
+     * Number of consecutive failed requests (I/O errors or 5xx responses) after which requests to this endpoint
+     *   are rejected, without being sent
+     *
+     * @return 0 if requests should never be rejected
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public int circuitBreakerFailureThreshold() {
+        return 5;
+    }
+
+    /**
+     * How long to reject requests for, once the circuit breaker opens, before probing the endpoint again
+     *
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public long circuitBreakerOpenMillis() {
+        return 30_000L;
+    }
+
+    /**
+     * Max number of concurrent requests sent to this endpoint; the effective limit is reduced when requests fail
+     *   and recovers as they succeed
+     *
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public int maxConcurrentRequests() {
+        return 64;
+    }
+
+    /**
+     * How long requests wait for a permit, once <b>maxConcurrentRequests</b> are in flight, before being rejected;
+     *   authentication requests are not limited
+     *
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public long concurrencyLimitWaitMillis() {
+        return 10_000L;
+    }
+
+    /**
+     * Latency percentile (i.e.: 0.95) after which slow requests are hedged, by sending a duplicate request
+     *   and using the first response; only supported by clients that record their endpoint's latency
+     *
+     * @return 0 if requests should not be hedged
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public double hedgingPercentile() {
+        return 0;
+    }
+
+    /**
+     * Max percentage of requests that can be hedged; unused budget accrues for at most 10 hedged requests in a row
+     *
+     * @since 10.1.0
+     */
+    @Value.Default
+    @Value.Auxiliary
+    public double hedgingBudgetPercent() {
+        return 5;
+    }
     
     /**
      * Path to the keystore containing certificate to use for mutual authentication.
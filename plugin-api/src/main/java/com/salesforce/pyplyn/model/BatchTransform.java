@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import java.util.List;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+
+/**
+ * {@link Transform}s which process batches of {@link TimeSeries} directly, without creating a {@link Transmutation}
+ *   for each datapoint
+ * <p/>
+ * <p/>The {@link Transmutation} matrix form is still supported, by converting it to a batch and back.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public interface BatchTransform extends Transform {
+
+    /**
+     * This method should implement the desired transformation and return the processed series
+     */
+    List<TimeSeries> applyBatch(List<TimeSeries> input);
+
+    /**
+     * Adapts the {@link Transmutation} matrix to {@link #applyBatch(List)}
+     */
+    @Override
+    default List<List<Transmutation>> apply(List<List<Transmutation>> input) {
+        return TimeSeries.toMatrix(applyBatch(TimeSeries.fromMatrix(input)));
+    }
+
+    /**
+     * Async transformation; batch transforms are observed on the specified {@link Scheduler}
+     */
+    @Override
+    default Flowable<List<TimeSeries>> applyBatchAsync(List<TimeSeries> input, Scheduler scheduler) {
+        return Flowable.just(input)
+                .observeOn(scheduler)
+                .map(this::applyBatch);
+    }
+}
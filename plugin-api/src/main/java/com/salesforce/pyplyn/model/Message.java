@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A message attached to a {@link Transmutation}'s metadata, which is only rendered when its text is first requested
+ * <p/>
+ * <p/>{@link Transform}s may generate a message for each datapoint they process, even though most datapoints
+ *   are dropped by later transforms; deferring the formatting ensures that only messages which are loaded
+ *   onto a destination are ever rendered.
+ * <p/>
+ * <p/>This object is immutable; the rendered text is cached after it is first requested.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public final class Message {
+    private final Supplier<String> renderer;
+    private volatile String text;
+
+    /**
+     * The template or function which renders this message, and its arguments; used to compare messages
+     *   without rendering them
+     */
+    private final Object source;
+    private final Object[] args;
+
+
+    private Message(Supplier<String> renderer, String text, Object source, Object[] args) {
+        this.renderer = renderer;
+        this.text = text;
+        this.source = source;
+        this.args = args;
+    }
+
+    /**
+     * Creates a message with the specified (already rendered) text
+     */
+    public static Message of(String text) {
+        return new Message(null, Objects.requireNonNull(text), null, null);
+    }
+
+    /**
+     * Creates a message which is rendered by calling {@link String#format(String, Object...)}
+     * <p/>
+     * <p/>Any arguments which are themselves {@link Message}s are rendered before formatting; this allows
+     *   arguments that are expensive to compute (e.g. formatted numbers) to also be deferred.
+     */
+    public static Message format(String template, Object... args) {
+        Objects.requireNonNull(template);
+        Object[] arguments = args.clone();
+        return new Message(() -> String.format(template, renderArgs(arguments)), null, template, arguments);
+    }
+
+    /**
+     * Creates a message whose text is returned by the specified supplier, when first requested
+     */
+    public static Message lazy(Supplier<String> supplier) {
+        return new Message(Objects.requireNonNull(supplier), null, null, null);
+    }
+
+    /**
+     * Creates a message whose text is returned by applying the specified function to <b>value</b>,
+     *   when first requested; unlike {@link #lazy(Supplier)}, such messages can be compared without rendering them
+     */
+    public static <T> Message lazy(Function<? super T, String> renderer, T value) {
+        Objects.requireNonNull(renderer);
+        return new Message(() -> renderer.apply(value), null, renderer, new Object[]{value});
+    }
+
+    /**
+     * @return the text of this message, rendering it if not previously done
+     */
+    public String render() {
+        String result = text;
+        if (isNull(result)) {
+            result = Objects.requireNonNull(renderer.get(), "Messages cannot be rendered to null");
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * Renders any {@link Message} arguments
+     */
+    private static Object[] renderArgs(Object[] args) {
+        Object[] rendered = args.clone();
+        for (int i = 0; i < rendered.length; i++) {
+            if (rendered[i] instanceof Message) {
+                rendered[i] = ((Message) rendered[i]).render();
+            }
+        }
+        return rendered;
+    }
+
+    /**
+     * Messages are compared without rendering them: already rendered messages are equal if their texts are equal,
+     *   formatted messages if their templates and arguments are equal, messages rendered by a function if they use
+     *   the same function and value, and messages created from a {@link Supplier} only to themselves
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Message)) {
+            return false;
+        }
+
+        Message that = (Message) o;
+        if (isNull(renderer) && isNull(that.renderer)) {
+            return text.equals(that.text);
+        }
+
+        return nonNull(source)
+                && source.equals(that.source)
+                && Arrays.equals(args, that.args);
+    }
+
+    @Override
+    public int hashCode() {
+        if (isNull(renderer)) {
+            return text.hashCode();
+        }
+
+        if (nonNull(source)) {
+            return 31 * source.hashCode() + Arrays.hashCode(args);
+        }
+
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -177,7 +177,7 @@ public abstract class PollingTransform<T> implements Transform {
             toProcess = input.stream()
                     .map(points -> points.stream()
                             // only include elements that match
-                            .filter(transmutation -> type.matches(transmutation.value(), threshold))
+                            .filter(transmutation -> type.matches(transmutation.doubleValue(), threshold))
                             .collect(Collectors.toList())
                     )
                     .collect(Collectors.toList());
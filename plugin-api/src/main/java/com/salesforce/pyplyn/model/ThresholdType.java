@@ -17,10 +17,20 @@ public enum ThresholdType {
      * @return true if the comparison succeeds, or false if the passed threshold is null
      */
     public boolean matches(Number compared, Double threshold) {
+        return matches(compared.doubleValue(), threshold);
+    }
+
+    /**
+     * Determines if a compared value is higher/lower than a specified threshold
+     *
+     * @return true if the comparison succeeds, or false if the passed threshold is null
+     * @since 10.1.0
+     */
+    public boolean matches(double compared, Double threshold) {
         if (nonNull(threshold) && this == GREATER_THAN) {
-            return compared.doubleValue() >= threshold;
+            return compared >= threshold;
         } else if (nonNull(threshold) && this == LESS_THAN) {
-            return compared.doubleValue() <= threshold;
+            return compared <= threshold;
         }
 
         return false;
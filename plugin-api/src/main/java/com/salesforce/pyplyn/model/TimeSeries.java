@@ -0,0 +1,275 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Columnar representation of a row of {@link Transmutation}s, used to pass results from {@link Extract}s through
+ *   {@link Transform}s without creating an object for each datapoint
+ * <p/>
+ * <p/>A series is represented either:
+ * <ul>
+ *     <li>as columns: a name and {@link Transmutation.Metadata} shared by all datapoints, and arrays of times
+ *       (millis since epoch) and values; used by batch-native {@link com.salesforce.pyplyn.processor.ExtractProcessor}s
+ *       and {@link BatchTransform}s</li>
+ *     <li>as a row of {@link Transmutation}s, when converted from the matrix form used by {@link Transform#apply(List)};
+ *       the row is returned as-is by {@link #toTransmutations()}, so converting between the two forms is lossless</li>
+ * </ul>
+ * <p/>
+ * <p/>This object is immutable.
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public final class TimeSeries {
+    private static final Transmutation.Metadata NO_METADATA = ImmutableTransmutation.Metadata.builder().build();
+
+    private final String name;
+    private final Transmutation.Metadata metadata;
+    private final int size;
+
+    // columns, if this series was not converted from a row
+    private final long[] times;
+    private final double[] values;
+    private final double[] originalValues;
+
+    // or the row this series was converted from
+    private final List<Transmutation> points;
+
+
+    private TimeSeries(String name, Transmutation.Metadata metadata, long[] times, double[] values, double[] originalValues) {
+        this.name = name;
+        this.metadata = metadata;
+        this.size = times.length;
+        this.times = times;
+        this.values = values;
+        this.originalValues = originalValues;
+        this.points = null;
+    }
+
+    private TimeSeries(List<Transmutation> points) {
+        this.name = points.isEmpty() ? null : points.get(0).name();
+        this.metadata = points.isEmpty() ? NO_METADATA : points.get(0).metadata();
+        this.size = points.size();
+        this.times = null;
+        this.values = null;
+        this.originalValues = null;
+        this.points = points;
+    }
+
+    /**
+     * Creates a series whose original values are the same as its values
+     * <p/>
+     * <p/>The passed arrays should be sorted by time and should not be modified after calling this method.
+     */
+    public static TimeSeries of(String name, Transmutation.Metadata metadata, long[] times, double[] values) {
+        return of(name, metadata, times, values, values);
+    }
+
+    /**
+     * Creates a series from columns of the same length
+     * <p/>
+     * <p/>The passed arrays should be sorted by time and should not be modified after calling this method.
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static TimeSeries of(String name, Transmutation.Metadata metadata, long[] times, double[] values, double[] originalValues) {
+        Preconditions.checkArgument(times.length == values.length && times.length == originalValues.length,
+                "Times (%s), values (%s) and original values (%s) should have the same length for %s",
+                times.length, values.length, originalValues.length, name);
+        return new TimeSeries(Objects.requireNonNull(name), Objects.requireNonNull(metadata), times, values, originalValues);
+    }
+
+    /**
+     * Wraps a row of {@link Transmutation}s, without copying it
+     */
+    public static TimeSeries fromTransmutations(List<Transmutation> row) {
+        return new TimeSeries(Objects.requireNonNull(row));
+    }
+
+    /**
+     * Converts a {@link Transmutation} matrix, as used by {@link Transform#apply(List)}, into a batch of series
+     */
+    public static List<TimeSeries> fromMatrix(List<List<Transmutation>> matrix) {
+        return matrix.stream().map(TimeSeries::fromTransmutations).collect(Collectors.toList());
+    }
+
+    /**
+     * Converts a batch of series into the {@link Transmutation} matrix used by {@link Transform#apply(List)}
+     */
+    public static List<List<Transmutation>> toMatrix(List<TimeSeries> batch) {
+        return batch.stream().map(TimeSeries::toTransmutations).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the name of this series, or null if it was converted from an empty row
+     */
+    @Nullable
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the metadata shared by all datapoints; for series converted from a row, this is the first datapoint's metadata
+     */
+    public Transmutation.Metadata metadata() {
+        return metadata;
+    }
+
+    /**
+     * @return number of datapoints
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if this series has no datapoints
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the time of the datapoint at the specified index, in millis since epoch
+     */
+    public long timeMillis(int index) {
+        checkIndex(index);
+        return isNull(points) ? times[index] : points.get(index).timeMillis();
+    }
+
+    /**
+     * @return the value of the datapoint at the specified index
+     */
+    public double value(int index) {
+        checkIndex(index);
+        return isNull(points) ? values[index] : points.get(index).doubleValue();
+    }
+
+    /**
+     * @return the value of the datapoint at the specified index, as the {@link Number} it was created with
+     *         (i.e.: a {@link Long} is returned as such, if this series was converted from a row)
+     */
+    public Number numberValue(int index) {
+        checkIndex(index);
+        return isNull(points) ? Double.valueOf(values[index]) : points.get(index).value();
+    }
+
+    /**
+     * @return the original value of the datapoint at the specified index
+     */
+    public double originalValue(int index) {
+        checkIndex(index);
+        return isNull(points) ? originalValues[index] : points.get(index).originalDoubleValue();
+    }
+
+    /**
+     * @return the datapoint at the specified index, created on demand if this series is represented as columns
+     */
+    public Transmutation transmutation(int index) {
+        checkIndex(index);
+        if (nonNull(points)) {
+            return points.get(index);
+        }
+
+        Double value = values[index];
+        Double originalValue = (originalValues == values) ? value : Double.valueOf(originalValues[index]);
+        return ImmutableTransmutation.of(Instant.ofEpochMilli(times[index]).atZone(ZoneOffset.UTC),
+                name, value, originalValue, metadata);
+    }
+
+    /**
+     * @return all datapoints, as a row of {@link Transmutation}s
+     */
+    public List<Transmutation> toTransmutations() {
+        if (nonNull(points)) {
+            return points;
+        }
+
+        List<Transmutation> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(transmutation(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return a series containing the datapoints between <b>from</b> (inclusive) and <b>to</b> (exclusive)
+     */
+    public TimeSeries slice(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size);
+        if (nonNull(points)) {
+            return new TimeSeries(new ArrayList<>(points.subList(from, to)));
+        }
+
+        double[] slicedValues = Arrays.copyOfRange(values, from, to);
+        double[] slicedOriginalValues = (originalValues == values) ? slicedValues : Arrays.copyOfRange(originalValues, from, to);
+        return new TimeSeries(name, metadata, Arrays.copyOfRange(times, from, to), slicedValues, slicedOriginalValues);
+    }
+
+    /**
+     * @return a series with the metadata of all datapoints updated by the passed function; this is only applied
+     *   once for series represented as columns, and once per datapoint otherwise
+     */
+    public TimeSeries mapMetadata(UnaryOperator<Transmutation.Metadata> mapper) {
+        if (isNull(points)) {
+            return new TimeSeries(name, mapper.apply(metadata), times, values, originalValues);
+        }
+
+        return new TimeSeries(points.stream()
+                .map(point -> (Transmutation) ImmutableTransmutation.builder().from(point).metadata(mapper.apply(point.metadata())).build())
+                .collect(Collectors.toList()));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimeSeries)) {
+            return false;
+        }
+
+        TimeSeries that = (TimeSeries) o;
+        return size == that.size && Objects.equals(name, that.name) && toTransmutations().equals(that.toTransmutations());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(name);
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(timeMillis(i));
+            result = 31 * result + Double.hashCode(value(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeries{name=" + name + ", size=" + size + ", metadata=" + metadata + "}";
+    }
+}
@@ -46,6 +46,19 @@ public interface Transform extends Serializable {
         return false;
     }
 
+    /**
+     * Override this method for any {@link Transform} that reads {@link Transmutation.Metadata#source()}
+     * <p/>
+     * <p/>Extract processors only attach the source objects (e.g. the full response returned by the remote endpoint)
+     *   when at least one of a configuration's transforms requires them, since doing so retains them for as long
+     *   as any of the resulting datapoints are referenced.
+     *
+     * @since 10.1.0
+     */
+    default boolean requiresSource() {
+        return false;
+    }
+
     /**
      * Async transformation
      * <p/>
@@ -60,4 +73,17 @@ public interface Transform extends Serializable {
                 .observeOn(scheduler)
                 .map(this::apply);
     }
+
+    /**
+     * Async transformation of a batch of {@link TimeSeries}
+     * <p/>
+     * <p/>By default, the batch is converted to a {@link Transmutation} matrix and passed to {@link #applyAsync(List, Scheduler)};
+     *   {@link BatchTransform}s process the batch directly
+     *
+     * @since 10.1.0
+     */
+    default Flowable<List<TimeSeries>> applyBatchAsync(List<TimeSeries> input, Scheduler scheduler) {
+        return applyAsync(TimeSeries.toMatrix(input), scheduler)
+                .map(TimeSeries::fromMatrix);
+    }
 }
@@ -9,8 +9,10 @@
 package com.salesforce.pyplyn.model;
 
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -52,6 +54,37 @@ public abstract class Transmutation {
      */
     public abstract Number originalValue();
 
+    /**
+     * Primitive view of {@link #time()}, computed on each call without allocating; prefer this accessor when
+     *   comparing or doing arithmetic on times
+     * <p/>
+     * <p/>The primitive views are not stored, so that they do not add to the size of each object.
+     *
+     * @return the time that this result represents, in millis since epoch
+     * @since 10.1.0
+     */
+    public long timeMillis() {
+        ZonedDateTime time = time();
+        return time.toEpochSecond() * 1000 + time.getNano() / 1_000_000;
+    }
+
+    /**
+     * Primitive view of {@link #value()}, computed on each call
+     *
+     * @since 10.1.0
+     */
+    public double doubleValue() {
+        return value().doubleValue();
+    }
+
+    /**
+     * Primitive view of {@link #originalValue()}, computed on each call
+     *
+     * @since 10.1.0
+     */
+    public double originalDoubleValue() {
+        return originalValue().doubleValue();
+    }
 
     /**
      * @return metadata specific to this result; different {@link Transform}s may add details that could be used by a
@@ -69,9 +102,26 @@ public abstract class Transmutation {
         public abstract String messageCode();
 
         /**
-         * @return all defined messages
+         * Messages are added with the builder's <i>addMessageTemplates</i>; already rendered messages can still be
+         *   added with the builder's <i>addMessages</i>
+         *
+         * @return all defined messages, which are only rendered when their text is first requested
+         * @since 10.1.0
          */
-        public abstract List<String> messages();
+        public abstract List<Message> messageTemplates();
+
+        /**
+         * Renders all messages; prefer {@link #messageTemplates()} unless the text is actually needed,
+         *   e.g. when loading results onto a destination
+         *
+         * @return all defined messages, as text
+         */
+        @Value.Lazy
+        public List<String> messages() {
+            return messageTemplates().stream()
+                    .map(Message::render)
+                    .collect(Collectors.toList());
+        }
 
         /**
          * @return all defined tags
@@ -83,5 +133,34 @@ public abstract class Transmutation {
          */
         @Nullable
         public abstract Object source();
+
+        /**
+         * @return a new builder; also available as {@code ImmutableTransmutation.Metadata.builder()}
+         */
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        /**
+         * Builds {@link Metadata} objects, also accepting already rendered messages
+         */
+        public static class Builder extends ImmutableTransmutation.Metadata.Builder {
+            /**
+             * Adds already rendered messages; see {@link Message#of(String)}
+             */
+            public final Builder addMessages(String... messages) {
+                return addAllMessages(Arrays.asList(messages));
+            }
+
+            /**
+             * Adds already rendered messages; see {@link Message#of(String)}
+             */
+            public final Builder addAllMessages(Iterable<String> messages) {
+                for (String message : messages) {
+                    addMessageTemplates(Message.of(message));
+                }
+                return this;
+            }
+        }
     }
 }
@@ -57,6 +57,15 @@ public abstract class AbstractMeteredExtractProcessor<T extends Extract> impleme
         systemStatus.meter(meterName(), MeterType.ExtractNoDataReturned).mark();
     }
 
+    /**
+     * Call this method to record the number of requests that were served by an identical request already in progress
+     *
+     * @since 10.1.0
+     */
+    protected void coalesced(long count) {
+        systemStatus.meter(meterName(), MeterType.ExtractCoalesced).mark(count);
+    }
+
     /**
      * Call this method when attempting to authenticate to the endpoint failed
      */
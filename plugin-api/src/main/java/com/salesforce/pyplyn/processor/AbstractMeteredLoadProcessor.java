@@ -50,6 +50,24 @@ public abstract class AbstractMeteredLoadProcessor<T extends Load> implements Lo
         systemStatus.meter(meterName(), MeterType.LoadFailure).mark();
     }
 
+    /**
+     * Call this method to record the number of data points sent to the endpoint
+     *
+     * @since 10.1.0
+     */
+    protected void sent(long count) {
+        systemStatus.meter(meterName(), MeterType.LoadSent).mark(count);
+    }
+
+    /**
+     * Call this method to record the number of data points that were not sent, since they did not change
+     *
+     * @since 10.1.0
+     */
+    protected void suppressed(long count) {
+        systemStatus.meter(meterName(), MeterType.LoadSuppressed).mark(count);
+    }
+
     /**
      * Call this method when attempting to authenticate the endpoint failed
      */
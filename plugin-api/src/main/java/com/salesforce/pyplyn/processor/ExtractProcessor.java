@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.salesforce.pyplyn.model.Extract;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 
 import io.reactivex.Flowable;
@@ -74,4 +75,48 @@ public interface ExtractProcessor<T extends Extract> extends Filterable<T, Extra
 
         return Flowable.empty();
     }
+
+    /**
+     * Processes the dataset into a batch of {@link TimeSeries}
+     * <p/>
+     * <p/>By default, this adapts the {@link Transmutation} matrix returned by {@link #process(List)};
+     *   processors which can create series directly should override this method
+     *
+     * @param datasource dataset that should be processed
+     * @since 10.1.0
+     */
+    default List<TimeSeries> processBatch(List<T> datasource) {
+        return TimeSeries.fromMatrix(process(datasource));
+    }
+
+    /**
+     * Batch variant of {@link #executeAsync(List)}, which filters the required data and then asynchronously
+     *   processes all valid entries with {@link #processBatch(List)}
+     *
+     * @return a batch of series, or an empty flowable when nothing was processed
+     * @since 10.1.0
+     */
+    default Flowable<List<TimeSeries>> executeBatchAsync(List<Extract> data) {
+        List<T> filtered = filter(data);
+        if (!filtered.isEmpty()) {
+            return Flowable.fromCallable(() -> processBatch(filtered));
+        }
+
+        return Flowable.empty();
+    }
+
+    /**
+     * Variant of {@link #executeBatchAsync(List)}, which specifies if any {@link com.salesforce.pyplyn.model.Transform}s
+     *   require the source objects to be attached to the results' metadata
+     *   (see {@link com.salesforce.pyplyn.model.Transform#requiresSource()})
+     * <p/>
+     * <p/>Processors which attach source objects should override this method and skip doing so when not required.
+     *
+     * @param retainSource if false, the results' metadata does not need to reference the source objects
+     * @return a batch of series, or an empty flowable when nothing was processed
+     * @since 10.1.0
+     */
+    default Flowable<List<TimeSeries>> executeBatchAsync(List<Extract> data, boolean retainSource) {
+        return executeBatchAsync(data);
+    }
 }
@@ -8,6 +8,8 @@
 
 package com.salesforce.pyplyn.processor;
 
+import static java.util.stream.Collectors.toList;
+
 import java.util.Collections;
 import java.util.List;
 
@@ -48,6 +50,32 @@ public interface LoadProcessor<T extends Load> extends Filterable<T, Load> {
         return Flowable.fromCallable(() -> process(data, destinations));
     }
 
+    /**
+     * Processes all the rows produced by one ETL cycle, in a single call
+     * <p/>
+     * <p/>Implementations that can load multiple rows at once (e.g. via bulk API calls) should override this method;
+     *   by default, each row is processed individually, via {@link #process(List, List)}.
+     *
+     * @param rows all rows resulting from an ETL cycle
+     * @param destinations where the data should be loaded to
+     */
+    default List<Boolean> processBatch(List<List<Transmutation>> rows, List<T> destinations) {
+        return rows.stream()
+                .flatMap(row -> process(row, destinations).stream())
+                .collect(toList());
+    }
+
+    /**
+     * This method leverages the {@link #processBatch(List, List)} method to asynchronously
+     *   load all rows of an ETL cycle
+     *
+     * @param rows all rows resulting from an ETL cycle
+     * @param destinations where the data should be loaded to
+     */
+    default Flowable<List<Boolean>> processBatchAsync(List<List<Transmutation>> rows, List<T> destinations) {
+        return Flowable.fromCallable(() -> processBatch(rows, destinations));
+    }
+
     /**
      * Default processor logic that will first filter the required data then process all valid entries
      *
@@ -76,4 +104,19 @@ public interface LoadProcessor<T extends Load> extends Filterable<T, Load> {
 
         return Flowable.empty();
     }
+
+    /**
+     * Default processor logic that will first filter the required data then process all rows of an ETL cycle,
+     *   in a single (async) batch
+     *
+     * @return list of results or empty list when nothing was processed
+     */
+    default Flowable<List<Boolean>> executeBatchAsync(List<List<Transmutation>> rows, List<Load> destinations) {
+        List<T> filtered = filter(destinations);
+        if (!filtered.isEmpty()) {
+            return processBatchAsync(rows, filtered);
+        }
+
+        return Flowable.empty();
+    }
 }
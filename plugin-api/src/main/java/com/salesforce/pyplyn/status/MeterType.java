@@ -10,12 +10,17 @@ package com.salesforce.pyplyn.status;
 
 import static com.salesforce.pyplyn.model.ThresholdType.GREATER_THAN;
 import static com.salesforce.pyplyn.model.ThresholdType.LESS_THAN;
+import static java.util.Objects.isNull;
 
 import com.salesforce.pyplyn.model.ThresholdType;
 
 /**
  * Predefined alert meter types, defined on Metered processors ({@link com.salesforce.pyplyn.processor.AbstractMeteredExtractProcessor}
  *   and {@link com.salesforce.pyplyn.processor.AbstractMeteredLoadProcessor})
+ * <p/>
+ * <p/>Informational meters (which do not define an alert type) are only reported, since their values
+ *   do not reflect the system's health; e.g. <i>LoadSuppressed</i> counts samples which were not loaded
+ *   because they were unchanged, which is expected whenever delta loading works.
  *
  * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
  * @since 3.0
@@ -24,13 +29,23 @@ public enum MeterType {
     ExtractSuccess(LESS_THAN),
     ExtractFailure(GREATER_THAN),
     ExtractNoDataReturned(GREATER_THAN),
+    ExtractCoalesced(GREATER_THAN),
     LoadSuccess(LESS_THAN),
     LoadFailure(GREATER_THAN),
+    LoadSent(LESS_THAN),
+    LoadSuppressed,
     AuthenticationFailure(GREATER_THAN),
     ConfigurationUpdateFailure(GREATER_THAN);
 
     private final ThresholdType alertType;
 
+    /**
+     * Enum constructor, for informational meters
+     */
+    MeterType() {
+        this(null);
+    }
+
     /**
      * Enum constructor
      */
@@ -39,10 +54,18 @@ public enum MeterType {
     }
 
     /**
-     * @return the alert's type
+     * @return the alert's type, or null if this meter is informational
      * @see ThresholdType
      */
     public ThresholdType alertType() {
         return alertType;
     }
+
+    /**
+     * @return true if this meter is only reported and never alerts, regardless of any configured thresholds
+     * @since 10.1.0
+     */
+    public boolean isInformational() {
+        return isNull(alertType);
+    }
 }
@@ -8,6 +8,9 @@
 
 package com.salesforce.pyplyn.status;
 
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 
@@ -31,4 +34,27 @@ public interface SystemStatus extends Runnable {
      * Implement this method and return a {@link Timer} object used to measure the performance of your app
      */
     Timer timer(String name, String method);
+
+    /**
+     * Override this method and return a {@link Histogram} object used to track the distribution of values
+     *   reported by your app
+     * <p/>The default implementation returns a histogram that is not registered anywhere, to preserve compatibility
+     *   with existing implementations
+     *
+     * @since 10.1.0
+     */
+    default Histogram histogram(String name, String method) {
+        return new Histogram(new ExponentiallyDecayingReservoir());
+    }
+
+    /**
+     * Override this method to register a {@link Gauge}, whose value will be periodically reported
+     * <p/>The default implementation does not register the gauge anywhere, to preserve compatibility
+     *   with existing implementations
+     *
+     * @since 10.1.0
+     */
+    default <T> Gauge<T> gauge(String name, String method, Gauge<T> gauge) {
+        return gauge;
+    }
 }
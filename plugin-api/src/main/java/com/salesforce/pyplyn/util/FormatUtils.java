@@ -8,13 +8,18 @@
 
 package com.salesforce.pyplyn.util;
 
+import static java.util.Objects.nonNull;
+
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.util.Optional;
 
 import com.salesforce.pyplyn.model.Transmutation;
@@ -35,8 +40,33 @@ public final class FormatUtils {
 
     /**
      * Standard decimal formatter used where numbers (mostly doubles) need to be transformed to String (without all their decimals)
+     * <p/>
+     * <p/>Only used for values that {@link #formatNumber(Number)} cannot format on its fast path
+     */
+    private static ThreadLocal<DecimalFormat> decimalFormatDefault =
+            ThreadLocal.withInitial(() -> new DecimalFormat("0.00##", DecimalFormatSymbols.getInstance(Locale.ROOT)));
+
+    /**
+     * Used to parse numbers which {@link #parseNumber(String)} cannot parse on its fast path
+     */
+    private static ThreadLocal<NumberFormat> numberParser = ThreadLocal.withInitial(() -> NumberFormat.getInstance(Locale.ROOT));
+
+    /**
+     * Min and max number of fraction digits output by {@link #formatNumber(Number)}
+     */
+    private static final int MIN_FRACTION_DIGITS = 2;
+    private static final int MAX_FRACTION_DIGITS = 4;
+
+    /**
+     * Doubles smaller than this value are formatted on the fast path, since their shortest representation
+     *   (as returned by {@link Double#toString(double)}) is precise enough to be rounded to {@link #MAX_FRACTION_DIGITS}
+     */
+    private static final double MAX_FAST_FORMAT_VALUE = 1e7;
+
+    /**
+     * Max number of integer digits that are guaranteed to fit in a long
      */
-    private static ThreadLocal<DecimalFormat> decimalFormatDefault = ThreadLocal.withInitial(() -> new DecimalFormat("0.00##"));
+    private static final int MAX_LONG_DIGITS = 18;
 
     /**
      * Used to format short numbers, in case the output has space constraints
@@ -66,39 +96,89 @@ public final class FormatUtils {
     /**
      * Parses string as time
      *   accepted formats are milliseconds from epoch and valid date string
+     * <p/>
+     * <p/>Millisecond timestamps and UTC dates (i.e.: 2016-12-31T12:13:14.123Z) are parsed without
+     *   using a {@link java.time.format.DateTimeFormatter}
      *
      * @throws DateTimeParseException if the value cannot be parsed as valid datetime
      */
     public static ZonedDateTime parseUTCTime(String value) {
-        try {
+        int length = value.length();
+        int start = (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) ? 1 : 0;
+        if (length > start) {
             // parses ms unix time and returns at UTC offset
-            Instant instant = Instant.ofEpochMilli(Long.parseLong(value));
-            return instant.atZone(ZoneOffset.UTC);
-
-        } catch (NumberFormatException e) {
-            // parse passed date
-            return Optional.of(ZonedDateTime.parse(value))
-                    // convert to UTC
-                    .map(zdt -> zdt.withZoneSameInstant(ZoneOffset.UTC))
-                    // and return the value; this is safe to call without orElse,
-                    //   since ZonedDateTime will throw an exception if it cannot parse the value
-                    .get();
+            long millis = 0;
+            int i = start;
+            for (; i < length && isDigit(value.charAt(i)); i++) {
+                millis = millis * 10 + (value.charAt(i) - '0');
+            }
+
+            if (i == length && length - start <= MAX_LONG_DIGITS) {
+                Instant instant = Instant.ofEpochMilli(value.charAt(0) == '-' ? -millis : millis);
+                return instant.atZone(ZoneOffset.UTC);
+
+            } else if (i == length) {
+                // longer values may overflow, so they are parsed by Long.parseLong
+                try {
+                    return Instant.ofEpochMilli(Long.parseLong(value)).atZone(ZoneOffset.UTC);
+
+                } catch (NumberFormatException e) {
+                    // out of range; ZonedDateTime.parse will reject it below
+                }
+            }
+        }
+
+        ZonedDateTime utcDate = parseUTCDate(value);
+        if (nonNull(utcDate)) {
+            return utcDate;
         }
+
+        // parse passed date
+        return Optional.of(ZonedDateTime.parse(value))
+                // convert to UTC
+                .map(zdt -> zdt.withZoneSameInstant(ZoneOffset.UTC))
+                // and return the value; this is safe to call without orElse,
+                //   since ZonedDateTime will throw an exception if it cannot parse the value
+                .get();
     }
 
     /**
      * Parses a String as a Number
+     * <p/>
+     * <p/>Returns a {@link Long} if the value is integral and fits in a long, otherwise a {@link Double};
+     *   plain decimals (i.e.: -123.45) are parsed without using a {@link NumberFormat}, which is only used
+     *   for other notations (grouping separators, exponents, trailing text)
      *
      * @throws ParseException if number is invalid / cannot be parsed
      */
     public static Number parseNumber(String value) throws ParseException {
-        return NumberFormat.getInstance().parse(value);
+        Number number = parseDecimal(value);
+        if (nonNull(number)) {
+            return number;
+        }
+
+        return numberParser.get().parse(value);
     }
 
     /**
      * Formats value as decimal with two digits and return as string
+     * <p/>
+     * <p/>Integral types and most doubles are formatted without using a {@link DecimalFormat},
+     *   with the same output: at least {@link #MIN_FRACTION_DIGITS} fraction digits and at most
+     *   {@link #MAX_FRACTION_DIGITS}, rounded half-even
      */
     public static String formatNumber(Number value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value.longValue() + ".00";
+        }
+
+        if (value instanceof Double || value instanceof Float) {
+            String formatted = formatDouble(value.doubleValue());
+            if (nonNull(formatted)) {
+                return formatted;
+            }
+        }
+
         return decimalFormatDefault.get().format(value);
     }
 
@@ -160,4 +240,214 @@ public final class FormatUtils {
     public static String generateDefaultValueMessage(String metric, Number value) {
         return String.format(DEFAULT_VALUE_MESSAGE_TEMPLATE, metric, formatNumber(value));
     }
+
+    /**
+     * @return true if the first <b>length</b> chars of the passed value are an integer, optionally negative
+     */
+    private static boolean isInteger(String value, int length) {
+        int start = (length > 0 && value.charAt(0) == '-') ? 1 : 0;
+        if (length == start) {
+            return false;
+        }
+
+        for (int i = start; i < length; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Parses a date in the yyyy-MM-ddTHH:mm:ss[.fraction]Z format
+     *
+     * @return null if the value is not in this format, or is not a valid date
+     */
+    private static ZonedDateTime parseUTCDate(String value) {
+        int length = value.length();
+        if (length < 20 || length > 30 || value.charAt(length - 1) != 'Z'
+                || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return null;
+        }
+
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        int hour = parseDigits(value, 11, 13);
+        int minute = parseDigits(value, 14, 16);
+        int second = parseDigits(value, 17, 19);
+
+        // parse up to 9 fraction digits, as nanos
+        int nanos = 0;
+        if (length > 20) {
+            if (value.charAt(19) != '.' || length == 21) {
+                return null;
+            }
+
+            nanos = parseDigits(value, 20, length - 1);
+            for (int i = length - 21; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nanos < 0) {
+            return null;
+        }
+
+        try {
+            return ZonedDateTime.of(year, month, day, hour, minute, second, nanos, ZoneOffset.UTC);
+
+        } catch (DateTimeException e) {
+            // out of range fields are reported by the standard parser
+            return null;
+        }
+    }
+
+    /**
+     * @return the value of the digits found between the specified indices, or -1 if any char is not a digit
+     */
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a plain decimal number (i.e.: -123.45), returning the same values as {@link NumberFormat#parse(String)}
+     *
+     * @return null if the value is not a plain decimal, or if its integer part does not fit in {@link #MAX_LONG_DIGITS}
+     */
+    private static Number parseDecimal(String value) {
+        int length = value.length();
+        int dot = value.indexOf('.');
+        int integerEnd = dot < 0 ? length : dot;
+        if (!isInteger(value, integerEnd)) {
+            return null;
+        }
+
+        boolean negative = value.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+
+        // skip leading zeros
+        while (start < integerEnd - 1 && value.charAt(start) == '0') {
+            start++;
+        }
+        if (integerEnd - start > MAX_LONG_DIGITS) {
+            return null;
+        }
+
+        // a number is integral if all its fraction digits are zeros
+        boolean integral = true;
+        if (dot >= 0) {
+            if (dot == length - 1) {
+                return null;
+            }
+
+            for (int i = dot + 1; i < length; i++) {
+                char c = value.charAt(i);
+                if (!isDigit(c)) {
+                    return null;
+                }
+                integral &= c == '0';
+            }
+        }
+
+        if (!integral) {
+            return Double.parseDouble(value);
+        }
+
+        long result = 0;
+        for (int i = start; i < integerEnd; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+
+        // NumberFormat returns negative zero as a double
+        if (negative && result == 0) {
+            return -0.0d;
+        }
+
+        return negative ? -result : result;
+    }
+
+    /**
+     * Formats a double by rounding its shortest representation (see {@link Double#toString(double)})
+     *   to {@link #MAX_FRACTION_DIGITS}; this results in the same output as rounding its exact value,
+     *   unless the shortest representation is exactly halfway between the rounding candidates
+     *
+     * @return null if the value should be formatted by {@link DecimalFormat}
+     */
+    private static String formatDouble(double value) {
+        double abs = Math.abs(value);
+        if (!(abs >= 1e-3 && abs < MAX_FAST_FORMAT_VALUE)) {
+            return null;
+        }
+
+        String shortest = Double.toString(value);
+        int dot = shortest.indexOf('.');
+        int fractionDigits = shortest.length() - dot - 1;
+
+        if (fractionDigits <= MAX_FRACTION_DIGITS) {
+            StringBuilder result = new StringBuilder(dot + 1 + MAX_FRACTION_DIGITS).append(shortest);
+            for (int i = fractionDigits; i < MIN_FRACTION_DIGITS; i++) {
+                result.append('0');
+            }
+            return result.toString();
+        }
+
+        // determine the rounding direction from the first dropped digit; the shortest representation
+        //   has no trailing zeros, so any digits after a 5 mean the value is above the halfway point
+        int roundingDigit = shortest.charAt(dot + 1 + MAX_FRACTION_DIGITS);
+        if (roundingDigit == '5' && fractionDigits == MAX_FRACTION_DIGITS + 1) {
+            return null;
+        }
+
+        char[] digits = shortest.substring(0, dot + 1 + MAX_FRACTION_DIGITS).toCharArray();
+        if (roundingDigit >= '5' && !roundUp(digits)) {
+            return null;
+        }
+
+        // drop trailing zeros, keeping the min number of fraction digits
+        int end = digits.length;
+        while (end > dot + 1 + MIN_FRACTION_DIGITS && digits[end - 1] == '0') {
+            end--;
+        }
+
+        return new String(digits, 0, end);
+    }
+
+    /**
+     * Increments the last digit of the passed number, carrying over as needed
+     *
+     * @return false if the carry would need an extra integer digit
+     */
+    private static boolean roundUp(char[] digits) {
+        for (int i = digits.length - 1; i >= 0; i--) {
+            char c = digits[i];
+            if (!isDigit(c)) {
+                // skip the decimal separator
+                continue;
+            }
+
+            if (c != '9') {
+                digits[i] = (char) (c + 1);
+                return true;
+            }
+            digits[i] = '0';
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class BoundedCacheTest {
+    private AtomicLong clock;
+    private BoundedCache<Entry> cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        clock = new AtomicLong(1_000L);
+        cache = new BoundedCache<>(100, clock::get);
+    }
+
+    @Test
+    public void testCachedValueIsReturned() throws Exception {
+        // ARRANGE
+        Entry expected = new Entry("key", 1);
+        cache.cache(expected, 1000L);
+
+        // ACT
+        Entry actual = cache.isCached("key");
+        Entry missing = cache.isCached("missing");
+
+        // ASSERT
+        assertThat(actual, sameInstance(expected));
+        assertThat(missing, nullValue());
+        assertThat(cache.stats().hitCount(), equalTo(1L));
+        assertThat(cache.stats().missCount(), equalTo(1L));
+        assertThat(cache.stats().loadCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testExpiredEntriesAreRemovedInTheBackground() throws Exception {
+        // ARRANGE
+        cache.cache(new Entry("key1", 1), 100L);
+        cache.cache(new Entry("key2", 1), 200L);
+
+        // ACT
+        clock.addAndGet(100L);
+        cache.cleanUp();
+
+        // ASSERT
+        assertThat(cache.stats().size(), equalTo(1L));
+        assertThat(cache.stats().expirationCount(), equalTo(1L));
+        assertThat(cache.isCached("key1"), nullValue());
+        assertThat(cache.isCached("key2"), notNullValue());
+    }
+
+    @Test
+    public void testWeightIsBounded() throws Exception {
+        // ACT
+        for (int i = 0; i < 1000; i++) {
+            cache.cache(new Entry("key" + i, 3), 1000L);
+        }
+
+        // ASSERT
+        CacheStats stats = cache.stats();
+        assertThat(stats.weightedSize(), lessThanOrEqualTo(100L));
+        assertThat(stats.evictionCount(), greaterThan(0L));
+    }
+
+    @Test
+    public void testEntriesHeavierThanTheCacheAreNotCached() throws Exception {
+        // ACT
+        cache.cache(new Entry("key", 101), 1000L);
+
+        // ASSERT
+        assertThat(cache.isCached("key"), nullValue());
+        assertThat(cache.stats().weightedSize(), equalTo(0L));
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurviveScans() throws Exception {
+        // ARRANGE
+        for (int i = 0; i < 50; i++) {
+            cache.cache(new Entry("hot" + i, 1), 10_000L);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.isCached("hot" + i);
+            }
+        }
+
+        // ACT
+        // a scan of entries that are only seen once
+        for (int i = 0; i < 1000; i++) {
+            cache.cache(new Entry("cold" + i, 1), 10_000L);
+        }
+
+        // ASSERT
+        int hotHits = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.isCached("hot" + i) != null) {
+                hotHits++;
+            }
+        }
+        assertThat("Frequently used entries should not be evicted by one-off entries", hotHits, equalTo(50));
+    }
+
+    @Test
+    public void testReplacingAnEntryUpdatesItsWeight() throws Exception {
+        // ARRANGE
+        cache.cache(new Entry("key", 1), 1000L);
+
+        // ACT
+        cache.cache(new Entry("key", 10), 1000L);
+
+        // ASSERT
+        assertThat(cache.stats().size(), equalTo(1L));
+        assertThat(cache.stats().weightedSize(), equalTo(10L));
+        assertThat(cache.isCached("key").weight, equalTo(10L));
+    }
+
+
+    /**
+     * Weighted cache entry
+     */
+    private static class Entry implements Cacheable {
+        private final String key;
+        private final long weight;
+
+        private Entry(String key, long weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        @Override
+        public String cacheKey() {
+            return key;
+        }
+
+        @Override
+        public long cacheWeight() {
+            return weight;
+        }
+    }
+}
@@ -28,7 +28,7 @@ public class CacheFactoryTest {
     @Mock
     Cacheable expected;
 
-    ConcurrentCacheMap<Cacheable> cache;
+    Cache<Cacheable> cache;
 
 
     @BeforeMethod
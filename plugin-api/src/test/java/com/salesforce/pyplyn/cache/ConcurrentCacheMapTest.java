@@ -41,7 +41,7 @@ public class ConcurrentCacheMapTest {
         // ARRANGE
         doReturn(CACHE_KEY).when(expected).cacheKey(); // FindBugs: RV_RETURN_VALUE_IGNORED_NO_SIDE_EFFECT - IGNORE
 
-        cache = new CacheFactory().newCache();
+        cache = new ConcurrentCacheMap<>();
         cache.cache(expected, 86400);
     }
 
@@ -82,4 +82,26 @@ public class ConcurrentCacheMapTest {
         // ASSERT
         assertThat("Since entry had expired, it should not have been returned", actual, is(nullValue()));
     }
+
+    @Test
+    public void testStatsAreRecorded() throws Exception {
+        // ARRANGE
+        cache.cache(expected, 1);
+        await().atLeastMs(2);
+
+        // ACT
+        cache.isCached(CACHE_KEY);
+        cache.isCached("invalidKey");
+        cache.cache(expected, 86400);
+        cache.isCached(CACHE_KEY);
+        CacheStats stats = cache.stats();
+
+        // ASSERT
+        assertThat(stats.hitCount(), equalTo(1L));
+        assertThat(stats.missCount(), equalTo(2L));
+        assertThat(stats.loadCount(), equalTo(3L));
+        assertThat(stats.expirationCount(), equalTo(1L));
+        assertThat(stats.size(), equalTo(1L));
+        assertThat(stats.hitRate(), closeTo(1 / 3d, 0.001));
+    }
 }
\ No newline at end of file
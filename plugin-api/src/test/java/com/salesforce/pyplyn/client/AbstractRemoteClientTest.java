@@ -21,9 +21,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyStore;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -35,6 +43,7 @@ import okhttp3.Request;
 import okhttp3.ResponseBody;
 import okio.BufferedSource;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 
 /**
@@ -120,6 +129,118 @@ public class AbstractRemoteClientTest {
     }
 
 
+    @Test
+    public void testUnhealthyEndpointFailsFast() throws Exception {
+        // ARRANGE
+        Response<String> failure = createFailedResponse(503);
+        doReturn(failure).when(call).execute();
+        for (int i = 0; i < connector.circuitBreakerFailureThreshold(); i++) {
+            client.executeAndRetrieveBody(call, "failed");
+        }
+
+        // ACT
+        String response = client.executeAndRetrieveBody(call, "failed");
+        String asyncResponse = client.executeAndRetrieveBodyAsync(call, "failed").join();
+
+        // ASSERT
+        assertThat(response, equalTo("failed"));
+        assertThat(asyncResponse, equalTo("failed"));
+        assertThat(client.circuitBreaker().state(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(client.concurrencyLimiter().limit(), lessThan(connector.maxConcurrentRequests()));
+        assertThat(client.concurrencyLimiter().inFlight(), equalTo(0));
+        verify(call, times(connector.circuitBreakerFailureThreshold())).execute();
+        verify(call, never()).enqueue(any());
+    }
+
+    @Test
+    public void testAuthenticationCallsAreNotSubjectToTheConcurrencyLimit() throws Exception {
+        // ARRANGE
+        Connector limitedConnector = ImmutableConnector.builder().from(connector)
+                .maxConcurrentRequests(1)
+                .concurrencyLimitWaitMillis(10L)
+                .build();
+        AbstractRemoteClientImpl limitedClient = new AbstractRemoteClientImpl(limitedConnector, AbstractRemoteClientImpl.RetroService.class);
+        doReturn(createSuccessfulResponse()).when(call).execute();
+
+        // all permits are held by other requests
+        limitedClient.concurrencyLimiter().tryAcquire();
+
+        // ACT
+        String rejected = limitedClient.executeNoRetry(call, "failed");
+        String authenticated = limitedClient.executeAuthentication(call, "failed");
+
+        // ASSERT
+        assertThat("Requests should be rejected after waiting for a permit", rejected, equalTo("failed"));
+        assertThat(authenticated, containsString("OK"));
+        assertThat(limitedClient.concurrencyLimiter().inFlight(), equalTo(1));
+        verify(call, times(1)).execute();
+    }
+
+    @Test
+    public void testAsyncCallsAreQueuedUntilAPermitIsReleased() throws Exception {
+        // ARRANGE
+        Connector limitedConnector = ImmutableConnector.builder().from(connector)
+                .maxConcurrentRequests(1)
+                .concurrencyLimitWaitMillis(10_000L)
+                .build();
+        AbstractRemoteClientImpl limitedClient = new AbstractRemoteClientImpl(limitedConnector, AbstractRemoteClientImpl.RetroService.class);
+        respondAsync(call, createSuccessfulResponse());
+
+        // all permits are held by other requests
+        limitedClient.concurrencyLimiter().tryAcquire();
+
+        // ACT
+        CompletableFuture<String> queued = limitedClient.executeAndRetrieveBodyAsync(call, "failed");
+        boolean sentBeforeRelease = queued.isDone();
+        limitedClient.concurrencyLimiter().onSuccess();
+
+        // ASSERT
+        assertThat("The call should be queued, without blocking the calling thread", sentBeforeRelease, is(false));
+        assertThat(queued.get(1, TimeUnit.SECONDS), containsString("OK"));
+        assertThat(limitedClient.concurrencyLimiter().inFlight(), equalTo(0));
+        assertThat(limitedClient.concurrencyLimiter().rejectedCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testQueuedAsyncCallsAreRejectedAfterTheirWaitExpires() throws Exception {
+        // ARRANGE
+        Connector limitedConnector = ImmutableConnector.builder().from(connector)
+                .maxConcurrentRequests(1)
+                .concurrencyLimitWaitMillis(10L)
+                .build();
+        AbstractRemoteClientImpl limitedClient = new AbstractRemoteClientImpl(limitedConnector, AbstractRemoteClientImpl.RetroService.class);
+        respondAsync(call, createSuccessfulResponse());
+
+        // all permits are held by other requests
+        limitedClient.concurrencyLimiter().tryAcquire();
+
+        // ACT
+        String rejected = limitedClient.executeAndRetrieveBodyAsync(call, "failed").get(1, TimeUnit.SECONDS);
+        limitedClient.concurrencyLimiter().onSuccess();
+
+        // ASSERT
+        assertThat(rejected, equalTo("failed"));
+        assertThat("Expired calls should not hold a permit", limitedClient.concurrencyLimiter().inFlight(), equalTo(0));
+        assertThat(limitedClient.concurrencyLimiter().rejectedCount(), equalTo(1L));
+        verify(call, never()).enqueue(any());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenTheCircuit() throws Exception {
+        // ARRANGE
+        Response<String> failure = createFailedResponse(404);
+        doReturn(failure).when(call).execute();
+
+        // ACT
+        for (int i = 0; i <= connector.circuitBreakerFailureThreshold(); i++) {
+            client.executeAndRetrieveBody(call, "failed");
+        }
+
+        // ASSERT
+        assertThat(client.circuitBreaker().state(), equalTo(CircuitBreaker.State.CLOSED));
+        verify(call, times(connector.circuitBreakerFailureThreshold() + 1)).execute();
+    }
+
     @Test
     public void testExecuteAndRetrieveBodyCannotReadBody() throws Exception {
         // ARRANGE
@@ -154,6 +275,241 @@ public class AbstractRemoteClientTest {
         }
     }
 
+    @Test
+    public void testExecuteAndRetrieveBodyAsyncSuccess() throws Exception {
+        // ARRANGE
+        respondAsync(call, createSuccessfulResponse());
+
+        // ACT
+        String response = client.executeAndRetrieveBodyAsync(call, "failed").join();
+
+        // ASSERT
+        assertThat(response, containsString("OK"));
+    }
+
+    @Test
+    public void testExecuteAndRetrieveBodyAsyncRetriesUnauthorized() throws Exception {
+        // ARRANGE
+        @SuppressWarnings("unchecked")
+        Call<String> retry = mock(Call.class);
+        doReturn(call.request()).when(retry).request();
+        doReturn(retry).when(call).clone();
+
+        respondAsync(call, createFailedResponse(401));
+        respondAsync(retry, createSuccessfulResponse());
+
+        // ACT
+        String response = client.executeAndRetrieveBodyAsync(call, "failed").join();
+
+        // ASSERT
+        assertThat(response, containsString("OK"));
+        verify(client).resetAuth();
+        verify(client).authenticate();
+    }
+
+    @Test
+    public void testExecuteAndRetrieveBodyAsyncReauthenticatesOnTheTokenRefresher() throws Exception {
+        // ARRANGE
+        @SuppressWarnings("unchecked")
+        Call<String> retry = mock(Call.class);
+        doReturn(call.request()).when(retry).request();
+        doReturn(retry).when(call).clone();
+
+        respondAsync(call, createFailedResponse(401));
+        respondAsync(retry, createSuccessfulResponse());
+
+        AtomicReference<String> authThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            authThread.set(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(client).authenticate();
+
+        // ACT
+        String response = client.executeAndRetrieveBodyAsync(call, "failed").join();
+
+        // ASSERT
+        assertThat(response, containsString("OK"));
+        assertThat("Authentication should not block the thread which received the response",
+                authThread.get().startsWith("RemoteClient-TokenRefresh-"), is(true));
+    }
+
+    @Test
+    public void testSlowAuthenticationDoesNotDelayOtherClients() throws Exception {
+        // ARRANGE
+        Connector slowConnector = ImmutableConnector.builder().from(connector).id("slow").build();
+        AbstractRemoteClientImpl slowClient = spy(new AbstractRemoteClientImpl(slowConnector, AbstractRemoteClientImpl.RetroService.class));
+
+        @SuppressWarnings("unchecked")
+        Call<String> slowCall = mock(Call.class);
+        doReturn(call.request()).when(slowCall).request();
+        doReturn(slowCall).when(slowCall).clone();
+        respondAsync(slowCall, createFailedResponse(401));
+
+        // the slow endpoint does not respond to authentication requests, until the test completes
+        CountDownLatch slowAuth = new CountDownLatch(1);
+        doAnswer(invocation -> slowAuth.await(5, TimeUnit.SECONDS)).when(slowClient).authenticate();
+
+        @SuppressWarnings("unchecked")
+        Call<String> retry = mock(Call.class);
+        doReturn(call.request()).when(retry).request();
+        doReturn(retry).when(call).clone();
+        respondAsync(call, createFailedResponse(401));
+        respondAsync(retry, createSuccessfulResponse());
+
+        // ACT
+        try {
+            slowClient.executeAndRetrieveBodyAsync(slowCall, "failed");
+            String response = client.executeAndRetrieveBodyAsync(call, "failed").get(1, TimeUnit.SECONDS);
+
+            // ASSERT
+            assertThat(response, containsString("OK"));
+
+        } finally {
+            slowAuth.countDown();
+        }
+    }
+
+    @Test
+    public void testAsyncRetryWaitsForAPermitWhileTheLimitIsReached() throws Exception {
+        // ARRANGE
+        Connector limitedConnector = ImmutableConnector.builder().from(connector)
+                .maxConcurrentRequests(1)
+                .concurrencyLimitWaitMillis(10_000L)
+                .build();
+        AbstractRemoteClientImpl limitedClient = spy(new AbstractRemoteClientImpl(limitedConnector, AbstractRemoteClientImpl.RetroService.class));
+
+        @SuppressWarnings("unchecked")
+        Call<String> retry = mock(Call.class);
+        doReturn(call.request()).when(retry).request();
+        doReturn(retry).when(call).clone();
+
+        respondAsync(call, createFailedResponse(401));
+        respondAsync(retry, createSuccessfulResponse());
+
+        // another request takes the only permit while the client re-authenticates, and completes later
+        doAnswer(invocation -> {
+            limitedClient.concurrencyLimiter().tryAcquire();
+            CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(100);
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                limitedClient.concurrencyLimiter().onSuccess();
+            });
+            return invocation.callRealMethod();
+        }).when(limitedClient).authenticate();
+
+        // ACT
+        String response = limitedClient.executeAndRetrieveBodyAsync(call, "failed").get(5, TimeUnit.SECONDS);
+
+        // ASSERT
+        assertThat(response, containsString("OK"));
+        assertThat(limitedClient.concurrencyLimiter().inFlight(), equalTo(0));
+        assertThat(limitedClient.concurrencyLimiter().rejectedCount(), equalTo(0L));
+        verify(retry).enqueue(any());
+    }
+
+    @Test
+    public void testExecuteAndRetrieveBodyAsyncAndFailUnauthorized() throws Exception {
+        // ARRANGE
+        respondAsync(call, createFailedResponse(401));
+        doReturn(call).when(call).clone();
+
+        // ACT
+        CompletableFuture<String> response = client.executeAndRetrieveBodyAsync(call, "failed");
+
+        // ASSERT
+        try {
+            response.join();
+            fail("Expected this call to fail");
+
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(UnauthorizedException.class));
+        }
+    }
+
+    @Test
+    public void testExecuteAndRetrieveBodyAsyncIOFailure() throws Exception {
+        // ARRANGE
+        doAnswer(invocation -> {
+            Callback<String> callback = invocation.getArgument(0);
+            callback.onFailure(call, new IOException("failed"));
+            return null;
+        }).when(call).enqueue(any());
+
+        // ACT
+        String response = client.executeAndRetrieveBodyAsync(call, "failed").join();
+
+        // ASSERT
+        assertThat(response, containsString("failed"));
+        verify(call).cancel();
+    }
+
+    @Test
+    public void testSlowCallIsHedged() throws Exception {
+        // ARRANGE
+        connector = ImmutableConnector.builder()
+                .id("connector")
+                .endpoint("http://localhost:8080/")
+                .password("".getBytes())
+                .hedgingBudgetPercent(100)
+                .build();
+        client = spy(new AbstractRemoteClientImpl(this.connector, AbstractRemoteClientImpl.RetroService.class));
+
+        // the original call only completes when cancelled, while the hedged call succeeds
+        AtomicReference<Callback<String>> originalCallback = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        doAnswer(invocation -> {
+            originalCallback.set(invocation.getArgument(0));
+            return null;
+        }).when(call).enqueue(any());
+        doAnswer(invocation -> cancelled.get()).when(call).isCanceled();
+        doAnswer(invocation -> {
+            cancelled.set(true);
+            originalCallback.get().onFailure(call, new IOException("Canceled"));
+            return null;
+        }).when(call).cancel();
+
+        @SuppressWarnings("unchecked")
+        Call<String> hedgedCall = mock(Call.class);
+        doReturn(call.request()).when(hedgedCall).request();
+        doReturn(hedgedCall).when(call).clone();
+        respondAsync(hedgedCall, createSuccessfulResponse());
+
+        // ACT
+        AtomicLong primaryLatency = new AtomicLong();
+        String response = client.executeAndRetrieveBodyHedgedAsync(call, "failed", TimeUnit.MILLISECONDS.toNanos(10), primaryLatency::set)
+                .get(5, TimeUnit.SECONDS);
+
+        // ASSERT
+        assertThat(response, equalTo("OK"));
+        verify(call).cancel();
+        assertThat("The original call's latency should be reported, even though the hedged call won",
+                primaryLatency.get(), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10)));
+        assertThat(client.hedgeBudget().hedgeCount(), equalTo(1L));
+        assertThat(client.hedgeBudget().hedgeWinCount(), equalTo(1L));
+        assertThat("Cancelled calls should release their permits", client.concurrencyLimiter().inFlight(), equalTo(0));
+    }
+
+    @Test
+    public void testFastCallIsNotHedged() throws Exception {
+        // ARRANGE
+        respondAsync(call, createSuccessfulResponse());
+
+        // ACT
+        AtomicLong primaryLatency = new AtomicLong(-1L);
+        String response = client.executeAndRetrieveBodyHedgedAsync(call, "failed", TimeUnit.SECONDS.toNanos(10), primaryLatency::set)
+                .get(5, TimeUnit.SECONDS);
+
+        // ASSERT
+        assertThat(response, equalTo("OK"));
+        verify(call, never()).clone();
+        assertThat(primaryLatency.get(), greaterThanOrEqualTo(0L));
+        assertThat(client.hedgeBudget().hedgeCount(), equalTo(0L));
+    }
+
     @Test
     public void testExecuteAndRetrieveHeaders() throws Exception {
         // ARRANGE
@@ -249,6 +605,87 @@ public class AbstractRemoteClientTest {
         assertThat("Cache key should be the connector id", cacheKey, equalTo("connector"));
     }
 
+    @Test
+    public void testAuthenticatedClientDoesNotAuthenticateAgain() throws Exception {
+        // ARRANGE
+        client.setAuth(true);
+
+        // ACT
+        boolean authenticated = client.authenticate();
+
+        // ASSERT
+        assertThat(authenticated, is(true));
+        verify(client, never()).auth();
+        assertThat(client.authStats().authenticationCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testAuthenticationsAreMeasured() throws Exception {
+        // ARRANGE
+        doReturn(false).doAnswer(authenticates()).when(client).auth();
+
+        // ACT
+        boolean firstAttempt = client.authenticate();
+        boolean secondAttempt = client.authenticate();
+
+        // ASSERT
+        assertThat(firstAttempt, is(false));
+        assertThat(secondAttempt, is(true));
+        AuthStats stats = client.authStats();
+        assertThat(stats.authenticationCount(), equalTo(2L));
+        assertThat(stats.failureCount(), equalTo(1L));
+        assertThat(stats.refreshCount(), equalTo(0L));
+        assertThat(stats.meanLatencyMillis(), greaterThanOrEqualTo(0.0));
+    }
+
+    @Test
+    public void testStaleTokenIsRefreshedInTheBackground() throws Exception {
+        // ARRANGE
+        connector = ImmutableConnector.builder()
+                .id("connector")
+                .endpoint("http://localhost:8080/")
+                .password("".getBytes())
+                .tokenRefreshIntervalMillis(1)
+                .build();
+        client = spy(new AbstractRemoteClientImpl(this.connector, AbstractRemoteClientImpl.RetroService.class));
+        doAnswer(authenticates()).when(client).auth();
+        client.authenticate();
+        Thread.sleep(5);
+
+        // ACT
+        boolean authenticated = client.authenticate();
+
+        // ASSERT
+        assertThat("The current token should be used while it is refreshed", authenticated, is(true));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (client.authStats().refreshCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(client.authStats().refreshCount(), equalTo(1L));
+        verify(client).refreshAuth();
+    }
+
+    /**
+     * Marks the client as authenticated, when called
+     */
+    private Answer<Boolean> authenticates() {
+        return invocation -> {
+            client.setAuth(true);
+            return true;
+        };
+    }
+
+    /**
+     * Completes the specified call with the specified response, when it is enqueued
+     */
+    private static void respondAsync(Call<String> call, Response<String> response) {
+        doAnswer(invocation -> {
+            Callback<String> callback = invocation.getArgument(0);
+            callback.onResponse(call, response);
+            return null;
+        }).when(call).enqueue(any());
+    }
+
     /**
      * Creates a failure response with the specified code
      */
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class CircuitBreakerTest {
+    private AtomicLong clock;
+    private CircuitBreaker breaker;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        clock = new AtomicLong();
+        breaker = new CircuitBreaker(2, 1000, clock::get);
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() throws Exception {
+        // ACT
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        // ASSERT
+        assertThat(breaker.state(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat("Requests should be rejected while the breaker is open", breaker.tryAcquire(), is(false));
+        assertThat(breaker.openCount(), equalTo(1L));
+        assertThat(breaker.rejectedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testSuccessResetsFailures() throws Exception {
+        // ACT
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        // ASSERT
+        assertThat(breaker.state(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void testSuccessfulProbeClosesTheBreaker() throws Exception {
+        // ARRANGE
+        breaker.onFailure();
+        breaker.onFailure();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // ACT
+        boolean probe = breaker.tryAcquire();
+        boolean concurrentRequest = breaker.tryAcquire();
+        breaker.onSuccess();
+
+        // ASSERT
+        assertThat(probe, is(true));
+        assertThat("Only one probe should be sent while half-open", concurrentRequest, is(false));
+        assertThat(breaker.state(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void testFailedProbeOpensTheBreaker() throws Exception {
+        // ARRANGE
+        breaker.onFailure();
+        breaker.onFailure();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // ACT
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        // ASSERT
+        assertThat(breaker.state(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+        assertThat(breaker.openCount(), equalTo(2L));
+    }
+
+    @Test
+    public void testDisabledBreakerNeverOpens() throws Exception {
+        // ARRANGE
+        CircuitBreaker disabled = new CircuitBreaker(0, 1000, clock::get);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            disabled.onFailure();
+        }
+
+        // ASSERT
+        assertThat(disabled.state(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(disabled.tryAcquire(), is(true));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class ConcurrencyLimiterTest {
+    @Test
+    public void testRequestsOverTheLimitAreRejected() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+
+        // ACT
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // ASSERT
+        assertThat(first, is(true));
+        assertThat(second, is(true));
+        assertThat(third, is(false));
+        assertThat(limiter.inFlight(), equalTo(2));
+        assertThat(limiter.rejectedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testRequestsWaitForPermitsToBeReleased() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        limiter.tryAcquire();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.onSuccess();
+        });
+
+        // ACT
+        releaser.start();
+        boolean acquired = limiter.tryAcquire(5, TimeUnit.SECONDS);
+        releaser.join();
+
+        // ASSERT
+        assertThat(acquired, is(true));
+        assertThat(limiter.inFlight(), equalTo(1));
+        assertThat(limiter.rejectedCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testRequestsAreRejectedIfNoPermitIsReleasedInTime() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        limiter.tryAcquire();
+
+        // ACT
+        boolean acquired = limiter.tryAcquire(10, TimeUnit.MILLISECONDS);
+
+        // ASSERT
+        assertThat(acquired, is(false));
+        assertThat(limiter.inFlight(), equalTo(1));
+        assertThat(limiter.rejectedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testFailuresDecreaseTheLimitMultiplicatively() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+
+        // ACT
+        limiter.tryAcquire();
+        limiter.onFailure();
+        limiter.tryAcquire();
+        limiter.onFailure();
+
+        // ASSERT
+        assertThat(limiter.limit(), equalTo(4));
+        assertThat(limiter.inFlight(), equalTo(0));
+    }
+
+    @Test
+    public void testLimitIsHalvedOncePerWindowOfFailures() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        // ACT
+        // all requests were in flight when the first one failed
+        for (int i = 0; i < 4; i++) {
+            limiter.onFailure();
+        }
+        int afterFirstWindow = limiter.limit();
+
+        limiter.tryAcquire();
+        limiter.onFailure();
+
+        // ASSERT
+        assertThat(afterFirstWindow, equalTo(8));
+        assertThat("Requests sent after the decrease should decrease the limit again", limiter.limit(), equalTo(4));
+        assertThat(limiter.inFlight(), equalTo(0));
+    }
+
+    @Test
+    public void testLimitDoesNotDropBelowOne() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.onFailure();
+        }
+
+        // ASSERT
+        assertThat(limiter.limit(), equalTo(1));
+        assertThat(limiter.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void testSuccessesRecoverTheLimitAdditively() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4);
+        limiter.tryAcquire();
+        limiter.onFailure();
+
+        // ACT
+        // each window of successful requests increases the limit by approximately one (2 -> 2.5 -> 2.9 -> 3.24)
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess();
+        }
+        int recovered = limiter.limit();
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess();
+        }
+
+        // ASSERT
+        assertThat(recovered, equalTo(3));
+        assertThat("The limit should not exceed its max value", limiter.limit(), equalTo(4));
+    }
+
+    @Test
+    public void testIgnoredRequestsDoNotChangeTheLimit() throws Exception {
+        // ARRANGE
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4);
+
+        // ACT
+        limiter.tryAcquire();
+        limiter.onIgnored();
+
+        // ASSERT
+        assertThat(limiter.limit(), equalTo(4));
+        assertThat(limiter.inFlight(), equalTo(0));
+    }
+}
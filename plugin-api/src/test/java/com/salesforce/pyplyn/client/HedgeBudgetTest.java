@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class HedgeBudgetTest {
+    @Test
+    public void testHedgesAreCappedAtTheBudget() throws Exception {
+        // ARRANGE
+        HedgeBudget budget = new HedgeBudget(10);
+        int hedges = 0;
+
+        // ACT
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        // ASSERT
+        assertThat(hedges, equalTo(10));
+        assertThat(budget.hedgeCount(), equalTo(10L));
+        assertThat(budget.requestCount(), equalTo(100L));
+    }
+
+    @Test
+    public void testUnusedBudgetCannotBeSpentInOneBurst() throws Exception {
+        // ARRANGE
+        HedgeBudget budget = new HedgeBudget(10);
+        for (int i = 0; i < 1_000; i++) {
+            budget.onRequest();
+        }
+        int hedges = 0;
+
+        // ACT
+        while (budget.tryAcquire()) {
+            hedges++;
+        }
+
+        // ASSERT
+        assertThat(hedges, equalTo(HedgeBudget.MAX_BURST));
+    }
+
+    @Test
+    public void testNoHedgesAreSentWithoutBudget() throws Exception {
+        // ARRANGE
+        HedgeBudget budget = new HedgeBudget(0);
+        budget.onRequest();
+
+        // ACT
+        boolean hedged = budget.tryAcquire();
+
+        // ASSERT
+        assertThat(hedged, is(false));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class HttpTransportTest {
+    private HttpServer server;
+    private String url;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // ARRANGE
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "OK".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    @Test
+    public void testClientsShareConnections() throws Exception {
+        // ARRANGE
+        HttpTransport transport = new HttpTransport();
+        OkHttpClient first = transport.newBuilder().build();
+        OkHttpClient second = transport.newBuilder().build();
+
+        // ACT
+        get(first);
+        get(second);
+        get(first);
+        get(second);
+
+        // ASSERT
+        assertThat(transport.requestCount(), equalTo(4L));
+        assertThat("A single connection should be opened and reused by both clients", transport.newConnectionCount(), equalTo(1L));
+        assertThat(transport.connectionReuseRate(), closeTo(0.75, 0.001));
+        assertThat(transport.connectionCount(), equalTo(1));
+        assertThat(transport.idleConnectionCount(), equalTo(1));
+    }
+
+    @Test
+    public void testReuseRateIsZeroWithoutRequests() throws Exception {
+        // ACT
+        HttpTransport transport = new HttpTransport();
+
+        // ASSERT
+        assertThat(transport.connectionReuseRate(), equalTo(0.0));
+    }
+
+    @Test
+    public void testDefaultTransportIsShared() throws Exception {
+        // ASSERT
+        assertThat(HttpTransport.defaultTransport(), sameInstance(HttpTransport.defaultTransport()));
+    }
+
+
+    /**
+     * Executes a GET request and consumes its response, releasing the connection back into the pool
+     */
+    private void get(OkHttpClient client) throws Exception {
+        try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            assertThat(response.body().string(), equalTo("OK"));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class MessageTest {
+    @Test
+    public void testMessagesAreOnlyRenderedOnceWhenRequested() throws Exception {
+        // ARRANGE
+        AtomicInteger renders = new AtomicInteger();
+        Message message = Message.format("%s=%s %.2f", "metric", Message.lazy(() -> {
+            renders.incrementAndGet();
+            return "1.00";
+        }), 2d);
+
+        // ACT
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder()
+                .addMessageTemplates(Message.of("first"), message)
+                .build();
+
+        // ASSERT
+        assertThat("The message should not be rendered before it is requested", renders.get(), equalTo(0));
+        assertThat(metadata.messages(), contains("first", "metric=1.00 2.00"));
+        assertThat(message.render(), equalTo("metric=1.00 2.00"));
+        assertThat(renders.get(), equalTo(1));
+    }
+
+    @Test
+    public void testRenderedMessagesCanBeAddedToTheBuilder() throws Exception {
+        // ACT
+        Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder()
+                .addMessages("first", "second")
+                .addAllMessages(Collections.singletonList("third"))
+                .build();
+
+        // ASSERT
+        assertThat(metadata.messages(), contains("first", "second", "third"));
+    }
+
+    @Test
+    public void testMessagesAreComparedWithoutRendering() throws Exception {
+        // ARRANGE
+        AtomicInteger renders = new AtomicInteger();
+        Message lazy = Message.lazy(() -> {
+            renders.incrementAndGet();
+            return "a-b";
+        });
+
+        // ACT
+        Message formatted = Message.format("%s-%s", "a", lazy);
+
+        // ASSERT
+        assertThat(formatted, equalTo(Message.format("%s-%s", "a", lazy)));
+        assertThat(formatted.hashCode(), equalTo(Message.format("%s-%s", "a", lazy).hashCode()));
+        assertThat(formatted, not(equalTo(Message.format("%s-%s", "a", Message.lazy(() -> "a-b")))));
+        assertThat(Message.of("a-b"), equalTo(Message.of("a-b")));
+        assertThat(Message.of("a-b"), not(equalTo(lazy)));
+        assertThat("Messages should not be rendered when compared", renders.get(), equalTo(0));
+        assertThat(formatted.toString(), equalTo("a-a-b"));
+    }
+
+    @Test
+    public void testMessagesRenderedByTheSameFunctionAreEqualForEqualValues() throws Exception {
+        // ARRANGE
+        Function<Double, String> renderer = value -> String.format("%.2f", value);
+
+        // ACT
+        Message first = Message.lazy(renderer, 1d);
+        Message second = Message.lazy(renderer, 1d);
+
+        // ASSERT
+        assertThat(first, equalTo(second));
+        assertThat(first.hashCode(), equalTo(second.hashCode()));
+        assertThat(first, not(equalTo(Message.lazy(renderer, 2d))));
+        assertThat(first.render(), equalTo("1.00"));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class TimeSeriesTest {
+    private final Transmutation.Metadata metadata = ImmutableTransmutation.Metadata.builder().putTags("key", "value").build();
+
+    @Test
+    public void testColumnsAreConvertedToTransmutations() throws Exception {
+        // ARRANGE
+        TimeSeries series = TimeSeries.of("metric", metadata, new long[]{1000L, 2000L}, new double[]{1.5d, 2.5d});
+
+        // ACT
+        List<Transmutation> points = series.toTransmutations();
+
+        // ASSERT
+        assertThat(points, hasSize(2));
+        assertThat(points.get(1).time(), equalTo(Instant.ofEpochMilli(2000L).atZone(ZoneOffset.UTC)));
+        assertThat(points.get(1).name(), equalTo("metric"));
+        assertThat(points.get(1).value(), equalTo(2.5d));
+        assertThat(points.get(1).originalValue(), equalTo(2.5d));
+        assertThat(points.get(1).metadata(), sameInstance(metadata));
+    }
+
+    @Test
+    public void testMatrixConversionIsLossless() throws Exception {
+        // ARRANGE
+        ZonedDateTime time = ZonedDateTime.of(2017, 1, 1, 0, 0, 0, 123_456_789, ZoneOffset.ofHours(2));
+        List<Transmutation> row = Arrays.asList(
+                ImmutableTransmutation.of(time, "first", 1, 1L, metadata),
+                ImmutableTransmutation.of(time.plusSeconds(1), "second", 2L, 2, ImmutableTransmutation.Metadata.builder().build()));
+        List<List<Transmutation>> matrix = Arrays.asList(row, Collections.emptyList());
+
+        // ACT
+        List<TimeSeries> batch = TimeSeries.fromMatrix(matrix);
+
+        // ASSERT
+        assertThat(batch, hasSize(2));
+        assertThat(batch.get(0).name(), equalTo("first"));
+        assertThat(batch.get(0).value(1), equalTo(2d));
+        assertThat(batch.get(0).timeMillis(1), equalTo(time.plusSeconds(1).toInstant().toEpochMilli()));
+        assertThat(batch.get(1).isEmpty(), is(true));
+        assertThat(TimeSeries.toMatrix(batch), equalTo(matrix));
+    }
+
+    @Test
+    public void testSlicesKeepTheirRepresentation() throws Exception {
+        // ARRANGE
+        TimeSeries columns = TimeSeries.of("metric", metadata, new long[]{1L, 2L, 3L}, new double[]{1d, 2d, 3d}, new double[]{4d, 5d, 6d});
+        TimeSeries row = TimeSeries.fromTransmutations(columns.toTransmutations());
+
+        // ACT
+        TimeSeries slicedColumns = columns.slice(2, 3);
+        TimeSeries slicedRow = row.slice(2, 3);
+
+        // ASSERT
+        assertThat(slicedColumns.size(), equalTo(1));
+        assertThat(slicedColumns.timeMillis(0), equalTo(3L));
+        assertThat(slicedColumns.originalValue(0), equalTo(6d));
+        assertThat(slicedRow, equalTo(slicedColumns));
+        assertThat(slicedRow.transmutation(0), sameInstance(row.transmutation(2)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testColumnsShouldHaveTheSameLength() throws Exception {
+        // ACT/ASSERT
+        TimeSeries.of("metric", metadata, new long[]{1L, 2L}, new double[]{1d});
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2016-2017, Salesforce.com, Inc.
+ *  All rights reserved.
+ *  Licensed under the BSD 3-Clause license.
+ *  For full license text, see the LICENSE.txt file in repo root
+ *    or https://opensource.org/licenses/BSD-3-Clause
+ */
+
+package com.salesforce.pyplyn.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test class
+ *
+ * @author Mihai Bojin &lt;mbojin@salesforce.com&gt;
+ * @since 10.1.0
+ */
+public class TransmutationTest {
+    @Test
+    public void testPrimitiveViewsMatchTheirObjects() throws Exception {
+        // ARRANGE
+        ZonedDateTime time = ZonedDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_789, ZoneOffset.ofHours(-7));
+
+        // ACT
+        Transmutation result = ImmutableTransmutation.of(time, "metric", 2L, 1.5d, ImmutableTransmutation.Metadata.builder().build());
+
+        // ASSERT
+        assertThat(result.timeMillis(), equalTo(time.toInstant().toEpochMilli()));
+        assertThat(result.doubleValue(), equalTo(2d));
+        assertThat(result.originalDoubleValue(), equalTo(1.5d));
+    }
+
+    @Test
+    public void testPrimitiveViewsAreUpdatedWhenCopying() throws Exception {
+        // ARRANGE
+        Transmutation result = ImmutableTransmutation.of(ZonedDateTime.now(ZoneOffset.UTC), "metric", 1, 1,
+                ImmutableTransmutation.Metadata.builder().build());
+
+        // ACT
+        Transmutation changed = ImmutableTransmutation.builder().from(result).value(3.5d).build();
+
+        // ASSERT
+        assertThat(changed.doubleValue(), equalTo(3.5d));
+        assertThat(changed.originalDoubleValue(), equalTo(1d));
+        assertThat(changed.timeMillis(), equalTo(result.timeMillis()));
+    }
+}
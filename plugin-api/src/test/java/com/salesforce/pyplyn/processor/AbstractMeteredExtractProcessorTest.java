@@ -12,6 +12,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Mockito.*;
 
 import java.util.Collection;
@@ -27,6 +28,7 @@ import org.testng.annotations.Test;
 
 import com.codahale.metrics.Meter;
 import com.salesforce.pyplyn.model.ExtractImpl;
+import com.salesforce.pyplyn.model.TimeSeries;
 import com.salesforce.pyplyn.model.Transmutation;
 import com.salesforce.pyplyn.status.SystemStatus;
 
@@ -74,6 +76,20 @@ public class AbstractMeteredExtractProcessorTest {
         assertThat("Expecting no results", result.isPresent(), is(false));
     }
 
+    @Test
+    public void testBatchesAreProcessedWithProcessBatch() throws Exception {
+        // ARRANGE
+        List<TimeSeries> batch = singletonList(TimeSeries.fromTransmutations(emptyList()));
+        doReturn(batch).when(processor).processBatch(any());
+
+        // ACT
+        List<TimeSeries> processed = processor.executeBatchAsync(singletonList(new ExtractImpl("id"))).blockingFirst();
+
+        // ASSERT
+        assertThat("The batch returned by processBatch should be returned", processed, sameInstance(batch));
+        verify(processor, times(0)).process(any());
+    }
+
     @Test
     public void testMetersRetrievedAndMarkIsDelegated() throws Exception {
         // ARRANGE
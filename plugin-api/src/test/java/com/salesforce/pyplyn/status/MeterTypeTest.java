@@ -37,4 +37,14 @@ public class MeterTypeTest {
         assertThat(successAlertType, equalTo(ThresholdType.LESS_THAN));
         assertThat(failureAlertType, equalTo(ThresholdType.GREATER_THAN));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSuppressedLoadsAreInformational() throws Exception {
+        // ACT
+        boolean informational = MeterType.LoadSuppressed.isInformational();
+
+        // ASSERT
+        assertThat(informational, equalTo(true));
+        assertThat(MeterType.LoadFailure.isInformational(), equalTo(false));
+    }
+}
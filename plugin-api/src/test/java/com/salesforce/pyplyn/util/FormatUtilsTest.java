@@ -12,11 +12,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.testng.AssertJUnit.fail;
 
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
 import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import org.testng.annotations.Test;
 
@@ -238,6 +242,110 @@ public class FormatUtilsTest {
         assertThat(defaultMessage, allOf(containsString("metric"), containsString("1234")));
     }
 
+    @Test
+    public void testParseUTCDateTimeWithFraction() throws Exception {
+        // ARRANGE
+        List<String> dates = Arrays.asList("2016-12-31T12:13:14.1Z", "2016-12-31T12:13:14.123Z",
+                "2016-12-31T12:13:14.123456789Z", "2016-02-29T00:00:00Z", "2016-12-31T23:59:59.999-07:00");
+
+        for (String date : dates) {
+            // ACT
+            ZonedDateTime dateTime = FormatUtils.parseUTCTime(date);
+
+            // ASSERT
+            assertThat(date, dateTime, equalTo(ZonedDateTime.parse(date).withZoneSameInstant(ZoneOffset.UTC)));
+        }
+    }
+
+    @Test
+    public void testParseUTCTimeReturnsTheSameValuesAsLongParseLong() throws Exception {
+        // ARRANGE
+        List<String> values = Arrays.asList("0", "-0", "+0", "007", "1500000000000", "+1500000000000", "-1500000000000",
+                "999999999999999999", "1234567890123456789", "+1234567890123456789", "-1234567890123456789",
+                "9223372036854775807", "-9223372036854775808");
+
+        for (String value : values) {
+            // ACT
+            ZonedDateTime dateTime = FormatUtils.parseUTCTime(value);
+
+            // ASSERT
+            assertThat(value, dateTime, equalTo(legacyParseUTCTime(value)));
+        }
+    }
+
+    @Test(expectedExceptions = DateTimeParseException.class)
+    public void testParseOutOfRangeMillisFail() throws Exception {
+        // ARRANGE
+        String millis = "9223372036854775808";
+
+        // ACT/ASSERT
+        FormatUtils.parseUTCTime(millis);
+    }
+
+    @Test(expectedExceptions = DateTimeParseException.class)
+    public void testParseOutOfRangeDateTimeFail() throws Exception {
+        // ARRANGE
+        String date = "2017-02-29T12:13:14Z";
+
+        // ACT/ASSERT
+        FormatUtils.parseUTCTime(date);
+    }
+
+    @Test
+    public void testParseNumberReturnsTheSameValuesAsNumberFormat() throws Exception {
+        // ARRANGE
+        NumberFormat numberFormat = NumberFormat.getInstance(Locale.ROOT);
+        List<String> values = Arrays.asList("0", "-0", "0.0", "-0.0", "007", "1.00", "-1.50", "123.456",
+                "0.1", "-0.000001", "922337203685477580", "-922337203685477580", "9223372036854775807",
+                "-9223372036854775808", "9223372036854775808", "12345678901234567890.5", "1,234.5", "1E3",
+                "1.", ".5", "12abc", "1.2.3", "3.141592653589793238");
+
+        for (String value : values) {
+            // ACT
+            Number number = FormatUtils.parseNumber(value);
+
+            // ASSERT
+            assertThat(value, number, equalTo(numberFormat.parse(value)));
+        }
+    }
+
+    @Test
+    public void testFormatNumberReturnsTheSameValuesAsDecimalFormat() throws Exception {
+        // ARRANGE
+        DecimalFormat decimalFormat = new DecimalFormat("0.00##", DecimalFormatSymbols.getInstance(Locale.ROOT));
+        List<Number> values = new ArrayList<>(Arrays.asList(0, 0L, 0.0d, -0.0d, 1, -1L, Long.MIN_VALUE, Long.MAX_VALUE,
+                0.001d, -0.001d, 0.00049d, 0.00005d, 0.00015d, 0.00025d, 1.23455d, 1.23445d, 1.00005d, 9.99995d,
+                -9.99996d, 0.1f, 1e7d, 9999999.99996d, 1e-5d, 1e20d, Double.NaN, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE));
+
+        // also compare random values, of varying magnitudes
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double value = random.nextDouble() * Math.pow(10, random.nextInt(14) - 4);
+            values.add(random.nextBoolean() ? value : -value);
+        }
+
+        for (Number value : values) {
+            // ACT
+            String formatted = FormatUtils.formatNumber(value);
+
+            // ASSERT
+            assertThat(String.valueOf(value), formatted, equalTo(decimalFormat.format(value)));
+        }
+    }
+
+    /**
+     * The implementation of {@link FormatUtils#parseUTCTime(String)} used before fast paths were added
+     */
+    private static ZonedDateTime legacyParseUTCTime(String value) {
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(value)).atZone(ZoneOffset.UTC);
+
+        } catch (NumberFormatException e) {
+            return ZonedDateTime.parse(value).withZoneSameInstant(ZoneOffset.UTC);
+        }
+    }
+
     /**
      * Runs the expected assertions
      * @param entry